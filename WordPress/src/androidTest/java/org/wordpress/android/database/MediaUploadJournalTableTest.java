@@ -0,0 +1,78 @@
+package org.wordpress.android.database;
+
+import android.content.Context;
+import android.test.InstrumentationTestCase;
+import android.test.RenamingDelegatingContext;
+
+import org.wordpress.android.TestUtils;
+import org.wordpress.android.WordPress;
+import org.wordpress.android.WordPressDB;
+import org.wordpress.android.datasets.MediaUploadJournalTable;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.List;
+
+public class MediaUploadJournalTableTest extends InstrumentationTestCase {
+    private static final String BLOG_ID = "1";
+    private static final String MEDIA_ID = "42";
+
+    private File mFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Context targetContext = new RenamingDelegatingContext(getInstrumentation().getTargetContext(), "test_");
+        TestUtils.dropDB(targetContext);
+        WordPress.wpDB = new WordPressDB(targetContext);
+
+        mFile = File.createTempFile("wp-journal-test", ".bin", getInstrumentation().getTargetContext().getCacheDir());
+        writeFile(1024);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mFile.delete();
+        super.tearDown();
+    }
+
+    private void writeFile(int length) throws Exception {
+        FileOutputStream outStream = new FileOutputStream(mFile);
+        outStream.write(new byte[length]);
+        outStream.close();
+    }
+
+    public void testInterruptedUploadIsResumable() {
+        assertEquals(1, MediaUploadJournalTable.beginAttempt(BLOG_ID, MEDIA_ID, mFile.getPath()));
+        MediaUploadJournalTable.setBytesSent(BLOG_ID, MEDIA_ID, 512);
+
+        assertTrue(MediaUploadJournalTable.isResumable(BLOG_ID, MEDIA_ID));
+        assertEquals(512, MediaUploadJournalTable.getBytesSent(BLOG_ID, MEDIA_ID));
+        List<String> resumable = MediaUploadJournalTable.getResumableUploads(BLOG_ID);
+        assertEquals(1, resumable.size());
+        assertEquals(MEDIA_ID, resumable.get(0));
+    }
+
+    public void testAttemptsAreLimited() {
+        for (int i = 1; i <= MediaUploadJournalTable.MAX_ATTEMPTS; i++) {
+            assertEquals(i, MediaUploadJournalTable.beginAttempt(BLOG_ID, MEDIA_ID, mFile.getPath()));
+        }
+        assertFalse(MediaUploadJournalTable.isResumable(BLOG_ID, MEDIA_ID));
+        assertEquals(0, MediaUploadJournalTable.getResumableUploads(BLOG_ID).size());
+    }
+
+    public void testChangedFileIsNotResumable() throws Exception {
+        MediaUploadJournalTable.beginAttempt(BLOG_ID, MEDIA_ID, mFile.getPath());
+        writeFile(2048);
+        assertFalse(MediaUploadJournalTable.isResumable(BLOG_ID, MEDIA_ID));
+
+        // a changed file starts counting attempts again
+        assertEquals(1, MediaUploadJournalTable.beginAttempt(BLOG_ID, MEDIA_ID, mFile.getPath()));
+    }
+
+    public void testCompletedUploadIsRemoved() {
+        MediaUploadJournalTable.beginAttempt(BLOG_ID, MEDIA_ID, mFile.getPath());
+        MediaUploadJournalTable.removeUpload(BLOG_ID, MEDIA_ID);
+        assertFalse(MediaUploadJournalTable.isResumable(BLOG_ID, MEDIA_ID));
+    }
+}
@@ -0,0 +1,50 @@
+package org.wordpress.android.database;
+
+import android.content.Context;
+import android.test.InstrumentationTestCase;
+import android.test.RenamingDelegatingContext;
+
+import org.wordpress.android.TestUtils;
+import org.wordpress.android.WordPress;
+import org.wordpress.android.WordPressDB;
+import org.wordpress.android.datasets.PostAutosaveJournalTable;
+
+public class PostAutosaveJournalTableTest extends InstrumentationTestCase {
+    private static final long POST_ID = 7;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Context targetContext = new RenamingDelegatingContext(getInstrumentation().getTargetContext(), "test_");
+        TestUtils.dropDB(targetContext);
+        WordPress.wpDB = new WordPressDB(targetContext);
+    }
+
+    public void testChangesAreReplayed() {
+        PostAutosaveJournalTable.addChanges(POST_ID, null, "Title", null, "<p>Hello world</p>");
+        PostAutosaveJournalTable.addChanges(POST_ID, "Title", "New title", "<p>Hello world</p>",
+                "<p>Hello there, world</p>");
+        PostAutosaveJournalTable.addChanges(POST_ID, "New title", "New title", "<p>Hello there, world</p>",
+                "<p>Hello</p>");
+
+        assertEquals("New title", PostAutosaveJournalTable.getTitle(POST_ID));
+        assertEquals("<p>Hello</p>", PostAutosaveJournalTable.getContent(POST_ID));
+    }
+
+    public void testUnchangedFieldsAreNotJournaled() {
+        PostAutosaveJournalTable.addChanges(POST_ID, null, "Title", null, "Content");
+        assertEquals(2, PostAutosaveJournalTable.getNumChanges(POST_ID));
+
+        PostAutosaveJournalTable.addChanges(POST_ID, "Title", "Title", "Content", "Content");
+        assertEquals(2, PostAutosaveJournalTable.getNumChanges(POST_ID));
+    }
+
+    public void testClearedJournalHasNoChanges() {
+        PostAutosaveJournalTable.addChanges(POST_ID, null, "Title", null, "Content");
+        assertTrue(PostAutosaveJournalTable.hasChanges(POST_ID));
+
+        PostAutosaveJournalTable.clearChanges(POST_ID);
+        assertFalse(PostAutosaveJournalTable.hasChanges(POST_ID));
+        assertEquals("", PostAutosaveJournalTable.getContent(POST_ID));
+    }
+}
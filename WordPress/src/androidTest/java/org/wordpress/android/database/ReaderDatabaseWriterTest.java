@@ -0,0 +1,101 @@
+package org.wordpress.android.database;
+
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.datasets.ReaderDatabase;
+import org.wordpress.android.datasets.ReaderTagTable;
+import org.wordpress.android.models.ReaderTag;
+import org.wordpress.android.models.ReaderTagType;
+
+import java.util.concurrent.CountDownLatch;
+
+public class ReaderDatabaseWriterTest extends InstrumentationTestCase {
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ReaderDatabase.reset();
+    }
+
+    public void testAwaitWritesSeesQueuedWrites() {
+        for (int i = 0; i < 100; i++) {
+            final ReaderTag tag = createTag(i);
+            ReaderDatabase.writeAsync(new Runnable() {
+                @Override
+                public void run() {
+                    ReaderTagTable.addOrUpdateTag(tag);
+                }
+            });
+        }
+
+        ReaderDatabase.awaitWrites();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(ReaderTagTable.tagExists(createTag(i)));
+        }
+    }
+
+    public void testConcurrentWritesAreBatched() throws InterruptedException {
+        final int numThreads = 8;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch queuedLatch = new CountDownLatch(numThreads);
+        long numBatchesBefore = ReaderDatabase.getNumWriteBatches();
+
+        for (int i = 0; i < numThreads; i++) {
+            final ReaderTag tag = createTag(i);
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    ReaderDatabase.writeAsync(new Runnable() {
+                        @Override
+                        public void run() {
+                            ReaderTagTable.addOrUpdateTag(tag);
+                        }
+                    });
+                    queuedLatch.countDown();
+                }
+            }.start();
+        }
+
+        startLatch.countDown();
+        queuedLatch.await();
+        ReaderDatabase.awaitWrites();
+
+        long numBatches = ReaderDatabase.getNumWriteBatches() - numBatchesBefore;
+        assertTrue("expected fewer than " + numThreads + " batches, got " + numBatches, numBatches < numThreads);
+        for (int i = 0; i < numThreads; i++) {
+            assertTrue(ReaderTagTable.tagExists(createTag(i)));
+        }
+    }
+
+    public void testFailedWriteOnlyLosesItsOwnChanges() {
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                ReaderTagTable.addOrUpdateTag(createTag(1));
+            }
+        });
+        try {
+            ReaderDatabase.write(new Runnable() {
+                @Override
+                public void run() {
+                    ReaderTagTable.addOrUpdateTag(createTag(2));
+                    throw new IllegalStateException("write failed");
+                }
+            });
+            fail("write should rethrow the exception");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertTrue(ReaderTagTable.tagExists(createTag(1)));
+        assertFalse(ReaderTagTable.tagExists(createTag(2)));
+    }
+
+    private static ReaderTag createTag(int i) {
+        return new ReaderTag("tag-" + i, "Tag " + i, "Tag " + i, "", ReaderTagType.FOLLOWED);
+    }
+}
@@ -1,17 +1,197 @@
 package org.wordpress.android.database;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
 import android.test.InstrumentationTestCase;
 import android.test.RenamingDelegatingContext;
 
+import org.wordpress.android.TestUtils;
+import org.wordpress.android.WordPressDB;
+import org.wordpress.android.models.PostsListPost;
+import org.wordpress.android.models.PostsListPostList;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.SqlUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public class WordPressDBTest extends InstrumentationTestCase {
     protected Context testContext;
     protected Context targetContext;
 
+    private static final int LOCAL_BLOG_ID = 1;
+    private static final int NUM_BENCHMARK_POSTS = 1000;
+
     @Override
     protected void setUp() {
         // Run tests in an isolated context
         targetContext = new RenamingDelegatingContext(getInstrumentation().getTargetContext(), "test_");
         testContext = getInstrumentation().getContext();
     }
+
+    private WordPressDB createEmptyDB() {
+        TestUtils.dropDB(targetContext);
+        return new WordPressDB(targetContext);
+    }
+
+    private static List<Map<String, Object>> createPostMaps(int numPosts, String title) {
+        List<Map<String, Object>> posts = new ArrayList<>();
+        for (int i = 0; i < numPosts; i++) {
+            Map<String, Object> post = new HashMap<>();
+            post.put("postid", String.valueOf(i + 1));
+            post.put("title", title + " " + i);
+            post.put("dateCreated", new Date());
+            post.put("description", "<p>Content of post " + i + "</p>");
+            post.put("post_status", "publish");
+            post.put("categories", new Object[]{"Uncategorized", "Category " + (i % 10)});
+            post.put("mt_allow_comments", 1);
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    private static int getPostCount(WordPressDB wpDB) {
+        return SqlUtils.intForQuery(wpDB.getDatabase(), "SELECT COUNT(*) FROM posts", null);
+    }
+
+    public void testSavePostsUpdatesExistingPosts() {
+        WordPressDB wpDB = createEmptyDB();
+        wpDB.savePosts(createPostMaps(10, "first"), LOCAL_BLOG_ID, false, false);
+        wpDB.savePosts(createPostMaps(10, "second"), LOCAL_BLOG_ID, false, false);
+
+        assertEquals(10, getPostCount(wpDB));
+        String title = SqlUtils.stringForQuery(wpDB.getDatabase(),
+                "SELECT title FROM posts WHERE postid='1'", null);
+        assertEquals("second 0", title);
+    }
+
+    public void testSavePostsKeepsLocalChanges() {
+        WordPressDB wpDB = createEmptyDB();
+        wpDB.savePosts(createPostMaps(10, "first"), LOCAL_BLOG_ID, false, false);
+        wpDB.getDatabase().execSQL("UPDATE posts SET isLocalChange=1, title='local' WHERE postid='1'");
+
+        wpDB.savePosts(createPostMaps(10, "second"), LOCAL_BLOG_ID, false, false);
+        assertEquals("local", SqlUtils.stringForQuery(wpDB.getDatabase(),
+                "SELECT title FROM posts WHERE postid='1'", null));
+
+        wpDB.savePosts(createPostMaps(10, "third"), LOCAL_BLOG_ID, false, true);
+        assertEquals("third 0", SqlUtils.stringForQuery(wpDB.getDatabase(),
+                "SELECT title FROM posts WHERE postid='1'", null));
+        assertEquals(10, getPostCount(wpDB));
+    }
+
+    public void testPostsListPaging() {
+        WordPressDB wpDB = createEmptyDB();
+        wpDB.savePosts(createPostMaps(10, "paged"), LOCAL_BLOG_ID, false, false);
+
+        Set<Long> postIds = new HashSet<>();
+        PostsListPost lastPost = null;
+        PostsListPostList page;
+        do {
+            page = wpDB.getPostsListPosts(LOCAL_BLOG_ID, false, lastPost, 4);
+            for (PostsListPost post : page) {
+                assertTrue(postIds.add(post.getPostId()));
+                assertTrue(post.hasExcerpt());
+            }
+            if (page.size() > 0) {
+                lastPost = page.get(page.size() - 1);
+            }
+        } while (page.size() == 4);
+
+        assertEquals(10, postIds.size());
+    }
+
+    private static String getFeaturedImageUrl(WordPressDB wpDB, String postId) {
+        return SqlUtils.stringForQuery(wpDB.getDatabase(),
+                "SELECT IFNULL(featured_image_url, 'unresolved') FROM posts WHERE postid=?", new String[]{postId});
+    }
+
+    public void testFeaturedImageUrlIsResolved() {
+        WordPressDB wpDB = createEmptyDB();
+        List<Map<String, Object>> postMaps = createPostMaps(2, "featured");
+        postMaps.get(0).put("wp_post_thumbnail", 7);
+        wpDB.savePosts(postMaps, LOCAL_BLOG_ID, false, false);
+
+        // the featured image isn't in the media library yet
+        assertEquals("unresolved", getFeaturedImageUrl(wpDB, "1"));
+        assertEquals("", getFeaturedImageUrl(wpDB, "2"));
+
+        wpDB.getDatabase().execSQL("INSERT INTO media (postID, blogId, mediaId, thumbnailURL)"
+                + " VALUES (0, '" + LOCAL_BLOG_ID + "', '7', 'http://example.com/7.jpg')");
+        wpDB.resolvePostsFeaturedImageUrls(LOCAL_BLOG_ID);
+        assertEquals("http://example.com/7.jpg", getFeaturedImageUrl(wpDB, "1"));
+
+        // syncing the same featured image keeps the url, changing it resolves it again
+        wpDB.savePosts(postMaps, LOCAL_BLOG_ID, false, false);
+        assertEquals("http://example.com/7.jpg", getFeaturedImageUrl(wpDB, "1"));
+        postMaps.get(0).put("wp_post_thumbnail", 8);
+        wpDB.savePosts(postMaps, LOCAL_BLOG_ID, false, false);
+        assertEquals("unresolved", getFeaturedImageUrl(wpDB, "1"));
+    }
+
+    /*
+     * the way posts were saved before compiled statements - a ContentValues update, then a local
+     * changes query and an insert for each post that didn't exist
+     */
+    private static void savePostsPerRow(SQLiteDatabase db, List<ContentValues> valuesList) {
+        db.beginTransaction();
+        try {
+            for (ContentValues values : valuesList) {
+                String postID = values.getAsString("postid");
+                values.put("blogID", LOCAL_BLOG_ID);
+                String[] args = {String.valueOf(LOCAL_BLOG_ID), postID, "0"};
+                int updateResult = db.update("posts", values, "blogID=? AND postID=? AND isPage=? AND NOT isLocalChange=1", args);
+                if (updateResult == 0) {
+                    String[] localArgs = {String.valueOf(LOCAL_BLOG_ID), postID};
+                    boolean hasLocalChanges = SqlUtils.boolForQuery(db,
+                            "SELECT 1 FROM posts WHERE blogID=? AND postid=? AND isLocalChange=1", localArgs);
+                    if (!hasLocalChanges) {
+                        db.insert("posts", null, values);
+                    }
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /*
+     * syncs the same posts twice (insert, then update) using both approaches - results are
+     * written to the log
+     */
+    public void testBenchmarkSavePosts() {
+        List<Map<String, Object>> postMaps = createPostMaps(NUM_BENCHMARK_POSTS, "benchmark");
+
+        WordPressDB wpDB = createEmptyDB();
+        long start = SystemClock.elapsedRealtime();
+        for (int i = 0; i < 2; i++) {
+            List<ContentValues> valuesList = new ArrayList<>();
+            for (Map<String, Object> postMap : postMaps) {
+                valuesList.add(WordPressDB.getPostSchema(false).toValues(postMap));
+            }
+            savePostsPerRow(wpDB.getDatabase(), valuesList);
+        }
+        long perRowTime = SystemClock.elapsedRealtime() - start;
+        assertEquals(NUM_BENCHMARK_POSTS, getPostCount(wpDB));
+
+        wpDB = createEmptyDB();
+        start = SystemClock.elapsedRealtime();
+        for (int i = 0; i < 2; i++) {
+            wpDB.savePosts(postMaps, LOCAL_BLOG_ID, false, false);
+        }
+        long compiledTime = SystemClock.elapsedRealtime() - start;
+        assertEquals(NUM_BENCHMARK_POSTS, getPostCount(wpDB));
+
+        AppLog.i(T.TESTS, String.format("savePosts benchmark (%d posts) > per row %d ms, compiled %d ms",
+                NUM_BENCHMARK_POSTS, perRowTime, compiledTime));
+    }
 }
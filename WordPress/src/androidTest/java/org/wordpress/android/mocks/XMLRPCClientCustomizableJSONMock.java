@@ -1,20 +1,28 @@
 package org.wordpress.android.mocks;
 
+import android.content.ContentValues;
+
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 import org.wordpress.android.TestUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.xmlpull.v1.XmlPullParserException;
 import org.xmlrpc.android.LoggedInputStream;
+import org.xmlrpc.android.XMLRPCBatch;
 import org.xmlrpc.android.XMLRPCCallback;
 import org.xmlrpc.android.XMLRPCException;
+import org.xmlrpc.android.XMLRPCExecutor;
+import org.xmlrpc.android.XMLRPCSchema;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class XMLRPCClientCustomizableJSONMock extends XMLRPCClientCustomizableMockAbstract {
     private LoggedInputStream mLoggedInputStream;
@@ -60,6 +68,17 @@ public class XMLRPCClientCustomizableJSONMock extends XMLRPCClientCustomizableMo
             throw new XMLRPCException("code 403");
         }
 
+        if (XMLRPCBatch.METHOD_MULTICALL.equals(method)) {
+            // answer each call in the batch from its own file, wrapped the way system.multicall does
+            Object[] calls = (Object[]) params[0];
+            Object[] results = new Object[calls.length];
+            for (int i = 0; i < calls.length; i++) {
+                Map<?, ?> call = (Map<?, ?>) calls[i];
+                results[i] = new Object[]{call((String) call.get("methodName"), (Object[]) call.get("params"))};
+            }
+            return results;
+        }
+
         Object retValue = readFile(method, mPrefix);
         if (retValue == null) {
             // failback to default
@@ -77,6 +96,11 @@ public class XMLRPCClientCustomizableJSONMock extends XMLRPCClientCustomizableMo
         return null;
     }
 
+    public List<ContentValues> callForValues(String method, Object[] params, XMLRPCSchema schema)
+            throws XMLRPCException, IOException, XmlPullParserException {
+        return schema.toValuesList(call(method, params));
+    }
+
     public long callAsync(XMLRPCCallback listener, String methodName, Object[] params) {
         return 0;
     }
@@ -85,6 +109,14 @@ public class XMLRPCClientCustomizableJSONMock extends XMLRPCClientCustomizableMo
         return 0;
     }
 
+    public long callAsync(XMLRPCCallback listener, String methodName, Object[] params, File tempFile,
+                          XMLRPCExecutor.Priority priority) {
+        return 0;
+    }
+
+    public void cancel(long id) {
+    }
+
     public String getResponse() {
         if (mLoggedInputStream == null) {
             return "";
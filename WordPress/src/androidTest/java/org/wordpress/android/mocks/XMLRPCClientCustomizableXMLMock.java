@@ -1,5 +1,7 @@
 package org.wordpress.android.mocks;
 
+import android.content.ContentValues;
+
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.xmlpull.v1.XmlPullParserException;
@@ -7,12 +9,15 @@ import org.xmlrpc.android.LoggedInputStream;
 import org.xmlrpc.android.XMLRPCCallback;
 import org.xmlrpc.android.XMLRPCClient;
 import org.xmlrpc.android.XMLRPCException;
+import org.xmlrpc.android.XMLRPCExecutor;
 import org.xmlrpc.android.XMLRPCFault;
+import org.xmlrpc.android.XMLRPCSchema;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
+import java.util.List;
 
 public class XMLRPCClientCustomizableXMLMock extends XMLRPCClientCustomizableMockAbstract {
     XMLRPCClient mXmlRpcClient;
@@ -30,12 +35,17 @@ public class XMLRPCClientCustomizableXMLMock extends XMLRPCClientCustomizableMoc
     }
 
     private Object readFile(String method, String prefix) throws IOException, XMLRPCException, XmlPullParserException {
+        return readFile(method, prefix, null);
+    }
+
+    private Object readFile(String method, String prefix, XMLRPCSchema schema)
+            throws IOException, XMLRPCException, XmlPullParserException {
         // method example: wp.getUsersBlogs
         // Filename: default-wp.getUsersBlogs.xml
         String filename = prefix + "-" + method + ".xml";
         try {
             mLoggedInputStream = new LoggedInputStream(mContext.getAssets().open(filename));
-            return XMLRPCClient.parseXMLRPCResponse(mLoggedInputStream, null);
+            return XMLRPCClient.parseXMLRPCResponse(mLoggedInputStream, null, schema);
         } catch (FileNotFoundException e) {
             AppLog.e(T.TESTS, "file not found: " + filename);
         }
@@ -45,7 +55,7 @@ public class XMLRPCClientCustomizableXMLMock extends XMLRPCClientCustomizableMoc
     public Object call(String method, Object[] params) throws XMLRPCException, IOException, XmlPullParserException {
         mLoggedInputStream = null;
         try {
-            mXmlRpcClient.preparePostMethod(method, params, null);
+            mXmlRpcClient.preparePostMethod(method, params);
         } catch (IOException e) {
             // unexpected error, test must fail
             throw new XMLRPCException("preparePostMethod failed");
@@ -73,6 +83,21 @@ public class XMLRPCClientCustomizableXMLMock extends XMLRPCClientCustomizableMoc
         return null;
     }
 
+    @SuppressWarnings("unchecked")
+    public List<ContentValues> callForValues(String method, Object[] params, XMLRPCSchema schema)
+            throws XMLRPCException, IOException, XmlPullParserException {
+        // decode the response file with the schema so the typed parser is exercised
+        AppLog.v(T.TESTS, "XMLRPCClientCustomizableXMLMock callForValues: " + method);
+        if ("login-failure".equals(mPrefix)) {
+            throw new XMLRPCFault("code 403", 403);
+        }
+        Object retValue = readFile(method, mPrefix, schema);
+        if (retValue == null) {
+            retValue = readFile(method, "default", schema);
+        }
+        return (List<ContentValues>) retValue;
+    }
+
     public long callAsync(XMLRPCCallback listener, String methodName, Object[] params) {
         return 0;
     }
@@ -81,6 +106,14 @@ public class XMLRPCClientCustomizableXMLMock extends XMLRPCClientCustomizableMoc
         return 0;
     }
 
+    public long callAsync(XMLRPCCallback listener, String methodName, Object[] params, File tempFile,
+                          XMLRPCExecutor.Priority priority) {
+        return 0;
+    }
+
+    public void cancel(long id) {
+    }
+
     public String getResponse() {
         if (mLoggedInputStream == null) {
             return "";
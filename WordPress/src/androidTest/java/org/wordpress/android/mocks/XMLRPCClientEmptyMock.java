@@ -1,11 +1,17 @@
 package org.wordpress.android.mocks;
 
+import android.content.ContentValues;
+
 import org.xmlrpc.android.XMLRPCCallback;
 import org.xmlrpc.android.XMLRPCClientInterface;
 import org.xmlrpc.android.XMLRPCException;
+import org.xmlrpc.android.XMLRPCExecutor;
+import org.xmlrpc.android.XMLRPCSchema;
 
 import java.io.File;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 public class XMLRPCClientEmptyMock implements XMLRPCClientInterface {
     public XMLRPCClientEmptyMock(URI uri, String httpUser, String httpPassword) {
@@ -29,6 +35,11 @@ public class XMLRPCClientEmptyMock implements XMLRPCClientInterface {
         return null;
     }
 
+    public List<ContentValues> callForValues(String method, Object[] params, XMLRPCSchema schema)
+            throws XMLRPCException {
+        return new ArrayList<>();
+    }
+
     public long callAsync(XMLRPCCallback listener, String methodName, Object[] params) {
         return 0;
     }
@@ -37,6 +48,14 @@ public class XMLRPCClientEmptyMock implements XMLRPCClientInterface {
         return 0;
     }
 
+    public long callAsync(XMLRPCCallback listener, String methodName, Object[] params, File tempFile,
+                          XMLRPCExecutor.Priority priority) {
+        return 0;
+    }
+
+    public void cancel(long id) {
+    }
+
     public String getResponse() {
         return null;
     }
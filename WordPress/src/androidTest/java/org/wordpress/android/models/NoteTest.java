@@ -0,0 +1,48 @@
+package org.wordpress.android.models;
+
+import android.test.InstrumentationTestCase;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.List;
+
+public class NoteTest extends InstrumentationTestCase {
+    private static final String COMMENT_NOTE_JSON = "{\"type\":\"comment\",\"timestamp\":\"2016-03-01T12:00:00+00:00\","
+            + "\"meta\":{\"ids\":{\"site\":1,\"post\":2,\"comment\":%d}},"
+            + "\"subject\":[{\"text\":\"Someone commented on your post\"},{\"text\":\"Nice post\"}],"
+            + "\"body\":[{\"type\":\"user\",\"text\":\"Someone\"},"
+            + "{\"type\":\"comment\",\"text\":\"Nice post\",\"meta\":{\"ids\":{\"comment\":%d}},"
+            + "\"actions\":{\"approve-comment\":false,\"replyto-comment\":true}}]}";
+
+    private final Note.Schema mSchema = new Note.Schema();
+
+    public void testBodyBlocksMergeCommentWithoutChangingNote() throws JSONException {
+        Note note = mSchema.build("1", buildCommentNote(3));
+
+        List<JSONObject> blocks = note.getBodyBlocks();
+        assertEquals(1, blocks.size());
+        assertEquals("Nice post", blocks.get(0).getJSONObject("comment_text").getString("text"));
+        assertEquals(note.getTimestamp(), blocks.get(0).getLong("timestamp"));
+        assertFalse(note.getBody().getJSONObject(0).has("comment_text"));
+
+        // parsed once per revision
+        assertSame(blocks, note.getBodyBlocks());
+    }
+
+    public void testUpdateReplacesParsedNote() throws JSONException {
+        Note note = mSchema.build("1", buildCommentNote(3));
+        assertEquals(3, note.getCommentId());
+        assertTrue(note.canReply());
+        assertEquals(CommentStatus.UNAPPROVED, note.getCommentStatus());
+
+        mSchema.update(note, buildCommentNote(4));
+        assertEquals(4, note.getCommentId());
+        assertTrue(note.canReply());
+        assertEquals("Someone", note.getCommentAuthorName());
+    }
+
+    private static JSONObject buildCommentNote(long commentId) throws JSONException {
+        return new JSONObject(String.format(COMMENT_NOTE_JSON, commentId, commentId));
+    }
+}
@@ -0,0 +1,115 @@
+package org.wordpress.android.models;
+
+import android.os.SystemClock;
+import android.test.InstrumentationTestCase;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.StringReader;
+
+public class ReaderPostStreamReaderTest extends InstrumentationTestCase {
+    private static final int NUM_POSTS = 40;
+    private static final int POST_CONTENT_LEN = 64 * 1024;
+
+    private static String createPostsJson(int numPosts, int contentLen) throws Exception {
+        StringBuilder sbContent = new StringBuilder(contentLen);
+        while (sbContent.length() < contentLen) {
+            sbContent.append("<p>Lorem ipsum dolor sit amet, consectetur adipiscing elit.</p>");
+        }
+
+        JSONArray jsonPosts = new JSONArray();
+        for (int i = 0; i < numPosts; i++) {
+            JSONObject jsonPost = new JSONObject();
+            jsonPost.put("ID", i + 1);
+            jsonPost.put("site_ID", 123456);
+            jsonPost.put("pseudo_ID", "pseudo-" + i);
+            jsonPost.put("title", "Post " + i);
+            jsonPost.put("excerpt", "<p>Excerpt " + i + "</p>");
+            jsonPost.put("content", sbContent.toString());
+            jsonPost.put("like_count", i);
+            jsonPost.put("i_like", (i % 2 == 0));
+            jsonPost.put("URL", "https://example.wordpress.com/" + i);
+            JSONObject jsonDiscussion = new JSONObject();
+            jsonDiscussion.put("comments_open", true);
+            jsonDiscussion.put("comment_count", i * 2);
+            jsonPost.put("discussion", jsonDiscussion);
+            jsonPosts.put(jsonPost);
+        }
+
+        JSONObject json = new JSONObject();
+        json.put("found", numPosts);
+        json.put("posts", jsonPosts);
+        return json.toString();
+    }
+
+    public void testStreamMatchesJsonObject() throws Exception {
+        String json = createPostsJson(5, 1024);
+        ReaderPostList expected = ReaderPostList.fromJson(new JSONObject(json));
+
+        final ReaderPostList actual = new ReaderPostList();
+        int numPosts = ReaderPostStreamReader.readPosts(new StringReader(json), 2,
+                new ReaderPostStreamReader.PostBatchHandler() {
+                    @Override
+                    public void onPostBatch(ReaderPostList posts) {
+                        assertTrue(posts.size() <= 2);
+                        actual.addAll(posts);
+                    }
+                });
+
+        assertEquals(expected.size(), numPosts);
+        assertTrue(expected.isSameList(actual));
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /*
+     * compares wall time and peak used heap of the JSONObject path against the streaming path on
+     * a large response - each path runs in its own pass after a GC, and the results are written
+     * to the log. The JSONObject peak is sampled while the document and the full post list are
+     * both alive, the streaming peak in each batch callback, where only that batch is alive.
+     */
+    public void testBenchmarkStreamAgainstJsonObject() throws Exception {
+        String json = createPostsJson(NUM_POSTS, POST_CONTENT_LEN);
+
+        System.gc();
+        long baseline = usedMemory();
+        long start = SystemClock.elapsedRealtime();
+        JSONObject jsonObject = new JSONObject(json);
+        ReaderPostList posts = ReaderPostList.fromJson(jsonObject);
+        long jsonPeak = usedMemory() - baseline;
+        long jsonTime = SystemClock.elapsedRealtime() - start;
+        assertEquals(NUM_POSTS, posts.size());
+        //noinspection UnusedAssignment
+        jsonObject = null;
+        //noinspection UnusedAssignment
+        posts = null;
+
+        System.gc();
+        final long streamBaseline = usedMemory();
+        final long[] streamPeak = {0};
+        final int[] numBatchPosts = {0};
+        start = SystemClock.elapsedRealtime();
+        int numPosts = ReaderPostStreamReader.readPosts(new StringReader(json),
+                ReaderPostStreamReader.DEFAULT_BATCH_SIZE,
+                new ReaderPostStreamReader.PostBatchHandler() {
+                    @Override
+                    public void onPostBatch(ReaderPostList batch) {
+                        assertTrue(batch.size() <= ReaderPostStreamReader.DEFAULT_BATCH_SIZE);
+                        numBatchPosts[0] += batch.size();
+                        streamPeak[0] = Math.max(streamPeak[0], usedMemory() - streamBaseline);
+                    }
+                });
+        long streamTime = SystemClock.elapsedRealtime() - start;
+        assertEquals(NUM_POSTS, numPosts);
+        assertEquals(NUM_POSTS, numBatchPosts[0]);
+
+        AppLog.i(T.TESTS, String.format("reader post benchmark > json %d ms, %d KB peak - stream %d ms, %d KB peak",
+                jsonTime, jsonPeak / 1024, streamTime, streamPeak[0] / 1024));
+    }
+}
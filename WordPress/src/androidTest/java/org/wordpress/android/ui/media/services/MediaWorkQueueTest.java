@@ -0,0 +1,67 @@
+package org.wordpress.android.ui.media.services;
+
+import android.test.InstrumentationTestCase;
+
+public class MediaWorkQueueTest extends InstrumentationTestCase {
+    public void testBlogsTakeTurns() {
+        MediaWorkQueue queue = new MediaWorkQueue(1);
+        queue.add("1", "a");
+        queue.add("1", "b");
+        queue.add("2", "c");
+
+        MediaWorkQueue.Item item = queue.next();
+        assertEquals("a", item.mediaId);
+        assertNull(queue.next());
+        queue.finish(item.blogId, item.mediaId);
+
+        item = queue.next();
+        assertEquals("c", item.mediaId);
+        queue.finish(item.blogId, item.mediaId);
+
+        item = queue.next();
+        assertEquals("b", item.mediaId);
+        queue.finish(item.blogId, item.mediaId);
+        assertTrue(queue.isIdle());
+    }
+
+    public void testOneItemInFlightPerBlog() {
+        MediaWorkQueue queue = new MediaWorkQueue(3);
+        queue.add("1", "a");
+        queue.add("1", "b");
+        queue.add("2", "c");
+
+        assertEquals("a", queue.next().mediaId);
+        assertEquals("c", queue.next().mediaId);
+        assertNull(queue.next());
+        assertTrue(queue.isInFlight("1", "a"));
+    }
+
+    public void testDuplicatesAreSkipped() {
+        MediaWorkQueue queue = new MediaWorkQueue(1);
+        assertTrue(queue.add("1", "a"));
+        assertFalse(queue.add("1", "a"));
+        queue.next();
+        assertFalse(queue.add("1", "a"));
+
+        assertTrue(queue.add("1", "b"));
+        assertTrue(queue.remove("1", "b"));
+        queue.finish("1", "a");
+        assertTrue(queue.isIdle());
+    }
+
+    public void testFinishingAnotherItemIsIgnored() {
+        MediaWorkQueue queue = new MediaWorkQueue(3);
+        queue.add("1", "a");
+        queue.add("1", "b");
+
+        // "a" is cancelled and finished, then its late callback tries to finish it again
+        assertEquals("a", queue.next().mediaId);
+        assertTrue(queue.finish("1", "a"));
+        assertEquals("b", queue.next().mediaId);
+        assertFalse(queue.finish("1", "a"));
+
+        assertTrue(queue.isInFlight("1", "b"));
+        queue.add("1", "c");
+        assertNull(queue.next());
+    }
+}
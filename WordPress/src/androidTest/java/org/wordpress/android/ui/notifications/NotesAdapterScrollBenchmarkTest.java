@@ -0,0 +1,144 @@
+package org.wordpress.android.ui.notifications;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import android.database.MatrixCursor;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.test.InstrumentationTestCase;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import com.simperium.client.Bucket;
+
+import org.wordpress.android.R;
+import org.wordpress.android.models.Note;
+import org.wordpress.android.ui.notifications.adapters.NotesAdapter;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.Arrays;
+
+/**
+ * Scrolls the notifications list down through a few hundred notes and back up, timing each
+ * scroll step as a frame.
+ */
+public class NotesAdapterScrollBenchmarkTest extends InstrumentationTestCase {
+    private static final int NUM_NOTES = 500;
+    private static final int NUM_FRAMES = 400;
+    private static final int SCROLL_PX_PER_FRAME = 60;
+    private static final long FRAME_BUDGET_NS = 16 * 1000000;
+
+    private static final String[] COLUMNS = {
+            "_id",
+            "key",
+            Note.Schema.TIMESTAMP_INDEX,
+            Note.Schema.SUBJECT_INDEX,
+            Note.Schema.SNIPPET_INDEX,
+            Note.Schema.UNREAD_INDEX,
+            Note.Schema.ICON_URL_INDEX,
+            Note.Schema.NOTICON_INDEX,
+            Note.Schema.IS_UNAPPROVED_INDEX,
+            Note.Schema.COMMENT_SUBJECT_NOTICON,
+            Note.Schema.LOCAL_STATUS};
+
+    public void testScrollingNotesList() {
+        final Context context = new ContextThemeWrapper(getInstrumentation().getTargetContext(), R.style.WordPress);
+        final long[] frameTimes = new long[NUM_FRAMES];
+
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                NotesAdapter adapter = new NotesAdapter(context, null);
+                adapter.changeCursor(new NoteCursor(buildNotes()));
+
+                RecyclerView recyclerView = new RecyclerView(context);
+                recyclerView.setLayoutManager(new LinearLayoutManager(context));
+                recyclerView.setAdapter(adapter);
+                int width = context.getResources().getDisplayMetrics().widthPixels;
+                int height = context.getResources().getDisplayMetrics().heightPixels;
+                recyclerView.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+                recyclerView.layout(0, 0, width, height);
+
+                // scroll down then back up, so the second half binds notes which have been shown before
+                for (int i = 0; i < NUM_FRAMES; i++) {
+                    int dy = (i < NUM_FRAMES / 2 ? SCROLL_PX_PER_FRAME : -SCROLL_PX_PER_FRAME);
+                    long start = System.nanoTime();
+                    recyclerView.scrollBy(0, dy);
+                    frameTimes[i] = System.nanoTime() - start;
+                }
+            }
+        });
+
+        logFrameTimes("scrolling down", Arrays.copyOfRange(frameTimes, 0, NUM_FRAMES / 2));
+        logFrameTimes("scrolling back up", Arrays.copyOfRange(frameTimes, NUM_FRAMES / 2, NUM_FRAMES));
+    }
+
+    private static Cursor buildNotes() {
+        MatrixCursor cursor = new MatrixCursor(COLUMNS, NUM_NOTES);
+        long now = System.currentTimeMillis() / 1000;
+        for (int i = 0; i < NUM_NOTES; i++) {
+            boolean isComment = (i % 3 == 0);
+            cursor.addRow(new Object[]{
+                    i,
+                    "note-" + i,
+                    now - i * 3600,
+                    "<p dir=\"ltr\"><b>User " + i + "</b> commented on <i>A post about things, part " + i + "</i></p>",
+                    isComment ? "This is what they had to say about the post, which goes on for a while" : "",
+                    i % 4 == 0 ? 1 : 0,
+                    "https://0.gravatar.com/avatar/" + i + "?s=256&d=identicon",
+                    isComment ? "\uf300" : "\uf408",
+                    i % 7 == 0 ? 1 : 0,
+                    isComment ? "\uf467" : "",
+                    ""});
+        }
+        return cursor;
+    }
+
+    private static void logFrameTimes(String description, long[] frameTimes) {
+        long[] sorted = frameTimes.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        int numSlowFrames = 0;
+        for (long frameTime : sorted) {
+            total += frameTime;
+            if (frameTime > FRAME_BUDGET_NS) {
+                numSlowFrames++;
+            }
+        }
+        AppLog.i(T.TESTS, "notes list " + description + " > " + sorted.length + " frames"
+                + ", avg " + toMs(total / sorted.length) + "ms"
+                + ", median " + toMs(sorted[sorted.length / 2]) + "ms"
+                + ", 95th percentile " + toMs(sorted[sorted.length * 95 / 100]) + "ms"
+                + ", max " + toMs(sorted[sorted.length - 1]) + "ms"
+                + ", over 16ms " + numSlowFrames);
+    }
+
+    private static String toMs(long ns) {
+        return String.format("%.2f", ns / 1000000.0);
+    }
+
+    /*
+     * the adapter expects a Simperium cursor, which is what the notes list queries return
+     */
+    private static class NoteCursor extends CursorWrapper implements Bucket.ObjectCursor<Note> {
+        private final int mKeyColumn;
+
+        NoteCursor(Cursor cursor) {
+            super(cursor);
+            mKeyColumn = cursor.getColumnIndex("key");
+        }
+
+        @Override
+        public String getSimperiumKey() {
+            return getString(mKeyColumn);
+        }
+
+        @Override
+        public Note getObject() {
+            return null;
+        }
+    }
+}
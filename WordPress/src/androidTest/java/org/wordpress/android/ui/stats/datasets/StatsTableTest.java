@@ -0,0 +1,73 @@
+package org.wordpress.android.ui.stats.datasets;
+
+import android.content.Context;
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.ui.stats.StatsTimeframe;
+import org.wordpress.android.ui.stats.service.StatsService.StatsEndpointsEnum;
+
+public class StatsTableTest extends InstrumentationTestCase {
+    private static final int LOCAL_BLOG_ID = 1;
+    private static final String DATE = "2015-10-01";
+    private static final String JSON = "{\"date\":\"2015-10-01\"}";
+
+    private Context mContext;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mContext = getInstrumentation().getTargetContext();
+        StatsTable.purgeAll(mContext);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        StatsTable.purgeAll(mContext);
+        super.tearDown();
+    }
+
+    private StatsTable.CachedStats getStats() {
+        return StatsTable.getStats(mContext, LOCAL_BLOG_ID, StatsTimeframe.DAY, DATE,
+                StatsEndpointsEnum.REFERRERS, 10, -1);
+    }
+
+    public void testStaleStatsAreReturned() {
+        long staleTimestamp = System.currentTimeMillis() - ((StatsTable.CACHE_TTL_MINUTES + 1) * 60 * 1000);
+        StatsTable.insertStats(mContext, LOCAL_BLOG_ID, StatsTimeframe.DAY, DATE, StatsEndpointsEnum.REFERRERS,
+                10, -1, JSON, "\"etag-1\"", staleTimestamp);
+
+        StatsTable.CachedStats cachedStats = getStats();
+        assertNotNull(cachedStats);
+        assertFalse(cachedStats.isFresh());
+        assertEquals(JSON, cachedStats.jsonData);
+        assertEquals("\"etag-1\"", cachedStats.eTag);
+    }
+
+    public void testTouchStatsMakesThemFresh() {
+        long staleTimestamp = System.currentTimeMillis() - ((StatsTable.CACHE_TTL_MINUTES + 1) * 60 * 1000);
+        StatsTable.insertStats(mContext, LOCAL_BLOG_ID, StatsTimeframe.DAY, DATE, StatsEndpointsEnum.REFERRERS,
+                10, -1, JSON, null, staleTimestamp);
+
+        StatsTable.touchStats(mContext, LOCAL_BLOG_ID, StatsTimeframe.DAY, DATE, StatsEndpointsEnum.REFERRERS,
+                10, -1, System.currentTimeMillis());
+
+        StatsTable.CachedStats cachedStats = getStats();
+        assertNotNull(cachedStats);
+        assertTrue(cachedStats.isFresh());
+        assertNull(cachedStats.eTag);
+    }
+
+    public void testTouchStatsIgnoresRowsWithFewerResults() {
+        long staleTimestamp = System.currentTimeMillis() - ((StatsTable.CACHE_TTL_MINUTES + 1) * 60 * 1000);
+        StatsTable.insertStats(mContext, LOCAL_BLOG_ID, StatsTimeframe.DAY, DATE, StatsEndpointsEnum.REFERRERS,
+                10, -1, JSON, null, staleTimestamp);
+
+        // revalidating a request for more results than are cached mustn't make the cached ones fresh
+        StatsTable.touchStats(mContext, LOCAL_BLOG_ID, StatsTimeframe.DAY, DATE, StatsEndpointsEnum.REFERRERS,
+                20, -1, System.currentTimeMillis());
+
+        StatsTable.CachedStats cachedStats = getStats();
+        assertNotNull(cachedStats);
+        assertFalse(cachedStats.isFresh());
+    }
+}
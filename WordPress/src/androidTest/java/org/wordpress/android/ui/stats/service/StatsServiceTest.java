@@ -0,0 +1,27 @@
+package org.wordpress.android.ui.stats.service;
+
+import android.test.ServiceTestCase;
+
+public class StatsServiceTest extends ServiceTestCase<StatsService> {
+    public StatsServiceTest() {
+        super(StatsService.class);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        StatsService.setMaxConcurrentSections(4);
+    }
+
+    public void testSequentialSections() {
+        StatsService.setMaxConcurrentSections(1);
+        setupService();
+        assertEquals(1, getService().getSectionPoolSize());
+    }
+
+    public void testMaxConcurrentSectionsIsAtLeastOne() {
+        StatsService.setMaxConcurrentSections(0);
+        setupService();
+        assertEquals(1, getService().getSectionPoolSize());
+    }
+}
@@ -0,0 +1,64 @@
+package org.wordpress.android.ui.suggestion;
+
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.models.Suggestion;
+import org.wordpress.android.models.Tag;
+import org.wordpress.android.ui.suggestion.util.SuggestionIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SuggestionIndexTest extends InstrumentationTestCase {
+    private final int[] mResults = new int[SuggestionIndex.MAX_RESULTS];
+
+    public void testSuggestionsMatchLoginAndDisplayNameWords() {
+        SuggestionIndex<Suggestion> index = SuggestionIndex.forSuggestions(Arrays.asList(
+                createSuggestion("alice", "Alice Smith"),
+                createSuggestion("bob", "Robert Jones"),
+                createSuggestion("jsmith", "John Smith")));
+
+        assertResults(index.query("AL", mResults), 0);
+        assertResults(index.query("rob", mResults), 1);
+        assertResults(index.query("smi", mResults), 0, 2);
+        assertResults(index.query("j", mResults), 1, 2);
+        assertResults(index.query("mith", mResults));
+    }
+
+    public void testTagsMatchEachWord() {
+        SuggestionIndex<Tag> index = SuggestionIndex.forTags(Arrays.asList(
+                new Tag(1, "Android"),
+                new Tag(1, "Java Tips"),
+                new Tag(1, "tips and tricks")));
+
+        assertResults(index.query("TIPS", mResults), 1, 2);
+        assertResults(index.query("and", mResults), 0, 2);
+        assertResults(index.query("tricks!", mResults));
+    }
+
+    public void testQueryReturnsFirstMatchingItems() {
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < SuggestionIndex.MAX_RESULTS * 2; i++) {
+            tags.add(new Tag(1, "tag " + (SuggestionIndex.MAX_RESULTS * 2 - i)));
+        }
+        SuggestionIndex<Tag> index = SuggestionIndex.forTags(tags);
+
+        int numResults = index.query("t", mResults);
+        assertEquals(SuggestionIndex.MAX_RESULTS, numResults);
+        for (int i = 0; i < numResults; i++) {
+            assertEquals(i, mResults[i]);
+        }
+    }
+
+    private void assertResults(int numResults, int... expected) {
+        assertEquals(expected.length, numResults);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], mResults[i]);
+        }
+    }
+
+    private static Suggestion createSuggestion(String userLogin, String displayName) {
+        return new Suggestion(1, userLogin, displayName, "", "");
+    }
+}
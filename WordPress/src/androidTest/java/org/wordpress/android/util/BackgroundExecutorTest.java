@@ -0,0 +1,77 @@
+package org.wordpress.android.util;
+
+import android.os.Process;
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.util.BackgroundExecutor.Lane;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BackgroundExecutorTest extends InstrumentationTestCase {
+    public void testDbWriteLaneRunsTasksOneAtATimeInOrder() throws InterruptedException {
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            final int task = i;
+            BackgroundExecutor.execute(Lane.DB_WRITE, new Runnable() {
+                @Override
+                public void run() {
+                    int nowRunning = running.incrementAndGet();
+                    maxRunning.set(Math.max(maxRunning.get(), nowRunning));
+                    order.add(task);
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, order.get(i).intValue());
+        }
+    }
+
+    public void testRenderLaneRunsAtDefaultPriority() throws InterruptedException {
+        final AtomicInteger priority = new AtomicInteger(Integer.MIN_VALUE);
+        final CountDownLatch done = new CountDownLatch(1);
+        BackgroundExecutor.execute(Lane.RENDER, new Runnable() {
+            @Override
+            public void run() {
+                priority.set(Process.getThreadPriority(Process.myTid()));
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(Process.THREAD_PRIORITY_DEFAULT, priority.get());
+    }
+
+    public void testRecordsRunTime() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        BackgroundExecutor.execute(Lane.PARSE, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        // the run time is recorded after the task returns
+        Thread.sleep(50);
+        assertTrue(BackgroundExecutor.getMaxRunMs(Lane.PARSE) >= 50);
+    }
+}
@@ -0,0 +1,63 @@
+package org.xmlrpc.android;
+
+import android.content.ContentValues;
+import android.os.SystemClock;
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.WordPressDB;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.InputStream;
+import java.util.List;
+
+public class XMLRPCSchemaTest extends InstrumentationTestCase {
+    private static final String POSTS_ASSET = "default-metaWeblog.getRecentPosts.xml";
+
+    private InputStream openAsset(String filename) throws Exception {
+        return getInstrumentation().getContext().getAssets().open(filename);
+    }
+
+    /*
+     * the typed parser must produce the same values as the generic parser followed by the schema
+     */
+    @SuppressWarnings("unchecked")
+    public void testTypedParserMatchesGenericParser() throws Exception {
+        XMLRPCSchema schema = WordPressDB.getPostSchema(false);
+
+        Object result = XMLRPCClient.parseXMLRPCResponse(openAsset(POSTS_ASSET), null);
+        List<ContentValues> expected = schema.toValuesList(result);
+
+        List<ContentValues> actual = (List<ContentValues>) XMLRPCClient.parseXMLRPCResponse(
+                openAsset(POSTS_ASSET), null, schema);
+
+        assertTrue(expected.size() > 0);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    /*
+     * compares the time taken by both parsers - results are written to the log
+     */
+    public void testBenchmarkTypedParser() throws Exception {
+        final int numRuns = 50;
+        XMLRPCSchema schema = WordPressDB.getPostSchema(false);
+
+        long start = SystemClock.elapsedRealtime();
+        for (int i = 0; i < numRuns; i++) {
+            schema.toValuesList(XMLRPCClient.parseXMLRPCResponse(openAsset(POSTS_ASSET), null));
+        }
+        long genericTime = SystemClock.elapsedRealtime() - start;
+
+        start = SystemClock.elapsedRealtime();
+        for (int i = 0; i < numRuns; i++) {
+            XMLRPCClient.parseXMLRPCResponse(openAsset(POSTS_ASSET), null, schema);
+        }
+        long typedTime = SystemClock.elapsedRealtime() - start;
+
+        AppLog.i(T.TESTS, String.format("xml-rpc parser benchmark > generic %d ms, typed %d ms",
+                genericTime, typedTime));
+    }
+}
@@ -0,0 +1,98 @@
+package org.xmlrpc.android;
+
+import android.test.InstrumentationTestCase;
+import android.util.Base64;
+
+import org.wordpress.android.util.helpers.MediaFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class XMLRPCUploadEntityTest extends InstrumentationTestCase {
+    private File mFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mFile = File.createTempFile("wp-upload-test", ".bin",
+                getInstrumentation().getTargetContext().getCacheDir());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mFile.delete();
+        super.tearDown();
+    }
+
+    private byte[] writeFile(int length) throws Exception {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        FileOutputStream outStream = new FileOutputStream(mFile);
+        outStream.write(bytes);
+        outStream.close();
+        return bytes;
+    }
+
+    private void checkUpload(int fileLength) throws Exception {
+        byte[] bytes = writeFile(fileLength);
+        MediaFile mediaFile = new MediaFile();
+        mediaFile.setFilePath(mFile.getPath());
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "test.bin");
+        data.put("bits", mediaFile);
+        Object[] params = {1, "username", "password", data};
+
+        XMLRPCUploadEntity entity = new XMLRPCUploadEntity(ApiHelper.Method.UPLOAD_FILE, params);
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        entity.writeTo(outStream);
+        String body = outStream.toString("UTF-8");
+
+        assertEquals(entity.getContentLength(), outStream.size());
+        assertTrue(body.contains("<methodName>" + ApiHelper.Method.UPLOAD_FILE + "</methodName>"));
+
+        int start = body.indexOf("<base64>") + "<base64>".length();
+        int end = body.indexOf("</base64>");
+        byte[] decoded = Base64.decode(body.substring(start, end), Base64.DEFAULT);
+        assertTrue(Arrays.equals(bytes, decoded));
+
+        // reading the content should produce the same body
+        ByteArrayOutputStream contentStream = new ByteArrayOutputStream();
+        InputStream inStream = entity.getContent();
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = inStream.read(buffer)) != -1) {
+            contentStream.write(buffer, 0, length);
+        }
+        inStream.close();
+        assertTrue(Arrays.equals(outStream.toByteArray(), contentStream.toByteArray()));
+    }
+
+    public void testEmptyFile() throws Exception {
+        checkUpload(0);
+    }
+
+    public void testFileSpanningChunks() throws Exception {
+        // not a multiple of 3, so the final chunk is padded
+        checkUpload(200 * 1024 + 1);
+    }
+
+    public void testMissingFile() throws Exception {
+        MediaFile mediaFile = new MediaFile();
+        mediaFile.setFilePath(mFile.getPath() + ".missing");
+        try {
+            new XMLRPCUploadEntity(ApiHelper.Method.UPLOAD_FILE, new Object[]{mediaFile});
+            fail("missing media file should throw");
+        } catch (FileNotFoundException e) {
+            // expected
+        }
+    }
+}
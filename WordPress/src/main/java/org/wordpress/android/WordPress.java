@@ -57,6 +57,8 @@ import org.wordpress.android.ui.stats.datasets.StatsTable;
 import org.wordpress.android.util.AnalyticsUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.BackgroundExecutor;
+import org.wordpress.android.util.BackgroundExecutor.Lane;
 import org.wordpress.android.util.BitmapLruCache;
 import org.wordpress.android.util.CoreEvents;
 import org.wordpress.android.util.CoreEvents.UserSignedOutCompletely;
@@ -73,6 +75,7 @@ import org.wordpress.android.util.WPActivityUtils;
 import org.wordpress.passcodelock.AbstractAppLock;
 import org.wordpress.passcodelock.AppLockManager;
 import org.xmlrpc.android.ApiHelper;
+import org.xmlrpc.android.XMLRPCConnectionPool;
 
 import java.io.File;
 import java.io.IOException;
@@ -144,13 +147,14 @@ public class WordPress extends MultiDexApplication {
     public static RateLimitedTask sDeleteExpiredStats = new RateLimitedTask(SECONDS_BETWEEN_DELETE_STATS) {
         protected boolean run() {
             // Offload to a separate thread. We don't want to slown down the app on startup/resume.
-            new Thread(new Runnable() {
+            BackgroundExecutor.execute(Lane.DB_WRITE, new Runnable() {
                 public void run() {
-                    // subtracts to the current time the cache TTL
-                    long timeToDelete = System.currentTimeMillis() - (StatsTable.CACHE_TTL_MINUTES * 60 * 1000);
+                    // stale stats are still shown while they're revalidated, so only delete them
+                    // once they're too old to be useful
+                    long timeToDelete = System.currentTimeMillis() - (StatsTable.STALE_TTL_MINUTES * 60L * 1000);
                     StatsTable.deleteOldStats(WordPress.getContext(), timeToDelete);
                 }
-            }).start();
+            });
             return true;
         }
     };
@@ -530,6 +534,14 @@ public class WordPress extends MultiDexApplication {
 
         flushHttpCache();
 
+        // don't let XML-RPC clients created from now on reuse the signed-out user's connections
+        BackgroundExecutor.execute(Lane.NETWORK, new Runnable() {
+            @Override
+            public void run() {
+                XMLRPCConnectionPool.reset();
+            }
+        });
+
         // Analytics resets
         AnalyticsTracker.endSession(false);
         AnalyticsTracker.clearAllData();
@@ -817,6 +829,8 @@ public class WordPress extends MultiDexApplication {
                     AnalyticsTracker.track(AnalyticsTracker.Stat.APPLICATION_CLOSED, properties);
                     AnalyticsTracker.endSession(false);
                     ConnectionChangeReceiver.setEnabled(WordPress.this, false);
+                    BackgroundExecutor.logStats();
+                    ReaderDatabase.logWriteStats();
                 }
             };
 
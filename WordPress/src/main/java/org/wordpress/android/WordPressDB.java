@@ -8,6 +8,7 @@ import android.database.Cursor;
 import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
 import android.preference.PreferenceManager;
 import android.text.TextUtils;
 import android.util.Base64;
@@ -16,6 +17,8 @@ import org.apache.commons.lang.ArrayUtils;
 import org.json.JSONArray;
 import org.wordpress.android.datasets.AccountTable;
 import org.wordpress.android.datasets.CommentTable;
+import org.wordpress.android.datasets.MediaUploadJournalTable;
+import org.wordpress.android.datasets.PostAutosaveJournalTable;
 import org.wordpress.android.datasets.PeopleTable;
 import org.wordpress.android.datasets.SiteSettingsTable;
 import org.wordpress.android.datasets.SuggestionTable;
@@ -40,6 +43,7 @@ import org.wordpress.android.util.SqlUtils;
 import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.util.WPUrlUtils;
 import org.wordpress.android.util.helpers.MediaFile;
+import org.xmlrpc.android.XMLRPCSchema;
 
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -47,9 +51,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -85,7 +91,7 @@ public class WordPressDB {
     public static final String COLUMN_NAME_VIDEO_PRESS_SHORTCODE = "videoPressShortcode";
     public static final String COLUMN_NAME_UPLOAD_STATE          = "uploadState";
 
-    private static final int DATABASE_VERSION = 49;
+    private static final int DATABASE_VERSION = 51;
 
     private static final String CREATE_TABLE_BLOGS = "create table if not exists accounts (id integer primary key autoincrement, "
             + "url text, blogName text, username text, password text, imagePlacement text, centerThumbnail boolean, fullSizeImage boolean, maxImageWidth text, maxImageWidthId integer);";
@@ -229,6 +235,17 @@ public class WordPressDB {
     // add capabilities to blog
     private static final String ADD_BLOGS_CAPABILITIES = "alter table accounts add capabilities text default '';";
 
+    // add the excerpt and content image shown in the post list, computed when a post is written
+    private static final String ADD_POSTS_LIST_EXCERPT = "alter table posts add list_excerpt text default '';";
+    private static final String ADD_POSTS_LIST_IMAGE_URL = "alter table posts add list_image_url text default '';";
+
+    // add the url of the featured image shown in the post list, null until it's been resolved
+    private static final String ADD_POSTS_FEATURED_IMAGE_URL = "alter table posts add featured_image_url text;";
+
+    // index matching the order of the post list, used to page through it
+    private static final String ADD_POSTS_LIST_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_posts_list ON posts(blogID, isPage, localDraft, date_created_gmt, id);";
+
     // used for migration
     private static final String DEPRECATED_WPCOM_USERNAME_PREFERENCE = "wp_pref_wpcom_username";
     private static final String DEPRECATED_ACCESS_TOKEN_PREFERENCE = "wp_pref_wpcom_access_token";
@@ -254,6 +271,8 @@ public class WordPressDB {
         SiteSettingsTable.createTable(db);
         CommentTable.createTables(db);
         SuggestionTable.createTables(db);
+        MediaUploadJournalTable.createTables(db);
+        PostAutosaveJournalTable.createTables(db);
 
         // Update tables for new installs and app updates
         int currentVersion = db.getVersion();
@@ -429,6 +448,16 @@ public class WordPressDB {
             case 48:
                 PeopleTable.createViewersTable(db);
                 currentVersion++;
+            case 49:
+                db.execSQL(ADD_POSTS_LIST_EXCERPT);
+                db.execSQL(ADD_POSTS_LIST_IMAGE_URL);
+                db.execSQL(ADD_POSTS_LIST_INDEX);
+                updatePostsListColumns();
+                currentVersion++;
+            case 50:
+                db.execSQL(ADD_POSTS_FEATURED_IMAGE_URL);
+                resolvePostsFeaturedImageUrls(0);
+                currentVersion++;
         }
         db.setVersion(DATABASE_VERSION);
     }
@@ -800,6 +829,8 @@ public class WordPressDB {
         db.delete(BLOGS_TABLE, null, null);
         db.delete(POSTS_TABLE, null, null);
         db.delete(MEDIA_TABLE, null, null);
+        MediaUploadJournalTable.reset(db);
+        PostAutosaveJournalTable.reset(db);
         db.delete(CATEGORIES_TABLE, null, null);
         db.delete(CommentTable.COMMENTS_TABLE, null, null);
     }
@@ -1056,6 +1087,7 @@ public class WordPressDB {
         int result = db.delete(POSTS_TABLE,
                 "blogID=? AND id=?",
                 new String[]{String.valueOf(post.getLocalTableBlogId()), String.valueOf(post.getLocalTablePostId())});
+        PostAutosaveJournalTable.clearChanges(post.getLocalTablePostId());
 
         return (result == 1);
     }
@@ -1073,16 +1105,93 @@ public class WordPressDB {
     }
 
     /*
-     * returns true if the post matching the passed local blog ID and remote post ID
-     * has local changes
+     * decodes the categories array into the JSON array stored in the categories column
      */
-    private boolean postHasLocalChanges(int localBlogId, String remotePostId) {
-        if (TextUtils.isEmpty(remotePostId)) {
-            return false;
+    private static final XMLRPCSchema.MemberDecoder CATEGORIES_DECODER = new XMLRPCSchema.MemberDecoder() {
+        @Override
+        public void decode(ContentValues values, Object value) {
+            JSONArray jsonCategoriesArray = new JSONArray();
+            if (value instanceof Object[]) {
+                for (Object postCategory : (Object[]) value) {
+                    jsonCategoriesArray.put(postCategory.toString());
+                }
+            }
+            values.put("categories", jsonCategoriesArray.toString());
         }
-        String[] args = {String.valueOf(localBlogId), remotePostId};
-        String sql = "SELECT 1 FROM " + POSTS_TABLE + " WHERE blogID=? AND postid=? AND isLocalChange=1";
-        return SqlUtils.boolForQuery(db, sql, args);
+    };
+
+    /*
+     * decodes the custom fields array into the JSON array stored in the custom_fields column, and
+     * picks the location out of the geo fields
+     */
+    private static final XMLRPCSchema.MemberDecoder CUSTOM_FIELDS_DECODER = new XMLRPCSchema.MemberDecoder() {
+        @Override
+        public void decode(ContentValues values, Object value) {
+            JSONArray jsonCustomFieldsArray = new JSONArray();
+            if (value instanceof Object[]) {
+                for (Object custom_field : (Object[]) value) {
+                    jsonCustomFieldsArray.put(custom_field.toString());
+                    // Update geo_long and geo_lat from custom fields
+                    if (!(custom_field instanceof Map))
+                        continue;
+                    Map<?, ?> customField = (Map<?, ?>) custom_field;
+                    if (customField.get("key") != null && customField.get("value") != null) {
+                        if (customField.get("key").equals("geo_longitude"))
+                            values.put("longitude", customField.get("value").toString());
+                        if (customField.get("key").equals("geo_latitude"))
+                            values.put("latitude", customField.get("value").toString());
+                    }
+                }
+            }
+            values.put("custom_fields", jsonCustomFieldsArray.toString());
+        }
+    };
+
+    /*
+     * members of metaWeblog.getRecentPosts/wp.getPages structs that are stored in the posts table,
+     * keyed by the column they're stored in
+     */
+    private static XMLRPCSchema createPostSchema(boolean isPage) {
+        XMLRPCSchema schema = new XMLRPCSchema()
+                .addString(isPage ? "page_id" : "postid", "postid")
+                .addString("title", "title")
+                .addDate("dateCreated", "dateCreated")
+                .addDate("date_created_gmt", "date_created_gmt")
+                .addString("description", "description")
+                .addString("link", "link")
+                .addString("permaLink", "permaLink")
+                .addMember("categories", CATEGORIES_DECODER)
+                .addMember("custom_fields", CUSTOM_FIELDS_DECODER)
+                .addString(isPage ? "excerpt" : "mt_excerpt", "mt_excerpt")
+                .addString(isPage ? "text_more" : "mt_text_more", "mt_text_more")
+                .addInt("mt_allow_comments", "mt_allow_comments", 0)
+                .addInt("mt_allow_pings", "mt_allow_pings", 0)
+                .addString("wp_slug", "wp_slug")
+                .addString("wp_password", "wp_password")
+                .addString("wp_author_id", "wp_author_id")
+                .addString("wp_author_display_name", "wp_author_display_name")
+                .addInt("wp_post_thumbnail", "wp_post_thumbnail", 0)
+                .addString(isPage ? "page_status" : "post_status", "post_status")
+                .addString("userid", "userid");
+        if (isPage) {
+            schema.addString("wp_page_parent_id", "wp_page_parent_id")
+                  .addString("wp_page_parent_title", "wp_page_parent_title");
+        } else {
+            schema.addString("mt_keywords", "mt_keywords")
+                  .addString("wp_post_format", "wp_post_format");
+        }
+        return schema;
+    }
+
+    private static final XMLRPCSchema POST_SCHEMA = createPostSchema(false);
+    private static final XMLRPCSchema PAGE_SCHEMA = createPostSchema(true);
+
+    /*
+     * schema to pass to XMLRPCClientInterface.callForValues() when requesting posts or pages
+     * that will be passed to savePostValues()
+     */
+    public static XMLRPCSchema getPostSchema(boolean isPage) {
+        return isPage ? PAGE_SCHEMA : POST_SCHEMA;
     }
 
     /**
@@ -1094,131 +1203,224 @@ public class WordPressDB {
      */
     public void savePosts(List<?> postsList, int localBlogId, boolean isPage, boolean overwriteLocalChanges) {
         if (postsList != null && postsList.size() != 0) {
-            db.beginTransaction();
-            try {
-                for (Object post : postsList) {
-                    ContentValues values = new ContentValues();
+            XMLRPCSchema schema = getPostSchema(isPage);
+            List<ContentValues> valuesList = new ArrayList<>(postsList.size());
+            for (Object post : postsList) {
+                // Sanity checks
+                if (post instanceof Map) {
+                    valuesList.add(schema.toValues((Map<?, ?>) post));
+                }
+            }
+            savePostValues(valuesList, localBlogId, isPage, overwriteLocalChanges);
+        }
+    }
 
-                    // Sanity checks
-                    if (!(post instanceof Map)) {
-                        continue;
-                    }
-                    Map<?, ?> postMap = (Map<?, ?>) post;
-                    String postID = MapUtils.getMapStr(postMap, (isPage) ? "page_id" : "postid");
-                    if (TextUtils.isEmpty(postID)) {
-                        // If we don't have a post or page ID, move on
-                        continue;
-                    }
+    /*
+     * columns written when syncing posts - extra page/post columns are appended by getPostSyncColumns()
+     */
+    private static final String[] POST_SYNC_COLUMNS = {
+            "title", "dateCreated", "date_created_gmt", "description", "link", "permaLink",
+            "categories", "custom_fields", "mt_excerpt", "mt_text_more", "mt_allow_comments",
+            "mt_allow_pings", "wp_slug", "wp_password", "wp_author_id", "wp_author_display_name",
+            "wp_post_thumbnail", "post_status", "userid", "list_excerpt", "list_image_url"};
+    private static final String[] PAGE_SYNC_EXTRA_COLUMNS = {"wp_page_parent_id", "wp_page_parent_title"};
+    private static final String[] POST_SYNC_EXTRA_COLUMNS = {"mt_keywords", "wp_post_format"};
 
-                    values.put("blogID", localBlogId);
-                    values.put("postid", postID);
-                    values.put("title", MapUtils.getMapStr(postMap, "title"));
-                    Date dateCreated = MapUtils.getMapDate(postMap, "dateCreated");
-                    if (dateCreated != null) {
-                        values.put("dateCreated", dateCreated.getTime());
-                    } else {
-                        Date now = new Date();
-                        values.put("dateCreated", now.getTime());
-                    }
+    // only set when the post has a location, so existing values are kept when they're missing
+    private static final String[] POST_SYNC_OPTIONAL_COLUMNS = {"latitude", "longitude"};
 
-                    Date dateCreatedGmt = MapUtils.getMapDate(postMap, "date_created_gmt");
-                    if (dateCreatedGmt != null) {
-                        values.put("date_created_gmt", dateCreatedGmt.getTime());
-                    } else {
-                        dateCreatedGmt = new Date((Long) values.get("dateCreated"));
-                        values.put("date_created_gmt", dateCreatedGmt.getTime() + (dateCreatedGmt.getTimezoneOffset() * 60000));
-                    }
+    private static String[] getPostSyncColumns(boolean isPage) {
+        String[] extraColumns = isPage ? PAGE_SYNC_EXTRA_COLUMNS : POST_SYNC_EXTRA_COLUMNS;
+        String[] columns = new String[POST_SYNC_COLUMNS.length + extraColumns.length];
+        System.arraycopy(POST_SYNC_COLUMNS, 0, columns, 0, POST_SYNC_COLUMNS.length);
+        System.arraycopy(extraColumns, 0, columns, POST_SYNC_COLUMNS.length, extraColumns.length);
+        return columns;
+    }
 
-                    values.put("description", MapUtils.getMapStr(postMap, "description"));
-                    values.put("link", MapUtils.getMapStr(postMap, "link"));
-                    values.put("permaLink", MapUtils.getMapStr(postMap, "permaLink"));
+    /*
+     * returns the remote ids of posts in the passed blog that have local changes
+     */
+    private Set<String> getPostIdsWithLocalChanges(int localBlogId) {
+        Set<String> postIds = new HashSet<>();
+        String[] args = {String.valueOf(localBlogId)};
+        Cursor c = db.rawQuery("SELECT postid FROM " + POSTS_TABLE + " WHERE blogID=? AND isLocalChange=1", args);
+        try {
+            while (c.moveToNext()) {
+                postIds.add(c.getString(0));
+            }
+        } finally {
+            SqlUtils.closeCursor(c);
+        }
+        return postIds;
+    }
 
-                    Object[] postCategories = (Object[]) postMap.get("categories");
-                    JSONArray jsonCategoriesArray = new JSONArray();
-                    if (postCategories != null) {
-                        for (Object postCategory : postCategories) {
-                            jsonCategoriesArray.put(postCategory.toString());
-                        }
-                    }
-                    values.put("categories", jsonCategoriesArray.toString());
-
-                    Object[] custom_fields = (Object[]) postMap.get("custom_fields");
-                    JSONArray jsonCustomFieldsArray = new JSONArray();
-                    if (custom_fields != null) {
-                        for (Object custom_field : custom_fields) {
-                            jsonCustomFieldsArray.put(custom_field.toString());
-                            // Update geo_long and geo_lat from custom fields
-                            if (!(custom_field instanceof Map))
-                                continue;
-                            Map<?, ?> customField = (Map<?, ?>) custom_field;
-                            if (customField.get("key") != null && customField.get("value") != null) {
-                                if (customField.get("key").equals("geo_longitude"))
-                                    values.put("longitude", customField.get("value").toString());
-                                if (customField.get("key").equals("geo_latitude"))
-                                    values.put("latitude", customField.get("value").toString());
-                            }
-                        }
-                    }
-                    values.put("custom_fields", jsonCustomFieldsArray.toString());
-
-                    values.put("mt_excerpt", MapUtils.getMapStr(postMap, (isPage) ? "excerpt" : "mt_excerpt"));
-                    values.put("mt_text_more", MapUtils.getMapStr(postMap, (isPage) ? "text_more" : "mt_text_more"));
-                    values.put("mt_allow_comments", MapUtils.getMapInt(postMap, "mt_allow_comments", 0));
-                    values.put("mt_allow_pings", MapUtils.getMapInt(postMap, "mt_allow_pings", 0));
-                    values.put("wp_slug", MapUtils.getMapStr(postMap, "wp_slug"));
-                    values.put("wp_password", MapUtils.getMapStr(postMap, "wp_password"));
-                    values.put("wp_author_id", MapUtils.getMapStr(postMap, "wp_author_id"));
-                    values.put("wp_author_display_name", MapUtils.getMapStr(postMap, "wp_author_display_name"));
-                    values.put("wp_post_thumbnail", MapUtils.getMapInt(postMap, "wp_post_thumbnail"));
-                    values.put("post_status", MapUtils.getMapStr(postMap, (isPage) ? "page_status" : "post_status"));
-                    values.put("userid", MapUtils.getMapStr(postMap, "userid"));
-
-                    if (isPage) {
-                        values.put("isPage", true);
-                        values.put("wp_page_parent_id", MapUtils.getMapStr(postMap, "wp_page_parent_id"));
-                        values.put("wp_page_parent_title", MapUtils.getMapStr(postMap, "wp_page_parent_title"));
-                    } else {
-                        values.put("mt_keywords", MapUtils.getMapStr(postMap, "mt_keywords"));
-                        values.put("wp_post_format", MapUtils.getMapStr(postMap, "wp_post_format"));
-                    }
+    private static void bindValue(SQLiteStatement stmt, int index, Object value) {
+        if (value == null) {
+            stmt.bindNull(index);
+        } else if (value instanceof Boolean) {
+            stmt.bindLong(index, SqlUtils.boolToSql((Boolean) value));
+        } else if (value instanceof Long || value instanceof Integer) {
+            stmt.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            stmt.bindDouble(index, ((Number) value).doubleValue());
+        } else {
+            stmt.bindString(index, value.toString());
+        }
+    }
 
-                    if (overwriteLocalChanges) {
-                        values.put("isLocalChange", false);
-                    }
+    private static void bindPostSyncArgs(SQLiteStatement stmt, String[] columns, ContentValues values,
+                                         int localBlogId, String postID, long isPageValue) {
+        stmt.clearBindings();
+        for (int i = 0; i < columns.length; i++) {
+            bindValue(stmt, i + 1, values.get(columns[i]));
+        }
+        int index = columns.length + 1;
+        for (String column : POST_SYNC_OPTIONAL_COLUMNS) {
+            bindValue(stmt, index++, values.get(column));
+        }
+        stmt.bindLong(index, localBlogId);
+        stmt.bindString(index + 1, postID);
+        stmt.bindLong(index + 2, isPageValue);
+    }
 
-                    String whereClause = "blogID=? AND postID=? AND isPage=?";
-                    if (!overwriteLocalChanges) {
-                        whereClause += " AND NOT isLocalChange=1";
-                    }
+    /**
+     * Saves a list of posts decoded with getPostSchema() to the db. Each post is written with a
+     * compiled update, followed by a compiled insert only if the post doesn't exist yet. Posts
+     * with local changes are looked up once for the whole list rather than once per post.
+     * @param valuesList: list of decoded posts
+     * @param localBlogId: the posts table blog id
+     * @param isPage: boolean to save as pages
+     * @param overwriteLocalChanges boolean which determines whether to overwrite posts with local changes
+     */
+    public void savePostValues(List<ContentValues> valuesList, int localBlogId, boolean isPage,
+                               boolean overwriteLocalChanges) {
+        if (valuesList == null || valuesList.size() == 0) {
+            return;
+        }
 
-                    String[] args = {String.valueOf(localBlogId), postID, String.valueOf(SqlUtils.boolToSql(isPage))};
-                    int updateResult = db.update(POSTS_TABLE, values, whereClause, args);
+        String[] columns = getPostSyncColumns(isPage);
+        int numColumns = columns.length;
+        int numOptional = POST_SYNC_OPTIONAL_COLUMNS.length;
+
+        // UPDATE posts SET col=?1,... latitude=COALESCE(?n,latitude),... WHERE blogID=? AND postid=? AND isPage=?
+        StringBuilder sbUpdate = new StringBuilder("UPDATE " + POSTS_TABLE + " SET ");
+        for (int i = 0; i < numColumns; i++) {
+            sbUpdate.append(columns[i]).append("=?").append(i + 1).append(",");
+        }
+        for (int i = 0; i < numOptional; i++) {
+            String column = POST_SYNC_OPTIONAL_COLUMNS[i];
+            int index = numColumns + i + 1;
+            sbUpdate.append(column).append("=COALESCE(?").append(index).append(",").append(column).append("),");
+        }
+        // the featured image url is resolved again only if the featured image changed
+        int thumbnailIndex = Arrays.asList(columns).indexOf("wp_post_thumbnail") + 1;
+        sbUpdate.append("featured_image_url=CASE WHEN wp_post_thumbnail=?").append(thumbnailIndex)
+                .append(" THEN featured_image_url ELSE NULL END,");
+        if (overwriteLocalChanges) {
+            sbUpdate.append("isLocalChange=0,");
+        }
+        sbUpdate.setLength(sbUpdate.length() - 1);
+        int whereIndex = numColumns + numOptional + 1;
+        sbUpdate.append(" WHERE blogID=?").append(whereIndex)
+                .append(" AND postid=?").append(whereIndex + 1)
+                .append(" AND isPage=?").append(whereIndex + 2);
+
+        // INSERT INTO posts (col,... latitude, longitude, blogID, postid, isPage) VALUES (?1,...)
+        StringBuilder sbInsert = new StringBuilder("INSERT INTO " + POSTS_TABLE + " (");
+        StringBuilder sbParams = new StringBuilder();
+        for (int i = 0; i < numColumns + numOptional; i++) {
+            sbInsert.append(i < numColumns ? columns[i] : POST_SYNC_OPTIONAL_COLUMNS[i - numColumns]).append(",");
+            sbParams.append("?").append(i + 1).append(",");
+        }
+        sbInsert.append("blogID,postid,isPage) VALUES (")
+                .append(sbParams)
+                .append("?").append(whereIndex)
+                .append(",?").append(whereIndex + 1)
+                .append(",?").append(whereIndex + 2)
+                .append(")");
+
+        Set<String> localChanges = overwriteLocalChanges
+                ? Collections.<String>emptySet() : getPostIdsWithLocalChanges(localBlogId);
+        long isPageValue = SqlUtils.boolToSql(isPage);
+
+        db.beginTransaction();
+        SQLiteStatement stmtUpdate = db.compileStatement(sbUpdate.toString());
+        SQLiteStatement stmtInsert = db.compileStatement(sbInsert.toString());
+        try {
+            for (ContentValues values : valuesList) {
+                String postID = values.getAsString("postid");
+                if (TextUtils.isEmpty(postID)) {
+                    // If we don't have a post or page ID, move on
+                    continue;
+                }
+                if (localChanges.contains(postID)) {
+                    // don't overwrite local changes
+                    continue;
+                }
 
-                    // only perform insert if update didn't match any rows, and only then if we're
-                    // overwriting local changes or local changes for this post don't exist
-                    if (updateResult == 0 && (overwriteLocalChanges || !postHasLocalChanges(localBlogId, postID))) {
-                        db.insert(POSTS_TABLE, null, values);
-                    }
+                Long dateCreated = values.getAsLong("dateCreated");
+                if (dateCreated == null) {
+                    dateCreated = new Date().getTime();
+                    values.put("dateCreated", dateCreated);
+                }
+                if (values.getAsLong("date_created_gmt") == null) {
+                    Date dateCreatedGmt = new Date(dateCreated);
+                    values.put("date_created_gmt", dateCreatedGmt.getTime() + (dateCreatedGmt.getTimezoneOffset() * 60000));
                 }
+                putPostsListValues(values);
 
-                db.setTransactionSuccessful();
-            } finally {
-                db.endTransaction();
+                // both statements share the same parameter numbering, so they're bound the same way
+                bindPostSyncArgs(stmtUpdate, columns, values, localBlogId, postID, isPageValue);
+                if (stmtUpdate.executeUpdateDelete() == 0) {
+                    bindPostSyncArgs(stmtInsert, columns, values, localBlogId, postID, isPageValue);
+                    stmtInsert.executeInsert();
+                }
             }
+            resolvePostsFeaturedImageUrls(localBlogId);
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            SqlUtils.closeStatement(stmtUpdate);
+            SqlUtils.closeStatement(stmtInsert);
         }
     }
 
     /*
-     * returns list of posts for use in the post list fragment
+     * columns read for the post list - only what PostsListPost needs, so the post content is
+     * never loaded. getPostsListPostFromCursor() reads them by their position in this list.
      */
-    public PostsListPostList getPostsListPosts(int localBlogId, boolean loadPages) {
+    private static final String POSTS_LIST_COLUMNS = "id, blogID, title, date_created_gmt, post_status, "
+            + "wp_post_thumbnail, localDraft, isLocalChange, list_excerpt, list_image_url, featured_image_url";
+
+    /*
+     * returns a page of posts for use in the post list fragment - pass null for afterPost to get the
+     * first page, or the last post of the previous page to get the next one. Posts are ordered with
+     * local drafts first then newest first, and paged by (localDraft, date_created_gmt, id) rather
+     * than by offset so later pages don't have to skip over the earlier ones.
+     */
+    public PostsListPostList getPostsListPosts(int localBlogId, boolean loadPages, PostsListPost afterPost,
+                                               int maxPosts) {
         PostsListPostList listPosts = new PostsListPostList();
 
-        String[] args = {Integer.toString(localBlogId), Integer.toString(loadPages ? 1 : 0)};
-        Cursor c = db.query(POSTS_TABLE, null, "blogID=? AND isPage=?", args, null, null, "localDraft DESC, date_created_gmt DESC");
+        String sql = "SELECT " + POSTS_LIST_COLUMNS + " FROM " + POSTS_TABLE + " WHERE blogID=?1 AND isPage=?2";
+        String[] args;
+        if (afterPost == null) {
+            args = new String[]{Integer.toString(localBlogId), Integer.toString(loadPages ? 1 : 0)};
+        } else {
+            sql += " AND (localDraft<?3 OR (localDraft=?3 AND (date_created_gmt<?4"
+                    + " OR (date_created_gmt=?4 AND id<?5))))";
+            args = new String[]{Integer.toString(localBlogId), Integer.toString(loadPages ? 1 : 0),
+                    Integer.toString(afterPost.isLocalDraft() ? 1 : 0),
+                    Long.toString(afterPost.getDateCreatedGmt()),
+                    Long.toString(afterPost.getPostId())};
+        }
+        sql += " ORDER BY localDraft DESC, date_created_gmt DESC, id DESC LIMIT " + maxPosts;
+
+        Cursor c = db.rawQuery(sql, args);
         try {
             while (c.moveToNext()) {
-                listPosts.add(new PostsListPost(getPostFromCursor(c)));
+                listPosts.add(getPostsListPostFromCursor(c));
             }
             return listPosts;
         } finally {
@@ -1226,6 +1428,77 @@ public class WordPressDB {
         }
     }
 
+    private static PostsListPost getPostsListPostFromCursor(Cursor c) {
+        return new PostsListPost(
+                c.getLong(0),
+                c.getInt(1),
+                StringUtils.unescapeHTML(c.getString(2)),
+                c.getLong(3),
+                c.getString(4),
+                c.getLong(5),
+                SqlUtils.sqlToBool(c.getInt(6)),
+                SqlUtils.sqlToBool(c.getInt(7)),
+                c.getString(8),
+                c.getString(9),
+                c.getString(10));
+    }
+
+    /*
+     * sets featured_image_url for posts where it hasn't been resolved yet - to the thumbnail of
+     * the post's featured image if it's in the media library, or to an empty string if the post
+     * doesn't have a featured image. Posts whose featured image isn't in the media library are
+     * left unresolved until their media is added to the library. Pass zero for localBlogId to
+     * resolve posts in all blogs.
+     */
+    public void resolvePostsFeaturedImageUrls(int localBlogId) {
+        String sql = "UPDATE " + POSTS_TABLE + " SET featured_image_url = CASE WHEN wp_post_thumbnail=0 THEN ''"
+                + " ELSE (SELECT NULLIF(" + COLUMN_NAME_THUMBNAIL_URL + ", '') FROM " + MEDIA_TABLE
+                + " WHERE " + MEDIA_TABLE + ".blogId=" + POSTS_TABLE + ".blogID"
+                + " AND " + MEDIA_TABLE + ".mediaId=CAST(" + POSTS_TABLE + ".wp_post_thumbnail AS TEXT) LIMIT 1) END"
+                + " WHERE featured_image_url IS NULL";
+        if (localBlogId != 0) {
+            db.execSQL(sql + " AND blogID=?", new Object[]{Integer.toString(localBlogId)});
+        } else {
+            db.execSQL(sql);
+        }
+    }
+
+    /*
+     * adds the excerpt and content image shown in the post list to values holding the post's
+     * description and excerpt
+     */
+    private static void putPostsListValues(ContentValues values) {
+        String description = values.getAsString("description");
+        String excerpt = PostsListPost.makeExcerpt(values.getAsString("mt_excerpt"), description);
+        values.put("list_excerpt", StringUtils.notNullStr(excerpt));
+        values.put("list_image_url", StringUtils.notNullStr(PostsListPost.getContentImageUrl(description)));
+    }
+
+    /*
+     * fills in the post list columns for posts written before they existed
+     */
+    private void updatePostsListColumns() {
+        Cursor c = db.rawQuery("SELECT id, description, mt_excerpt FROM " + POSTS_TABLE, null);
+        SQLiteStatement stmt = db.compileStatement("UPDATE " + POSTS_TABLE
+                + " SET list_excerpt=?1, list_image_url=?2 WHERE id=?3");
+        db.beginTransaction();
+        try {
+            while (c.moveToNext()) {
+                String description = c.getString(1);
+                String excerpt = PostsListPost.makeExcerpt(c.getString(2), description);
+                stmt.bindString(1, StringUtils.notNullStr(excerpt));
+                stmt.bindString(2, StringUtils.notNullStr(PostsListPost.getContentImageUrl(description)));
+                stmt.bindLong(3, c.getLong(0));
+                stmt.execute();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            SqlUtils.closeCursor(c);
+            SqlUtils.closeStatement(stmt);
+        }
+    }
+
     private Post getPostFromCursor(Cursor c) {
         Post post = new Post();
 
@@ -1295,8 +1568,10 @@ public class WordPressDB {
             values.put("isLocalChange", post.isLocalChange());
             values.put("mt_excerpt", post.getPostExcerpt());
             values.put("wp_post_thumbnail", post.getFeaturedImageId());
+            putPostsListValues(values);
 
             result = db.insert(POSTS_TABLE, null, values);
+            resolvePostsFeaturedImageUrls(post.getLocalTableBlogId());
 
             if (result >= 0 && post.isLocalDraft()) {
                 post.setLocalTablePostId(result);
@@ -1331,6 +1606,8 @@ public class WordPressDB {
             values.put("isLocalChange", post.isLocalChange());
             values.put("mt_excerpt", post.getPostExcerpt());
             values.put("wp_post_thumbnail", post.getFeaturedImageId());
+            putPostsListValues(values);
+            values.putNull("featured_image_url");
 
             putPostLocation(post, values);
 
@@ -1340,6 +1617,7 @@ public class WordPressDB {
                             String.valueOf(post.getLocalTablePostId()),
                             String.valueOf(SqlUtils.boolToSql(post.isPage()))
                     });
+            resolvePostsFeaturedImageUrls(post.getLocalTableBlogId());
         }
 
         return (result);
@@ -1802,9 +2080,10 @@ public class WordPressDB {
         db.delete(MEDIA_TABLE, "blogId='" + post.getLocalTableBlogId() + "' AND postID=" + post.getLocalTablePostId(), null);
     }
 
-    /** Get the queued media files for upload for a given blogId **/
-    public Cursor getMediaUploadQueue(String blogId) {
-        return db.rawQuery("SELECT * FROM " + MEDIA_TABLE + " WHERE uploadState=? AND blogId=?", new String[] {"queued", blogId});
+    /** Get the queued media files for upload across all blogs, oldest first **/
+    public Cursor getMediaUploadQueue() {
+        return db.rawQuery("SELECT blogId, mediaId FROM " + MEDIA_TABLE + " WHERE uploadState=? ORDER BY id",
+                new String[] {"queued"});
     }
 
     /** Update a media file to a new upload state **/
@@ -1912,18 +2191,18 @@ public class WordPressDB {
         db.delete(MEDIA_TABLE, "blogId=? AND uploadState=?", new String[]{blogId, "deleted"});
     }
 
-    /** Get a media file scheduled for delete for a given blogId **/
-    public Cursor getMediaDeleteQueueItem(String blogId) {
-        return db.rawQuery("SELECT blogId, mediaId FROM " + MEDIA_TABLE + " WHERE uploadState=? AND blogId=? LIMIT 1",
-                new String[]{"delete", blogId});
-    }
-
     /** Get all media files scheduled for delete for a given blogId **/
     public Cursor getMediaDeleteQueueItems(String blogId) {
         return db.rawQuery("SELECT blogId, mediaId FROM " + MEDIA_TABLE + " WHERE uploadState=? AND blogId=?",
                 new String[]{"delete", blogId});
     }
 
+    /** Get all media files scheduled for delete across all blogs, oldest first **/
+    public Cursor getMediaDeleteQueueItems() {
+        return db.rawQuery("SELECT blogId, mediaId FROM " + MEDIA_TABLE + " WHERE uploadState=? ORDER BY id",
+                new String[]{"delete"});
+    }
+
     public boolean hasMediaDeleteQueueItems(int blogId) {
         return SqlUtils.boolForQuery(db, "SELECT 1 FROM " + MEDIA_TABLE + " WHERE uploadState=? AND blogId=?",
                 new String[]{"delete", Integer.toString(blogId)});
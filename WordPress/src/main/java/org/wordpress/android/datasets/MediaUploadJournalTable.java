@@ -0,0 +1,184 @@
+package org.wordpress.android.datasets;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import org.wordpress.android.WordPress;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.SqlUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Journal of media uploads started by MediaUploadService, kept next to media.uploadState. An
+ * entry is written when an upload starts, updated as bytes are sent and removed once the upload
+ * succeeds or is abandoned. After a crash or a dropped connection the journal tells the service
+ * which interrupted uploads can be retried - the file must be unchanged since the upload started
+ * and the upload must not have used up its attempts.
+ */
+public class MediaUploadJournalTable {
+    private static final String JOURNAL_TABLE = "media_upload_journal";
+
+    public static final int MAX_ATTEMPTS = 3;
+
+    public static void createTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + JOURNAL_TABLE + " ("
+                + "    blog_id              TEXT NOT NULL,"
+                + "    media_id             TEXT NOT NULL,"
+                + "    file_path            TEXT,"
+                + "    file_size            INTEGER DEFAULT 0,"
+                + "    file_modified        INTEGER DEFAULT 0,"
+                + "    bytes_sent           INTEGER DEFAULT 0,"
+                + "    attempts             INTEGER DEFAULT 0,"
+                + "    PRIMARY KEY (blog_id, media_id)"
+                + " );");
+    }
+
+    private static void dropTables(SQLiteDatabase db) {
+        db.execSQL("DROP TABLE IF EXISTS " + JOURNAL_TABLE);
+    }
+
+    public static void reset(SQLiteDatabase db) {
+        AppLog.i(AppLog.T.MEDIA, "resetting media upload journal");
+        dropTables(db);
+        createTables(db);
+    }
+
+    private static SQLiteDatabase getReadableDb() {
+        return WordPress.wpDB.getDatabase();
+    }
+    private static SQLiteDatabase getWritableDb() {
+        return WordPress.wpDB.getDatabase();
+    }
+
+    /*
+     * records the start of an upload attempt - the attempt count carries over from earlier attempts
+     * unless the file has changed since, returns the number of this attempt
+     */
+    public static int beginAttempt(String blogId, String mediaId, String filePath) {
+        File file = new File(filePath != null ? filePath : "");
+        long fileSize = file.length();
+        long fileModified = file.lastModified();
+
+        int attempts = 0;
+        String[] args = {blogId, mediaId};
+        Cursor c = getReadableDb().rawQuery("SELECT file_path, file_size, file_modified, attempts FROM "
+                + JOURNAL_TABLE + " WHERE blog_id=? AND media_id=?", args);
+        try {
+            if (c.moveToFirst() && isSameFile(c.getString(0), c.getLong(1), c.getLong(2), filePath, fileSize, fileModified)) {
+                attempts = c.getInt(3);
+            }
+        } finally {
+            SqlUtils.closeCursor(c);
+        }
+
+        SQLiteStatement stmt = getWritableDb().compileStatement("INSERT OR REPLACE INTO " + JOURNAL_TABLE
+                + " (blog_id, media_id, file_path, file_size, file_modified, bytes_sent, attempts)"
+                + " VALUES (?1,?2,?3,?4,?5,0,?6)");
+        try {
+            stmt.bindString(1, blogId);
+            stmt.bindString(2, mediaId);
+            if (filePath != null) {
+                stmt.bindString(3, filePath);
+            } else {
+                stmt.bindNull(3);
+            }
+            stmt.bindLong(4, fileSize);
+            stmt.bindLong(5, fileModified);
+            stmt.bindLong(6, attempts + 1);
+            stmt.execute();
+        } finally {
+            SqlUtils.closeStatement(stmt);
+        }
+        return attempts + 1;
+    }
+
+    public static void setBytesSent(String blogId, String mediaId, long bytesSent) {
+        SQLiteStatement stmt = getWritableDb().compileStatement("UPDATE " + JOURNAL_TABLE
+                + " SET bytes_sent=?1 WHERE blog_id=?2 AND media_id=?3");
+        try {
+            stmt.bindLong(1, bytesSent);
+            stmt.bindString(2, blogId);
+            stmt.bindString(3, mediaId);
+            stmt.execute();
+        } finally {
+            SqlUtils.closeStatement(stmt);
+        }
+    }
+
+    public static long getBytesSent(String blogId, String mediaId) {
+        return SqlUtils.longForQuery(getReadableDb(), "SELECT bytes_sent FROM " + JOURNAL_TABLE
+                + " WHERE blog_id=? AND media_id=?", new String[]{blogId, mediaId});
+    }
+
+    public static long getFileSize(String blogId, String mediaId) {
+        return SqlUtils.longForQuery(getReadableDb(), "SELECT file_size FROM " + JOURNAL_TABLE
+                + " WHERE blog_id=? AND media_id=?", new String[]{blogId, mediaId});
+    }
+
+    public static void removeUpload(String blogId, String mediaId) {
+        getWritableDb().delete(JOURNAL_TABLE, "blog_id=? AND media_id=?", new String[]{blogId, mediaId});
+    }
+
+    /*
+     * returns true if the interrupted upload can be tried again
+     */
+    public static boolean isResumable(String blogId, String mediaId) {
+        String[] args = {blogId, mediaId};
+        Cursor c = getReadableDb().rawQuery("SELECT file_path, file_size, file_modified, attempts FROM "
+                + JOURNAL_TABLE + " WHERE blog_id=? AND media_id=?", args);
+        try {
+            return c.moveToFirst() && isResumable(c);
+        } finally {
+            SqlUtils.closeCursor(c);
+        }
+    }
+
+    /*
+     * returns the ids of the blog's interrupted uploads which can be tried again, and removes the
+     * entries for the ones which can't
+     */
+    public static List<String> getResumableUploads(String blogId) {
+        List<String> resumable = new ArrayList<>();
+        List<String> abandoned = new ArrayList<>();
+        Cursor c = getReadableDb().rawQuery("SELECT file_path, file_size, file_modified, attempts, media_id FROM "
+                + JOURNAL_TABLE + " WHERE blog_id=?", new String[]{blogId});
+        try {
+            while (c.moveToNext()) {
+                if (isResumable(c)) {
+                    resumable.add(c.getString(4));
+                } else {
+                    abandoned.add(c.getString(4));
+                }
+            }
+        } finally {
+            SqlUtils.closeCursor(c);
+        }
+
+        for (String mediaId : abandoned) {
+            removeUpload(blogId, mediaId);
+        }
+        return resumable;
+    }
+
+    /*
+     * cursor columns are file_path, file_size, file_modified, attempts
+     */
+    private static boolean isResumable(Cursor c) {
+        String filePath = c.getString(0);
+        if (filePath == null || c.getInt(3) >= MAX_ATTEMPTS) {
+            return false;
+        }
+        File file = new File(filePath);
+        return file.exists() && isSameFile(filePath, c.getLong(1), c.getLong(2), filePath, file.length(),
+                file.lastModified());
+    }
+
+    private static boolean isSameFile(String path1, long size1, long modified1,
+                                      String path2, long size2, long modified2) {
+        return path1 != null && path1.equals(path2) && size1 == size2 && modified1 == modified2;
+    }
+}
@@ -0,0 +1,150 @@
+package org.wordpress.android.datasets;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import org.wordpress.android.WordPress;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.SqlUtils;
+
+/**
+ * Journal of the edits autosaved by EditPostActivity. Rather than rewriting the whole post row every
+ * time the editor autosaves, each autosave appends the part of the title and content that changed
+ * since the previous one. The journal starts from empty text, so replaying it in order rebuilds the
+ * title and content as they were at the last autosave - that's how edits are recovered after a crash.
+ * Once the post itself is saved the journal is no longer needed and is cleared.
+ */
+public class PostAutosaveJournalTable {
+    private static final String JOURNAL_TABLE = "post_autosave_journal";
+
+    private static final int FIELD_TITLE = 0;
+    private static final int FIELD_CONTENT = 1;
+
+    public static void createTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + JOURNAL_TABLE + " ("
+                + "    id                   INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "    local_post_id        INTEGER NOT NULL,"
+                + "    field                INTEGER NOT NULL,"
+                + "    start                INTEGER NOT NULL,"
+                + "    delete_count         INTEGER NOT NULL,"
+                + "    text                 TEXT"
+                + " );");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_post_autosave_journal ON " + JOURNAL_TABLE + "(local_post_id)");
+    }
+
+    private static void dropTables(SQLiteDatabase db) {
+        db.execSQL("DROP TABLE IF EXISTS " + JOURNAL_TABLE);
+    }
+
+    public static void reset(SQLiteDatabase db) {
+        AppLog.i(AppLog.T.POSTS, "resetting post autosave journal");
+        dropTables(db);
+        createTables(db);
+    }
+
+    private static SQLiteDatabase getReadableDb() {
+        return WordPress.wpDB.getDatabase();
+    }
+    private static SQLiteDatabase getWritableDb() {
+        return WordPress.wpDB.getDatabase();
+    }
+
+    /*
+     * appends the changes from the previously journaled title and content to the current ones - pass
+     * null for the previous values when nothing has been journaled for the post yet
+     */
+    public static void addChanges(long localPostId, String oldTitle, String newTitle,
+                                  String oldContent, String newContent) {
+        SQLiteDatabase db = getWritableDb();
+        SQLiteStatement stmt = db.compileStatement("INSERT INTO " + JOURNAL_TABLE
+                + " (local_post_id, field, start, delete_count, text) VALUES (?1,?2,?3,?4,?5)");
+        db.beginTransaction();
+        try {
+            addChange(stmt, localPostId, FIELD_TITLE, oldTitle, newTitle);
+            addChange(stmt, localPostId, FIELD_CONTENT, oldContent, newContent);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            SqlUtils.closeStatement(stmt);
+        }
+    }
+
+    /*
+     * journals the smallest single replacement which turns oldText into newText - everything between
+     * the text the two have in common at the start and at the end
+     */
+    private static void addChange(SQLiteStatement stmt, long localPostId, int field, String oldText, String newText) {
+        if (oldText == null) {
+            oldText = "";
+        }
+        if (newText == null) {
+            newText = "";
+        }
+        if (oldText.equals(newText)) {
+            return;
+        }
+
+        int maxCommon = Math.min(oldText.length(), newText.length());
+        int prefix = 0;
+        while (prefix < maxCommon && oldText.charAt(prefix) == newText.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < maxCommon - prefix
+                && oldText.charAt(oldText.length() - 1 - suffix) == newText.charAt(newText.length() - 1 - suffix)) {
+            suffix++;
+        }
+
+        stmt.bindLong(1, localPostId);
+        stmt.bindLong(2, field);
+        stmt.bindLong(3, prefix);
+        stmt.bindLong(4, oldText.length() - prefix - suffix);
+        stmt.bindString(5, newText.substring(prefix, newText.length() - suffix));
+        stmt.executeInsert();
+    }
+
+    public static boolean hasChanges(long localPostId) {
+        return SqlUtils.boolForQuery(getReadableDb(), "SELECT 1 FROM " + JOURNAL_TABLE
+                + " WHERE local_post_id=? LIMIT 1", new String[]{Long.toString(localPostId)});
+    }
+
+    public static int getNumChanges(long localPostId) {
+        return SqlUtils.intForQuery(getReadableDb(), "SELECT COUNT(*) FROM " + JOURNAL_TABLE
+                + " WHERE local_post_id=?", new String[]{Long.toString(localPostId)});
+    }
+
+    /*
+     * replays the journal to rebuild the title or content as of the last autosave
+     */
+    public static String getTitle(long localPostId) {
+        return replay(localPostId, FIELD_TITLE);
+    }
+    public static String getContent(long localPostId) {
+        return replay(localPostId, FIELD_CONTENT);
+    }
+
+    private static String replay(long localPostId, int field) {
+        StringBuilder sb = new StringBuilder();
+        String[] args = {Long.toString(localPostId), Integer.toString(field)};
+        Cursor c = getReadableDb().rawQuery("SELECT start, delete_count, text FROM " + JOURNAL_TABLE
+                + " WHERE local_post_id=? AND field=? ORDER BY id", args);
+        try {
+            while (c.moveToNext()) {
+                int start = Math.min(c.getInt(0), sb.length());
+                int end = Math.min(start + c.getInt(1), sb.length());
+                sb.replace(start, end, c.isNull(2) ? "" : c.getString(2));
+            }
+        } finally {
+            SqlUtils.closeCursor(c);
+        }
+        return sb.toString();
+    }
+
+    /*
+     * called once the post has been saved or deleted
+     */
+    public static void clearChanges(long localPostId) {
+        getWritableDb().delete(JOURNAL_TABLE, "local_post_id=?", new String[]{Long.toString(localPostId)});
+    }
+}
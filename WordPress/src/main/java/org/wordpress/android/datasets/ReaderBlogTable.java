@@ -179,25 +179,30 @@ public class ReaderBlogTable {
     /*
      * set followed blogs from the read/following/mine endpoint
      */
-    public static void setFollowedBlogs(ReaderBlogList followedBlogs) {
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
-        try {
-            // first set all existing blogs to not followed
-            db.execSQL("UPDATE tbl_blog_info SET is_following=0");
+    public static void setFollowedBlogs(final ReaderBlogList followedBlogs) {
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteDatabase db = ReaderDatabase.getWritableDb();
+                db.beginTransaction();
+                try {
+                    // first set all existing blogs to not followed
+                    db.execSQL("UPDATE tbl_blog_info SET is_following=0");
+
+                    // then insert passed ones
+                    if (followedBlogs != null) {
+                        for (ReaderBlog blog: followedBlogs) {
+                            addOrUpdateBlog(blog);
+                        }
+                    }
 
-            // then insert passed ones
-            if (followedBlogs != null) {
-                for (ReaderBlog blog: followedBlogs) {
-                    addOrUpdateBlog(blog);
+                    db.setTransactionSuccessful();
+
+                } finally {
+                    db.endTransaction();
                 }
             }
-
-            db.setTransactionSuccessful();
-
-        } finally {
-            db.endTransaction();
-        }
+        });
     }
 
     /*
@@ -221,20 +226,30 @@ public class ReaderBlogTable {
     /*
      * sets the follow state for passed blog without creating a record for it if it doesn't exist
      */
-    public static void setIsFollowedBlogId(long blogId, boolean isFollowed) {
-        ReaderDatabase.getWritableDb().execSQL(
-                "UPDATE tbl_blog_info SET is_following="
-                        + SqlUtils.boolToSql(isFollowed)
-                        + " WHERE blog_id=?",
-                new String[]{Long.toString(blogId)});
+    public static void setIsFollowedBlogId(final long blogId, final boolean isFollowed) {
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                ReaderDatabase.getWritableDb().execSQL(
+                        "UPDATE tbl_blog_info SET is_following="
+                                + SqlUtils.boolToSql(isFollowed)
+                                + " WHERE blog_id=?",
+                        new String[]{Long.toString(blogId)});
+            }
+        });
     }
 
-    public static void setIsFollowedFeedId(long feedId, boolean isFollowed) {
-        ReaderDatabase.getWritableDb().execSQL(
-                "UPDATE tbl_blog_info SET is_following="
-                        + SqlUtils.boolToSql(isFollowed)
-                        + " WHERE feed_id=?",
-                new String[]{Long.toString(feedId)});
+    public static void setIsFollowedFeedId(final long feedId, final boolean isFollowed) {
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                ReaderDatabase.getWritableDb().execSQL(
+                        "UPDATE tbl_blog_info SET is_following="
+                                + SqlUtils.boolToSql(isFollowed)
+                                + " WHERE feed_id=?",
+                        new String[]{Long.toString(feedId)});
+            }
+        });
     }
 
     public static boolean hasFollowedBlogs() {
@@ -296,40 +311,45 @@ public class ReaderBlogTable {
         }
     }
 
-    public static void setRecommendedBlogs(ReaderRecommendBlogList blogs) {
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        SQLiteStatement stmt = db.compileStatement(
-                "INSERT INTO tbl_recommended_blogs"
-                        + " (blog_id, follow_reco_id, score, title, blog_url, image_url, reason)"
-                        + " VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7)");
-        db.beginTransaction();
-        try {
-            try {
-                // first delete all recommended blogs
-                SqlUtils.deleteAllRowsInTable(db, "tbl_recommended_blogs");
-
-                // then insert the passed ones
-                if (blogs != null && blogs.size() > 0) {
-                    for (ReaderRecommendedBlog blog : blogs) {
-                        stmt.bindLong  (1, blog.blogId);
-                        stmt.bindLong  (2, blog.followRecoId);
-                        stmt.bindLong  (3, blog.score);
-                        stmt.bindString(4, blog.getTitle());
-                        stmt.bindString(5, blog.getBlogUrl());
-                        stmt.bindString(6, blog.getImageUrl());
-                        stmt.bindString(7, blog.getReason());
-                        stmt.execute();
+    public static void setRecommendedBlogs(final ReaderRecommendBlogList blogs) {
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteDatabase db = ReaderDatabase.getWritableDb();
+                SQLiteStatement stmt = db.compileStatement(
+                        "INSERT INTO tbl_recommended_blogs"
+                                + " (blog_id, follow_reco_id, score, title, blog_url, image_url, reason)"
+                                + " VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7)");
+                db.beginTransaction();
+                try {
+                    try {
+                        // first delete all recommended blogs
+                        SqlUtils.deleteAllRowsInTable(db, "tbl_recommended_blogs");
+
+                        // then insert the passed ones
+                        if (blogs != null && blogs.size() > 0) {
+                            for (ReaderRecommendedBlog blog : blogs) {
+                                stmt.bindLong  (1, blog.blogId);
+                                stmt.bindLong  (2, blog.followRecoId);
+                                stmt.bindLong  (3, blog.score);
+                                stmt.bindString(4, blog.getTitle());
+                                stmt.bindString(5, blog.getBlogUrl());
+                                stmt.bindString(6, blog.getImageUrl());
+                                stmt.bindString(7, blog.getReason());
+                                stmt.execute();
+                            }
+                        }
+                        db.setTransactionSuccessful();
+
+                    } catch (SQLException e) {
+                        AppLog.e(AppLog.T.READER, e);
                     }
+                } finally {
+                    SqlUtils.closeStatement(stmt);
+                    db.endTransaction();
                 }
-                db.setTransactionSuccessful();
-
-            } catch (SQLException e) {
-                AppLog.e(AppLog.T.READER, e);
             }
-        } finally {
-            SqlUtils.closeStatement(stmt);
-            db.endTransaction();
-        }
+        });
     }
 
     /*
@@ -153,44 +153,49 @@ public class ReaderCommentTable {
         addOrUpdateComments(comments);
     }
 
-    public static void addOrUpdateComments(ReaderCommentList comments) {
+    public static void addOrUpdateComments(final ReaderCommentList comments) {
         if (comments == null || comments.size() == 0) {
             return;
         }
 
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
-        SQLiteStatement stmt = db.compileStatement("INSERT OR REPLACE INTO tbl_comments ("
-                                                  + COLUMN_NAMES
-                                                  + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13,?14,?15,?16)");
-        try {
-            for (ReaderComment comment: comments) {
-                stmt.bindLong  (1,  comment.blogId);
-                stmt.bindLong  (2,  comment.postId);
-                stmt.bindLong  (3,  comment.commentId);
-                stmt.bindLong  (4,  comment.parentId);
-                stmt.bindString(5,  comment.getAuthorName());
-                stmt.bindString(6,  comment.getAuthorAvatar());
-                stmt.bindString(7,  comment.getAuthorUrl());
-                stmt.bindLong  (8,  comment.authorId);
-                stmt.bindLong  (9,  comment.authorBlogId);
-                stmt.bindString(10, comment.getPublished());
-                stmt.bindLong  (11, comment.timestamp);
-                stmt.bindString(12, comment.getStatus());
-                stmt.bindString(13, comment.getText());
-                stmt.bindLong  (14, comment.numLikes);
-                stmt.bindLong  (15, SqlUtils.boolToSql(comment.isLikedByCurrentUser));
-                stmt.bindLong  (16, comment.pageNumber);
-
-                stmt.execute();
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteDatabase db = ReaderDatabase.getWritableDb();
+                db.beginTransaction();
+                SQLiteStatement stmt = db.compileStatement("INSERT OR REPLACE INTO tbl_comments ("
+                                                          + COLUMN_NAMES
+                                                          + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13,?14,?15,?16)");
+                try {
+                    for (ReaderComment comment: comments) {
+                        stmt.bindLong  (1,  comment.blogId);
+                        stmt.bindLong  (2,  comment.postId);
+                        stmt.bindLong  (3,  comment.commentId);
+                        stmt.bindLong  (4,  comment.parentId);
+                        stmt.bindString(5,  comment.getAuthorName());
+                        stmt.bindString(6,  comment.getAuthorAvatar());
+                        stmt.bindString(7,  comment.getAuthorUrl());
+                        stmt.bindLong  (8,  comment.authorId);
+                        stmt.bindLong  (9,  comment.authorBlogId);
+                        stmt.bindString(10, comment.getPublished());
+                        stmt.bindLong  (11, comment.timestamp);
+                        stmt.bindString(12, comment.getStatus());
+                        stmt.bindString(13, comment.getText());
+                        stmt.bindLong  (14, comment.numLikes);
+                        stmt.bindLong  (15, SqlUtils.boolToSql(comment.isLikedByCurrentUser));
+                        stmt.bindLong  (16, comment.pageNumber);
+
+                        stmt.execute();
+                    }
+
+                    db.setTransactionSuccessful();
+
+                } finally {
+                    db.endTransaction();
+                    SqlUtils.closeStatement(stmt);
+                }
             }
-
-            db.setTransactionSuccessful();
-
-        } finally {
-            db.endTransaction();
-            SqlUtils.closeStatement(stmt);
-        }
+        });
     }
 
     public static ReaderComment getComment(long blogId, long postId, long commentId) {
@@ -258,25 +263,30 @@ public class ReaderCommentTable {
     /*
      * updates both the like count for a comment and whether it's liked by the current user
      */
-    public static void setLikesForComment(ReaderComment comment, int numLikes, boolean isLikedByCurrentUser) {
+    public static void setLikesForComment(final ReaderComment comment, final int numLikes, final boolean isLikedByCurrentUser) {
         if (comment == null) {
             return;
         }
 
-        String[] args =
-               {Long.toString(comment.blogId),
-                Long.toString(comment.postId),
-                Long.toString(comment.commentId)};
-
-        ContentValues values = new ContentValues();
-        values.put("num_likes", numLikes);
-        values.put("is_liked", SqlUtils.boolToSql(isLikedByCurrentUser));
-
-        ReaderDatabase.getWritableDb().update(
-                "tbl_comments",
-                values,
-                "blog_id=? AND post_id=? AND comment_id=?",
-                args);
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                String[] args =
+                       {Long.toString(comment.blogId),
+                        Long.toString(comment.postId),
+                        Long.toString(comment.commentId)};
+
+                ContentValues values = new ContentValues();
+                values.put("num_likes", numLikes);
+                values.put("is_liked", SqlUtils.boolToSql(isLikedByCurrentUser));
+
+                ReaderDatabase.getWritableDb().update(
+                        "tbl_comments",
+                        values,
+                        "blog_id=? AND post_id=? AND comment_id=?",
+                        args);
+            }
+        });
     }
 
     public static boolean isCommentLikedByCurrentUser(ReaderComment comment) {
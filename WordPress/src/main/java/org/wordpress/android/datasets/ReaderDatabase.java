@@ -108,6 +108,62 @@ public class ReaderDatabase extends SQLiteOpenHelper {
         return getDatabase().getWritableDatabase();
     }
 
+    /*
+     *  all writes which use a transaction go through a single writer thread, which commits the
+     *  writes waiting for it together - see ReaderDatabaseWriter
+     */
+    private static ReaderDatabaseWriter mWriter;
+    private static ReaderDatabaseWriter getWriter() {
+        if (mWriter == null) {
+            synchronized(mDbLock) {
+                if (mWriter == null) {
+                    mWriter = new ReaderDatabaseWriter();
+                }
+            }
+        }
+        return mWriter;
+    }
+
+    /*
+     * runs the passed write on the writer thread and returns once it's committed, so anything
+     * read afterwards sees it - exceptions thrown by the write are rethrown here
+     */
+    public static void write(Runnable write) {
+        getWriter().write(write);
+    }
+
+    /*
+     * queues the passed write on the writer thread without waiting for it - use awaitWrites()
+     * before reading anything which depends on it
+     */
+    public static void writeAsync(Runnable write) {
+        getWriter().writeAsync(write);
+    }
+
+    /*
+     * returns once all writes queued before it have been committed
+     */
+    public static void awaitWrites() {
+        getWriter().awaitWrites();
+    }
+
+    /*
+     * returns how many batches the writer has committed - fewer than the number of writes when
+     * writes queued together are coalesced
+     */
+    public static long getNumWriteBatches() {
+        return mWriter != null ? mWriter.getNumBatches() : 0;
+    }
+
+    /*
+     * logs the number of writes, batch sizes and commit times
+     */
+    public static void logWriteStats() {
+        if (mWriter != null) {
+            mWriter.logStats();
+        }
+    }
+
     @Override
     public void onOpen(SQLiteDatabase db) {
         super.onOpen(db);
@@ -118,14 +174,21 @@ public class ReaderDatabase extends SQLiteOpenHelper {
      * resets (clears) the reader database
      */
     public static void reset() {
-        // note that we must call getWritableDb() before getDatabase() in case the database
-        // object hasn't been created yet
-        SQLiteDatabase db = getWritableDb();
-        getDatabase().reset(db);
+        write(new Runnable() {
+            @Override
+            public void run() {
+                // note that we must call getWritableDb() before getDatabase() in case the database
+                // object hasn't been created yet
+                SQLiteDatabase db = getWritableDb();
+                getDatabase().reset(db);
+            }
+        });
     }
 
     public ReaderDatabase(Context context) {
         super(context, DB_NAME, null, DB_VERSION);
+        // lets the reader screens keep reading while the writer thread commits
+        setWriteAheadLoggingEnabled(true);
     }
 
     @Override
@@ -222,12 +285,12 @@ public class ReaderDatabase extends SQLiteOpenHelper {
     }
 
     public static void purgeAsync() {
-        new Thread() {
+        writeAsync(new Runnable() {
             @Override
             public void run() {
                 purge();
             }
-        }.start();
+        });
     }
 
     /*
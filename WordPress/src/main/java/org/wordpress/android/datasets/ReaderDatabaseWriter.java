@@ -0,0 +1,307 @@
+package org.wordpress.android.datasets;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteTransactionListener;
+import android.os.SystemClock;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs all writes to the reader database on a single thread, committing the writes which are waiting when it gets
+ * to them in one transaction rather than a transaction each - see ReaderDatabase.write() and writeAsync(). Writes
+ * are committed in the order they're queued, and since they all go through here they never wait on each other for
+ * SQLite's lock.
+ *
+ * Writes may begin their own (nested) transactions. If any of them fails the whole batch is rolled back, so the
+ * writes in it are then replayed one at a time in their own transactions - that way a write which fails only loses
+ * its own changes, as it did before writes were batched. Because of this a write may run more than once, so it
+ * should only change the database.
+ */
+class ReaderDatabaseWriter {
+    // how long to wait for more writes to batch with ones nobody is waiting for
+    private static final long BATCH_WINDOW_MS = 20;
+    private static final int MAX_BATCH_SIZE = 50;
+
+    private final LinkedBlockingQueue<PendingWrite> mQueue = new LinkedBlockingQueue<>();
+    private final Thread mThread;
+
+    private final AtomicLong mNumBatches = new AtomicLong();
+    private final AtomicLong mNumWrites = new AtomicLong();
+    private final AtomicLong mNumRolledBack = new AtomicLong();
+    private final AtomicLong mMaxBatchSize = new AtomicLong();
+    private final AtomicLong mTotalCommitMs = new AtomicLong();
+    private final AtomicLong mMaxCommitMs = new AtomicLong();
+
+    ReaderDatabaseWriter() {
+        // runs at the default priority rather than in the background since the UI thread may wait on it
+        mThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, "reader-db-writer");
+        mThread.setDaemon(true);
+        mThread.start();
+    }
+
+    /*
+     * runs the passed write and returns once it has been committed
+     */
+    void write(Runnable write) {
+        if (Thread.currentThread() == mThread) {
+            write.run();
+            return;
+        }
+        PendingWrite pending = new PendingWrite(write, true);
+        mQueue.add(pending);
+        pending.await();
+        if (pending.mException != null) {
+            throw pending.mException;
+        }
+    }
+
+    /*
+     * queues the passed write and returns immediately
+     */
+    void writeAsync(Runnable write) {
+        if (Thread.currentThread() == mThread) {
+            write.run();
+        } else {
+            mQueue.add(new PendingWrite(write, false));
+        }
+    }
+
+    /*
+     * returns once every write queued before it has been committed
+     */
+    void awaitWrites() {
+        if (Thread.currentThread() != mThread) {
+            PendingWrite barrier = new PendingWrite(null, true);
+            mQueue.add(barrier);
+            barrier.await();
+        }
+    }
+
+    long getNumBatches() {
+        return mNumBatches.get();
+    }
+
+    long getAverageBatchSize() {
+        long numBatches = mNumBatches.get();
+        return numBatches > 0 ? mNumWrites.get() / numBatches : 0;
+    }
+
+    long getMaxBatchSize() {
+        return mMaxBatchSize.get();
+    }
+
+    long getAverageCommitMs() {
+        long numBatches = mNumBatches.get();
+        return numBatches > 0 ? mTotalCommitMs.get() / numBatches : 0;
+    }
+
+    long getMaxCommitMs() {
+        return mMaxCommitMs.get();
+    }
+
+    void logStats() {
+        long numBatches = mNumBatches.get();
+        if (numBatches > 0) {
+            AppLog.d(T.PROFILING, "reader db writer > " + mNumWrites.get() + " writes in " + numBatches + " batches"
+                    + ", batch size avg " + getAverageBatchSize() + " max " + mMaxBatchSize.get()
+                    + ", commit avg " + getAverageCommitMs() + "ms max " + mMaxCommitMs.get() + "ms"
+                    + ", rolled back " + mNumRolledBack.get()
+                    + ", queued " + mQueue.size());
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        while (true) {
+            try {
+                takeBatch(batch);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            try {
+                commitBatch(batch);
+            } catch (RuntimeException e) {
+                // the database couldn't be written to at all, so fail everything in the batch
+                AppLog.e(T.READER, "reader db writer > failed to write batch", e);
+                for (PendingWrite pending : batch) {
+                    if (pending.mWrite != null && pending.mException == null) {
+                        pending.mException = e;
+                    }
+                }
+            }
+            for (PendingWrite pending : batch) {
+                pending.mDone.countDown();
+            }
+            batch.clear();
+        }
+    }
+
+    /*
+     * waits for the next write then adds the ones queued behind it to the batch - when someone is waiting on a write
+     * in the batch only the ones already queued are added, otherwise it waits a short while for more to arrive
+     */
+    private void takeBatch(List<PendingWrite> batch) throws InterruptedException {
+        PendingWrite pending = mQueue.take();
+        batch.add(pending);
+        boolean isWaitedOn = pending.mIsWaitedOn;
+        long deadline = SystemClock.elapsedRealtime() + BATCH_WINDOW_MS;
+        while (batch.size() < MAX_BATCH_SIZE) {
+            long waitMs = isWaitedOn ? 0 : deadline - SystemClock.elapsedRealtime();
+            pending = waitMs > 0 ? mQueue.poll(waitMs, TimeUnit.MILLISECONDS) : mQueue.poll();
+            if (pending == null) {
+                break;
+            }
+            batch.add(pending);
+            isWaitedOn |= pending.mIsWaitedOn;
+        }
+    }
+
+    private void commitBatch(List<PendingWrite> batch) {
+        int numWrites = 0;
+        for (PendingWrite pending : batch) {
+            if (pending.mWrite != null) {
+                numWrites++;
+            }
+        }
+        if (numWrites == 0) {
+            return;
+        }
+
+        SQLiteDatabase db = ReaderDatabase.getWritableDb();
+        long startedAt = SystemClock.elapsedRealtime();
+        boolean isCommitted = false;
+        if (numWrites > 1) {
+            BatchListener listener = new BatchListener();
+            db.beginTransactionWithListener(listener);
+            try {
+                boolean isFailed = false;
+                for (PendingWrite pending : batch) {
+                    pending.run();
+                    if (pending.mException != null) {
+                        isFailed = true;
+                        break;
+                    }
+                }
+                if (!isFailed) {
+                    db.setTransactionSuccessful();
+                }
+            } finally {
+                try {
+                    db.endTransaction();
+                    isCommitted = listener.mIsCommitted;
+                } catch (RuntimeException e) {
+                    AppLog.e(T.READER, "reader db writer > failed to commit batch", e);
+                }
+            }
+        }
+
+        if (!isCommitted) {
+            if (numWrites > 1) {
+                mNumRolledBack.incrementAndGet();
+            }
+            for (PendingWrite pending : batch) {
+                if (pending.mWrite == null) {
+                    continue;
+                }
+                pending.mException = null;
+                db.beginTransaction();
+                try {
+                    pending.run();
+                    if (pending.mException == null) {
+                        db.setTransactionSuccessful();
+                    }
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        }
+
+        long commitMs = SystemClock.elapsedRealtime() - startedAt;
+        mNumBatches.incrementAndGet();
+        mNumWrites.addAndGet(numWrites);
+        mTotalCommitMs.addAndGet(commitMs);
+        recordMax(mMaxBatchSize, numWrites);
+        recordMax(mMaxCommitMs, commitMs);
+
+        for (PendingWrite pending : batch) {
+            if (pending.mException != null && !pending.mIsWaitedOn) {
+                AppLog.e(T.READER, "reader db writer > write failed", pending.mException);
+            }
+        }
+    }
+
+    private static void recordMax(AtomicLong max, long value) {
+        long current;
+        do {
+            current = max.get();
+        } while (value > current && !max.compareAndSet(current, value));
+    }
+
+    private static class PendingWrite {
+        private final Runnable mWrite;
+        private final boolean mIsWaitedOn;
+        private final CountDownLatch mDone = new CountDownLatch(1);
+        private RuntimeException mException;
+
+        PendingWrite(Runnable write, boolean isWaitedOn) {
+            mWrite = write;
+            mIsWaitedOn = isWaitedOn;
+        }
+
+        void run() {
+            if (mWrite != null) {
+                try {
+                    mWrite.run();
+                } catch (RuntimeException e) {
+                    mException = e;
+                }
+            }
+        }
+
+        void await() {
+            boolean isInterrupted = false;
+            while (true) {
+                try {
+                    mDone.await();
+                    break;
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class BatchListener implements SQLiteTransactionListener {
+        private boolean mIsCommitted;
+
+        @Override
+        public void onBegin() {
+        }
+
+        @Override
+        public void onCommit() {
+            mIsCommitted = true;
+        }
+
+        @Override
+        public void onRollback() {
+            mIsCommitted = false;
+        }
+    }
+}
@@ -80,52 +80,63 @@ public class ReaderLikeTable {
         return SqlUtils.intForQuery(ReaderDatabase.getReadableDb(), "SELECT count(*) FROM tbl_post_likes WHERE blog_id=? AND post_id=?", args);
     }
 
-    public static void setCurrentUserLikesPost(ReaderPost post, boolean isLiked) {
+    public static void setCurrentUserLikesPost(final ReaderPost post, final boolean isLiked) {
         if (post == null) {
             return;
         }
-        long currentUserId = AccountHelper.getDefaultAccount().getUserId();
-        if (isLiked) {
-            ContentValues values = new ContentValues();
-            values.put("blog_id", post.blogId);
-            values.put("post_id", post.postId);
-            values.put("user_id", currentUserId);
-            ReaderDatabase.getWritableDb().insert("tbl_post_likes", null, values);
-        } else {
-            String args[] = {Long.toString(post.blogId), Long.toString(post.postId), Long.toString(currentUserId)};
-            ReaderDatabase.getWritableDb().delete("tbl_post_likes", "blog_id=? AND post_id=? AND user_id=?", args);
-        }
+
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                long currentUserId = AccountHelper.getDefaultAccount().getUserId();
+                if (isLiked) {
+                    ContentValues values = new ContentValues();
+                    values.put("blog_id", post.blogId);
+                    values.put("post_id", post.postId);
+                    values.put("user_id", currentUserId);
+                    ReaderDatabase.getWritableDb().insert("tbl_post_likes", null, values);
+                } else {
+                    String args[] = {Long.toString(post.blogId), Long.toString(post.postId), Long.toString(currentUserId)};
+                    ReaderDatabase.getWritableDb().delete("tbl_post_likes", "blog_id=? AND post_id=? AND user_id=?", args);
+                }
+            }
+        });
     }
 
-    public static void setLikesForPost(ReaderPost post, ReaderUserIdList userIds) {
+    public static void setLikesForPost(final ReaderPost post, final ReaderUserIdList userIds) {
         if (post == null) {
             return;
         }
 
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
-        SQLiteStatement stmt = db.compileStatement("INSERT INTO tbl_post_likes (blog_id, post_id, user_id) VALUES (?1,?2,?3)");
-        try {
-            // first delete all likes for this post
-            String[] args = {Long.toString(post.blogId), Long.toString(post.postId)};
-            db.delete("tbl_post_likes", "blog_id=? AND post_id=?", args);
-
-            // now insert the passed likes
-            if (userIds != null) {
-                stmt.bindLong(1, post.blogId);
-                stmt.bindLong(2, post.postId);
-                for (Long userId: userIds) {
-                    stmt.bindLong(3, userId);
-                    stmt.execute();
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteDatabase db = ReaderDatabase.getWritableDb();
+                db.beginTransaction();
+                SQLiteStatement stmt = db.compileStatement("INSERT INTO tbl_post_likes (blog_id, post_id, user_id) VALUES (?1,?2,?3)");
+                try {
+                    // first delete all likes for this post
+                    String[] args = {Long.toString(post.blogId), Long.toString(post.postId)};
+                    db.delete("tbl_post_likes", "blog_id=? AND post_id=?", args);
+
+                    // now insert the passed likes
+                    if (userIds != null) {
+                        stmt.bindLong(1, post.blogId);
+                        stmt.bindLong(2, post.postId);
+                        for (Long userId: userIds) {
+                            stmt.bindLong(3, userId);
+                            stmt.execute();
+                        }
+                    }
+
+                    db.setTransactionSuccessful();
+
+                } finally {
+                    db.endTransaction();
+                    SqlUtils.closeStatement(stmt);
                 }
             }
-
-            db.setTransactionSuccessful();
-
-        } finally {
-            db.endTransaction();
-            SqlUtils.closeStatement(stmt);
-        }
+        });
     }
 
 
@@ -166,56 +177,66 @@ public class ReaderLikeTable {
                 "SELECT count(*) FROM tbl_comment_likes WHERE blog_id=? AND comment_id=?", args);
     }
 
-    public static void setCurrentUserLikesComment(ReaderComment comment, boolean isLiked) {
+    public static void setCurrentUserLikesComment(final ReaderComment comment, final boolean isLiked) {
         if (comment == null) {
             return;
         }
 
-        long currentUserId = AccountHelper.getDefaultAccount().getUserId();
-        if (isLiked) {
-            ContentValues values = new ContentValues();
-            values.put("blog_id", comment.blogId);
-            values.put("comment_id", comment.commentId);
-            values.put("user_id", currentUserId);
-            ReaderDatabase.getWritableDb().insert("tbl_comment_likes", null, values);
-        } else {
-            String args[] = {Long.toString(comment.blogId),
-                             Long.toString(comment.commentId),
-                             Long.toString(currentUserId)};
-            ReaderDatabase.getWritableDb().delete("tbl_comment_likes",
-                    "blog_id=? AND comment_id=? AND user_id=?", args);
-        }
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                long currentUserId = AccountHelper.getDefaultAccount().getUserId();
+                if (isLiked) {
+                    ContentValues values = new ContentValues();
+                    values.put("blog_id", comment.blogId);
+                    values.put("comment_id", comment.commentId);
+                    values.put("user_id", currentUserId);
+                    ReaderDatabase.getWritableDb().insert("tbl_comment_likes", null, values);
+                } else {
+                    String args[] = {Long.toString(comment.blogId),
+                                     Long.toString(comment.commentId),
+                                     Long.toString(currentUserId)};
+                    ReaderDatabase.getWritableDb().delete("tbl_comment_likes",
+                            "blog_id=? AND comment_id=? AND user_id=?", args);
+                }
+            }
+        });
     }
 
-    public static void setLikesForComment(ReaderComment comment, ReaderUserIdList userIds) {
+    public static void setLikesForComment(final ReaderComment comment, final ReaderUserIdList userIds) {
         if (comment == null) {
             return;
         }
 
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
-        SQLiteStatement stmt = db.compileStatement(
-                "INSERT INTO tbl_comment_likes (blog_id, comment_id, user_id) VALUES (?1,?2,?3)");
-        try {
-            String[] args = {Long.toString(comment.blogId),
-                             Long.toString(comment.commentId)};
-            db.delete("tbl_comment_likes", "blog_id=? AND comment_id=?", args);
-
-            if (userIds != null) {
-                stmt.bindLong(1, comment.blogId);
-                stmt.bindLong(2, comment.commentId);
-                for (Long userId: userIds) {
-                    stmt.bindLong(3, userId);
-                    stmt.execute();
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteDatabase db = ReaderDatabase.getWritableDb();
+                db.beginTransaction();
+                SQLiteStatement stmt = db.compileStatement(
+                        "INSERT INTO tbl_comment_likes (blog_id, comment_id, user_id) VALUES (?1,?2,?3)");
+                try {
+                    String[] args = {Long.toString(comment.blogId),
+                                     Long.toString(comment.commentId)};
+                    db.delete("tbl_comment_likes", "blog_id=? AND comment_id=?", args);
+
+                    if (userIds != null) {
+                        stmt.bindLong(1, comment.blogId);
+                        stmt.bindLong(2, comment.commentId);
+                        for (Long userId: userIds) {
+                            stmt.bindLong(3, userId);
+                            stmt.execute();
+                        }
+                    }
+
+                    db.setTransactionSuccessful();
+
+                } finally {
+                    db.endTransaction();
+                    SqlUtils.closeStatement(stmt);
                 }
             }
-
-            db.setTransactionSuccessful();
-
-        } finally {
-            db.endTransaction();
-            SqlUtils.closeStatement(stmt);
-        }
+        });
     }
 }
 
@@ -17,10 +17,14 @@ import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.actions.ReaderActions;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostIdList;
+import org.wordpress.android.ui.reader.models.ReaderPostDiff;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.CrashlyticsUtils;
 import org.wordpress.android.util.SqlUtils;
 
+import java.util.HashMap;
+import java.util.HashSet;
+
 /**
  * tbl_posts contains all reader posts - the primary key is pseudo_id + tag_name + tag_type,
  * which allows the same post to appear in multiple streams (ex: it can exist in followed
@@ -312,37 +316,112 @@ public class ReaderPostTable {
                 args);
     }
 
+    private static final int MAX_POSTS_PER_COMPARE_QUERY = 400;
+
     /*
-     * returns whether any of the passed posts are new or changed - used after posts are retrieved
+     * compares the passed posts (retrieved from the server for the passed tag, or for a blog/feed
+     * when tag is null) against existing posts - rather than querying each post separately, the
+     * existing rows are loaded in chunks, and the text column is only returned for rows in the
+     * same stream since those are the only ones the passed posts can be compared with
      */
-    public static ReaderActions.UpdateResult comparePosts(ReaderPostList posts) {
+    public static ReaderPostDiff comparePosts(ReaderTag tag, ReaderPostList posts) {
         if (posts == null || posts.size() == 0) {
-            return ReaderActions.UpdateResult.UNCHANGED;
+            return new ReaderPostDiff(ReaderActions.UpdateResult.UNCHANGED, false, null);
         }
 
-        boolean hasChanges = false;
-        for (ReaderPost post: posts) {
-            ReaderPost existingPost = getBlogPost(post.blogId, post.postId, true);
-            if (existingPost == null) {
-                return ReaderActions.UpdateResult.HAS_NEW;
-            } else if (!hasChanges && !post.isSamePost(existingPost)) {
-                hasChanges = true;
+        String tagName = (tag != null ? tag.getTagSlug() : "");
+        int tagType = (tag != null ? tag.tagType.toInt() : 0);
+
+        // existing keys in any stream, and existing posts in this stream
+        HashSet<String> existingKeys = new HashSet<>();
+        HashMap<String, ReaderPost> existingStreamPosts = new HashMap<>();
+
+        for (int start = 0; start < posts.size(); start += MAX_POSTS_PER_COMPARE_QUERY) {
+            int end = Math.min(start + MAX_POSTS_PER_COMPARE_QUERY, posts.size());
+            String[] args = new String[(end - start) + 2];
+            args[0] = tagName;
+            args[1] = Integer.toString(tagType);
+            StringBuilder sbIds = new StringBuilder();
+            for (int i = start; i < end; i++) {
+                if (i > start) {
+                    sbIds.append(",");
+                }
+                sbIds.append("?");
+                args[(i - start) + 2] = Long.toString(posts.get(i).postId);
             }
-        }
 
-        return (hasChanges ? ReaderActions.UpdateResult.CHANGED : ReaderActions.UpdateResult.UNCHANGED);
-    }
+            String sql = "SELECT blog_id, post_id, feed_id, feed_item_id, num_likes, num_replies,"
+                    + " is_followed, is_liked, is_comments_open, title, excerpt,"
+                    + " CASE WHEN tag_name=?1 AND tag_type=?2 THEN text ELSE NULL END AS stream_text"
+                    + " FROM tbl_posts WHERE post_id IN (" + sbIds.toString() + ")";
+            Cursor c = ReaderDatabase.getReadableDb().rawQuery(sql, args);
+            try {
+                while (c.moveToNext()) {
+                    String key = ReaderPostDiff.getKey(c.getLong(0), c.getLong(1));
+                    existingKeys.add(key);
+                    if (!c.isNull(11)) {
+                        ReaderPost post = new ReaderPost();
+                        post.blogId = c.getLong(0);
+                        post.postId = c.getLong(1);
+                        post.feedId = c.getLong(2);
+                        post.feedItemId = c.getLong(3);
+                        post.numLikes = c.getInt(4);
+                        post.numReplies = c.getInt(5);
+                        post.isFollowedByCurrentUser = SqlUtils.sqlToBool(c.getInt(6));
+                        post.isLikedByCurrentUser = SqlUtils.sqlToBool(c.getInt(7));
+                        post.isCommentsOpen = SqlUtils.sqlToBool(c.getInt(8));
+                        post.setTitle(c.getString(9));
+                        post.setExcerpt(c.getString(10));
+                        post.setText(c.getString(11));
+                        existingStreamPosts.put(key, post);
+                    }
+                }
+            } finally {
+                SqlUtils.closeCursor(c);
+            }
+        }
 
-    /*
-     * returns true if any posts in the passed list exist in this list
-     */
-    public static boolean hasOverlap(ReaderPostList posts) {
+        boolean hasNew = false;
+        boolean hasOverlap = false;
+        HashSet<String> changedKeys = new HashSet<>();
         for (ReaderPost post: posts) {
-            if (postExists(post.blogId, post.postId)) {
-                return true;
+            String key = ReaderPostDiff.getKey(post.blogId, post.postId);
+            if (existingKeys.contains(key)) {
+                hasOverlap = true;
+            } else {
+                hasNew = true;
+            }
+            // the stored text may have been shortened by maxText(), so compare against
+            // that rather than the post's actual text
+            ReaderPost existingPost = existingStreamPosts.get(key);
+            if (existingPost == null || !isSameStoredPost(post, existingPost)) {
+                changedKeys.add(key);
             }
         }
-        return false;
+
+        ReaderActions.UpdateResult result;
+        if (hasNew) {
+            result = ReaderActions.UpdateResult.HAS_NEW;
+        } else if (changedKeys.size() > 0) {
+            result = ReaderActions.UpdateResult.CHANGED;
+        } else {
+            result = ReaderActions.UpdateResult.UNCHANGED;
+        }
+
+        return new ReaderPostDiff(result, hasOverlap, changedKeys);
+    }
+
+    private static boolean isSameStoredPost(ReaderPost serverPost, ReaderPost storedPost) {
+        return serverPost.feedId == storedPost.feedId
+                && serverPost.feedItemId == storedPost.feedItemId
+                && serverPost.numLikes == storedPost.numLikes
+                && serverPost.numReplies == storedPost.numReplies
+                && serverPost.isFollowedByCurrentUser == storedPost.isFollowedByCurrentUser
+                && serverPost.isLikedByCurrentUser == storedPost.isLikedByCurrentUser
+                && serverPost.isCommentsOpen == storedPost.isCommentsOpen
+                && serverPost.getTitle().equals(storedPost.getTitle())
+                && serverPost.getExcerpt().equals(storedPost.getExcerpt())
+                && maxText(serverPost).equals(storedPost.getText());
     }
 
     /*
@@ -383,22 +462,27 @@ public class ReaderPostTable {
     /*
      * updates both the like count for a post and whether it's liked by the current user
      */
-    public static void setLikesForPost(ReaderPost post, int numLikes, boolean isLikedByCurrentUser) {
+    public static void setLikesForPost(final ReaderPost post, final int numLikes, final boolean isLikedByCurrentUser) {
         if (post == null) {
             return;
         }
 
-        String[] args = {Long.toString(post.blogId), Long.toString(post.postId)};
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                String[] args = {Long.toString(post.blogId), Long.toString(post.postId)};
 
-        ContentValues values = new ContentValues();
-        values.put("num_likes", numLikes);
-        values.put("is_liked", SqlUtils.boolToSql(isLikedByCurrentUser));
+                ContentValues values = new ContentValues();
+                values.put("num_likes", numLikes);
+                values.put("is_liked", SqlUtils.boolToSql(isLikedByCurrentUser));
 
-        ReaderDatabase.getWritableDb().update(
-                "tbl_posts",
-                values,
-                "blog_id=? AND post_id=?",
-                args);
+                ReaderDatabase.getWritableDb().update(
+                        "tbl_posts",
+                        values,
+                        "blog_id=? AND post_id=?",
+                        args);
+            }
+        });
     }
 
 
@@ -434,18 +518,23 @@ public class ReaderPostTable {
      * set to true
      */
     public static void updateFollowedStatus() {
-        SQLiteStatement statement = ReaderDatabase.getWritableDb().compileStatement(
-                  "UPDATE tbl_posts SET is_followed = 0"
-                + " WHERE is_followed != 0"
-                + " AND blog_id NOT IN (SELECT DISTINCT blog_id FROM tbl_blog_info WHERE is_followed != 0)");
-        try {
-            int count = statement.executeUpdateDelete();
-            if (count > 0) {
-                AppLog.d(AppLog.T.READER, String.format("reader post table > marked %d posts unfollowed", count));
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteStatement statement = ReaderDatabase.getWritableDb().compileStatement(
+                          "UPDATE tbl_posts SET is_followed = 0"
+                        + " WHERE is_followed != 0"
+                        + " AND blog_id NOT IN (SELECT DISTINCT blog_id FROM tbl_blog_info WHERE is_followed != 0)");
+                try {
+                    int count = statement.executeUpdateDelete();
+                    if (count > 0) {
+                        AppLog.d(AppLog.T.READER, String.format("reader post table > marked %d posts unfollowed", count));
+                    }
+                } finally {
+                    statement.close();
+                }
             }
-        } finally {
-            statement.close();
-        }
+        });
     }
 
     /*
@@ -585,40 +674,45 @@ public class ReaderPostTable {
     public static void setFollowStatusForPostsInFeed(long feedId, boolean isFollowed) {
         setFollowStatusForPosts(0, feedId, isFollowed);
     }
-    private static void setFollowStatusForPosts(long blogId, long feedId, boolean isFollowed) {
+    private static void setFollowStatusForPosts(final long blogId, final long feedId, final boolean isFollowed) {
         if (blogId == 0 && feedId == 0) {
             return;
         }
 
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
-        try {
-            if (blogId != 0) {
-                String sql = "UPDATE tbl_posts SET is_followed=" + SqlUtils.boolToSql(isFollowed)
-                          + " WHERE blog_id=?";
-                db.execSQL(sql, new String[]{Long.toString(blogId)});
-            } else {
-                String sql = "UPDATE tbl_posts SET is_followed=" + SqlUtils.boolToSql(isFollowed)
-                          + " WHERE feed_id=?";
-                db.execSQL(sql, new String[]{Long.toString(feedId)});
-            }
-
-
-            // if blog/feed is no longer followed, remove its posts tagged with "Followed Sites"
-            if (!isFollowed) {
-                if (blogId != 0) {
-                    db.delete("tbl_posts", "blog_id=? AND tag_name=?",
-                            new String[]{Long.toString(blogId), ReaderTag.TAG_TITLE_FOLLOWED_SITES});
-                } else {
-                    db.delete("tbl_posts", "feed_id=? AND tag_name=?",
-                            new String[]{Long.toString(feedId), ReaderTag.TAG_TITLE_FOLLOWED_SITES});
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteDatabase db = ReaderDatabase.getWritableDb();
+                db.beginTransaction();
+                try {
+                    if (blogId != 0) {
+                        String sql = "UPDATE tbl_posts SET is_followed=" + SqlUtils.boolToSql(isFollowed)
+                                  + " WHERE blog_id=?";
+                        db.execSQL(sql, new String[]{Long.toString(blogId)});
+                    } else {
+                        String sql = "UPDATE tbl_posts SET is_followed=" + SqlUtils.boolToSql(isFollowed)
+                                  + " WHERE feed_id=?";
+                        db.execSQL(sql, new String[]{Long.toString(feedId)});
+                    }
+
+
+                    // if blog/feed is no longer followed, remove its posts tagged with "Followed Sites"
+                    if (!isFollowed) {
+                        if (blogId != 0) {
+                            db.delete("tbl_posts", "blog_id=? AND tag_name=?",
+                                    new String[]{Long.toString(blogId), ReaderTag.TAG_TITLE_FOLLOWED_SITES});
+                        } else {
+                            db.delete("tbl_posts", "feed_id=? AND tag_name=?",
+                                    new String[]{Long.toString(feedId), ReaderTag.TAG_TITLE_FOLLOWED_SITES});
+                        }
+                    }
+
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
                 }
             }
-
-            db.setTransactionSuccessful();
-        } finally {
-            db.endTransaction();
-        }
+        });
     }
 
     /*
@@ -647,78 +741,83 @@ public class ReaderPostTable {
         }
     }
 
-    public static void addOrUpdatePosts(final ReaderTag tag, ReaderPostList posts) {
+    public static void addOrUpdatePosts(final ReaderTag tag, final ReaderPostList posts) {
         if (posts == null || posts.size() == 0) {
             return;
         }
 
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        SQLiteStatement stmtPosts = db.compileStatement(
-                "INSERT OR REPLACE INTO tbl_posts ("
-                        + COLUMN_NAMES
-                        + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13,?14,?15,?16,?17,?18,?19,?20,?21,?22,?23,?24,?25,?26,?27,?28,?29,?30,?31,?32,?33,?34,?35,?36,?37,?38,?39,?40,?41,?42)");
-
-        db.beginTransaction();
-        try {
-            String tagName = (tag != null ? tag.getTagSlug() : "");
-            int tagType = (tag != null ? tag.tagType.toInt() : 0);
-
-            // we can safely assume there's no gap marker because any existing gap marker is
-            // already removed before posts are updated
-            boolean hasGapMarker = false;
-
-            for (ReaderPost post: posts) {
-                stmtPosts.bindLong  (1,  post.postId);
-                stmtPosts.bindLong  (2,  post.blogId);
-                stmtPosts.bindLong  (3,  post.feedId);
-                stmtPosts.bindLong  (4,  post.feedItemId);
-                stmtPosts.bindString(5,  post.getPseudoId());
-                stmtPosts.bindString(6,  post.getAuthorName());
-                stmtPosts.bindString(7,  post.getAuthorFirstName());
-                stmtPosts.bindLong  (8,  post.authorId);
-                stmtPosts.bindString(9,  post.getTitle());
-                stmtPosts.bindString(10, maxText(post));
-                stmtPosts.bindString(11, post.getExcerpt());
-                stmtPosts.bindString(12, post.getFormat());
-                stmtPosts.bindString(13, post.getUrl());
-                stmtPosts.bindString(14, post.getShortUrl());
-                stmtPosts.bindString(15, post.getBlogUrl());
-                stmtPosts.bindString(16, post.getBlogName());
-                stmtPosts.bindString(17, post.getFeaturedImage());
-                stmtPosts.bindString(18, post.getFeaturedVideo());
-                stmtPosts.bindString(19, post.getPostAvatar());
-                stmtPosts.bindDouble(20, post.score);
-                stmtPosts.bindString(21, post.getDatePublished());
-                stmtPosts.bindString(22, post.getDateLiked());
-                stmtPosts.bindString(23, post.getDateTagged());
-                stmtPosts.bindLong  (24, post.numReplies);
-                stmtPosts.bindLong  (25, post.numLikes);
-                stmtPosts.bindLong  (26, SqlUtils.boolToSql(post.isLikedByCurrentUser));
-                stmtPosts.bindLong  (27, SqlUtils.boolToSql(post.isFollowedByCurrentUser));
-                stmtPosts.bindLong  (28, SqlUtils.boolToSql(post.isCommentsOpen));
-                stmtPosts.bindLong  (29, SqlUtils.boolToSql(post.isExternal));
-                stmtPosts.bindLong  (30, SqlUtils.boolToSql(post.isPrivate));
-                stmtPosts.bindLong  (31, SqlUtils.boolToSql(post.isVideoPress));
-                stmtPosts.bindLong  (32, SqlUtils.boolToSql(post.isJetpack));
-                stmtPosts.bindString(33, post.getPrimaryTag());
-                stmtPosts.bindString(34, post.getSecondaryTag());
-                stmtPosts.bindString(35, post.getAttachmentsJson());
-                stmtPosts.bindString(36, post.getDiscoverJson());
-                stmtPosts.bindLong  (37, post.xpostPostId);
-                stmtPosts.bindLong  (38, post.xpostBlogId);
-                stmtPosts.bindString(39, post.getRailcarJson());
-                stmtPosts.bindString(40, tagName);
-                stmtPosts.bindLong  (41, tagType);
-                stmtPosts.bindLong  (42, SqlUtils.boolToSql(hasGapMarker));
-                stmtPosts.execute();
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteDatabase db = ReaderDatabase.getWritableDb();
+                SQLiteStatement stmtPosts = db.compileStatement(
+                        "INSERT OR REPLACE INTO tbl_posts ("
+                                + COLUMN_NAMES
+                                + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13,?14,?15,?16,?17,?18,?19,?20,?21,?22,?23,?24,?25,?26,?27,?28,?29,?30,?31,?32,?33,?34,?35,?36,?37,?38,?39,?40,?41,?42)");
+
+                db.beginTransaction();
+                try {
+                    String tagName = (tag != null ? tag.getTagSlug() : "");
+                    int tagType = (tag != null ? tag.tagType.toInt() : 0);
+
+                    // we can safely assume there's no gap marker because any existing gap marker is
+                    // already removed before posts are updated
+                    boolean hasGapMarker = false;
+
+                    for (ReaderPost post: posts) {
+                        stmtPosts.bindLong  (1,  post.postId);
+                        stmtPosts.bindLong  (2,  post.blogId);
+                        stmtPosts.bindLong  (3,  post.feedId);
+                        stmtPosts.bindLong  (4,  post.feedItemId);
+                        stmtPosts.bindString(5,  post.getPseudoId());
+                        stmtPosts.bindString(6,  post.getAuthorName());
+                        stmtPosts.bindString(7,  post.getAuthorFirstName());
+                        stmtPosts.bindLong  (8,  post.authorId);
+                        stmtPosts.bindString(9,  post.getTitle());
+                        stmtPosts.bindString(10, maxText(post));
+                        stmtPosts.bindString(11, post.getExcerpt());
+                        stmtPosts.bindString(12, post.getFormat());
+                        stmtPosts.bindString(13, post.getUrl());
+                        stmtPosts.bindString(14, post.getShortUrl());
+                        stmtPosts.bindString(15, post.getBlogUrl());
+                        stmtPosts.bindString(16, post.getBlogName());
+                        stmtPosts.bindString(17, post.getFeaturedImage());
+                        stmtPosts.bindString(18, post.getFeaturedVideo());
+                        stmtPosts.bindString(19, post.getPostAvatar());
+                        stmtPosts.bindDouble(20, post.score);
+                        stmtPosts.bindString(21, post.getDatePublished());
+                        stmtPosts.bindString(22, post.getDateLiked());
+                        stmtPosts.bindString(23, post.getDateTagged());
+                        stmtPosts.bindLong  (24, post.numReplies);
+                        stmtPosts.bindLong  (25, post.numLikes);
+                        stmtPosts.bindLong  (26, SqlUtils.boolToSql(post.isLikedByCurrentUser));
+                        stmtPosts.bindLong  (27, SqlUtils.boolToSql(post.isFollowedByCurrentUser));
+                        stmtPosts.bindLong  (28, SqlUtils.boolToSql(post.isCommentsOpen));
+                        stmtPosts.bindLong  (29, SqlUtils.boolToSql(post.isExternal));
+                        stmtPosts.bindLong  (30, SqlUtils.boolToSql(post.isPrivate));
+                        stmtPosts.bindLong  (31, SqlUtils.boolToSql(post.isVideoPress));
+                        stmtPosts.bindLong  (32, SqlUtils.boolToSql(post.isJetpack));
+                        stmtPosts.bindString(33, post.getPrimaryTag());
+                        stmtPosts.bindString(34, post.getSecondaryTag());
+                        stmtPosts.bindString(35, post.getAttachmentsJson());
+                        stmtPosts.bindString(36, post.getDiscoverJson());
+                        stmtPosts.bindLong  (37, post.xpostPostId);
+                        stmtPosts.bindLong  (38, post.xpostBlogId);
+                        stmtPosts.bindString(39, post.getRailcarJson());
+                        stmtPosts.bindString(40, tagName);
+                        stmtPosts.bindLong  (41, tagType);
+                        stmtPosts.bindLong  (42, SqlUtils.boolToSql(hasGapMarker));
+                        stmtPosts.execute();
+                    }
+
+                    db.setTransactionSuccessful();
+
+                } finally {
+                    db.endTransaction();
+                    SqlUtils.closeStatement(stmtPosts);
+                }
             }
-
-            db.setTransactionSuccessful();
-
-        } finally {
-            db.endTransaction();
-            SqlUtils.closeStatement(stmtPosts);
-        }
+        });
     }
 
     public static ReaderPostList getPostsWithTag(ReaderTag tag, int maxPosts, boolean excludeTextColumn) {
@@ -59,50 +59,60 @@ public class ReaderTagTable {
     /*
      * replaces all tags with the passed list
      */
-    public static void replaceTags(ReaderTagList tags) {
+    public static void replaceTags(final ReaderTagList tags) {
         if (tags == null || tags.size() == 0) {
             return;
         }
 
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
-        try {
-            try {
-                // first delete all existing tags, then insert the passed ones
-                db.execSQL("DELETE FROM tbl_tags");
-                addOrUpdateTags(tags);
-                db.setTransactionSuccessful();
-            } catch (SQLException e) {
-                AppLog.e(T.READER, e);
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteDatabase db = ReaderDatabase.getWritableDb();
+                db.beginTransaction();
+                try {
+                    try {
+                        // first delete all existing tags, then insert the passed ones
+                        db.execSQL("DELETE FROM tbl_tags");
+                        addOrUpdateTags(tags);
+                        db.setTransactionSuccessful();
+                    } catch (SQLException e) {
+                        AppLog.e(T.READER, e);
+                    }
+                } finally {
+                    db.endTransaction();
+                }
             }
-        } finally {
-            db.endTransaction();
-        }
+        });
     }
 
     /*
      * similar to the above but only replaces followed tags
      */
-    public static void replaceFollowedTags(ReaderTagList tags) {
+    public static void replaceFollowedTags(final ReaderTagList tags) {
         if (tags == null || tags.size() == 0) {
             return;
         }
 
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
-        try {
-            try {
-                // first delete all existing followed tags, then insert the passed ones
-                String[] args = {Integer.toString(ReaderTagType.FOLLOWED.toInt())};
-                db.execSQL("DELETE FROM tbl_tags WHERE tag_type=?", args);
-                addOrUpdateTags(tags);
-                db.setTransactionSuccessful();
-            } catch (SQLException e) {
-                AppLog.e(T.READER, e);
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteDatabase db = ReaderDatabase.getWritableDb();
+                db.beginTransaction();
+                try {
+                    try {
+                        // first delete all existing followed tags, then insert the passed ones
+                        String[] args = {Integer.toString(ReaderTagType.FOLLOWED.toInt())};
+                        db.execSQL("DELETE FROM tbl_tags WHERE tag_type=?", args);
+                        addOrUpdateTags(tags);
+                        db.setTransactionSuccessful();
+                    } catch (SQLException e) {
+                        AppLog.e(T.READER, e);
+                    }
+                } finally {
+                    db.endTransaction();
+                }
             }
-        } finally {
-            db.endTransaction();
-        }
+        });
     }
 
     public static void addOrUpdateTag(ReaderTag tag) {
@@ -344,38 +354,43 @@ public class ReaderTagTable {
         }
     }
 
-    public static void setRecommendedTags(ReaderTagList tagList) {
+    public static void setRecommendedTags(final ReaderTagList tagList) {
         if (tagList == null) {
             return;
         }
 
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        SQLiteStatement stmt = db.compileStatement
-                ("INSERT INTO tbl_tags_recommended (tag_slug, tag_display_name, tag_title, tag_type, endpoint) VALUES (?1,?2,?3,?4,?5)");
-        db.beginTransaction();
-        try {
-            try {
-                // first delete all recommended tags
-                db.execSQL("DELETE FROM tbl_tags_recommended");
-
-                // then insert the passed ones
-                for (ReaderTag tag: tagList) {
-                    stmt.bindString(1, tag.getTagSlug());
-                    stmt.bindString(2, tag.getTagDisplayName());
-                    stmt.bindString(3, tag.getTagTitle());
-                    stmt.bindLong  (4, tag.tagType.toInt());
-                    stmt.bindString(5, tag.getEndpoint());
-                    stmt.execute();
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteDatabase db = ReaderDatabase.getWritableDb();
+                SQLiteStatement stmt = db.compileStatement
+                        ("INSERT INTO tbl_tags_recommended (tag_slug, tag_display_name, tag_title, tag_type, endpoint) VALUES (?1,?2,?3,?4,?5)");
+                db.beginTransaction();
+                try {
+                    try {
+                        // first delete all recommended tags
+                        db.execSQL("DELETE FROM tbl_tags_recommended");
+
+                        // then insert the passed ones
+                        for (ReaderTag tag: tagList) {
+                            stmt.bindString(1, tag.getTagSlug());
+                            stmt.bindString(2, tag.getTagDisplayName());
+                            stmt.bindString(3, tag.getTagTitle());
+                            stmt.bindLong  (4, tag.tagType.toInt());
+                            stmt.bindString(5, tag.getEndpoint());
+                            stmt.execute();
+                        }
+
+                        db.setTransactionSuccessful();
+
+                    } catch (SQLException e) {
+                        AppLog.e(T.READER, e);
+                    }
+                } finally {
+                    SqlUtils.closeStatement(stmt);
+                    db.endTransaction();
                 }
-
-                db.setTransactionSuccessful();
-
-            } catch (SQLException e) {
-                AppLog.e(T.READER, e);
             }
-        } finally {
-            SqlUtils.closeStatement(stmt);
-            db.endTransaction();
-        }
+        });
     }
 }
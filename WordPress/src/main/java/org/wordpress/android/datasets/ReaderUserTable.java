@@ -50,31 +50,36 @@ public class ReaderUserTable {
         + " profile_url,"   // 6
         + " avatar_url";    // 7
 
-    public static void addOrUpdateUsers(ReaderUserList users) {
+    public static void addOrUpdateUsers(final ReaderUserList users) {
         if (users==null || users.size()==0)
             return;
 
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
-        SQLiteStatement stmt = db.compileStatement("INSERT OR REPLACE INTO tbl_users (" + COLUMN_NAMES + ") VALUES (?1,?2,?3,?4,?5,?6,?7)");
-        try {
-            for (ReaderUser user: users) {
-                stmt.bindLong  (1, user.userId);
-                stmt.bindLong  (2, user.blogId);
-                stmt.bindString(3, user.getUserName());
-                stmt.bindString(4, user.getDisplayName());
-                stmt.bindString(5, user.getUrl());
-                stmt.bindString(6, user.getProfileUrl());
-                stmt.bindString(7, user.getAvatarUrl());
-                stmt.execute();
-            }
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                SQLiteDatabase db = ReaderDatabase.getWritableDb();
+                db.beginTransaction();
+                SQLiteStatement stmt = db.compileStatement("INSERT OR REPLACE INTO tbl_users (" + COLUMN_NAMES + ") VALUES (?1,?2,?3,?4,?5,?6,?7)");
+                try {
+                    for (ReaderUser user: users) {
+                        stmt.bindLong  (1, user.userId);
+                        stmt.bindLong  (2, user.blogId);
+                        stmt.bindString(3, user.getUserName());
+                        stmt.bindString(4, user.getDisplayName());
+                        stmt.bindString(5, user.getUrl());
+                        stmt.bindString(6, user.getProfileUrl());
+                        stmt.bindString(7, user.getAvatarUrl());
+                        stmt.execute();
+                    }
 
-            db.setTransactionSuccessful();
+                    db.setTransactionSuccessful();
 
-        } finally {
-            db.endTransaction();
-            SqlUtils.closeStatement(stmt);
-        }
+                } finally {
+                    db.endTransaction();
+                    SqlUtils.closeStatement(stmt);
+                }
+            }
+        });
     }
 
     /*
@@ -17,6 +17,7 @@ import org.apache.commons.lang.time.DateUtils;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.wordpress.android.ui.notifications.blocks.BlockType;
 import org.wordpress.android.ui.notifications.utils.NotificationsUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.DateTimeUtils;
@@ -25,8 +26,10 @@ import org.wordpress.android.util.StringUtils;
 
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.zip.DataFormatException;
@@ -53,13 +56,15 @@ public class Note extends Syncable {
     private static final String ACTION_KEY_SPAM = "spam-comment";
     private static final String ACTION_KEY_LIKE = "like-comment";
 
-    private JSONObject mActions;
     private JSONObject mNoteJSON;
     private final String mKey;
 
     private final Object mSyncLock = new Object();
     private String mLocalStatus;
 
+    // parsed from mNoteJSON on first use, and dropped when the JSON is replaced
+    private ParsedNote mParsedNote;
+
     public enum EnabledActions {
         ACTION_REPLY,
         ACTION_APPROVE,
@@ -107,7 +112,7 @@ public class Note extends Syncable {
     }
 
     public String getType() {
-        return queryJSON("type", NOTE_UNKNOWN_TYPE);
+        return getParsedNote().type;
     }
 
     private Boolean isType(String type) {
@@ -115,10 +120,7 @@ public class Note extends Syncable {
     }
 
     public Boolean isCommentType() {
-        synchronized (mSyncLock) {
-            return (isAutomattcherType() && JSONUtils.queryJSON(mNoteJSON, "meta.ids.comment", -1) != -1) ||
-                    isType(NOTE_COMMENT_TYPE);
-        }
+        return getParsedNote().isCommentType;
     }
 
     public Boolean isAutomattcherType() {
@@ -194,71 +196,41 @@ public class Note extends Syncable {
     }
 
     private JSONObject getSubject() {
-        try {
-            synchronized (mSyncLock) {
-                JSONArray subjectArray = mNoteJSON.getJSONArray("subject");
-                if (subjectArray.length() > 0) {
-                    return subjectArray.getJSONObject(0);
-                }
-            }
-        } catch (JSONException e) {
-            return null;
-        }
-
-        return null;
+        return getParsedNote().subject;
     }
 
     private Spannable getFormattedSubject() {
         return NotificationsUtils.getSpannableContentForRanges(getSubject());
     }
 
+    private String getSubjectHtml() {
+        synchronized (mSyncLock) {
+            ParsedNote parsedNote = getParsedNote();
+            if (parsedNote.subjectHtml == null) {
+                parsedNote.subjectHtml = Html.toHtml(getFormattedSubject());
+            }
+            return parsedNote.subjectHtml;
+        }
+    }
+
     public String getTitle() {
-        return queryJSON("title", "");
+        return getParsedNote().title;
     }
 
     private String getIconURL() {
-        return queryJSON("icon", "");
+        return getParsedNote().iconUrl;
     }
 
     private String getCommentSubject() {
-        synchronized (mSyncLock) {
-            JSONArray subjectArray = mNoteJSON.optJSONArray("subject");
-            if (subjectArray != null) {
-                String commentSubject = JSONUtils.queryJSON(subjectArray, "subject[1].text", "");
-
-                // Trim down the comment preview if the comment text is too large.
-                if (commentSubject != null && commentSubject.length() > MAX_COMMENT_PREVIEW_LENGTH) {
-                    commentSubject = commentSubject.substring(0, MAX_COMMENT_PREVIEW_LENGTH - 1);
-                }
-
-                return commentSubject;
-            }
-
-        }
-
-        return "";
+        return getParsedNote().commentSubject;
     }
 
     private String getCommentSubjectNoticon() {
-        JSONArray subjectRanges = queryJSON("subject[0].ranges", new JSONArray());
-        if (subjectRanges != null) {
-            for (int i=0; i < subjectRanges.length(); i++) {
-                try {
-                    JSONObject rangeItem = subjectRanges.getJSONObject(i);
-                    if (rangeItem.has("type") && rangeItem.optString("type").equals("noticon")) {
-                        return rangeItem.optString("value", "");
-                    }
-                } catch (JSONException e) {
-                    return "";
-                }
-            }
-        }
-
-        return "";
+        return getParsedNote().commentSubjectNoticon;
     }
 
     public long getCommentReplyId() {
-        return queryJSON("meta.ids.reply_comment", 0);
+        return getParsedNote().commentReplyId;
     }
 
     /**
@@ -312,54 +284,51 @@ public class Note extends Syncable {
      * Get the timestamp provided by the API for the note
      */
     public long getTimestamp() {
-        return DateTimeUtils.timestampFromIso8601(queryJSON("timestamp", ""));
+        synchronized (mSyncLock) {
+            ParsedNote parsedNote = getParsedNote();
+            if (parsedNote.timestamp == null) {
+                parsedNote.timestamp = DateTimeUtils.timestampFromIso8601(parsedNote.timestampIso8601);
+            }
+            return parsedNote.timestamp;
+        }
     }
 
     public JSONArray getBody() {
-        try {
-            synchronized (mSyncLock) {
-                return mNoteJSON.getJSONArray("body");
+        return getParsedNote().body;
+    }
+
+    /*
+     * returns the blocks the detail screen shows for the body - for comments, the block with the
+     * comment's text is merged into the user block before it, along with the note's timestamp
+     */
+    public List<JSONObject> getBodyBlocks() {
+        synchronized (mSyncLock) {
+            ParsedNote parsedNote = getParsedNote();
+            if (parsedNote.bodyBlocks == null) {
+                parsedNote.bodyBlocks = parsedNote.buildBodyBlocks(getTimestamp());
             }
-        } catch (JSONException e) {
-            return new JSONArray();
+            return parsedNote.bodyBlocks;
         }
     }
 
     // returns character code for notification font
     private String getNoticonCharacter() {
-        return queryJSON("noticon", "");
+        return getParsedNote().noticon;
     }
 
-    private JSONObject getCommentActions() {
-        if (mActions == null) {
-            // Find comment block that matches the root note comment id
-            long commentId = getCommentId();
-            JSONArray bodyArray = getBody();
-            for (int i = 0; i < bodyArray.length(); i++) {
-                try {
-                    JSONObject bodyItem = bodyArray.getJSONObject(i);
-                    if (bodyItem.has("type") && bodyItem.optString("type").equals("comment")
-                            && commentId == JSONUtils.queryJSON(bodyItem, "meta.ids.comment", 0)) {
-                        mActions = JSONUtils.queryJSON(bodyItem, "actions", new JSONObject());
-                        break;
-                    }
-                } catch (JSONException e) {
-                    break;
-                }
-            }
-
-            if (mActions == null) {
-                mActions = new JSONObject();
-            }
+    private void updateJSON(JSONObject json) {
+        synchronized (mSyncLock) {
+            mNoteJSON = json;
+            mParsedNote = null;
         }
-
-        return mActions;
     }
 
-
-    private void updateJSON(JSONObject json) {
+    private ParsedNote getParsedNote() {
         synchronized (mSyncLock) {
-            mNoteJSON = json;
+            if (mParsedNote == null) {
+                mParsedNote = new ParsedNote(mNoteJSON != null ? mNoteJSON : new JSONObject());
+            }
+            return mParsedNote;
         }
     }
 
@@ -367,45 +336,23 @@ public class Note extends Syncable {
      * returns the actions allowed on this note, assumes it's a comment notification
      */
     public EnumSet<EnabledActions> getEnabledActions() {
-        EnumSet<EnabledActions> actions = EnumSet.noneOf(EnabledActions.class);
-        JSONObject jsonActions = getCommentActions();
-        if (jsonActions == null || jsonActions.length() == 0) {
-            return actions;
-        }
-
-        if (jsonActions.has(ACTION_KEY_REPLY)) {
-            actions.add(EnabledActions.ACTION_REPLY);
-        }
-        if (jsonActions.has(ACTION_KEY_APPROVE) && jsonActions.optBoolean(ACTION_KEY_APPROVE, false)) {
-            actions.add(EnabledActions.ACTION_UNAPPROVE);
-        }
-        if (jsonActions.has(ACTION_KEY_APPROVE) && !jsonActions.optBoolean(ACTION_KEY_APPROVE, false)) {
-            actions.add(EnabledActions.ACTION_APPROVE);
-        }
-        if (jsonActions.has(ACTION_KEY_SPAM)) {
-            actions.add(EnabledActions.ACTION_SPAM);
-        }
-        if (jsonActions.has(ACTION_KEY_LIKE)) {
-            actions.add(EnabledActions.ACTION_LIKE);
-        }
-
-        return actions;
+        return EnumSet.copyOf(getParsedNote().enabledActions);
     }
 
     public int getSiteId() {
-        return queryJSON("meta.ids.site", 0);
+        return getParsedNote().siteId;
     }
 
     public int getPostId() {
-        return queryJSON("meta.ids.post", 0);
+        return getParsedNote().postId;
     }
 
     public long getCommentId() {
-        return queryJSON("meta.ids.comment", 0);
+        return getParsedNote().commentId;
     }
 
     public long getParentCommentId() {
-        return queryJSON("meta.ids.parent_comment", 0);
+        return getParsedNote().parentCommentId;
     }
 
     /**
@@ -437,41 +384,15 @@ public class Note extends Syncable {
     }
 
     public String getCommentAuthorName() {
-        JSONArray bodyArray = getBody();
-
-        for (int i=0; i < bodyArray.length(); i++) {
-            try {
-                JSONObject bodyItem = bodyArray.getJSONObject(i);
-                if (bodyItem.has("type") && bodyItem.optString("type").equals("user")) {
-                    return bodyItem.optString("text");
-                }
-            } catch (JSONException e) {
-                return "";
-            }
-        }
-
-        return "";
+        return getParsedNote().commentAuthorName;
     }
 
     private String getCommentText() {
-        return queryJSON("body[last].text", "");
+        return getParsedNote().commentText;
     }
 
     private String getCommentAuthorUrl() {
-        JSONArray bodyArray = getBody();
-
-        for (int i=0; i < bodyArray.length(); i++) {
-            try {
-                JSONObject bodyItem = bodyArray.getJSONObject(i);
-                if (bodyItem.has("type") && bodyItem.optString("type").equals("user")) {
-                    return JSONUtils.queryJSON(bodyItem, "meta.links.home", "");
-                }
-            } catch (JSONException e) {
-                return "";
-            }
-        }
-
-        return "";
+        return getParsedNote().commentAuthorUrl;
     }
 
     public CommentStatus getCommentStatus() {
@@ -487,7 +408,7 @@ public class Note extends Syncable {
     }
 
     public boolean hasLikedComment() {
-        JSONObject jsonActions = getCommentActions();
+        JSONObject jsonActions = getParsedNote().commentActions;
         return !(jsonActions == null || jsonActions.length() == 0) && jsonActions.optBoolean(ACTION_KEY_LIKE);
     }
 
@@ -496,12 +417,205 @@ public class Note extends Syncable {
     }
 
     public String getUrl() {
-        return queryJSON("url", "");
+        return getParsedNote().url;
     }
 
     public JSONArray getHeader() {
-        synchronized (mSyncLock) {
-            return mNoteJSON.optJSONArray("header");
+        return getParsedNote().header;
+    }
+
+    /**
+     * The parts of a note's JSON which the indexer, the notifications list and the detail screen
+     * read, parsed together the first time any of them is needed. The note drops it when the bucket
+     * replaces its JSON with a new revision, so it's parsed at most once per revision.
+     */
+    private static class ParsedNote {
+        final String type;
+        final boolean isCommentType;
+        final String title;
+        final String url;
+        final String iconUrl;
+        final String noticon;
+        final String timestampIso8601;
+        final JSONObject subject;
+        final String commentSubject;
+        final String commentSubjectNoticon;
+        final JSONArray body;
+        final JSONArray header;
+        final int siteId;
+        final int postId;
+        final long commentId;
+        final long parentCommentId;
+        final long commentReplyId;
+        final JSONObject commentActions;
+        final EnumSet<EnabledActions> enabledActions;
+        final String commentAuthorName;
+        final String commentAuthorUrl;
+        final String commentText;
+
+        // only needed by some callers, so these are built when first asked for
+        String subjectHtml;
+        Long timestamp;
+        List<JSONObject> bodyBlocks;
+
+        ParsedNote(JSONObject json) {
+            type = JSONUtils.queryJSON(json, "type", NOTE_UNKNOWN_TYPE);
+            isCommentType = (NOTE_MATCHER_TYPE.equals(type) && JSONUtils.queryJSON(json, "meta.ids.comment", -1) != -1)
+                    || NOTE_COMMENT_TYPE.equals(type);
+            title = JSONUtils.queryJSON(json, "title", "");
+            url = JSONUtils.queryJSON(json, "url", "");
+            iconUrl = JSONUtils.queryJSON(json, "icon", "");
+            noticon = JSONUtils.queryJSON(json, "noticon", "");
+            timestampIso8601 = JSONUtils.queryJSON(json, "timestamp", "");
+
+            JSONArray subjectArray = json.optJSONArray("subject");
+            subject = (subjectArray != null ? subjectArray.optJSONObject(0) : null);
+            commentSubject = parseCommentSubject(subjectArray);
+            commentSubjectNoticon = parseCommentSubjectNoticon(json);
+
+            JSONArray bodyArray = json.optJSONArray("body");
+            body = (bodyArray != null ? bodyArray : new JSONArray());
+            header = json.optJSONArray("header");
+
+            siteId = JSONUtils.queryJSON(json, "meta.ids.site", 0);
+            postId = JSONUtils.queryJSON(json, "meta.ids.post", 0);
+            commentId = JSONUtils.queryJSON(json, "meta.ids.comment", 0);
+            parentCommentId = JSONUtils.queryJSON(json, "meta.ids.parent_comment", 0);
+            commentReplyId = JSONUtils.queryJSON(json, "meta.ids.reply_comment", 0);
+
+            commentActions = parseCommentActions(body, commentId);
+            enabledActions = parseEnabledActions(commentActions);
+
+            JSONObject userBlock = findUserBlock(body);
+            commentAuthorName = (userBlock != null ? userBlock.optString("text") : "");
+            commentAuthorUrl = (userBlock != null ? JSONUtils.queryJSON(userBlock, "meta.links.home", "") : "");
+            commentText = JSONUtils.queryJSON(json, "body[last].text", "");
+        }
+
+        private static String parseCommentSubject(JSONArray subjectArray) {
+            if (subjectArray == null) {
+                return "";
+            }
+
+            String commentSubject = JSONUtils.queryJSON(subjectArray, "subject[1].text", "");
+
+            // Trim down the comment preview if the comment text is too large.
+            if (commentSubject != null && commentSubject.length() > MAX_COMMENT_PREVIEW_LENGTH) {
+                commentSubject = commentSubject.substring(0, MAX_COMMENT_PREVIEW_LENGTH - 1);
+            }
+
+            return commentSubject;
+        }
+
+        private static String parseCommentSubjectNoticon(JSONObject json) {
+            JSONArray subjectRanges = JSONUtils.queryJSON(json, "subject[0].ranges", new JSONArray());
+            if (subjectRanges != null) {
+                for (int i=0; i < subjectRanges.length(); i++) {
+                    try {
+                        JSONObject rangeItem = subjectRanges.getJSONObject(i);
+                        if (rangeItem.has("type") && rangeItem.optString("type").equals("noticon")) {
+                            return rangeItem.optString("value", "");
+                        }
+                    } catch (JSONException e) {
+                        return "";
+                    }
+                }
+            }
+
+            return "";
+        }
+
+        private static JSONObject parseCommentActions(JSONArray bodyArray, long commentId) {
+            // Find comment block that matches the root note comment id
+            for (int i = 0; i < bodyArray.length(); i++) {
+                try {
+                    JSONObject bodyItem = bodyArray.getJSONObject(i);
+                    if (bodyItem.has("type") && bodyItem.optString("type").equals("comment")
+                            && commentId == JSONUtils.queryJSON(bodyItem, "meta.ids.comment", 0)) {
+                        return JSONUtils.queryJSON(bodyItem, "actions", new JSONObject());
+                    }
+                } catch (JSONException e) {
+                    break;
+                }
+            }
+
+            return new JSONObject();
+        }
+
+        private static EnumSet<EnabledActions> parseEnabledActions(JSONObject jsonActions) {
+            EnumSet<EnabledActions> actions = EnumSet.noneOf(EnabledActions.class);
+            if (jsonActions == null || jsonActions.length() == 0) {
+                return actions;
+            }
+
+            if (jsonActions.has(ACTION_KEY_REPLY)) {
+                actions.add(EnabledActions.ACTION_REPLY);
+            }
+            if (jsonActions.has(ACTION_KEY_APPROVE) && jsonActions.optBoolean(ACTION_KEY_APPROVE, false)) {
+                actions.add(EnabledActions.ACTION_UNAPPROVE);
+            }
+            if (jsonActions.has(ACTION_KEY_APPROVE) && !jsonActions.optBoolean(ACTION_KEY_APPROVE, false)) {
+                actions.add(EnabledActions.ACTION_APPROVE);
+            }
+            if (jsonActions.has(ACTION_KEY_SPAM)) {
+                actions.add(EnabledActions.ACTION_SPAM);
+            }
+            if (jsonActions.has(ACTION_KEY_LIKE)) {
+                actions.add(EnabledActions.ACTION_LIKE);
+            }
+
+            return actions;
+        }
+
+        private static JSONObject findUserBlock(JSONArray bodyArray) {
+            for (int i=0; i < bodyArray.length(); i++) {
+                try {
+                    JSONObject bodyItem = bodyArray.getJSONObject(i);
+                    if (bodyItem.has("type") && bodyItem.optString("type").equals("user")) {
+                        return bodyItem;
+                    }
+                } catch (JSONException e) {
+                    return null;
+                }
+            }
+
+            return null;
+        }
+
+        /*
+         * the merged comment blocks are copies, so the note's own JSON isn't changed
+         */
+        List<JSONObject> buildBodyBlocks(long timestamp) {
+            List<JSONObject> blocks = new ArrayList<>();
+            for (int i = 0; i < body.length(); i++) {
+                try {
+                    JSONObject block = body.getJSONObject(i);
+                    if (isCommentType
+                            && BlockType.fromString(JSONUtils.queryJSON(block, "type", "")) == BlockType.USER) {
+                        JSONObject commentBlock = new JSONObject();
+                        Iterator<String> names = block.keys();
+                        while (names.hasNext()) {
+                            String name = names.next();
+                            commentBlock.put(name, block.get(name));
+                        }
+
+                        // We'll snag the next body array item for comment user blocks
+                        if (i + 1 < body.length()) {
+                            commentBlock.put("comment_text", body.getJSONObject(i + 1));
+                            i++;
+                        }
+
+                        // Add timestamp to block for display
+                        commentBlock.put("timestamp", timestamp);
+                        block = commentBlock;
+                    }
+                    blocks.add(block);
+                } catch (JSONException e) {
+                    AppLog.e(AppLog.T.NOTIFS, "Invalid note data, could not parse.");
+                }
+            }
+
+            return Collections.unmodifiableList(blocks);
         }
     }
 
@@ -567,7 +681,7 @@ public class Note extends Syncable {
                     android.util.Log.e("WordPress", "Failed to index timestamp", e);
                 }
 
-                indexes.add(new Index(SUBJECT_INDEX, Html.toHtml(note.getFormattedSubject())));
+                indexes.add(new Index(SUBJECT_INDEX, note.getSubjectHtml()));
                 indexes.add(new Index(SNIPPET_INDEX, note.getCommentSubject()));
                 indexes.add(new Index(UNREAD_INDEX, note.isUnread()));
                 indexes.add(new Index(NOTICON_INDEX, note.getNoticonCharacter()));
@@ -5,6 +5,7 @@ import android.text.format.DateUtils;
 
 import org.wordpress.android.WordPress;
 import org.wordpress.android.ui.posts.services.PostUploadService;
+import org.wordpress.android.ui.reader.utils.ReaderImageScanner;
 import org.wordpress.android.util.DateTimeUtils;
 import org.wordpress.android.util.HtmlUtils;
 import org.wordpress.android.util.StringUtils;
@@ -13,20 +14,24 @@ import java.text.BreakIterator;
 import java.util.Date;
 
 /**
- * Barebones post/page as listed in PostsListFragment
+ * Barebones post/page as listed in PostsListFragment - read from a projection of the posts table
+ * which leaves out the post content, using the excerpt and content image that were computed when
+ * the post was written
  */
 public class PostsListPost {
     private static final int MAX_EXCERPT_LEN = 150;
 
     private final long postId;
     private final long blogId;
-    private long dateCreatedGmt;
+    private final long dateCreatedGmt;
     private final long featuredImageId;
 
     private final String title;
-    private String excerpt;
-    private final String description;
+    private final String excerpt;
+    private final String contentImageUrl;
+    private final String featuredMediaUrl;
     private final String status;
+    private final PostStatus statusEnum;
 
     private final boolean isLocalDraft;
     private final boolean hasLocalChanges;
@@ -35,26 +40,23 @@ public class PostsListPost {
     // featuredImageUrl is generated by the adapter on the fly
     private transient String featuredImageUrl;
 
-    public PostsListPost(Post post) {
-        postId = post.getLocalTablePostId();
-        blogId = post.getLocalTableBlogId();
-        featuredImageId = post.getFeaturedImageId();
-
-        title = post.getTitle();
-        description = post.getDescription();
-        excerpt = post.getPostExcerpt();
+    public PostsListPost(long postId, long blogId, String title, long dateCreatedGmt, String status,
+                         long featuredImageId, boolean isLocalDraft, boolean hasLocalChanges,
+                         String excerpt, String contentImageUrl, String featuredMediaUrl) {
+        this.postId = postId;
+        this.blogId = blogId;
+        this.title = title;
+        this.dateCreatedGmt = dateCreatedGmt;
+        this.status = status;
+        this.featuredImageId = featuredImageId;
+        this.isLocalDraft = isLocalDraft;
+        this.hasLocalChanges = hasLocalChanges;
+        this.excerpt = excerpt;
+        this.contentImageUrl = contentImageUrl;
+        this.featuredMediaUrl = featuredMediaUrl;
 
-        status = post.getPostStatus();
-        isLocalDraft = post.isLocalDraft();
-        hasLocalChanges = post.isLocalChange();
         isUploading = PostUploadService.isPostUploading(postId);
-
-        setDateCreatedGmt(post.getDate_created_gmt());
-
-        // if the post doesn't have an excerpt, generate one from the description
-        if (!hasExcerpt() && hasDescription()) {
-            excerpt = makeExcerpt(description);
-        }
+        statusEnum = PostStatus.fromPostsListPost(this);
     }
 
     public long getPostId() {
@@ -72,13 +74,6 @@ public class PostsListPost {
         return !TextUtils.isEmpty(title);
     }
 
-    public String getDescription() {
-        return StringUtils.notNullStr(description);
-    }
-    public boolean hasDescription() {
-        return !TextUtils.isEmpty(description);
-    }
-
     public String getExcerpt() {
         return StringUtils.notNullStr(excerpt);
     }
@@ -95,7 +90,14 @@ public class PostsListPost {
         return s.replace(NBSP, " ").trim();
     }
 
-    private static String makeExcerpt(String description) {
+    /*
+     * returns the excerpt to show in the post list - the post's own excerpt if it has one,
+     * otherwise one generated from the description
+     */
+    public static String makeExcerpt(String excerpt, String description) {
+        if (!TextUtils.isEmpty(excerpt)) {
+            return excerpt;
+        }
         if (TextUtils.isEmpty(description)) {
             return null;
         }
@@ -128,6 +130,23 @@ public class PostsListPost {
         return trimEx(result.toString()) + "...";
     }
 
+    /*
+     * returns the largest image in the post content, shown when the post doesn't have a featured image
+     */
+    public static String getContentImageUrl(String description) {
+        if (TextUtils.isEmpty(description)) {
+            return null;
+        }
+        return new ReaderImageScanner(description, false).getLargestImage();
+    }
+
+    public String getContentImageUrl() {
+        return StringUtils.notNullStr(contentImageUrl);
+    }
+    public boolean hasContentImageUrl() {
+        return !TextUtils.isEmpty(contentImageUrl);
+    }
+
     public long getFeaturedImageId() {
         return featuredImageId;
     }
@@ -135,6 +154,17 @@ public class PostsListPost {
         return featuredImageId != 0;
     }
 
+    /*
+     * url of the featured image's thumbnail in the media library, null if the featured image
+     * hasn't been found in the media library yet
+     */
+    public String getFeaturedMediaUrl() {
+        return featuredMediaUrl;
+    }
+    public boolean isFeaturedMediaUrlResolved() {
+        return featuredMediaUrl != null;
+    }
+
     public String getFeaturedImageUrl() {
         return StringUtils.notNullStr(featuredImageUrl);
     }
@@ -148,16 +178,13 @@ public class PostsListPost {
     public long getDateCreatedGmt() {
         return dateCreatedGmt;
     }
-    private void setDateCreatedGmt(long dateCreatedGmt) {
-        this.dateCreatedGmt = dateCreatedGmt;
-    }
 
     public String getOriginalStatus() {
         return StringUtils.notNullStr(status);
     }
 
     public PostStatus getStatusEnum() {
-        return PostStatus.fromPostsListPost(this);
+        return statusEnum;
     }
 
     public String getFormattedDate() {
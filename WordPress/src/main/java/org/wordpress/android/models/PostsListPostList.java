@@ -1,5 +1,7 @@
 package org.wordpress.android.models;
 
+import org.wordpress.android.util.StringUtils;
+
 import java.util.ArrayList;
 
 public class PostsListPostList extends ArrayList<PostsListPost> {
@@ -27,7 +29,11 @@ public class PostsListPostList extends ArrayList<PostsListPost> {
                 return false;
             if (newPost.hasLocalChanges() != currentPost.hasLocalChanges())
                 return false;
-            if (!newPost.getDescription().equals(currentPost.getDescription()))
+            if (!newPost.getExcerpt().equals(currentPost.getExcerpt()))
+                return false;
+            if (!newPost.getContentImageUrl().equals(currentPost.getContentImageUrl()))
+                return false;
+            if (!StringUtils.equals(newPost.getFeaturedMediaUrl(), currentPost.getFeaturedMediaUrl()))
                 return false;
         }
 
@@ -0,0 +1,115 @@
+package org.wordpress.android.models;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * pull-parses a reader post list response (the same format ReaderPostList.fromJson() handles)
+ * and passes the posts to a handler in batches, so only a single batch of posts is held in
+ * memory regardless of how many posts the response contains
+ */
+public class ReaderPostStreamReader {
+    public interface PostBatchHandler {
+        void onPostBatch(ReaderPostList posts);
+    }
+
+    public static final int DEFAULT_BATCH_SIZE = 10;
+
+    /*
+     * reads the posts in the passed response, returns the total number of posts read
+     */
+    public static int readPosts(Reader reader, int batchSize, PostBatchHandler handler)
+            throws IOException, JSONException {
+        if (reader == null || handler == null) {
+            throw new IllegalArgumentException("null reader or handler");
+        }
+
+        int numPosts = 0;
+        JsonReader jsonReader = new JsonReader(reader);
+        try {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                String name = jsonReader.nextName();
+                if (name.equals("posts") && jsonReader.peek() == JsonToken.BEGIN_ARRAY) {
+                    ReaderPostList batch = new ReaderPostList();
+                    jsonReader.beginArray();
+                    while (jsonReader.hasNext()) {
+                        // each post is decoded using the same logic as the non-streaming path,
+                        // but only one post's json exists at a time
+                        if (jsonReader.peek() == JsonToken.BEGIN_OBJECT) {
+                            batch.add(ReaderPost.fromJson(readObject(jsonReader)));
+                            numPosts++;
+                        } else {
+                            jsonReader.skipValue();
+                        }
+                        if (batch.size() >= batchSize) {
+                            handler.onPostBatch(batch);
+                            batch = new ReaderPostList();
+                        }
+                    }
+                    jsonReader.endArray();
+                    if (batch.size() > 0) {
+                        handler.onPostBatch(batch);
+                    }
+                } else {
+                    jsonReader.skipValue();
+                }
+            }
+            jsonReader.endObject();
+        } finally {
+            jsonReader.close();
+        }
+
+        return numPosts;
+    }
+
+    private static JSONObject readObject(JsonReader jsonReader) throws IOException, JSONException {
+        JSONObject json = new JSONObject();
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            json.put(jsonReader.nextName(), readValue(jsonReader));
+        }
+        jsonReader.endObject();
+        return json;
+    }
+
+    private static JSONArray readArray(JsonReader jsonReader) throws IOException, JSONException {
+        JSONArray json = new JSONArray();
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            json.put(readValue(jsonReader));
+        }
+        jsonReader.endArray();
+        return json;
+    }
+
+    private static Object readValue(JsonReader jsonReader) throws IOException, JSONException {
+        switch (jsonReader.peek()) {
+            case BEGIN_OBJECT:
+                return readObject(jsonReader);
+            case BEGIN_ARRAY:
+                return readArray(jsonReader);
+            case BOOLEAN:
+                return jsonReader.nextBoolean();
+            case NUMBER:
+                String number = jsonReader.nextString();
+                try {
+                    return Long.parseLong(number);
+                } catch (NumberFormatException e) {
+                    return Double.parseDouble(number);
+                }
+            case NULL:
+                jsonReader.nextNull();
+                return JSONObject.NULL;
+            default:
+                return jsonReader.nextString();
+        }
+    }
+}
@@ -8,7 +8,10 @@ import android.content.pm.PackageManager;
 
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.BackgroundExecutor;
+import org.wordpress.android.util.BackgroundExecutor.Lane;
 import org.wordpress.android.util.NetworkUtils;
+import org.xmlrpc.android.XMLRPCConnectionPool;
 
 import de.greenrobot.event.EventBus;
 
@@ -40,6 +43,15 @@ public class ConnectionChangeReceiver extends BroadcastReceiver {
      */
     @Override
     public void onReceive(Context context, Intent intent) {
+        // pooled XML-RPC connections may belong to the previous network, so close the idle ones
+        // rather than have the next request fail on a dead socket
+        BackgroundExecutor.execute(Lane.NETWORK, new Runnable() {
+            @Override
+            public void run() {
+                XMLRPCConnectionPool.closeIdleConnections();
+            }
+        });
+
         boolean isConnected = NetworkUtils.isNetworkAvailable(context);
         if (mIsFirstReceive || isConnected != mWasConnected) {
             postConnectionChangeEvent(isConnected);
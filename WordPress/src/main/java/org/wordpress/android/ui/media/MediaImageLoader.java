@@ -1,21 +1,48 @@
 package org.wordpress.android.ui.media;
 
 import android.content.Context;
+import android.text.TextUtils;
+import android.util.Base64;
 
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
 import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.DiskBasedCache;
+import com.android.volley.toolbox.HttpStack;
 import com.android.volley.toolbox.ImageLoader;
-import com.android.volley.toolbox.Volley;
 
+import org.apache.http.HttpResponse;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.models.Blog;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.UrlUtils;
 import org.wordpress.android.util.VolleyUtils;
+import org.wordpress.android.util.WPUrlUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * provides the ImageLoader and backing RequestQueue for media image requests - necessary because
- * images in protected blogs need to be authenticated, which requires a separate RequestQueue
+ * images in protected blogs need to be authenticated, which requires a separate RequestQueue.
+ *
+ * A single authenticated pipeline is shared by all protected blogs - it's created the first time
+ * it's needed and lives as long as the app, so its disk cache, network threads and in-flight
+ * request de-duplication are reused no matter how often getInstance() is called. The HTTP auth
+ * credentials of each protected blog are added to requests for that blog's host.
  */
 class MediaImageLoader {
+    private static final String DISK_CACHE_DIR = "volley-media";
+    private static final int DISK_CACHE_MAX_BYTES = 10 * 1024 * 1024;
+    private static final int NETWORK_THREADS = 4;
+
+    private static ImageLoader sAuthImageLoader;
+    private static RequestQueue sAuthRequestQueue;
+    private static final AuthenticatingHttpStack sAuthHttpStack = new AuthenticatingHttpStack();
+
     private MediaImageLoader() {
         throw new AssertionError();
     }
@@ -27,16 +54,85 @@ class MediaImageLoader {
     static ImageLoader getInstance(Blog blog) {
         if (blog != null && VolleyUtils.isCustomHTTPClientStackNeeded(blog)) {
             // use ImageLoader with authenticating request queue for protected blogs
-            AppLog.d(AppLog.T.MEDIA, "using custom imageLoader");
-            Context context = WordPress.getContext();
-            RequestQueue authRequestQueue = Volley.newRequestQueue(context, VolleyUtils.getHTTPClientStack(context, blog));
-            ImageLoader imageLoader = new ImageLoader(authRequestQueue, WordPress.getBitmapCache());
-            imageLoader.setBatchedResponseDelay(0);
-            return imageLoader;
+            AppLog.d(AppLog.T.MEDIA, "using authenticated imageLoader");
+            sAuthHttpStack.addCredentials(blog);
+            return getAuthImageLoader();
         } else {
             // use default ImageLoader for all others
             AppLog.d(AppLog.T.MEDIA, "using default imageLoader");
             return WordPress.imageLoader;
         }
     }
+
+    private static synchronized ImageLoader getAuthImageLoader() {
+        if (sAuthImageLoader == null) {
+            Context context = WordPress.getContext();
+            sAuthHttpStack.setDelegate(VolleyUtils.getHTTPClientStack(context));
+            File cacheDir = new File(context.getCacheDir(), DISK_CACHE_DIR);
+            sAuthRequestQueue = new RequestQueue(new DiskBasedCache(cacheDir, DISK_CACHE_MAX_BYTES),
+                    new BasicNetwork(sAuthHttpStack), NETWORK_THREADS);
+            sAuthRequestQueue.start();
+            sAuthImageLoader = new ImageLoader(sAuthRequestQueue, WordPress.getBitmapCache());
+            sAuthImageLoader.setBatchedResponseDelay(0);
+            AppLog.i(AppLog.T.MEDIA, "created authenticated image pipeline > " + getStats());
+        }
+        return sAuthImageLoader;
+    }
+
+    /*
+     * describes the authenticated pipeline - the number of request queues and network threads it's
+     * using, and the number of hosts it holds credentials for
+     */
+    static synchronized String getStats() {
+        int numQueues = (sAuthRequestQueue != null ? 1 : 0);
+        return "queues: " + numQueues
+                + ", network threads: " + (numQueues * NETWORK_THREADS)
+                + ", authenticated hosts: " + sAuthHttpStack.getHostCount();
+    }
+
+    /*
+     * adds the HTTP auth credentials of the blog that owns a request's host, then hands the
+     * request to the delegate stack
+     */
+    private static class AuthenticatingHttpStack implements HttpStack {
+        private final Map<String, String> mAuthHeaders = new HashMap<>();
+        private HttpStack mDelegate;
+
+        void setDelegate(HttpStack delegate) {
+            mDelegate = delegate;
+        }
+
+        synchronized void addCredentials(Blog blog) {
+            String creds = String.format("%s:%s", blog.getHttpuser(), blog.getHttppassword());
+            String authHeader = "Basic " + Base64.encodeToString(creds.getBytes(), Base64.NO_WRAP);
+            for (String url : new String[]{blog.getUrl(), blog.getHomeURL()}) {
+                String host = UrlUtils.getHost(url);
+                if (!TextUtils.isEmpty(host)) {
+                    mAuthHeaders.put(host, authHeader);
+                }
+            }
+        }
+
+        synchronized int getHostCount() {
+            return mAuthHeaders.size();
+        }
+
+        private synchronized String getAuthHeader(String url) {
+            String host = UrlUtils.getHost(url);
+            return (TextUtils.isEmpty(host) ? null : mAuthHeaders.get(host));
+        }
+
+        @Override
+        public HttpResponse performRequest(Request<?> request, Map<String, String> additionalHeaders)
+                throws IOException, AuthFailureError {
+            String url = request.getUrl();
+            if (url != null && !WPUrlUtils.isWordPressCom(url)) {
+                String authHeader = getAuthHeader(url);
+                if (authHeader != null) {
+                    additionalHeaders.put("Authorization", authHeader);
+                }
+            }
+            return mDelegate.performRequest(request, additionalHeaders);
+        }
+    }
 }
@@ -1,14 +1,15 @@
 package org.wordpress.android.ui.media.services;
 
 import android.app.Service;
-import android.content.Context;
 import android.content.Intent;
 import android.database.Cursor;
-import android.os.Handler;
+import android.os.AsyncTask;
 import android.os.IBinder;
 
 import org.wordpress.android.WordPress;
+import org.wordpress.android.models.Blog;
 import org.wordpress.android.models.MediaUploadState;
+import org.wordpress.android.util.SqlUtils;
 import org.xmlrpc.android.ApiHelper;
 
 import java.util.ArrayList;
@@ -16,85 +17,82 @@ import java.util.List;
 
 /**
  * A service for deleting media files from the media browser.
- * Only one file is deleted at a time.
+ *
+ * Files marked for delete are read from the database each time the service is started, and kept in
+ * a MediaWorkQueue. Blogs take turns - one file per blog is deleted at a time - and the next delete
+ * starts as soon as one finishes. The service stops once nothing is left to delete.
  */
 public class MediaDeleteService extends Service {
-    // time to wait before trying to delete the next file
-    private static final int DELETE_WAIT_TIME = 1000;
+    // the most files deleted at the same time, each from a different blog
+    private static final int MAX_CONCURRENT_DELETES = 3;
 
-    private Context mContext;
-    private Handler mHandler = new Handler();
-    private boolean mDeleteInProgress;
+    private final MediaWorkQueue mQueue = new MediaWorkQueue(MAX_CONCURRENT_DELETES);
 
     @Override
     public IBinder onBind(Intent intent) {
         return null;
     }
 
-    @Override
-    public void onCreate() {
-        super.onCreate();
-
-        mContext = this.getApplicationContext();
-        mDeleteInProgress = false;
-    }
-
     @Override
     public void onStart(Intent intent, int startId) {
-        mHandler.post(mFetchQueueTask);
+        loadQueue();
+        startQueuedDeletes();
     }
 
-    private Runnable mFetchQueueTask = new Runnable() {
-        @Override
-        public void run() {
-            Cursor cursor = getQueueItem();
-            try {
-                if ((cursor == null || cursor.getCount() == 0 || mContext == null) && !mDeleteInProgress) {
-                    MediaDeleteService.this.stopSelf();
-                    return;
-                } else {
-                    if (mDeleteInProgress) {
-                        mHandler.postDelayed(this, DELETE_WAIT_TIME);
-                    } else {
-                        deleteMediaFile(cursor);
-                    }
-                }
-            } finally {
-                if (cursor != null)
-                    cursor.close();
+    /*
+     * adds the files marked for delete in every blog to the in-memory queue - files which are
+     * already queued or being deleted are skipped
+     */
+    private void loadQueue() {
+        Cursor cursor = WordPress.wpDB.getMediaDeleteQueueItems();
+        try {
+            while (cursor.moveToNext()) {
+                mQueue.add(cursor.getString(0), cursor.getString(1));
             }
-
+        } finally {
+            SqlUtils.closeCursor(cursor);
         }
-    };
+    }
 
-    private Cursor getQueueItem() {
-        if (WordPress.getCurrentBlog() == null)
-            return null;
+    /*
+     * starts as many queued deletes as the queue allows, and stops the service once there's
+     * nothing left to delete - called again whenever a delete finishes
+     */
+    private void startQueuedDeletes() {
+        MediaWorkQueue.Item item;
+        while ((item = mQueue.next()) != null) {
+            if (!deleteMediaFile(item.blogId, item.mediaId)) {
+                mQueue.finish(item.blogId, item.mediaId);
+            }
+        }
 
-        String blogId = String.valueOf(WordPress.getCurrentBlog().getLocalTableBlogId());
-        return WordPress.wpDB.getMediaDeleteQueueItem(blogId);
+        if (mQueue.isIdle()) {
+            stopSelf();
+        }
     }
 
-    private void deleteMediaFile(Cursor cursor) {
-        if (!cursor.moveToFirst())
-            return;
-
-        mDeleteInProgress = true;
+    private void onDeleteFinished(String blogId, String mediaId) {
+        if (mQueue.finish(blogId, mediaId)) {
+            startQueuedDeletes();
+        }
+    }
 
-        final String blogId = cursor.getString((cursor.getColumnIndex("blogId")));
-        final String mediaId = cursor.getString(cursor.getColumnIndex("mediaId"));
+    /*
+     * starts deleting the file, returns false if its blog no longer exists
+     */
+    private boolean deleteMediaFile(final String blogId, final String mediaId) {
+        Blog blog = WordPress.wpDB.instantiateBlogByLocalId(Integer.parseInt(blogId));
+        if (blog == null) {
+            return false;
+        }
 
         ApiHelper.DeleteMediaTask task = new ApiHelper.DeleteMediaTask(mediaId,
                 new ApiHelper.GenericCallback() {
             @Override
             public void onSuccess() {
                 // only delete them once we get an ok from the server
-                if (WordPress.getCurrentBlog() != null && mediaId != null) {
-                    WordPress.wpDB.deleteMediaFile(blogId, mediaId);
-                }
-
-                mDeleteInProgress = false;
-                mHandler.post(mFetchQueueTask);
+                WordPress.wpDB.deleteMediaFile(blogId, mediaId);
+                onDeleteFinished(blogId, mediaId);
             }
 
             @Override
@@ -106,16 +104,14 @@ public class MediaDeleteService extends Service {
                 // Otherwise the service will continuously try to delete an item they can't delete.
 
                 WordPress.wpDB.updateMediaUploadState(blogId, mediaId, MediaUploadState.DELETED);
-
-                mDeleteInProgress = false;
-                mHandler.post(mFetchQueueTask);
+                onDeleteFinished(blogId, mediaId);
             }
         });
 
         List<Object> apiArgs = new ArrayList<Object>();
-        apiArgs.add(WordPress.getCurrentBlog());
-        task.execute(apiArgs) ;
-
-        mHandler.post(mFetchQueueTask);
+        apiArgs.add(blog);
+        // deletes from different blogs run side by side rather than on AsyncTask's serial executor
+        task.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR, apiArgs);
+        return true;
     }
 }
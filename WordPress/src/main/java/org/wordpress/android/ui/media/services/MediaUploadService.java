@@ -4,43 +4,63 @@ import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
 import android.database.Cursor;
-import android.os.Handler;
+import android.os.AsyncTask;
 import android.os.IBinder;
 
 import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.WordPressDB;
+import org.wordpress.android.datasets.MediaUploadJournalTable;
+import org.wordpress.android.models.Blog;
 import org.wordpress.android.models.MediaUploadState;
+import org.wordpress.android.networking.ConnectionChangeReceiver;
 import org.wordpress.android.ui.media.services.MediaEvents.MediaChanged;
+import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.wordpress.android.util.CrashlyticsUtils;
 import org.wordpress.android.util.CrashlyticsUtils.ExceptionType;
+import org.wordpress.android.util.NetworkUtils;
+import org.wordpress.android.util.SqlUtils;
 import org.wordpress.android.util.helpers.MediaFile;
 import org.xmlrpc.android.ApiHelper;
 import org.xmlrpc.android.ApiHelper.ErrorType;
 import org.xmlrpc.android.ApiHelper.GetMediaItemTask;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import de.greenrobot.event.EventBus;
 
 /**
  * A service for uploading media files from the media browser.
- * Only one file is uploaded at a time.
+ *
+ * Queued uploads are read from the database when the service starts or is asked to process its
+ * queue, and kept in a MediaWorkQueue. Blogs take turns - one file per blog is uploaded at a time,
+ * so uploads to different blogs go ahead together - and the next upload starts as soon as one
+ * finishes. The service stops once nothing is left to upload.
+ *
+ * Uploads are recorded in MediaUploadJournalTable. Uploads interrupted by a crash, or by a dropped
+ * connection, are queued again rather than failed as long as the file hasn't changed and they haven't
+ * used up their attempts - uploads lost to a dropped connection wait for the network to return.
  */
 public class MediaUploadService extends Service {
-    // time to wait before trying to upload the next file
-    private static final int UPLOAD_WAIT_TIME = 1000;
+    // the most files uploaded at the same time, each to a different blog
+    private static final int MAX_CONCURRENT_UPLOADS = 3;
+    // how far an upload progresses before the bytes sent are recorded in the journal
+    private static final float JOURNAL_PROGRESS_STEP = 0.05f;
 
     private static MediaUploadService mInstance;
 
     private Context mContext;
-    private Handler mHandler = new Handler();
 
-    private boolean mUploadInProgress;
-    private ApiHelper.UploadMediaTask mCurrentUploadMediaTask;
-    private String mCurrentUploadMediaId;
+    private final MediaWorkQueue mQueue = new MediaWorkQueue(MAX_CONCURRENT_UPLOADS);
+    // the upload task in flight for each blog, by blog id
+    private final Map<String, ApiHelper.UploadMediaTask> mUploadTasks = new HashMap<>();
+    private boolean mIsWaitingForNetwork;
 
     @Override
     public IBinder onBind(Intent intent) {
@@ -54,34 +74,51 @@ public class MediaUploadService extends Service {
         mInstance = this;
 
         mContext = this.getApplicationContext();
-        mUploadInProgress = false;
 
         cancelOldUploads();
+        EventBus.getDefault().register(this);
+    }
+
+    @Override
+    public void onDestroy() {
+        EventBus.getDefault().unregister(this);
+        if (mInstance == this) {
+            mInstance = null;
+        }
+        super.onDestroy();
+    }
+
+    @SuppressWarnings("unused")
+    public void onEventMainThread(ConnectionChangeReceiver.ConnectionChangeEvent event) {
+        if (event.isConnected() && mIsWaitingForNetwork) {
+            AppLog.i(T.MEDIA, "connection restored, resuming media uploads");
+            mIsWaitingForNetwork = false;
+            startQueuedUploads();
+        }
     }
 
     @Override
     public void onStart(Intent intent, int startId) {
-        mHandler.post(mFetchQueueTask);
+        processQueue();
     }
 
     public static MediaUploadService getInstance() {
         return mInstance;
     }
 
+    /**
+     * Adds files queued in the database since the queue was last read, and starts uploading them.
+     */
     public void processQueue() {
-        mHandler.post(mFetchQueueTask);
+        loadQueue();
+        startQueuedUploads();
     }
 
     /**
      * Returns whether the service has any media uploads in progress or queued.
      */
     public boolean hasUploads() {
-        if (mUploadInProgress) {
-            return true;
-        } else {
-            Cursor queueCursor = getQueue();
-            return (queueCursor == null || queueCursor.getCount() > 0);
-        }
+        return !mQueue.isIdle();
     }
 
     /**
@@ -90,101 +127,156 @@ public class MediaUploadService extends Service {
      * @param delete whether to delete the item from the queue or mark it as failed so it can be retried later
      */
     public void cancelUpload(String mediaId, boolean delete) {
-        if (mediaId.equals(mCurrentUploadMediaId)) {
+        if (WordPress.getCurrentBlog() == null) {
+            return;
+        }
+        String blogId = String.valueOf(WordPress.getCurrentBlog().getLocalTableBlogId());
+        MediaUploadJournalTable.removeUpload(blogId, mediaId);
+        if (mQueue.isInFlight(blogId, mediaId)) {
             // The media item is currently uploading - abort the upload process
-            mCurrentUploadMediaTask.cancel(true);
-            mUploadInProgress = false;
+            ApiHelper.UploadMediaTask task = mUploadTasks.get(blogId);
+            if (task != null) {
+                task.cancel(true);
+            }
+            onUploadFinished(blogId, mediaId);
         } else {
             // Remove the media item from the upload queue
-            if (WordPress.getCurrentBlog() != null) {
-                String blogId = String.valueOf(WordPress.getCurrentBlog().getLocalTableBlogId());
-                if (delete) {
-                    WordPress.wpDB.deleteMediaFile(blogId, mediaId);
-                } else {
-                    WordPress.wpDB.updateMediaUploadState(blogId, mediaId, MediaUploadState.FAILED);
-                }
+            mQueue.remove(blogId, mediaId);
+            if (delete) {
+                WordPress.wpDB.deleteMediaFile(blogId, mediaId);
+            } else {
+                WordPress.wpDB.updateMediaUploadState(blogId, mediaId, MediaUploadState.FAILED);
             }
         }
     }
 
-    private Runnable mFetchQueueTask = new Runnable() {
-        @Override
-        public void run() {
-            Cursor cursor = getQueue();
-            try {
-                if ((cursor == null || cursor.getCount() == 0 || mContext == null) && !mUploadInProgress) {
-                    MediaUploadService.this.stopSelf();
-                    return;
-                } else {
-                    if (mUploadInProgress) {
-                        mHandler.postDelayed(this, UPLOAD_WAIT_TIME);
-                    } else {
-                        uploadMediaFile(cursor);
-                    }
-                }
-            } finally {
-                if (cursor != null)
-                    cursor.close();
-            }
-
-        }
-    };
-
     private void cancelOldUploads() {
         // There should be no media files with an upload state of 'uploading' at the start of this service.
-        // Since we won't be able to receive notifications for these, set them to 'failed'.
-
-        if (WordPress.getCurrentBlog() != null) {
-            String blogId = String.valueOf(WordPress.getCurrentBlog().getLocalTableBlogId());
+        // Since we won't be able to receive notifications for these, queue the ones which can be resumed
+        // and set the rest to 'failed'.
+
+        for (Integer localBlogId : WordPress.wpDB.getAllBlogsIDs()) {
+            String blogId = String.valueOf(localBlogId);
+            for (String mediaId : MediaUploadJournalTable.getResumableUploads(blogId)) {
+                AppLog.i(T.MEDIA, "resuming interrupted upload of media " + mediaId);
+                WordPress.wpDB.updateMediaUploadState(blogId, mediaId, MediaUploadState.QUEUED);
+            }
             WordPress.wpDB.setMediaUploadingToFailed(blogId);
         }
     }
 
-    private Cursor getQueue() {
-        if (WordPress.getCurrentBlog() == null)
-            return null;
-
-        String blogId = String.valueOf(WordPress.getCurrentBlog().getLocalTableBlogId());
-        return WordPress.wpDB.getMediaUploadQueue(blogId);
+    /*
+     * adds the files queued in the database for every blog to the in-memory queue - files which
+     * are already queued or uploading are skipped
+     */
+    private void loadQueue() {
+        Cursor cursor = WordPress.wpDB.getMediaUploadQueue();
+        try {
+            while (cursor.moveToNext()) {
+                mQueue.add(cursor.getString(0), cursor.getString(1));
+            }
+        } finally {
+            SqlUtils.closeCursor(cursor);
+        }
     }
 
-    private void uploadMediaFile(Cursor cursor) {
-        if (!cursor.moveToFirst())
+    /*
+     * starts as many queued uploads as the queue allows, and stops the service once there's
+     * nothing left to upload - called again whenever an upload finishes
+     */
+    private void startQueuedUploads() {
+        if (mIsWaitingForNetwork) {
+            // the queue is processed again once the connection is restored
             return;
+        }
 
-        mUploadInProgress = true;
+        MediaWorkQueue.Item item;
+        while ((item = mQueue.next()) != null) {
+            if (!uploadMediaFile(item.blogId, item.mediaId)) {
+                mQueue.finish(item.blogId, item.mediaId);
+            }
+        }
+
+        if (mQueue.isIdle()) {
+            stopSelf();
+        }
+    }
 
-        final String blogIdStr = cursor.getString((cursor.getColumnIndex(WordPressDB.COLUMN_NAME_BLOG_ID)));
-        final String mediaId = cursor.getString(cursor.getColumnIndex(WordPressDB.COLUMN_NAME_MEDIA_ID));
-        String fileName = cursor.getString(cursor.getColumnIndex(WordPressDB.COLUMN_NAME_FILE_NAME));
-        String filePath = cursor.getString(cursor.getColumnIndex(WordPressDB.COLUMN_NAME_FILE_PATH));
-        String mimeType = cursor.getString(cursor.getColumnIndex(WordPressDB.COLUMN_NAME_MIME_TYPE));
+    /*
+     * callbacks for an upload which has since been cancelled can still arrive, and are ignored
+     * here so they don't finish whatever the blog is uploading now
+     */
+    private void onUploadFinished(String blogId, String mediaId) {
+        if (!mQueue.finish(blogId, mediaId)) {
+            return;
+        }
+        mUploadTasks.remove(blogId);
+        startQueuedUploads();
+    }
+
+    /*
+     * starts uploading the file, returns false if it's no longer queued or its blog no longer exists
+     */
+    private boolean uploadMediaFile(final String blogIdStr, final String mediaId) {
+        final Blog blog = WordPress.wpDB.instantiateBlogByLocalId(Integer.parseInt(blogIdStr));
+        if (blog == null) {
+            return false;
+        }
 
         MediaFile mediaFile = new MediaFile();
-        mediaFile.setBlogId(blogIdStr);
-        mediaFile.setFileName(fileName);
-        mediaFile.setFilePath(filePath);
-        mediaFile.setMimeType(mimeType);
+        String filePath;
+        Cursor cursor = WordPress.wpDB.getMediaFile(blogIdStr, mediaId);
+        try {
+            if (!cursor.moveToFirst() || !MediaUploadState.QUEUED.toString().equals(
+                    cursor.getString(cursor.getColumnIndex(WordPressDB.COLUMN_NAME_UPLOAD_STATE)))) {
+                return false;
+            }
+            filePath = cursor.getString(cursor.getColumnIndex(WordPressDB.COLUMN_NAME_FILE_PATH));
+            mediaFile.setBlogId(blogIdStr);
+            mediaFile.setFileName(cursor.getString(cursor.getColumnIndex(WordPressDB.COLUMN_NAME_FILE_NAME)));
+            mediaFile.setFilePath(filePath);
+            mediaFile.setMimeType(cursor.getString(cursor.getColumnIndex(WordPressDB.COLUMN_NAME_MIME_TYPE)));
+        } finally {
+            SqlUtils.closeCursor(cursor);
+        }
 
-        mCurrentUploadMediaId = mediaId;
+        int attempt = MediaUploadJournalTable.beginAttempt(blogIdStr, mediaId, filePath);
+        if (attempt > 1) {
+            AppLog.i(T.MEDIA, "retrying upload of media " + mediaId + ", attempt " + attempt);
+        }
+        final long fileSize = new File(filePath != null ? filePath : "").length();
 
-        mCurrentUploadMediaTask = new ApiHelper.UploadMediaTask(mContext, mediaFile,
+        ApiHelper.UploadMediaTask task = new ApiHelper.UploadMediaTask(mContext, mediaFile,
                 new ApiHelper.UploadMediaTask.Callback() {
+            // the fraction of the file that was last recorded in the journal
+            private float mJournaledProgress;
+
             @Override
             public void onSuccess(String remoteId, String remoteUrl, String secondaryId) {
+                if (!mQueue.isInFlight(blogIdStr, mediaId)) {
+                    return;
+                }
+                MediaUploadJournalTable.removeUpload(blogIdStr, mediaId);
                 // once the file has been uploaded, update the local database entry (swap the id with the remote id)
                 // and download the new one
                 WordPress.wpDB.updateMediaLocalToRemoteId(blogIdStr, mediaId, remoteId);
                 EventBus.getDefault().post(new MediaEvents.MediaUploadSucceeded(blogIdStr, mediaId,
                         remoteId, remoteUrl, secondaryId));
-                fetchMediaFile(remoteId);
+                fetchMediaFile(blog, mediaId, remoteId);
             }
 
             @Override
             public void onFailure(ApiHelper.ErrorType errorType, String errorMessage, Throwable throwable) {
+                if (!mQueue.isInFlight(blogIdStr, mediaId)) {
+                    return;
+                }
+                if (throwable instanceof IOException && MediaUploadJournalTable.isResumable(blogIdStr, mediaId)) {
+                    queueInterruptedUpload(blogIdStr, mediaId);
+                    return;
+                }
+
+                MediaUploadJournalTable.removeUpload(blogIdStr, mediaId);
                 WordPress.wpDB.updateMediaUploadState(blogIdStr, mediaId, MediaUploadState.FAILED);
-                mUploadInProgress = false;
-                mCurrentUploadMediaId = "";
 
                 MediaEvents.MediaUploadFailed event;
                 if (errorMessage == null) {
@@ -194,7 +286,7 @@ public class MediaUploadService extends Service {
                 }
 
                 EventBus.getDefault().post(event);
-                mHandler.post(mFetchQueueTask);
+                onUploadFinished(blogIdStr, mediaId);
 
                 // Only log the error if it's not caused by the network (internal inconsistency)
                 if (errorType != ErrorType.NETWORK_XMLRPC) {
@@ -205,19 +297,53 @@ public class MediaUploadService extends Service {
             @Override
             public void onProgressUpdate(float progress) {
                 EventBus.getDefault().post(new MediaEvents.MediaUploadProgress(mediaId, progress));
+                if (progress - mJournaledProgress >= JOURNAL_PROGRESS_STEP) {
+                    mJournaledProgress = progress;
+                    MediaUploadJournalTable.setBytesSent(blogIdStr, mediaId, (long) (fileSize * progress));
+                }
             }
         });
 
+        mUploadTasks.put(blogIdStr, task);
         WordPress.wpDB.updateMediaUploadState(blogIdStr, mediaId, MediaUploadState.UPLOADING);
         List<Object> apiArgs = new ArrayList<Object>();
-        apiArgs.add(WordPress.getCurrentBlog());
-        mCurrentUploadMediaTask.execute(apiArgs);
-        mHandler.post(mFetchQueueTask);
+        apiArgs.add(blog);
+        // uploads to different blogs run side by side rather than on AsyncTask's serial executor
+        task.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR, apiArgs);
+        return true;
+    }
+
+    /*
+     * called when the connection dropped during an upload which can be tried again - the upload is
+     * queued, and the queue is paused until the network is available if it isn't now
+     */
+    private void queueInterruptedUpload(String blogId, String mediaId) {
+        if (!mQueue.finish(blogId, mediaId)) {
+            return;
+        }
+        mUploadTasks.remove(blogId);
+
+        long bytesSent = MediaUploadJournalTable.getBytesSent(blogId, mediaId);
+        long fileSize = MediaUploadJournalTable.getFileSize(blogId, mediaId);
+        AppLog.w(T.MEDIA, "upload of media " + mediaId + " interrupted after " + bytesSent + " of "
+                + fileSize + " bytes, queueing it to be retried");
+        WordPress.wpDB.updateMediaUploadState(blogId, mediaId, MediaUploadState.QUEUED);
+        mQueue.add(blogId, mediaId);
+
+        if (!NetworkUtils.isNetworkAvailable(mContext)) {
+            mIsWaitingForNetwork = true;
+        }
+        startQueuedUploads();
     }
 
-    private void fetchMediaFile(final String id) {
+    /*
+     * fetches the uploaded file, whose local id has been replaced with its remote id - the upload
+     * is finished under its local id, which is what the queue knows it by
+     */
+    private void fetchMediaFile(Blog blog, final String localMediaId, final String id) {
+        final String blogIdStr = String.valueOf(blog.getLocalTableBlogId());
         List<Object> apiArgs = new ArrayList<Object>();
-        apiArgs.add(WordPress.getCurrentBlog());
+        apiArgs.add(blog);
         GetMediaItemTask task = new GetMediaItemTask(Integer.valueOf(id),
                 new ApiHelper.GetMediaItemTask.Callback() {
             @Override
@@ -225,17 +351,13 @@ public class MediaUploadService extends Service {
                 String blogId = mediaFile.getBlogId();
                 String mediaId = mediaFile.getMediaId();
                 WordPress.wpDB.updateMediaUploadState(blogId, mediaId, MediaUploadState.UPLOADED);
-                mUploadInProgress = false;
-                mCurrentUploadMediaId = "";
-                mHandler.post(mFetchQueueTask);
+                onUploadFinished(blogIdStr, localMediaId);
                 EventBus.getDefault().post(new MediaChanged(blogId, mediaId));
             }
 
             @Override
             public void onFailure(ApiHelper.ErrorType errorType, String errorMessage, Throwable throwable) {
-                mUploadInProgress = false;
-                mCurrentUploadMediaId = "";
-                mHandler.post(mFetchQueueTask);
+                onUploadFinished(blogIdStr, localMediaId);
                 // Only log the error if it's not caused by the network (internal inconsistency)
                 if (errorType != ErrorType.NETWORK_XMLRPC) {
                     CrashlyticsUtils.logException(throwable, ExceptionType.SPECIFIC, T.MEDIA, errorMessage);
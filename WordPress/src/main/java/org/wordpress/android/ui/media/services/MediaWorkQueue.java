@@ -0,0 +1,120 @@
+package org.wordpress.android.ui.media.services;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory queue of media items waiting to be uploaded or deleted, shared by all blogs. Items are
+ * kept in a queue per blog and handed out round-robin, so a blog with a long queue doesn't hold up
+ * the others. At most one item per blog is in flight at a time, and at most maxInFlight overall.
+ *
+ * Not thread-safe - the media services only touch it on the main thread.
+ */
+class MediaWorkQueue {
+    static class Item {
+        final String blogId;
+        final String mediaId;
+
+        Item(String blogId, String mediaId) {
+            this.blogId = blogId;
+            this.mediaId = mediaId;
+        }
+    }
+
+    // queued media ids by blog id, in the order the blogs will be served
+    private final LinkedHashMap<String, ArrayDeque<String>> mQueues = new LinkedHashMap<>();
+    // media id in flight by blog id
+    private final Map<String, String> mInFlight = new HashMap<>();
+    private final int mMaxInFlight;
+
+    MediaWorkQueue(int maxInFlight) {
+        mMaxInFlight = maxInFlight;
+    }
+
+    /*
+     * adds an item to the end of its blog's queue, returns false if it's already queued or in flight
+     */
+    boolean add(String blogId, String mediaId) {
+        if (blogId == null || mediaId == null || isInFlight(blogId, mediaId)) {
+            return false;
+        }
+        ArrayDeque<String> queue = mQueues.get(blogId);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            mQueues.put(blogId, queue);
+        } else if (queue.contains(mediaId)) {
+            return false;
+        }
+        queue.add(mediaId);
+        return true;
+    }
+
+    /*
+     * removes a queued item, returns false if it wasn't queued
+     */
+    boolean remove(String blogId, String mediaId) {
+        ArrayDeque<String> queue = mQueues.get(blogId);
+        if (queue == null || !queue.remove(mediaId)) {
+            return false;
+        }
+        if (queue.isEmpty()) {
+            mQueues.remove(blogId);
+        }
+        return true;
+    }
+
+    /*
+     * returns the next item which can be started and marks it as in flight, or null if every blog
+     * with queued items already has one in flight or the limit has been reached. The blog the item
+     * came from moves to the back of the line.
+     */
+    Item next() {
+        if (mInFlight.size() >= mMaxInFlight) {
+            return null;
+        }
+        Iterator<Map.Entry<String, ArrayDeque<String>>> iterator = mQueues.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, ArrayDeque<String>> entry = iterator.next();
+            String blogId = entry.getKey();
+            if (mInFlight.containsKey(blogId)) {
+                continue;
+            }
+            ArrayDeque<String> queue = entry.getValue();
+            String mediaId = queue.poll();
+            iterator.remove();
+            if (!queue.isEmpty()) {
+                mQueues.put(blogId, queue);
+            }
+            mInFlight.put(blogId, mediaId);
+            return new Item(blogId, mediaId);
+        }
+        return null;
+    }
+
+    /*
+     * called when an in-flight item has finished, whether it succeeded or not - returns false and
+     * does nothing if the item isn't the one in flight for its blog, which happens when a callback
+     * arrives late for an item that was already cancelled
+     */
+    boolean finish(String blogId, String mediaId) {
+        if (!isInFlight(blogId, mediaId)) {
+            return false;
+        }
+        mInFlight.remove(blogId);
+        return true;
+    }
+
+    boolean isInFlight(String blogId, String mediaId) {
+        return mediaId != null && mediaId.equals(mInFlight.get(blogId));
+    }
+
+    /*
+     * returns true if nothing is queued or in flight
+     */
+    boolean isIdle() {
+        return mQueues.isEmpty() && mInFlight.isEmpty();
+    }
+}
@@ -18,8 +18,6 @@ import android.widget.ListView;
 import com.simperium.client.Bucket;
 import com.simperium.client.BucketObjectMissingException;
 
-import org.json.JSONArray;
-import org.json.JSONException;
 import org.json.JSONObject;
 import org.wordpress.android.R;
 import org.wordpress.android.datasets.ReaderCommentTable;
@@ -279,7 +277,6 @@ public class NotificationsDetailListFragment extends ListFragment implements Not
 
             requestReaderContentForNote();
 
-            JSONArray bodyArray = mNote.getBody();
             final List<NoteBlock> noteList = new ArrayList<>();
 
             // Add the note header if one was provided
@@ -297,75 +294,60 @@ public class NotificationsDetailListFragment extends ListFragment implements Not
                 noteList.add(headerNoteBlock);
             }
 
-            if (bodyArray != null && bodyArray.length() > 0) {
-                for (int i=0; i < bodyArray.length(); i++) {
-                    try {
-                        JSONObject noteObject = bodyArray.getJSONObject(i);
-                        // Determine NoteBlock type and add it to the array
-                        NoteBlock noteBlock;
-                        String noteBlockTypeString = JSONUtils.queryJSON(noteObject, "type", "");
-
-                        if (BlockType.fromString(noteBlockTypeString) == BlockType.USER) {
-                            if (mNote.isCommentType()) {
-                                // Set comment position so we can target it later
-                                // See refreshBlocksForCommentStatus()
-                                mCommentListPosition = i + noteList.size();
-
-                                // We'll snag the next body array item for comment user blocks
-                                if (i + 1 < bodyArray.length()) {
-                                    JSONObject commentTextBlock = bodyArray.getJSONObject(i + 1);
-                                    noteObject.put("comment_text", commentTextBlock);
-                                    i++;
-                                }
-
-                                // Add timestamp to block for display
-                                noteObject.put("timestamp", mNote.getTimestamp());
-
-                                noteBlock = new CommentUserNoteBlock(
-                                        getActivity(),
-                                        noteObject,
-                                        mOnNoteBlockTextClickListener,
-                                        mOnGravatarClickedListener
-                                );
-
-                                // Set listener for comment status changes, so we can update bg and text colors
-                                CommentUserNoteBlock commentUserNoteBlock = (CommentUserNoteBlock)noteBlock;
-                                mOnCommentStatusChangeListener = commentUserNoteBlock.getOnCommentChangeListener();
-                                commentUserNoteBlock.setCommentStatus(mNote.getCommentStatus());
-                                commentUserNoteBlock.configureResources(getActivity());
-                            } else {
-                                noteBlock = new UserNoteBlock(
-                                        getActivity(),
-                                        noteObject,
-                                        mOnNoteBlockTextClickListener,
-                                        mOnGravatarClickedListener
-                                );
-                            }
-                        } else if (isFooterBlock(noteObject)) {
-                            noteBlock = new FooterNoteBlock(noteObject, mOnNoteBlockTextClickListener);
-                            ((FooterNoteBlock)noteBlock).setClickableSpan(
-                                    JSONUtils.queryJSON(noteObject, "ranges[last]", new JSONObject()),
-                                    mNote.getType()
-                            );
-                        } else {
-                            noteBlock = new NoteBlock(noteObject, mOnNoteBlockTextClickListener);
-                        }
-
-                        // Badge notifications apply different colors and formatting
-                        if (isAdded() && noteBlock.containsBadgeMediaType()) {
-                            mIsBadgeView = true;
-                            mBackgroundColor = getActivity().getResources().getColor(R.color.transparent);
-                        }
+            // The note parses its body blocks once per revision
+            for (JSONObject noteObject : mNote.getBodyBlocks()) {
+                // Determine NoteBlock type and add it to the array
+                NoteBlock noteBlock;
+                String noteBlockTypeString = JSONUtils.queryJSON(noteObject, "type", "");
+
+                if (BlockType.fromString(noteBlockTypeString) == BlockType.USER) {
+                    if (mNote.isCommentType()) {
+                        // Set comment position so we can target it later
+                        // See refreshBlocksForCommentStatus()
+                        mCommentListPosition = noteList.size();
+
+                        // The comment's text block and the timestamp have been merged into this block
+                        noteBlock = new CommentUserNoteBlock(
+                                getActivity(),
+                                noteObject,
+                                mOnNoteBlockTextClickListener,
+                                mOnGravatarClickedListener
+                        );
+
+                        // Set listener for comment status changes, so we can update bg and text colors
+                        CommentUserNoteBlock commentUserNoteBlock = (CommentUserNoteBlock)noteBlock;
+                        mOnCommentStatusChangeListener = commentUserNoteBlock.getOnCommentChangeListener();
+                        commentUserNoteBlock.setCommentStatus(mNote.getCommentStatus());
+                        commentUserNoteBlock.configureResources(getActivity());
+                    } else {
+                        noteBlock = new UserNoteBlock(
+                                getActivity(),
+                                noteObject,
+                                mOnNoteBlockTextClickListener,
+                                mOnGravatarClickedListener
+                        );
+                    }
+                } else if (isFooterBlock(noteObject)) {
+                    noteBlock = new FooterNoteBlock(noteObject, mOnNoteBlockTextClickListener);
+                    ((FooterNoteBlock)noteBlock).setClickableSpan(
+                            JSONUtils.queryJSON(noteObject, "ranges[last]", new JSONObject()),
+                            mNote.getType()
+                    );
+                } else {
+                    noteBlock = new NoteBlock(noteObject, mOnNoteBlockTextClickListener);
+                }
 
-                        if (mIsBadgeView) {
-                            noteBlock.setIsBadge();
-                        }
+                // Badge notifications apply different colors and formatting
+                if (isAdded() && noteBlock.containsBadgeMediaType()) {
+                    mIsBadgeView = true;
+                    mBackgroundColor = getActivity().getResources().getColor(R.color.transparent);
+                }
 
-                        noteList.add(noteBlock);
-                    } catch (JSONException e) {
-                        AppLog.e(AppLog.T.NOTIFS, "Invalid note data, could not parse.");
-                    }
+                if (mIsBadgeView) {
+                    noteBlock.setIsBadge();
                 }
+
+                noteList.add(noteBlock);
             }
 
             return noteList;
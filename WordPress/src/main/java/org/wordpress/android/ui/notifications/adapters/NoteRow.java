@@ -0,0 +1,139 @@
+package org.wordpress.android.ui.notifications.adapters;
+
+import android.database.Cursor;
+import android.text.Html;
+import android.text.TextUtils;
+
+import org.wordpress.android.models.CommentStatus;
+import org.wordpress.android.models.Note;
+import org.wordpress.android.util.GravatarUtils;
+import org.wordpress.android.util.SqlUtils;
+import org.wordpress.android.util.StringUtils;
+
+/**
+ * What NotesAdapter shows for a single note, prepared from the note's indexed values so binding a
+ * row only has to set its views. Rows are cached by note key and only rebuilt when the indexed
+ * values they were prepared from change - i.e. when the note itself changes.
+ */
+class NoteRow {
+    final String key;
+    final CharSequence subject;
+    final String subjectNoticon;
+    final String snippet;
+    final String avatarUrl;
+    final String noticon;
+    final boolean isUnread;
+    final CommentStatus commentStatus;
+
+    // the indexed values this row was prepared from
+    private final String mSubjectHtml;
+    private final String mIconUrl;
+    private final boolean mIsUnapproved;
+    private final String mLocalStatus;
+
+    private NoteRow(String key,
+                    String subjectHtml,
+                    String subjectNoticon,
+                    String snippet,
+                    String iconUrl,
+                    String noticon,
+                    boolean isUnread,
+                    boolean isUnapproved,
+                    String localStatus,
+                    int avatarSz) {
+        this.key = key;
+        this.subjectNoticon = subjectNoticon;
+        this.snippet = snippet;
+        this.noticon = noticon;
+        this.isUnread = isUnread;
+        mSubjectHtml = subjectHtml;
+        mIconUrl = iconUrl;
+        mIsUnapproved = isUnapproved;
+        mLocalStatus = localStatus;
+
+        // Subject is stored in db as html to preserve text formatting
+        CharSequence subjectSpanned = Html.fromHtml(subjectHtml);
+        // Trim the '\n\n' added by Html.fromHtml()
+        subject = subjectSpanned.subSequence(0, TextUtils.getTrimmedLength(subjectSpanned));
+
+        avatarUrl = GravatarUtils.fixGravatarUrl(iconUrl, avatarSz);
+
+        if (!TextUtils.isEmpty(localStatus)) {
+            commentStatus = CommentStatus.fromString(localStatus);
+        } else if (isUnapproved) {
+            commentStatus = CommentStatus.UNAPPROVED;
+        } else {
+            commentStatus = CommentStatus.UNKNOWN;
+        }
+    }
+
+    /*
+     * returns the row for the note at the cursor's current position - the passed cached row is
+     * returned if the note hasn't changed since it was prepared
+     */
+    static NoteRow fromCursor(Cursor cursor, Columns columns, String key, NoteRow cachedRow, int avatarSz) {
+        String subjectHtml = columns.getString(cursor, columns.subject).trim();
+        String subjectNoticon = columns.getString(cursor, columns.subjectNoticon);
+        String snippet = columns.getString(cursor, columns.snippet);
+        String iconUrl = columns.getString(cursor, columns.iconUrl);
+        String noticon = columns.getString(cursor, columns.noticon);
+        boolean isUnread = SqlUtils.sqlToBool(columns.getInt(cursor, columns.unread));
+        boolean isUnapproved = SqlUtils.sqlToBool(columns.getInt(cursor, columns.unapproved));
+        String localStatus = columns.getString(cursor, columns.localStatus);
+
+        if (cachedRow != null
+                && cachedRow.isUnread == isUnread
+                && cachedRow.mIsUnapproved == isUnapproved
+                && cachedRow.mSubjectHtml.equals(subjectHtml)
+                && cachedRow.subjectNoticon.equals(subjectNoticon)
+                && cachedRow.snippet.equals(snippet)
+                && cachedRow.mIconUrl.equals(iconUrl)
+                && cachedRow.noticon.equals(noticon)
+                && cachedRow.mLocalStatus.equals(localStatus)) {
+            return cachedRow;
+        }
+
+        return new NoteRow(key, subjectHtml, subjectNoticon, snippet, iconUrl, noticon,
+                isUnread, isUnapproved, localStatus, avatarSz);
+    }
+
+    /*
+     * indexes of the columns rows are prepared from, looked up once per cursor rather than by
+     * name for every row
+     */
+    static class Columns {
+        final int timestamp;
+        final int subject;
+        final int subjectNoticon;
+        final int snippet;
+        final int iconUrl;
+        final int noticon;
+        final int unread;
+        final int unapproved;
+        final int localStatus;
+
+        Columns(Cursor cursor) {
+            timestamp = cursor.getColumnIndex(Note.Schema.TIMESTAMP_INDEX);
+            subject = cursor.getColumnIndex(Note.Schema.SUBJECT_INDEX);
+            subjectNoticon = cursor.getColumnIndex(Note.Schema.COMMENT_SUBJECT_NOTICON);
+            snippet = cursor.getColumnIndex(Note.Schema.SNIPPET_INDEX);
+            iconUrl = cursor.getColumnIndex(Note.Schema.ICON_URL_INDEX);
+            noticon = cursor.getColumnIndex(Note.Schema.NOTICON_INDEX);
+            unread = cursor.getColumnIndex(Note.Schema.UNREAD_INDEX);
+            unapproved = cursor.getColumnIndex(Note.Schema.IS_UNAPPROVED_INDEX);
+            localStatus = cursor.getColumnIndex(Note.Schema.LOCAL_STATUS);
+        }
+
+        String getString(Cursor cursor, int columnIndex) {
+            return columnIndex != -1 ? StringUtils.notNullStr(cursor.getString(columnIndex)) : "";
+        }
+
+        int getInt(Cursor cursor, int columnIndex) {
+            return columnIndex != -1 ? cursor.getInt(columnIndex) : -1;
+        }
+
+        long getLong(Cursor cursor, int columnIndex) {
+            return columnIndex != -1 ? cursor.getLong(columnIndex) : -1;
+        }
+    }
+}
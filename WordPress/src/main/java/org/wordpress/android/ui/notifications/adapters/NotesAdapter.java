@@ -2,8 +2,8 @@ package org.wordpress.android.ui.notifications.adapters;
 
 import android.content.Context;
 import android.database.Cursor;
+import android.support.v4.util.LruCache;
 import android.support.v7.widget.RecyclerView;
-import android.text.Html;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -18,9 +18,6 @@ import org.wordpress.android.models.CommentStatus;
 import org.wordpress.android.models.Note;
 import org.wordpress.android.ui.comments.CommentUtils;
 import org.wordpress.android.ui.notifications.NotificationsListFragment;
-import org.wordpress.android.util.GravatarUtils;
-import org.wordpress.android.util.SqlUtils;
-import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.widgets.NoticonTextView;
 import org.wordpress.android.widgets.WPNetworkImageView;
 
@@ -37,6 +34,14 @@ public class NotesAdapter extends CursorRecyclerViewAdapter<NotesAdapter.NoteVie
     private final List<String> mHiddenNoteIds = new ArrayList<>();
     private final List<String> mModeratingNoteIds = new ArrayList<>();
 
+    private static final int MAX_CACHED_ROWS = 500;
+
+    // prepared rows by note key, and the cursor's column indexes and timestamps - the latter
+    // are dropped whenever the data set changes
+    private final LruCache<String, NoteRow> mRows = new LruCache<>(MAX_CACHED_ROWS);
+    private NoteRow.Columns mColumns;
+    private long[] mTimestamps;
+
     private Query mQuery;
 
     private NotificationsListFragment.OnNoteClickListener mOnNoteClickListener;
@@ -54,6 +59,14 @@ public class NotesAdapter extends CursorRecyclerViewAdapter<NotesAdapter.NoteVie
         mColorRead = context.getResources().getColor(R.color.white);
         mColorUnread = context.getResources().getColor(R.color.grey_light);
         mTextIndentSize = context.getResources().getDimensionPixelSize(R.dimen.notifications_text_indent_sz);
+
+        registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onChanged() {
+                mColumns = null;
+                mTimestamps = null;
+            }
+        });
     }
 
     public void closeCursor() {
@@ -109,30 +122,6 @@ public class NotesAdapter extends CursorRecyclerViewAdapter<NotesAdapter.NoteVie
         notifyDataSetChanged();
     }
 
-    private String getStringForColumnName(Cursor cursor, String columnName) {
-        if (columnName == null || cursor == null || cursor.getColumnIndex(columnName) == -1) {
-            return "";
-        }
-
-        return StringUtils.notNullStr(cursor.getString(cursor.getColumnIndex(columnName)));
-    }
-
-    private int getIntForColumnName(Cursor cursor, String columnName) {
-        if (columnName == null || cursor == null || cursor.getColumnIndex(columnName) == -1) {
-            return -1;
-        }
-
-        return cursor.getInt(cursor.getColumnIndex(columnName));
-    }
-
-    private long getLongForColumnName(Cursor cursor, String columnName) {
-        if (columnName == null || cursor == null || cursor.getColumnIndex(columnName) == -1) {
-            return -1;
-        }
-
-        return cursor.getLong(cursor.getColumnIndex(columnName));
-    }
-
     public int getCount() {
         if (getCursor() != null) {
             return getCursor().getCount();
@@ -151,18 +140,15 @@ public class NotesAdapter extends CursorRecyclerViewAdapter<NotesAdapter.NoteVie
     @Override
     public void onBindViewHolder(NoteViewHolder noteViewHolder, Cursor cursor) {
         final Bucket.ObjectCursor<Note> objectCursor = (Bucket.ObjectCursor<Note>) cursor;
-        noteViewHolder.itemView.setTag(objectCursor.getSimperiumKey());
+        NoteRow row = getRow(objectCursor);
+        noteViewHolder.itemView.setTag(row.key);
 
         // Display group header
-        Note.NoteTimeGroup timeGroup = Note.getTimeGroupForTimestamp(getLongForColumnName(objectCursor, Note.Schema.TIMESTAMP_INDEX));
-
-        Note.NoteTimeGroup previousTimeGroup = null;
-        if (objectCursor.getPosition() > 0 && objectCursor.moveToPrevious()) {
-            previousTimeGroup = Note.getTimeGroupForTimestamp(getLongForColumnName(objectCursor, Note.Schema.TIMESTAMP_INDEX));
-            objectCursor.moveToNext();
-        }
-
-        if (previousTimeGroup != null && previousTimeGroup == timeGroup) {
+        int position = objectCursor.getPosition();
+        // the groups are relative to now, so they're worked out as rows are bound rather than cached
+        long[] timestamps = getTimestamps();
+        Note.NoteTimeGroup timeGroup = Note.getTimeGroupForTimestamp(timestamps[position]);
+        if (position > 0 && Note.getTimeGroupForTimestamp(timestamps[position - 1]) == timeGroup) {
             noteViewHolder.headerView.setVisibility(View.GONE);
         } else {
             if (timeGroup == Note.NoteTimeGroup.GROUP_TODAY) {
@@ -180,77 +166,94 @@ public class NotesAdapter extends CursorRecyclerViewAdapter<NotesAdapter.NoteVie
             noteViewHolder.headerView.setVisibility(View.VISIBLE);
         }
 
-        if (mHiddenNoteIds.size() > 0 && mHiddenNoteIds.contains(objectCursor.getSimperiumKey())) {
+        if (mHiddenNoteIds.size() > 0 && mHiddenNoteIds.contains(row.key)) {
             noteViewHolder.contentView.setVisibility(View.GONE);
             noteViewHolder.headerView.setVisibility(View.GONE);
         } else {
             noteViewHolder.contentView.setVisibility(View.VISIBLE);
         }
 
-        CommentStatus commentStatus = CommentStatus.UNKNOWN;
-        if (SqlUtils.sqlToBool(getIntForColumnName(objectCursor, Note.Schema.IS_UNAPPROVED_INDEX))) {
-            commentStatus = CommentStatus.UNAPPROVED;
-        }
-
-        String localStatus = getStringForColumnName(objectCursor, Note.Schema.LOCAL_STATUS);
-        if (!TextUtils.isEmpty(localStatus)) {
-            commentStatus = CommentStatus.fromString(localStatus);
-        }
-
-        if (mModeratingNoteIds.size() > 0 && mModeratingNoteIds.contains(objectCursor.getSimperiumKey())) {
+        if (mModeratingNoteIds.size() > 0 && mModeratingNoteIds.contains(row.key)) {
             noteViewHolder.progressBar.setVisibility(View.VISIBLE);
         } else {
             noteViewHolder.progressBar.setVisibility(View.GONE);
         }
 
-        // Subject is stored in db as html to preserve text formatting
-        String noteSubjectHtml = getStringForColumnName(objectCursor, Note.Schema.SUBJECT_INDEX).trim();
-        CharSequence noteSubjectSpanned = Html.fromHtml(noteSubjectHtml);
-        // Trim the '\n\n' added by Html.fromHtml()
-        noteSubjectSpanned = noteSubjectSpanned.subSequence(0, TextUtils.getTrimmedLength(noteSubjectSpanned));
-        noteViewHolder.txtSubject.setText(noteSubjectSpanned);
+        noteViewHolder.txtSubject.setText(row.subject);
 
-        String noteSubjectNoticon = getStringForColumnName(objectCursor, Note.Schema.COMMENT_SUBJECT_NOTICON);
-        if (!TextUtils.isEmpty(noteSubjectNoticon)) {
+        if (!TextUtils.isEmpty(row.subjectNoticon)) {
             CommentUtils.indentTextViewFirstLine(noteViewHolder.txtSubject, mTextIndentSize);
-            noteViewHolder.txtSubjectNoticon.setText(noteSubjectNoticon);
+            noteViewHolder.txtSubjectNoticon.setText(row.subjectNoticon);
             noteViewHolder.txtSubjectNoticon.setVisibility(View.VISIBLE);
         } else {
             noteViewHolder.txtSubjectNoticon.setVisibility(View.GONE);
         }
 
-        String noteSnippet = getStringForColumnName(objectCursor, Note.Schema.SNIPPET_INDEX);
-        if (!TextUtils.isEmpty(noteSnippet)) {
+        if (!TextUtils.isEmpty(row.snippet)) {
             noteViewHolder.txtSubject.setMaxLines(2);
-            noteViewHolder.txtDetail.setText(noteSnippet);
+            noteViewHolder.txtDetail.setText(row.snippet);
             noteViewHolder.txtDetail.setVisibility(View.VISIBLE);
         } else {
             noteViewHolder.txtSubject.setMaxLines(3);
             noteViewHolder.txtDetail.setVisibility(View.GONE);
         }
 
-        String avatarUrl = GravatarUtils.fixGravatarUrl(getStringForColumnName(objectCursor, Note.Schema.ICON_URL_INDEX), mAvatarSz);
-        noteViewHolder.imgAvatar.setImageUrl(avatarUrl, WPNetworkImageView.ImageType.AVATAR);
+        noteViewHolder.imgAvatar.setImageUrl(row.avatarUrl, WPNetworkImageView.ImageType.AVATAR);
 
-        boolean isUnread = SqlUtils.sqlToBool(getIntForColumnName(objectCursor, Note.Schema.UNREAD_INDEX));
-
-        String noticonCharacter = getStringForColumnName(objectCursor, Note.Schema.NOTICON_INDEX);
-        noteViewHolder.noteIcon.setText(noticonCharacter);
-        if (commentStatus == CommentStatus.UNAPPROVED) {
+        noteViewHolder.noteIcon.setText(row.noticon);
+        if (row.commentStatus == CommentStatus.UNAPPROVED) {
             noteViewHolder.noteIcon.setBackgroundResource(R.drawable.shape_oval_orange);
-        } else if (isUnread) {
+        } else if (row.isUnread) {
             noteViewHolder.noteIcon.setBackgroundResource(R.drawable.shape_oval_blue_white_stroke);
         } else {
             noteViewHolder.noteIcon.setBackgroundResource(R.drawable.shape_oval_grey);
         }
 
-        if (isUnread) {
+        if (row.isUnread) {
             noteViewHolder.itemView.setBackgroundColor(mColorUnread);
         } else {
             noteViewHolder.itemView.setBackgroundColor(mColorRead);
         }
     }
 
+    /*
+     * returns the prepared row for the note at the cursor's current position, preparing it
+     * if it's not cached or the note has changed since it was
+     */
+    private NoteRow getRow(Bucket.ObjectCursor<Note> cursor) {
+        if (mColumns == null) {
+            mColumns = new NoteRow.Columns(cursor);
+        }
+        String key = cursor.getSimperiumKey();
+        NoteRow cachedRow = mRows.get(key);
+        NoteRow row = NoteRow.fromCursor(cursor, mColumns, key, cachedRow, mAvatarSz);
+        if (row != cachedRow) {
+            mRows.put(key, row);
+        }
+        return row;
+    }
+
+    /*
+     * returns the timestamp of every row in the cursor, which decides where the group headers
+     * go - read once for the cursor rather than by moving back a row for each bind
+     */
+    private long[] getTimestamps() {
+        if (mTimestamps == null) {
+            Cursor cursor = getCursor();
+            if (mColumns == null) {
+                mColumns = new NoteRow.Columns(cursor);
+            }
+            int position = cursor.getPosition();
+            long[] timestamps = new long[cursor.getCount()];
+            for (int i = 0; i < timestamps.length && cursor.moveToPosition(i); i++) {
+                timestamps[i] = mColumns.getLong(cursor, mColumns.timestamp);
+            }
+            cursor.moveToPosition(position);
+            mTimestamps = timestamps;
+        }
+        return mTimestamps;
+    }
+
     public int getPositionForNote(String noteId) {
         Bucket.ObjectCursor<Note> cursor = (Bucket.ObjectCursor<Note>) getCursor();
         if (cursor != null) {
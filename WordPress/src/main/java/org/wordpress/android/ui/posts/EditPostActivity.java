@@ -55,10 +55,12 @@ import org.wordpress.android.WordPress;
 import org.wordpress.android.WordPressDB;
 import org.wordpress.android.analytics.AnalyticsTracker;
 import org.wordpress.android.analytics.AnalyticsTracker.Stat;
+import org.wordpress.android.datasets.PostAutosaveJournalTable;
 import org.wordpress.android.editor.EditorFragment;
 import org.wordpress.android.editor.EditorFragmentAbstract;
 import org.wordpress.android.editor.EditorFragmentAbstract.EditorFragmentListener;
 import org.wordpress.android.editor.EditorFragmentAbstract.EditorDragAndDropListener;
+import org.wordpress.android.editor.EditorFragmentAbstract.OnGetTitleAndContentListener;
 import org.wordpress.android.editor.EditorFragmentAbstract.TrackableEvent;
 import org.wordpress.android.editor.EditorMediaUploadListener;
 import org.wordpress.android.editor.EditorWebViewAbstract.ErrorListener;
@@ -156,6 +158,8 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
     private static int PAGE_PREVIEW = 2;
 
     private static final int AUTOSAVE_INTERVAL_MILLIS = 60000;
+    // the whole post is saved, emptying its autosave journal, once the journal has this many changes
+    private static final int AUTOSAVE_MAX_JOURNALED_CHANGES = 50;
 
     private Handler mHandler;
     private boolean mShowNewEditor;
@@ -186,6 +190,10 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
     private Post mPost;
     private Post mOriginalPost;
 
+    // title and content as of the last change written to the autosave journal, null if it's empty
+    private String mJournaledTitle;
+    private String mJournaledContent;
+
     private EditorFragmentAbstract mEditorFragment;
     private EditPostSettingsFragment mEditPostSettingsFragment;
     private EditPostPreviewFragment mEditPostPreviewFragment;
@@ -266,6 +274,10 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
                 mIsNewPost = extras.getBoolean(EXTRA_IS_NEW_POST);
                 mPost = WordPress.wpDB.getPostForLocalTablePostId(localTablePostId);
                 mOriginalPost = WordPress.wpDB.getPostForLocalTablePostId(localTablePostId);
+                if (mPost != null && PostAutosaveJournalTable.hasChanges(localTablePostId)) {
+                    // the editor went away without saving the post, recover the changes it autosaved
+                    restoreAutosavedContent();
+                }
             } else {
                 // A postId extra must be passed to this activity
                 showErrorAndFinish(R.string.post_not_found);
@@ -282,6 +294,10 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
                     mPost = null;
                 }
             }
+            if (mPost != null) {
+                // the journal may still hold changes from before the activity was recreated
+                loadJournaledContent();
+            }
             mEditorFragment = (EditorFragmentAbstract) fragmentManager.getFragment(savedInstanceState, STATE_KEY_EDITOR_FRAGMENT);
 
             if (mEditorFragment instanceof EditorMediaUploadListener) {
@@ -357,16 +373,15 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
     private Runnable mAutoSave = new Runnable() {
         @Override
         public void run() {
-            new Thread(new Runnable() {
+            updatePostObjectAsync(true, new Runnable() {
                 @Override
                 public void run() {
-                    updatePostObject(true);
-                    savePostToDb();
+                    autosavePost();
                     if (mHandler != null) {
                         mHandler.postDelayed(mAutoSave, AUTOSAVE_INTERVAL_MILLIS);
                     }
                 }
-            }).start();
+            });
         }
     };
 
@@ -630,13 +645,11 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
             return true;
         }
 
-        // Update post, save to db and publish in its own Thread, because 1. update can be pretty slow with a lot of
-        // text 2. better not to call `updatePostObject()` from the UI thread due to weird thread blocking behavior
-        // on API 16 with the visual editor.
-        new Thread(new Runnable() {
+        // Update post, save to db and publish in the background, because update can be pretty slow with a lot of
+        // text
+        updatePostObjectAsync(false, new Runnable() {
             @Override
             public void run() {
-                updatePostObject(false);
                 savePostToDb();
 
                 // If the post is empty, don't publish
@@ -658,7 +671,7 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
                 setResult(RESULT_OK);
                 finish();
             }
-        }).start();
+        });
         return true;
     }
 
@@ -769,7 +782,62 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
         );
     }
 
-    private synchronized void updatePostObject(boolean isAutosave) {
+    /*
+     * reads the title and content from the editor without waiting on it, then updates the post object and runs
+     * afterUpdate in the background - the new editor is only read if it reports a change since the last update,
+     * and the flag is cleared first so edits made while it's being read are picked up next time. If the editor
+     * can't be read, afterUpdate isn't run - autosave tries again later, anything else shows an error and leaves
+     * the editor open rather than saving or publishing stale content.
+     */
+    private void updatePostObjectAsync(final boolean isAutosave, final Runnable afterUpdate) {
+        if (mEditorFragment == null || !mShowNewEditor || !mEditorFragment.hasContentChanged()) {
+            updatePostObjectInBackground(isAutosave, null, null, afterUpdate);
+            return;
+        }
+
+        mEditorFragment.clearContentChanged();
+        mEditorFragment.getTitleAndContent(new OnGetTitleAndContentListener() {
+            @Override
+            public void onGetTitleAndContent(CharSequence title, CharSequence content) {
+                updatePostObjectInBackground(isAutosave, title, content, afterUpdate);
+            }
+
+            @Override
+            public void onGetTitleAndContentFailed() {
+                runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (isAutosave) {
+                            if (mHandler != null) {
+                                mHandler.postDelayed(mAutoSave, AUTOSAVE_INTERVAL_MILLIS);
+                            }
+                        } else if (!isFinishing()) {
+                            ToastUtils.showToast(EditPostActivity.this, R.string.error_editor_content_timeout,
+                                    Duration.LONG);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void updatePostObjectInBackground(final boolean isAutosave, final CharSequence title,
+                                              final CharSequence content, final Runnable afterUpdate) {
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                updatePostObject(isAutosave, title, content);
+                if (afterUpdate != null) {
+                    afterUpdate.run();
+                }
+            }
+        }).start();
+    }
+
+    /*
+     * title and content are the new editor's fields, null if they haven't changed since the last update
+     */
+    private synchronized void updatePostObject(boolean isAutosave, CharSequence title, CharSequence content) {
         if (mPost == null) {
             AppLog.e(AppLog.T.POSTS, "Attempted to save an invalid Post.");
             return;
@@ -778,8 +846,12 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
         // Update post object from fragment fields
         if (mEditorFragment != null) {
             if (mShowNewEditor) {
-                updatePostContentNewEditor(isAutosave, (String) mEditorFragment.getTitle(),
-                        (String) mEditorFragment.getContent());
+                if (title != null && content != null) {
+                    updatePostContentNewEditor(isAutosave, title.toString(), content.toString());
+                    if (isAutosave) {
+                        journalPostContent(title.toString(), content.toString());
+                    }
+                }
             } else {
                 // TODO: Remove when legacy editor is dropped
                 updatePostContent(isAutosave);
@@ -792,16 +864,15 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
     }
 
     private void savePostAsync(final AfterSavePostListener listener) {
-        new Thread(new Runnable() {
+        updatePostObjectAsync(false, new Runnable() {
             @Override
             public void run() {
-                updatePostObject(false);
                 savePostToDb();
                 if (listener != null) {
                     listener.onPostSave();
                 }
             }
-        }).start();
+        });
     }
 
     private interface AfterSavePostListener {
@@ -810,6 +881,61 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
 
     private synchronized void savePostToDb() {
         WordPress.wpDB.updatePost(mPost);
+        // the saved post includes everything that was journaled
+        clearAutosaveJournal();
+    }
+
+    /*
+     * the new editor autosaves by journaling the changes to the title and content instead of writing the
+     * whole post - the post itself is only written when the journal gets long. Called once the post object
+     * has been updated.
+     */
+    private void autosavePost() {
+        if (!mShowNewEditor) {
+            // TODO: Remove when legacy editor is dropped
+            savePostToDb();
+        } else if (mPost != null
+                && PostAutosaveJournalTable.getNumChanges(mPost.getLocalTablePostId()) >= AUTOSAVE_MAX_JOURNALED_CHANGES) {
+            savePostToDb();
+        }
+    }
+
+    private synchronized void journalPostContent(String title, String content) {
+        PostAutosaveJournalTable.addChanges(mPost.getLocalTablePostId(), mJournaledTitle, title,
+                mJournaledContent, content);
+        mJournaledTitle = title;
+        mJournaledContent = content;
+    }
+
+    /*
+     * picks up the title and content the journal already holds for the post, so the next change is
+     * journaled against them rather than against an empty journal
+     */
+    private synchronized void loadJournaledContent() {
+        long localTablePostId = mPost.getLocalTablePostId();
+        if (PostAutosaveJournalTable.hasChanges(localTablePostId)) {
+            mJournaledTitle = PostAutosaveJournalTable.getTitle(localTablePostId);
+            mJournaledContent = PostAutosaveJournalTable.getContent(localTablePostId);
+        } else {
+            mJournaledTitle = null;
+            mJournaledContent = null;
+        }
+    }
+
+    private synchronized void clearAutosaveJournal() {
+        if (mPost != null) {
+            PostAutosaveJournalTable.clearChanges(mPost.getLocalTablePostId());
+        }
+        mJournaledTitle = null;
+        mJournaledContent = null;
+    }
+
+    private void restoreAutosavedContent() {
+        long localTablePostId = mPost.getLocalTablePostId();
+        AppLog.i(T.POSTS, "restoring autosaved changes to post " + localTablePostId);
+        updatePostContentNewEditor(false, PostAutosaveJournalTable.getTitle(localTablePostId),
+                PostAutosaveJournalTable.getContent(localTablePostId));
+        savePostToDb();
     }
 
     @Override
@@ -843,8 +969,9 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
     private class SaveAndFinishTask extends AsyncTask<Void, Void, Boolean> {
         @Override
         protected Boolean doInBackground(Void... params) {
-            // Fetch post title and content from editor fields and update the Post object
-            updatePostObject(false);
+            // the post object has already been updated from the editor fields, and the post is saved, restored
+            // or deleted below, so its autosaved changes aren't needed anymore
+            clearAutosaveJournal();
 
             if (mEditorFragment != null && mPost.hasEmptyContentFields()) {
                 // new and empty post? delete it
@@ -863,11 +990,8 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
                 if (mShowNewEditor) {
                     // Update the post object directly, without re-fetching the fields from the EditorFragment
                     updatePostContentNewEditor(false, mPost.getTitle(), mPost.getContent());
-                    savePostToDb();
-                } else {
-                    updatePostObject(false);
-                    savePostToDb();
                 }
+                savePostToDb();
             }
             return true;
         }
@@ -886,7 +1010,43 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
     }
 
     private void saveAndFinish() {
-        new SaveAndFinishTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        // Fetch post title and content from editor fields and update the Post object before saving it
+        updatePostObjectAsync(false, new Runnable() {
+            @Override
+            public void run() {
+                runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        new SaveAndFinishTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+                    }
+                });
+            }
+        });
+    }
+
+    /*
+     * called when adding media to a new quick media post was cancelled
+     */
+    private void deletePostIfContentIsEmpty() {
+        mEditorFragment.getTitleAndContent(new OnGetTitleAndContentListener() {
+            @Override
+            public void onGetTitleAndContent(CharSequence title, final CharSequence content) {
+                runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (TextUtils.isEmpty(content)) {
+                            WordPress.wpDB.deletePost(getPost());
+                            finish();
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void onGetTitleAndContentFailed() {
+                // the post can't be known to be empty, so it's kept
+            }
+        });
     }
 
     /**
@@ -1624,11 +1784,10 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
                         } catch (OutOfMemoryError e) {
                             AppLog.e(T.POSTS, e);
                         }
-                    } else if (TextUtils.isEmpty(mEditorFragment.getContent())) {
+                    } else {
                         // TODO: check if it was mQuickMediaType > -1
-                        // Quick Photo was cancelled, delete post and finish activity
-                        WordPress.wpDB.deletePost(getPost());
-                        finish();
+                        // Quick Photo was cancelled, delete post and finish activity if it's empty
+                        deletePostIfContentIsEmpty();
                     }
                     break;
                 case RequestCodes.VIDEO_LIBRARY:
@@ -1641,11 +1800,10 @@ public class EditPostActivity extends AppCompatActivity implements EditorFragmen
                         if (!addMedia(capturedVideoUri)) {
                             ToastUtils.showToast(this, R.string.gallery_error, Duration.SHORT);
                         }
-                    } else if (TextUtils.isEmpty(mEditorFragment.getContent())) {
+                    } else {
                         // TODO: check if it was mQuickMediaType > -1
-                        // Quick Photo was cancelled, delete post and finish activity
-                        WordPress.wpDB.deletePost(getPost());
-                        finish();
+                        // Quick Photo was cancelled, delete post and finish activity if it's empty
+                        deletePostIfContentIsEmpty();
                     }
                     break;
             }
@@ -12,6 +12,8 @@ import android.webkit.WebView;
 import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.models.Post;
+import org.wordpress.android.util.BackgroundExecutor;
+import org.wordpress.android.util.BackgroundExecutor.Lane;
 import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.util.ToastUtils;
 import org.wordpress.android.util.WPWebViewClient;
@@ -74,7 +76,7 @@ public class PostPreviewFragment extends Fragment {
     void refreshPreview() {
         if (!isAdded()) return;
 
-        new Thread() {
+        BackgroundExecutor.execute(Lane.RENDER, new Runnable() {
             @Override
             public void run() {
                 Post post = WordPress.wpDB.getPostForLocalTablePostId(mLocalPostId);
@@ -98,7 +100,7 @@ public class PostPreviewFragment extends Fragment {
                     }
                 });
             }
-        }.start();
+        });
     }
 
     private String formatPostContentForWebView(Context context, Post post) {
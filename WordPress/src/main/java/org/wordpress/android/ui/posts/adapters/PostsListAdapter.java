@@ -30,7 +30,6 @@ import org.wordpress.android.models.PostsListPostList;
 import org.wordpress.android.ui.posts.PostUtils;
 import org.wordpress.android.ui.posts.PostsListFragment;
 import org.wordpress.android.ui.posts.services.PostMediaService;
-import org.wordpress.android.ui.reader.utils.ReaderImageScanner;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.DateTimeUtils;
@@ -68,6 +67,7 @@ public class PostsListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
     private final boolean mAlwaysShowAllButtons;
 
     private boolean mIsLoadingPosts;
+    private boolean mCanLoadMoreLocalPosts;
 
     private final PostsListPostList mPosts = new PostsListPostList();
     private final LayoutInflater mLayoutInflater;
@@ -76,6 +76,9 @@ public class PostsListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 
     private static final long ROW_ANIM_DURATION = 150;
 
+    // number of posts read from the db at a time as the list is scrolled
+    private static final int POSTS_PAGE_SIZE = 50;
+
     private static final int VIEW_TYPE_POST_OR_PAGE = 0;
     private static final int VIEW_TYPE_ENDLIST_INDICATOR = 1;
 
@@ -263,10 +266,13 @@ public class PostsListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
             }
         }
 
-        // load more posts when we near the end
-        if (mOnLoadMoreListener != null && position >= mPosts.size() - 1
-                && position >= PostsListFragment.POSTS_REQUEST_COUNT - 1) {
-            mOnLoadMoreListener.onLoadMore();
+        // load more posts when we near the end - from the db if it has more, otherwise from the server
+        if (position >= mPosts.size() - 1) {
+            if (mCanLoadMoreLocalPosts) {
+                loadMorePosts();
+            } else if (mOnLoadMoreListener != null && position >= PostsListFragment.POSTS_REQUEST_COUNT - 1) {
+                mOnLoadMoreListener.onLoadMore();
+            }
         }
 
         holder.itemView.setOnClickListener(new View.OnClickListener() {
@@ -502,7 +508,16 @@ public class PostsListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
         if (mIsLoadingPosts) {
             AppLog.d(AppLog.T.POSTS, "post adapter > already loading posts");
         } else {
-            new LoadPostsTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+            new LoadPostsTask(false).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        }
+    }
+
+    /*
+     * reads the next page of posts from the db and adds them to the end of the list
+     */
+    private void loadMorePosts() {
+        if (!mIsLoadingPosts && mPosts.size() > 0) {
+            new LoadPostsTask(true).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
         }
     }
 
@@ -636,6 +651,22 @@ public class PostsListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
     private class LoadPostsTask extends AsyncTask<Void, Void, Boolean> {
         private PostsListPostList tmpPosts;
         private final ArrayList<Long> mediaIdsToUpdate = new ArrayList<>();
+        private final boolean isLoadingMore;
+        private final PostsListPost afterPost;
+        private final int maxPosts;
+        private boolean canLoadMore;
+
+        LoadPostsTask(boolean loadMore) {
+            isLoadingMore = loadMore;
+            if (loadMore) {
+                afterPost = mPosts.get(mPosts.size() - 1);
+                maxPosts = POSTS_PAGE_SIZE;
+            } else {
+                // reloading keeps as many posts as have already been paged in
+                afterPost = null;
+                maxPosts = Math.max(POSTS_PAGE_SIZE, mPosts.size());
+            }
+        }
 
         @Override
         protected void onPreExecute() {
@@ -651,33 +682,37 @@ public class PostsListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 
         @Override
         protected Boolean doInBackground(Void... nada) {
-            tmpPosts = WordPress.wpDB.getPostsListPosts(mLocalTableBlogId, mIsPage);
+            tmpPosts = WordPress.wpDB.getPostsListPosts(mLocalTableBlogId, mIsPage, afterPost, maxPosts);
+            canLoadMore = (tmpPosts.size() == maxPosts);
 
             // make sure we don't return any hidden posts
             for (PostsListPost hiddenPost : mHiddenPosts) {
                 tmpPosts.remove(hiddenPost);
             }
 
-            // go no further if existing post list is the same
-            if (mPosts.isSameList(tmpPosts)) {
+            if (isLoadingMore) {
+                if (tmpPosts.size() == 0) {
+                    return false;
+                }
+            } else if (mPosts.isSameList(tmpPosts)) {
+                // go no further if existing post list is the same
                 return false;
             }
 
-            // generate the featured image url for each post
+            // generate the featured image url for each post from the urls stored with the post
             String imageUrl;
             for (PostsListPost post : tmpPosts) {
                 if (post.isLocalDraft()) {
                     imageUrl = null;
                 } else if (post.getFeaturedImageId() != 0) {
-                    imageUrl = WordPress.wpDB.getMediaThumbnailUrl(mLocalTableBlogId, post.getFeaturedImageId());
-                    // if the imageUrl isn't found it means the featured image info hasn't been added to
-                    // the local media library yet, so add to the list of media IDs to request info for
-                    if (TextUtils.isEmpty(imageUrl)) {
+                    imageUrl = post.getFeaturedMediaUrl();
+                    // if the url hasn't been resolved it means the featured image info hasn't been added
+                    // to the local media library yet, so add to the list of media IDs to request info for
+                    if (!post.isFeaturedMediaUrlResolved() && !mediaIdsToUpdate.contains(post.getFeaturedImageId())) {
                         mediaIdsToUpdate.add(post.getFeaturedImageId());
                     }
-                } else if (post.hasDescription()) {
-                    ReaderImageScanner scanner = new ReaderImageScanner(post.getDescription(), mIsPrivateBlog);
-                    imageUrl = scanner.getLargestImage();
+                } else if (post.hasContentImageUrl()) {
+                    imageUrl = post.getContentImageUrl();
                 } else {
                     imageUrl = null;
                 }
@@ -697,10 +732,17 @@ public class PostsListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 
         @Override
         protected void onPostExecute(Boolean result) {
+            mCanLoadMoreLocalPosts = canLoadMore;
             if (result) {
-                mPosts.clear();
-                mPosts.addAll(tmpPosts);
-                notifyDataSetChanged();
+                if (isLoadingMore) {
+                    int positionStart = mPosts.size();
+                    mPosts.addAll(tmpPosts);
+                    notifyItemRangeInserted(positionStart, tmpPosts.size());
+                } else {
+                    mPosts.clear();
+                    mPosts.addAll(tmpPosts);
+                    notifyDataSetChanged();
+                }
 
                 if (mediaIdsToUpdate.size() > 0) {
                     PostMediaService.startService(WordPress.getContext(), mLocalTableBlogId, mediaIdsToUpdate);
@@ -9,9 +9,12 @@ import android.support.annotation.Nullable;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.models.Blog;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutor;
+import org.wordpress.android.util.BackgroundExecutor.Lane;
 import org.wordpress.android.util.helpers.MediaFile;
 import org.xmlpull.v1.XmlPullParserException;
 import org.xmlrpc.android.ApiHelper.Method;
+import org.xmlrpc.android.XMLRPCBatch;
 import org.xmlrpc.android.XMLRPCClientInterface;
 import org.xmlrpc.android.XMLRPCException;
 import org.xmlrpc.android.XMLRPCFactory;
@@ -27,7 +30,8 @@ import de.greenrobot.event.EventBus;
 
 /**
  * service which retrieves media info for a list of media IDs in a specific blog - currently used
- * only for featured images in the post list but could be used for any blog-specific media
+ * only for featured images in the post list but could be used for any blog-specific media. The
+ * media items are requested together in a single system.multicall request.
  */
 
 public class PostMediaService extends Service {
@@ -85,43 +89,71 @@ public class PostMediaService extends Service {
         }
 
         if (mMediaIdQueue.size() > 0 && mBlog != null) {
-            new Thread() {
+            BackgroundExecutor.execute(Lane.NETWORK, new Runnable() {
                 @Override
                 public void run() {
-                    while (!mMediaIdQueue.isEmpty()) {
-                        long mediaId = mMediaIdQueue.poll();
-                        downloadMediaItem(mediaId);
+                    List<Long> mediaIds = new ArrayList<>();
+                    Long mediaId;
+                    while ((mediaId = mMediaIdQueue.poll()) != null) {
+                        if (!mediaIds.contains(mediaId)) {
+                            mediaIds.add(mediaId);
+                        }
                     }
+                    downloadMediaItems(mediaIds);
                 }
-            }.start();
+            });
         }
 
         return START_NOT_STICKY;
     }
 
-    private void downloadMediaItem(long mediaId) {
-        Object[] apiParams = {
-                mBlog.getRemoteBlogId(),
-                mBlog.getUsername(),
-                mBlog.getPassword(),
-                mediaId};
+    private void downloadMediaItems(List<Long> mediaIds) {
+        if (mediaIds.size() == 0) {
+            return;
+        }
 
         XMLRPCClientInterface client = XMLRPCFactory.instantiate(
                 mBlog.getUri(),
                 mBlog.getHttpuser(),
                 mBlog.getHttppassword());
 
-        try {
-            Map<?, ?> results = (Map<?, ?>) client.call(Method.GET_MEDIA_ITEM, apiParams);
-            if (results != null) {
-                String strBlogId = Integer.toString(mBlog.getLocalTableBlogId());
-                MediaFile mediaFile = new MediaFile(strBlogId, results, mBlog.isDotcomFlag());
-                WordPress.wpDB.saveMediaFile(mediaFile);
-                AppLog.d(AppLog.T.POSTS, "PostMediaService > downloaded " + mediaFile.getFileURL());
-                EventBus.getDefault().post(new PostEvents.PostMediaInfoUpdated(mediaId, mediaFile.getFileURL()));
+        XMLRPCBatch batch = new XMLRPCBatch(client, mBlog.getUri());
+        List<XMLRPCBatch.Call> calls = new ArrayList<>();
+        for (long mediaId : mediaIds) {
+            Object[] apiParams = {
+                    mBlog.getRemoteBlogId(),
+                    mBlog.getUsername(),
+                    mBlog.getPassword(),
+                    mediaId};
+            calls.add(batch.add(Method.GET_MEDIA_ITEM, apiParams));
+        }
+        batch.execute();
+
+        String strBlogId = Integer.toString(mBlog.getLocalTableBlogId());
+        List<Long> downloadedIds = new ArrayList<>();
+        List<MediaFile> mediaFiles = new ArrayList<>();
+        for (int i = 0; i < calls.size(); i++) {
+            try {
+                Map<?, ?> results = (Map<?, ?>) calls.get(i).getResult();
+                if (results != null) {
+                    MediaFile mediaFile = new MediaFile(strBlogId, results, mBlog.isDotcomFlag());
+                    WordPress.wpDB.saveMediaFile(mediaFile);
+                    downloadedIds.add(mediaIds.get(i));
+                    mediaFiles.add(mediaFile);
+                    AppLog.d(AppLog.T.POSTS, "PostMediaService > downloaded " + mediaFile.getFileURL());
+                }
+            } catch (ClassCastException | XMLRPCException | XmlPullParserException | IOException e) {
+                AppLog.e(AppLog.T.POSTS, e);
+            }
+        }
+
+        if (mediaFiles.size() > 0) {
+            // store the featured image urls with the posts that use these media items
+            WordPress.wpDB.resolvePostsFeaturedImageUrls(mBlog.getLocalTableBlogId());
+            for (int i = 0; i < mediaFiles.size(); i++) {
+                EventBus.getDefault().post(new PostEvents.PostMediaInfoUpdated(downloadedIds.get(i),
+                        mediaFiles.get(i).getFileURL()));
             }
-        } catch (ClassCastException | XMLRPCException | XmlPullParserException | IOException e) {
-            AppLog.e(AppLog.T.POSTS, e);
         }
     }
 }
@@ -1,14 +1,18 @@
 package org.wordpress.android.ui.posts.services;
 
 import android.app.Service;
+import android.content.ContentValues;
 import android.content.Context;
 import android.content.Intent;
 import android.os.IBinder;
 import android.support.annotation.Nullable;
 
 import org.wordpress.android.WordPress;
+import org.wordpress.android.WordPressDB;
 import org.wordpress.android.models.Blog;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutor;
+import org.wordpress.android.util.BackgroundExecutor.Lane;
 import org.xmlpull.v1.XmlPullParserException;
 import org.xmlrpc.android.ApiHelper;
 import org.xmlrpc.android.ApiHelper.Method;
@@ -18,9 +22,7 @@ import org.xmlrpc.android.XMLRPCFactory;
 import org.xmlrpc.android.XMLRPCFault;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import de.greenrobot.event.EventBus;
 
@@ -69,7 +71,7 @@ public class PostUpdateService extends Service {
     public int onStartCommand(final Intent intent, int flags, int startId) {
         if (intent == null) return START_NOT_STICKY;
 
-        new Thread() {
+        BackgroundExecutor.execute(Lane.NETWORK, new Runnable() {
             @Override
             public void run() {
                 int blogId = intent.getIntExtra(ARG_BLOG_ID, 0);
@@ -77,7 +79,7 @@ public class PostUpdateService extends Service {
                 boolean loadMore = intent.getBooleanExtra(ARG_LOAD_MORE, false);
                 fetchPostsInBlog(blogId, isPage, loadMore);
             }
-        }.start();
+        });
 
         return START_NOT_STICKY;
     }
@@ -101,7 +103,7 @@ public class PostUpdateService extends Service {
             numPostsToRequest = NUM_POSTS_TO_REQUEST;
         }
 
-        Object[] result;
+        List<ContentValues> result;
         Object[] xmlrpcParams = {
                 blog.getRemoteBlogId(),
                 blog.getUsername(),
@@ -112,28 +114,26 @@ public class PostUpdateService extends Service {
         try {
             boolean canLoadMore;
 
-            result = (Object[]) client.call(isPage ? Method.GET_PAGES : "metaWeblog.getRecentPosts", xmlrpcParams);
-            if (result != null && result.length > 0) {
+            // decode the posts straight into the values that are stored in the posts table
+            result = client.callForValues(isPage ? Method.GET_PAGES : "metaWeblog.getRecentPosts", xmlrpcParams,
+                    WordPressDB.getPostSchema(isPage));
+            if (result != null && result.size() > 0) {
                 canLoadMore = true;
 
                 // If we're loading more posts, only save the posts at the end of the array.
                 // NOTE: Switching to wp.getPosts wouldn't require janky solutions like this
                 // since it allows for an offset parameter.
                 int startPosition = 0;
-                if (loadMore && result.length > NUM_POSTS_TO_REQUEST) {
-                    startPosition = result.length - NUM_POSTS_TO_REQUEST;
+                if (loadMore && result.size() > NUM_POSTS_TO_REQUEST) {
+                    startPosition = result.size() - NUM_POSTS_TO_REQUEST;
                 }
 
-                List<Map<?, ?>> postsList = new ArrayList<>();
-                for (int ctr = startPosition; ctr < result.length; ctr++) {
-                    Map<?, ?> postMap = (Map<?, ?>) result[ctr];
-                    postsList.add(postMap);
-                }
+                List<ContentValues> postsList = result.subList(startPosition, result.size());
 
                 if (!loadMore) {
                     WordPress.wpDB.deleteUploadedPosts(blogId, isPage);
                 }
-                WordPress.wpDB.savePosts(postsList, blogId, isPage, false);
+                WordPress.wpDB.savePostValues(postsList, blogId, isPage, false);
             } else {
                 canLoadMore = false;
             }
@@ -55,7 +55,6 @@ import org.xmlrpc.android.XMLRPCException;
 import org.xmlrpc.android.XMLRPCFactory;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -64,6 +63,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -76,6 +81,9 @@ public class PostUploadService extends Service {
     private static boolean mUseLegacyMode;
     private UploadPostTask mCurrentTask = null;
 
+    // The number of media items in a post which are uploaded at the same time
+    private static final int MAX_CONCURRENT_MEDIA_UPLOADS = 3;
+
     public static void addPostToUpload(Post currentPost) {
         synchronized (mPostsList) {
             mPostsList.add(currentPost);
@@ -170,16 +178,17 @@ public class PostUploadService extends Service {
         private Blog mBlog;
         private PostUploadNotifier mPostUploadNotifier;
 
-        private String mErrorMessage = "";
-        private boolean mIsMediaError = false;
-        private int featuredImageID = -1;
+        // set by media uploads, which run on several threads at once
+        private volatile String mErrorMessage = "";
+        private volatile boolean mIsMediaError = false;
+        private volatile int featuredImageID = -1;
         private XMLRPCClientInterface mClient;
 
         // True when the post goes from draft or local draft to published status
         boolean mIsFirstPublishing = false;
 
         // Used when the upload succeed
-        private Bitmap mLatestIcon;
+        private volatile Bitmap mLatestIcon;
 
         // Used for analytics
         private boolean mHasImage, mHasVideo, mHasCategory;
@@ -448,73 +457,132 @@ public class PostUploadService extends Service {
         }
 
         /**
-         * Finds media in post content, uploads them, and returns the HTML to insert in the post
+         * Finds media in post content, uploads them, and returns the HTML to insert in the post. Up to
+         * MAX_CONCURRENT_MEDIA_UPLOADS items are uploaded at once, and the tags are replaced in a single
+         * pass once every upload has finished.
          */
         private String processPostMedia(String postContent) {
             String imageTagsPattern = "<img[^>]+android-uri\\s*=\\s*['\"]([^'\"]+)['\"][^>]*>";
             Pattern pattern = Pattern.compile(imageTagsPattern);
             Matcher matcher = pattern.matcher(postContent);
 
-            int totalMediaItems = 0;
-            List<String> imageTags = new ArrayList<String>();
+            List<int[]> tagPositions = new ArrayList<int[]>();
             while (matcher.find()) {
-                imageTags.add(matcher.group());
-                totalMediaItems++;
+                tagPositions.add(new int[]{matcher.start(), matcher.end()});
             }
+            int totalMediaItems = tagPositions.size();
 
             mPostUploadNotifier.setTotalMediaItems(totalMediaItems);
 
-            int mediaItemCount = 0;
-            for (String tag : imageTags) {
-                Pattern p = Pattern.compile("android-uri=\"([^\"]+)\"");
-                Matcher m = p.matcher(tag);
-                if (m.find()) {
-                    String imageUri = m.group(1);
-                    if (!imageUri.equals("")) {
-                        MediaFile mediaFile = WordPress.wpDB.getMediaFile(imageUri, mPost);
-                        if (mediaFile != null) {
-                            // Get image thumbnail for notification icon
-                            Bitmap imageIcon = ImageUtils.getWPImageSpanThumbnailFromFilePath(
-                                    mContext,
-                                    imageUri,
-                                    DisplayUtils.dpToPx(mContext, 128)
-                            );
-
-                            // Crop the thumbnail to be squared in the center
-                            if (imageIcon != null) {
-                                int squaredSize = DisplayUtils.dpToPx(mContext, 64);
-                                imageIcon = ThumbnailUtils.extractThumbnail(imageIcon, squaredSize, squaredSize);
-                                mLatestIcon = imageIcon;
-                            }
-
-                            mediaItemCount++;
-                            mPostUploadNotifier.setCurrentMediaItem(mediaItemCount);
-                            mPostUploadNotifier.updateNotificationIcon(imageIcon);
-
-                            String mediaUploadOutput;
-                            if (mediaFile.isVideo()) {
-                                mHasVideo = true;
-                                mediaUploadOutput = uploadVideo(mediaFile);
-                            } else {
-                                mHasImage = true;
-                                mediaUploadOutput = uploadImage(mediaFile);
-                            }
-
-                            if (mediaUploadOutput != null) {
-                                postContent = postContent.replace(tag, mediaUploadOutput);
-                            } else {
-                                postContent = postContent.replace(tag, "");
-                                mIsMediaError = true;
-                            }
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.max(1, Math.min(totalMediaItems, MAX_CONCURRENT_MEDIA_UPLOADS)));
+            final AtomicInteger startedCount = new AtomicInteger();
+            // the upload of each tag, or null for tags that don't reference a media file in this post
+            List<Future<String>> uploads = new ArrayList<Future<String>>();
+            try {
+                for (int i = 0; i < totalMediaItems; i++) {
+                    String tag = postContent.substring(tagPositions.get(i)[0], tagPositions.get(i)[1]);
+                    final MediaFile mediaFile = getMediaFileForTag(tag);
+                    if (mediaFile == null) {
+                        uploads.add(null);
+                        continue;
+                    }
+                    if (mediaFile.isVideo()) {
+                        mHasVideo = true;
+                    } else {
+                        mHasImage = true;
+                    }
+                    final int itemIndex = i;
+                    uploads.add(executor.submit(new Callable<String>() {
+                        @Override
+                        public String call() {
+                            mPostUploadNotifier.setCurrentMediaItem(startedCount.incrementAndGet());
+                            return uploadMediaFile(mediaFile, itemIndex);
+                        }
+                    }));
+                }
+
+                // the post isn't published until every upload has finished
+                StringBuilder sb = new StringBuilder(postContent.length());
+                int lastEnd = 0;
+                for (int i = 0; i < totalMediaItems; i++) {
+                    int[] position = tagPositions.get(i);
+                    sb.append(postContent, lastEnd, position[0]);
+                    Future<String> upload = uploads.get(i);
+                    if (upload == null) {
+                        sb.append(postContent, position[0], position[1]);
+                    } else {
+                        String mediaUploadOutput = getUploadOutput(upload);
+                        if (mediaUploadOutput != null) {
+                            sb.append(mediaUploadOutput);
+                        } else {
+                            mIsMediaError = true;
                         }
                     }
+                    lastEnd = position[1];
                 }
+                sb.append(postContent, lastEnd, postContent.length());
+                return sb.toString();
+            } finally {
+                executor.shutdownNow();
             }
+        }
 
-            return postContent;
+        private MediaFile getMediaFileForTag(String tag) {
+            Pattern p = Pattern.compile("android-uri=\"([^\"]+)\"");
+            Matcher m = p.matcher(tag);
+            if (m.find()) {
+                String imageUri = m.group(1);
+                if (!imageUri.equals("")) {
+                    return WordPress.wpDB.getMediaFile(imageUri, mPost);
+                }
+            }
+            return null;
         }
 
-        private String uploadImage(MediaFile mediaFile) {
+        private String getUploadOutput(Future<String> upload) {
+            try {
+                return upload.get();
+            } catch (ExecutionException e) {
+                AppLog.e(T.POSTS, e);
+                mErrorMessage = mContext.getString(R.string.error_media_upload);
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
+        /*
+         * called on an upload thread - each upload has its own XML-RPC client since clients can't be shared
+         * between threads
+         */
+        private String uploadMediaFile(MediaFile mediaFile, int itemIndex) {
+            // Get image thumbnail for notification icon
+            Bitmap imageIcon = ImageUtils.getWPImageSpanThumbnailFromFilePath(
+                    mContext,
+                    mediaFile.getFilePath(),
+                    DisplayUtils.dpToPx(mContext, 128)
+            );
+
+            // Crop the thumbnail to be squared in the center
+            if (imageIcon != null) {
+                int squaredSize = DisplayUtils.dpToPx(mContext, 64);
+                imageIcon = ThumbnailUtils.extractThumbnail(imageIcon, squaredSize, squaredSize);
+                mLatestIcon = imageIcon;
+            }
+            mPostUploadNotifier.updateNotificationIcon(imageIcon);
+
+            XMLRPCClientInterface client = XMLRPCFactory.instantiate(mBlog.getUri(), mBlog.getHttpuser(),
+                    mBlog.getHttppassword());
+            if (mediaFile.isVideo()) {
+                return uploadVideo(mediaFile, client, itemIndex);
+            } else {
+                return uploadImage(mediaFile, client, itemIndex);
+            }
+        }
+
+        private String uploadImage(MediaFile mediaFile, XMLRPCClientInterface client, int itemIndex) {
             AppLog.d(T.POSTS, "uploadImage: " + mediaFile.getFilePath());
 
             if (mediaFile.getFilePath() == null) {
@@ -619,7 +687,7 @@ public class PostUploadService extends Service {
                         parameters.put("type", mimeType);
                         parameters.put("bits", resizedMediaFile);
                         parameters.put("overwrite", true);
-                        resizedPictureURL = uploadImageFile(parameters, resizedMediaFile, mBlog);
+                        resizedPictureURL = uploadImageFile(parameters, resizedMediaFile, mBlog, client, itemIndex);
                         if (resizedPictureURL == null) {
                             AppLog.w(T.POSTS, "failed to upload resized picture");
                             return null;
@@ -644,7 +712,7 @@ public class PostUploadService extends Service {
                 parameters.put("bits", mediaFile);
                 parameters.put("overwrite", true);
 
-                fullSizeUrl = uploadImageFile(parameters, mediaFile, mBlog);
+                fullSizeUrl = uploadImageFile(parameters, mediaFile, mBlog, client, itemIndex);
                 if (fullSizeUrl == null) {
                     mErrorMessage = mContext.getString(R.string.error_media_upload);
                     return null;
@@ -654,16 +722,7 @@ public class PostUploadService extends Service {
             return mediaFile.getImageHtmlForUrls(fullSizeUrl, resizedPictureURL, shouldAddImageWidthCSS);
         }
 
-        private String uploadVideo(MediaFile mediaFile) {
-            // create temp file for media upload
-            String tempFileName = "wp-" + System.currentTimeMillis();
-            try {
-                mContext.openFileOutput(tempFileName, Context.MODE_PRIVATE);
-            } catch (FileNotFoundException e) {
-                mErrorMessage = getResources().getString(R.string.file_error_create);
-                return null;
-            }
-
+        private String uploadVideo(MediaFile mediaFile, XMLRPCClientInterface client, int itemIndex) {
             if (mediaFile.getFilePath() == null) {
                 mErrorMessage = mContext.getString(R.string.error_media_upload);
                 return null;
@@ -734,16 +793,7 @@ public class PostUploadService extends Service {
 
             Object[] params = {1, mBlog.getUsername(), mBlog.getPassword(), m};
 
-            File tempFile;
-            try {
-                String fileExtension = MimeTypeMap.getFileExtensionFromUrl(videoName);
-                tempFile = createTempUploadFile(fileExtension);
-            } catch (IOException e) {
-                mErrorMessage = getResources().getString(R.string.file_error_create);
-                return null;
-            }
-
-            Object result = uploadFileHelper(params, tempFile);
+            Object result = uploadFileHelper(params, client, itemIndex);
             Map<?, ?> resultMap = (HashMap<?, ?>) result;
             if (resultMap != null && resultMap.containsKey("url")) {
                 String resultURL = resultMap.get("url").toString();
@@ -771,20 +821,10 @@ public class PostUploadService extends Service {
             AppLog.e(T.EDITOR, mErrorMessage, e);
         }
 
-        private String uploadImageFile(Map<String, Object> pictureParams, MediaFile mf, Blog blog) {
-            // create temporary upload file
-            File tempFile;
-            try {
-                String fileExtension = MimeTypeMap.getFileExtensionFromUrl(mf.getFileName());
-                tempFile = createTempUploadFile(fileExtension);
-            } catch (IOException e) {
-                mIsMediaError = true;
-                mErrorMessage = mContext.getString(R.string.file_not_found);
-                return null;
-            }
-
+        private String uploadImageFile(Map<String, Object> pictureParams, MediaFile mf, Blog blog,
+                                       XMLRPCClientInterface client, int itemIndex) {
             Object[] params = {1, blog.getUsername(), blog.getPassword(), pictureParams};
-            Object result = uploadFileHelper(params, tempFile);
+            Object result = uploadFileHelper(params, client, itemIndex);
             if (result == null) {
                 mIsMediaError = true;
                 return null;
@@ -808,24 +848,24 @@ public class PostUploadService extends Service {
             return pictureURL;
         }
 
-        private Object uploadFileHelper(Object[] params, final File tempFile) {
+        private Object uploadFileHelper(Object[] params, XMLRPCClientInterface client, final int itemIndex) {
             // Create listener for tracking upload progress in the notification
-            if (mClient instanceof XMLRPCClient) {
-                XMLRPCClient xmlrpcClient = (XMLRPCClient) mClient;
+            if (client instanceof XMLRPCClient) {
+                XMLRPCClient xmlrpcClient = (XMLRPCClient) client;
                 xmlrpcClient.setOnBytesUploadedListener(new XMLRPCClient.OnBytesUploadedListener() {
                     @Override
-                    public void onBytesUploaded(long uploadedBytes) {
-                        if (tempFile.length() == 0) {
+                    public void onBytesUploaded(long uploadedBytes, long totalBytes) {
+                        if (totalBytes <= 0) {
                             return;
                         }
-                        float percentage = (uploadedBytes * 100) / tempFile.length();
-                        mPostUploadNotifier.updateNotificationProgress(percentage);
+                        float percentage = (uploadedBytes * 100) / totalBytes;
+                        mPostUploadNotifier.updateNotificationProgress(itemIndex, percentage);
                     }
                 });
             }
 
             try {
-                return mClient.call(Method.UPLOAD_FILE, params, tempFile);
+                return client.call(Method.UPLOAD_FILE, params);
             } catch (XMLRPCException e) {
                 // well formed XML-RPC response from the server, but it's an error. Ok to print the error message
                 AppLog.e(T.API, e);
@@ -841,19 +881,10 @@ public class PostUploadService extends Service {
                 AppLog.e(T.API, e);
                 mErrorMessage = mContext.getResources().getString(R.string.error_media_upload);
                 return null;
-            } finally {
-                // remove the temporary upload file now that we're done with it
-                if (tempFile != null && tempFile.exists()) {
-                    tempFile.delete();
-                }
             }
         }
     }
 
-    private File createTempUploadFile(String fileExtension) throws IOException {
-        return File.createTempFile("wp-", fileExtension, mContext.getCacheDir());
-    }
-
     private class PostUploadNotifier {
         private final NotificationManager mNotificationManager;
         private final Builder mNotificationBuilder;
@@ -862,6 +893,8 @@ public class PostUploadService extends Service {
         private int mTotalMediaItems;
         private int mCurrentMediaItem;
         private float mItemProgressSize;
+        // the upload progress of each media item, which may be uploading at the same time
+        private float[] mItemProgress = new float[0];
 
         public PostUploadNotifier(Post post, String title, String message) {
             // add the uploader to the notification bar
@@ -879,7 +912,7 @@ public class PostUploadService extends Service {
             startForeground(mNotificationId, mNotificationBuilder.build());
         }
 
-        public void updateNotificationIcon(Bitmap icon) {
+        public synchronized void updateNotificationIcon(Bitmap icon) {
             if (icon != null) {
                 mNotificationBuilder.setLargeIcon(icon);
             }
@@ -983,20 +1016,20 @@ public class PostUploadService extends Service {
             doNotify(mNotificationErrorId, notificationBuilder.build());
         }
 
-        public void updateNotificationProgress(float progress) {
-            if (mTotalMediaItems == 0) {
+        public synchronized void updateNotificationProgress(int itemIndex, float progress) {
+            if (mTotalMediaItems == 0 || itemIndex >= mItemProgress.length) {
                 return;
             }
 
             // Simple way to show progress of entire post upload
             // Would be better if we could get total bytes for all media items.
-            double currentChunkProgress = (mItemProgressSize * progress) / 100;
-
-            if (mCurrentMediaItem > 1) {
-                currentChunkProgress += mItemProgressSize * (mCurrentMediaItem - 1);
+            mItemProgress[itemIndex] = progress;
+            double totalProgress = 0;
+            for (float itemProgress : mItemProgress) {
+                totalProgress += (mItemProgressSize * itemProgress) / 100;
             }
 
-            mNotificationBuilder.setProgress(100, (int)Math.ceil(currentChunkProgress), false);
+            mNotificationBuilder.setProgress(100, (int)Math.ceil(totalProgress), false);
             doNotify(mNotificationId, mNotificationBuilder.build());
         }
 
@@ -1010,16 +1043,20 @@ public class PostUploadService extends Service {
             }
         }
 
-        public void setTotalMediaItems(int totalMediaItems) {
+        public synchronized void setTotalMediaItems(int totalMediaItems) {
             if (totalMediaItems <= 0) {
                 totalMediaItems = 1;
             }
 
             mTotalMediaItems = totalMediaItems;
             mItemProgressSize = 100.0f / mTotalMediaItems;
+            mItemProgress = new float[mTotalMediaItems];
         }
 
-        public void setCurrentMediaItem(int currentItem) {
+        /*
+         * sets the number of media items which have started uploading
+         */
+        public synchronized void setCurrentMediaItem(int currentItem) {
             mCurrentMediaItem = currentItem;
 
             mNotificationBuilder.setContentText(String.format(getString(R.string.uploading_total), mCurrentMediaItem,
@@ -21,6 +21,7 @@ import org.xmlrpc.android.ApiHelper.Method;
 import org.xmlrpc.android.ApiHelper.Param;
 import org.xmlrpc.android.XMLRPCCallback;
 import org.xmlrpc.android.XMLRPCClientInterface;
+import org.xmlrpc.android.XMLRPCExecutor;
 import org.xmlrpc.android.XMLRPCFactory;
 
 import java.util.ArrayList;
@@ -785,7 +786,9 @@ public abstract class SiteSettingsInterface {
 
     /**
      * Gets available post formats via XML-RPC. Since both self-hosted and .com sites retrieve the
-     * format list via XML-RPC there is no need to implement this in the sub-classes.
+     * format list via XML-RPC there is no need to implement this in the sub-classes. Nothing waits
+     * on the formats (the cached ones are shown until they arrive), so the call is queued behind
+     * the settings requests.
      */
     private void fetchPostFormats() {
         XMLRPCClientInterface client = instantiateInterface();
@@ -829,7 +832,7 @@ public abstract class SiteSettingsInterface {
             @Override
             public void onFailure(long id, Exception error) {
             }
-        }, Method.GET_POST_FORMATS, params);
+        }, Method.GET_POST_FORMATS, params, null, XMLRPCExecutor.Priority.BACKGROUND);
     }
 
     /**
@@ -24,6 +24,7 @@ import android.widget.TextView;
 import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.analytics.AnalyticsTracker;
+import org.wordpress.android.datasets.ReaderDatabase;
 import org.wordpress.android.datasets.ReaderLikeTable;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.models.AccountHelper;
@@ -408,7 +409,7 @@ public class ReaderPostDetailFragment extends Fragment
             return;
         }
 
-        if (isAskingToLike != ReaderPostTable.isPostLikedByCurrentUser(mPost)) {
+        if (isAskingToLike != mPost.isLikedByCurrentUser) {
             ReaderIconCountView likeCount = (ReaderIconCountView) getView().findViewById(R.id.count_likes);
             likeCount.setSelected(isAskingToLike);
             ReaderAnim.animateLikeButton(likeCount.getImageView(), isAskingToLike);
@@ -419,8 +420,7 @@ public class ReaderPostDetailFragment extends Fragment
                 return;
             }
 
-            // get the post again since it has changed, then refresh to show changes
-            mPost = ReaderPostTable.getBlogPost(mPost.blogId, mPost.postId, false);
+            // the post was updated along with the db, so refresh to show the changes
             refreshLikes();
             refreshIconCounts();
         }
@@ -934,6 +934,8 @@ public class ReaderPostDetailFragment extends Fragment
 
         @Override
         protected Boolean doInBackground(Void... params) {
+            // the post may have just been stored or changed by a write that's still queued
+            ReaderDatabase.awaitWrites();
             mPost = mIsFeed ? ReaderPostTable.getFeedPost(mBlogId, mPostId, false)
                     : ReaderPostTable.getBlogPost(mBlogId, mPostId, false);
             if (mPost == null) {
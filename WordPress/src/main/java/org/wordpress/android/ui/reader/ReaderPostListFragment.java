@@ -1590,6 +1590,7 @@ public class ReaderPostListFragment extends Fragment
 
         @Override
         protected ReaderTagList doInBackground(Void... voids) {
+            ReaderDatabase.awaitWrites();
             ReaderTagList tagList = ReaderTagTable.getDefaultTags();
             tagList.addAll(ReaderTagTable.getCustomListTags());
             tagList.addAll(ReaderTagTable.getFollowedTags());
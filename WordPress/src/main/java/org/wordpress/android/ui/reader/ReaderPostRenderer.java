@@ -16,6 +16,8 @@ import org.wordpress.android.ui.reader.utils.ReaderImageScanner;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.ui.reader.views.ReaderWebView;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutor;
+import org.wordpress.android.util.BackgroundExecutor.Lane;
 import org.wordpress.android.util.DisplayUtils;
 import org.wordpress.android.util.PhotonUtils;
 import org.wordpress.android.util.StringUtils;
@@ -72,7 +74,7 @@ class ReaderPostRenderer {
         final Handler handler = new Handler();
         mRenderBuilder = new StringBuilder(getPostContent());
 
-        new Thread() {
+        BackgroundExecutor.execute(Lane.RENDER, new Runnable() {
             @Override
             public void run() {
                 final boolean hasTiledGallery = hasTiledGallery(mRenderBuilder.toString());
@@ -93,7 +95,7 @@ class ReaderPostRenderer {
                     }
                 });
             }
-        }.start();
+        });
     }
 
     public static boolean hasTiledGallery(String text) {
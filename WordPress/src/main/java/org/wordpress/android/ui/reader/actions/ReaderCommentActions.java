@@ -118,7 +118,8 @@ public class ReaderCommentActions {
     }
 
     /*
-     * like or unlike the passed comment
+     * like or unlike the passed comment - the comment itself is updated to match, so callers can
+     * show the change without reading it back from the db
      */
     public static boolean performLikeAction(final ReaderComment comment, boolean isAskingToLike) {
         if (comment == null) {
@@ -134,8 +135,12 @@ public class ReaderCommentActions {
 
         // update like status and like count in local db
         int newNumLikes = (isAskingToLike ? comment.numLikes + 1 : comment.numLikes - 1);
+        final int oldNumLikes = comment.numLikes;
+        final boolean wasLiked = comment.isLikedByCurrentUser;
         ReaderCommentTable.setLikesForComment(comment, newNumLikes, isAskingToLike);
         ReaderLikeTable.setCurrentUserLikesComment(comment, isAskingToLike);
+        comment.numLikes = newNumLikes;
+        comment.isLikedByCurrentUser = isAskingToLike;
 
         // sites/$site/comments/$comment_ID/likes/new
         final String actionName = isAskingToLike ? "like" : "unlike";
@@ -154,8 +159,8 @@ public class ReaderCommentActions {
                     AppLog.d(T.READER, String.format("comment %s succeeded", actionName));
                 } else {
                     AppLog.w(T.READER, String.format("comment %s failed", actionName));
-                    ReaderCommentTable.setLikesForComment(comment, comment.numLikes, comment.isLikedByCurrentUser);
-                    ReaderLikeTable.setCurrentUserLikesComment(comment, comment.isLikedByCurrentUser);
+                    ReaderCommentTable.setLikesForComment(comment, oldNumLikes, wasLiked);
+                    ReaderLikeTable.setCurrentUserLikesComment(comment, wasLiked);
                 }
             }
         };
@@ -170,8 +175,8 @@ public class ReaderCommentActions {
                     AppLog.w(T.READER, String.format("comment %s failed (%s)", actionName, error));
                 }
                 AppLog.e(T.READER, volleyError);
-                ReaderCommentTable.setLikesForComment(comment, comment.numLikes, comment.isLikedByCurrentUser);
-                ReaderLikeTable.setCurrentUserLikesComment(comment, comment.isLikedByCurrentUser);
+                ReaderCommentTable.setLikesForComment(comment, oldNumLikes, wasLiked);
+                ReaderLikeTable.setCurrentUserLikesComment(comment, wasLiked);
             }
         };
 
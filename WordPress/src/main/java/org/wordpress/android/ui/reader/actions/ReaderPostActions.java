@@ -14,6 +14,7 @@ import com.wordpress.rest.RestRequest;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.wordpress.android.WordPress;
+import org.wordpress.android.datasets.ReaderDatabase;
 import org.wordpress.android.datasets.ReaderLikeTable;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.datasets.ReaderUserTable;
@@ -28,6 +29,8 @@ import org.wordpress.android.ui.reader.models.ReaderRelatedPost;
 import org.wordpress.android.ui.reader.models.ReaderRelatedPostList;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.BackgroundExecutor;
+import org.wordpress.android.util.BackgroundExecutor.Lane;
 import org.wordpress.android.util.JSONUtils;
 import org.wordpress.android.util.UrlUtils;
 import org.wordpress.android.util.VolleyUtils;
@@ -50,7 +53,8 @@ public class ReaderPostActions {
     }
 
     /**
-     * like/unlike the passed post
+     * like/unlike the passed post - the post itself is updated to match, so callers can show the
+     * change without reading it back from the db
      */
     public static boolean performLikeAction(final ReaderPost post,
                                             final boolean isAskingToLike) {
@@ -67,8 +71,12 @@ public class ReaderPostActions {
         if (newNumLikes < 0) {
             newNumLikes = 0;
         }
+        final int oldNumLikes = post.numLikes;
+        final boolean wasLiked = post.isLikedByCurrentUser;
         ReaderPostTable.setLikesForPost(post, newNumLikes, isAskingToLike);
         ReaderLikeTable.setCurrentUserLikesPost(post, isAskingToLike);
+        post.numLikes = newNumLikes;
+        post.isLikedByCurrentUser = isAskingToLike;
 
         final String actionName = isAskingToLike ? "like" : "unlike";
         String path = "sites/" + post.blogId + "/posts/" + post.postId + "/likes/";
@@ -95,8 +103,8 @@ public class ReaderPostActions {
                     AppLog.w(T.READER, String.format("post %s failed (%s)", actionName, error));
                 }
                 AppLog.e(T.READER, volleyError);
-                ReaderPostTable.setLikesForPost(post, post.numLikes, post.isLikedByCurrentUser);
-                ReaderLikeTable.setCurrentUserLikesPost(post, post.isLikedByCurrentUser);
+                ReaderPostTable.setLikesForPost(post, oldNumLikes, wasLiked);
+                ReaderLikeTable.setCurrentUserLikesPost(post, wasLiked);
             }
         };
 
@@ -143,7 +151,7 @@ public class ReaderPostActions {
 
         final Handler handler = new Handler();
 
-        new Thread() {
+        BackgroundExecutor.execute(Lane.PARSE, new Runnable() {
             @Override
             public void run() {
                 ReaderPost serverPost = ReaderPost.fromJson(jsonObject);
@@ -185,6 +193,8 @@ public class ReaderPostActions {
                 }
 
                 if (resultListener != null) {
+                    // make sure the changes are committed before the listener reads them
+                    ReaderDatabase.awaitWrites();
                     final UpdateResult result = (hasChanges ? UpdateResult.CHANGED : UpdateResult.UNCHANGED);
                     handler.post(new Runnable() {
                         public void run() {
@@ -193,7 +203,7 @@ public class ReaderPostActions {
                     });
                 }
             }
-        }.start();
+        });
     }
 
     /*
@@ -381,7 +391,7 @@ public class ReaderPostActions {
                                                    final JSONObject jsonObject) {
         if (jsonObject == null) return;
 
-        new Thread() {
+        BackgroundExecutor.execute(Lane.PARSE, new Runnable() {
             @Override
             public void run() {
                 JSONArray jsonPosts = jsonObject.optJSONArray("posts");
@@ -400,7 +410,7 @@ public class ReaderPostActions {
                     EventBus.getDefault().post(new ReaderEvents.RelatedPostsUpdated(sourcePost, localRelatedPosts, globalRelatedPosts));
                 }
             }
-        }.start();
+        });
 
     }
 }
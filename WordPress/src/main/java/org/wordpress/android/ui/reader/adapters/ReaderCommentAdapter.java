@@ -17,6 +17,7 @@ import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.analytics.AnalyticsTracker;
 import org.wordpress.android.datasets.ReaderCommentTable;
+import org.wordpress.android.datasets.ReaderDatabase;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.models.ReaderComment;
 import org.wordpress.android.models.ReaderCommentList;
@@ -379,11 +380,8 @@ public class ReaderCommentAdapter extends RecyclerView.Adapter<RecyclerView.View
             return;
         }
 
-        ReaderComment updatedComment = ReaderCommentTable.getComment(comment.blogId, comment.postId, comment.commentId);
-        if (updatedComment != null) {
-            mComments.set(position - NUM_HEADERS, updatedComment);
-            showLikeStatus(holder, position);
-        }
+        // the comment was updated along with the db, so it can be shown without reading it back
+        showLikeStatus(holder, position);
 
         AnalyticsUtils.trackWithReaderPostDetails(isAskingToLike ? AnalyticsTracker.Stat.READER_ARTICLE_COMMENT_LIKED :
                 AnalyticsTracker.Stat.READER_ARTICLE_COMMENT_UNLIKED, mPost);
@@ -402,15 +400,39 @@ public class ReaderCommentAdapter extends RecyclerView.Adapter<RecyclerView.View
 
         ReaderComment updatedComment = ReaderCommentTable.getComment(comment.blogId, comment.postId, comment.commentId);
         if (updatedComment != null) {
-            // copy the comment level over since loading from the DB always has it as 0
-            updatedComment.level = comment.level;
-            mComments.set(position - NUM_HEADERS, updatedComment);
-            notifyItemChanged(position);
+            refreshComment(updatedComment);
         }
 
         return true;
     }
 
+    /*
+     * replaces the displayed copy of the passed comment with it, for callers which already have
+     * the updated comment and so don't need to read it back from the db
+     */
+    public boolean refreshComment(ReaderComment updatedComment) {
+        if (updatedComment == null) {
+            return false;
+        }
+
+        int position = positionOfCommentId(updatedComment.commentId);
+        if (position == -1) {
+            return false;
+        }
+
+        ReaderComment comment = getItem(position);
+        if (comment == null) {
+            return false;
+        }
+
+        // copy the comment level over since loading from the DB always has it as 0
+        updatedComment.level = comment.level;
+        mComments.set(position - NUM_HEADERS, updatedComment);
+        notifyItemChanged(position);
+
+        return true;
+    }
+
     /*
      * called from post detail activity when user submits a comment
      */
@@ -506,6 +528,8 @@ public class ReaderCommentAdapter extends RecyclerView.Adapter<RecyclerView.View
                 return false;
             }
 
+            ReaderDatabase.awaitWrites();
+
             // determine whether more comments can be downloaded by comparing the number of
             // comments the post says it has with the number of comments actually stored
             // locally for this post
@@ -15,6 +15,7 @@ import android.widget.TextView;
 import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.analytics.AnalyticsTracker;
+import org.wordpress.android.datasets.ReaderDatabase;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.models.ReaderPost;
 import org.wordpress.android.models.ReaderPostDiscoverData;
@@ -776,8 +777,7 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             return;
         }
 
-        boolean isCurrentlyLiked = ReaderPostTable.isPostLikedByCurrentUser(post);
-        boolean isAskingToLike = !isCurrentlyLiked;
+        boolean isAskingToLike = !post.isLikedByCurrentUser;
         ReaderAnim.animateLikeButton(holder.likeCount.getImageView(), isAskingToLike);
 
         if (!ReaderPostActions.performLikeAction(post, isAskingToLike)) {
@@ -794,13 +794,8 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             AnalyticsUtils.trackWithReaderPostDetails(AnalyticsTracker.Stat.READER_ARTICLE_LIKED, post);
         }
 
-        // update post in array and on screen
-        int position = mPosts.indexOfPost(post);
-        ReaderPost updatedPost = ReaderPostTable.getBlogPost(post.blogId, post.postId, true);
-        if (updatedPost != null && position > -1) {
-            mPosts.set(position, updatedPost);
-            showLikes(holder, updatedPost);
-        }
+        // the post was updated along with the db, so it can be shown without reading it back
+        showLikes(holder, post);
     }
 
     /*
@@ -811,8 +806,7 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             return;
         }
 
-        boolean isCurrentlyFollowed = ReaderPostTable.isPostFollowed(post);
-        final boolean isAskingToFollow = !isCurrentlyFollowed;
+        final boolean isAskingToFollow = !post.isFollowedByCurrentUser;
 
         ReaderActions.ActionListener actionListener = new ReaderActions.ActionListener() {
             @Override
@@ -877,6 +871,7 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
 
         @Override
         protected Boolean doInBackground(Void... params) {
+            ReaderDatabase.awaitWrites();
             int numExisting;
             switch (getPostListType()) {
                 case TAG_PREVIEW:
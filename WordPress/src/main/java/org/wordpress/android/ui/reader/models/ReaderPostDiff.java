@@ -0,0 +1,65 @@
+package org.wordpress.android.ui.reader.models;
+
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.models.ReaderPostList;
+import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResult;
+
+import java.util.HashSet;
+
+/**
+ * result of comparing a list of posts retrieved from the server against the posts already
+ * stored in tbl_posts - built by ReaderPostTable.comparePosts() using a single query per
+ * chunk of posts rather than a query per post
+ */
+public class ReaderPostDiff {
+    private final UpdateResult mUpdateResult;
+    private final boolean mHasOverlap;
+    private final HashSet<String> mChangedKeys;
+
+    public ReaderPostDiff(UpdateResult updateResult, boolean hasOverlap, HashSet<String> changedKeys) {
+        mUpdateResult = updateResult;
+        mHasOverlap = hasOverlap;
+        mChangedKeys = (changedKeys != null ? changedKeys : new HashSet<String>());
+    }
+
+    /*
+     * HAS_NEW if any of the posts don't exist locally, CHANGED if any of them need to be
+     * written to the stream they were requested for, otherwise UNCHANGED
+     */
+    public UpdateResult getUpdateResult() {
+        return mUpdateResult;
+    }
+
+    /*
+     * true if any of the posts already exist locally
+     */
+    public boolean hasOverlap() {
+        return mHasOverlap;
+    }
+
+    /*
+     * true if the passed post is new or differs from the copy stored in the same stream
+     */
+    public boolean isChanged(ReaderPost post) {
+        return post != null && mChangedKeys.contains(getKey(post.blogId, post.postId));
+    }
+
+    /*
+     * returns only the posts in the passed list which need to be written
+     */
+    public ReaderPostList getChangedPosts(ReaderPostList posts) {
+        ReaderPostList changedPosts = new ReaderPostList();
+        if (posts != null) {
+            for (ReaderPost post : posts) {
+                if (isChanged(post)) {
+                    changedPosts.add(post);
+                }
+            }
+        }
+        return changedPosts;
+    }
+
+    public static String getKey(long blogId, long postId) {
+        return blogId + ":" + postId;
+    }
+}
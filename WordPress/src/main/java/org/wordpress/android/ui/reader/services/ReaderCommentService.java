@@ -24,8 +24,13 @@ import org.wordpress.android.ui.reader.actions.ReaderActions;
 import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResult;
 import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResultListener;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutor;
+import org.wordpress.android.util.BackgroundExecutor.Lane;
 import org.wordpress.android.util.JSONUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import de.greenrobot.event.EventBus;
 
 public class ReaderCommentService extends Service {
@@ -160,47 +165,53 @@ public class ReaderCommentService extends Service {
             return;
         }
 
-        new Thread() {
+        BackgroundExecutor.execute(Lane.PARSE, new Runnable() {
             @Override
             public void run() {
-                final boolean hasNewComments;
-
-                ReaderDatabase.getWritableDb().beginTransaction();
-                try {
-                    ReaderCommentList serverComments = new ReaderCommentList();
-                    JSONArray jsonCommentList = jsonObject.optJSONArray("comments");
-                    if (jsonCommentList != null) {
-                        for (int i = 0; i < jsonCommentList.length(); i++) {
-                            JSONObject jsonComment = jsonCommentList.optJSONObject(i);
-
-                            // extract this comment and add it to the list
-                            ReaderComment comment = ReaderComment.fromJson(jsonComment, blogId);
-                            comment.pageNumber = pageNumber;
-                            serverComments.add(comment);
-
-                            // extract and save likes for this comment
-                            JSONObject jsonLikes = JSONUtils.getJSONChild(jsonComment, "meta/data/likes");
-                            if (jsonLikes != null) {
-                                ReaderUserList likingUsers = ReaderUserList.fromJsonLikes(jsonLikes);
-                                ReaderUserTable.addOrUpdateUsers(likingUsers);
-                                ReaderLikeTable.setLikesForComment(comment, likingUsers.getUserIds());
-                            }
+                final ReaderCommentList serverComments = new ReaderCommentList();
+                final List<ReaderComment> likedComments = new ArrayList<>();
+                final List<ReaderUserList> likingUsersList = new ArrayList<>();
+                JSONArray jsonCommentList = jsonObject.optJSONArray("comments");
+                if (jsonCommentList != null) {
+                    for (int i = 0; i < jsonCommentList.length(); i++) {
+                        JSONObject jsonComment = jsonCommentList.optJSONObject(i);
+
+                        // extract this comment and add it to the list
+                        ReaderComment comment = ReaderComment.fromJson(jsonComment, blogId);
+                        comment.pageNumber = pageNumber;
+                        serverComments.add(comment);
+
+                        // extract likes for this comment
+                        JSONObject jsonLikes = JSONUtils.getJSONChild(jsonComment, "meta/data/likes");
+                        if (jsonLikes != null) {
+                            likedComments.add(comment);
+                            likingUsersList.add(ReaderUserList.fromJsonLikes(jsonLikes));
                         }
                     }
+                }
 
-                    hasNewComments = (serverComments.size() > 0);
+                boolean hasNewComments = (serverComments.size() > 0);
 
-                    // save to db regardless of whether any are new so changes to likes are stored
-                    ReaderCommentTable.addOrUpdateComments(serverComments);
-                    ReaderDatabase.getWritableDb().setTransactionSuccessful();
-                } finally {
-                    ReaderDatabase.getWritableDb().endTransaction();
-                }
+                // save the comments and their likes together
+                ReaderDatabase.writeAsync(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < likedComments.size(); i++) {
+                            ReaderUserList likingUsers = likingUsersList.get(i);
+                            ReaderUserTable.addOrUpdateUsers(likingUsers);
+                            ReaderLikeTable.setLikesForComment(likedComments.get(i), likingUsers.getUserIds());
+                        }
+
+                        // save to db regardless of whether any are new so changes to likes are stored
+                        ReaderCommentTable.addOrUpdateComments(serverComments);
+                    }
+                });
 
                 ReaderActions.UpdateResult result =
                         (hasNewComments ? ReaderActions.UpdateResult.HAS_NEW : ReaderActions.UpdateResult.UNCHANGED);
+                ReaderDatabase.awaitWrites();
                 resultListener.onUpdateResult(result);
             }
-        }.start();
+        });
     }
 }
@@ -9,23 +9,32 @@ import android.text.TextUtils;
 import com.android.volley.VolleyError;
 import com.wordpress.rest.RestRequest;
 
-import org.json.JSONObject;
+import org.json.JSONException;
 import org.wordpress.android.WordPress;
+import org.wordpress.android.datasets.ReaderDatabase;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.datasets.ReaderTagTable;
 import org.wordpress.android.models.ReaderPost;
 import org.wordpress.android.models.ReaderPostList;
+import org.wordpress.android.models.ReaderPostStreamReader;
 import org.wordpress.android.models.ReaderTag;
 import org.wordpress.android.models.ReaderTagType;
+import org.wordpress.android.networking.StreamingRestRequest;
 import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.ReaderEvents;
 import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResult;
 import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResultListener;
+import org.wordpress.android.ui.reader.models.ReaderPostDiff;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutor;
+import org.wordpress.android.util.BackgroundExecutor.Lane;
 import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.util.UrlUtils;
 
+import java.io.IOException;
+import java.io.Reader;
+
 import de.greenrobot.event.EventBus;
 
 /**
@@ -192,14 +201,14 @@ public class ReaderPostService extends Service {
             sb.append("&before=").append(UrlUtils.urlEncode(beforeDate));
         }
 
-        com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
+        StreamingRestRequest.Listener listener = new StreamingRestRequest.Listener() {
             @Override
-            public void onResponse(JSONObject jsonObject) {
+            public void onResponse(Reader reader) {
                 // remember when this tag was updated if newer posts were requested
                 if (updateAction == UpdateAction.REQUEST_NEWER) {
                     ReaderTagTable.setTagLastUpdated(tag);
                 }
-                handleUpdatePostsResponse(tag, jsonObject, updateAction, resultListener);
+                handleUpdatePostsResponse(tag, reader, updateAction, resultListener);
             }
         };
         RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
@@ -210,7 +219,7 @@ public class ReaderPostService extends Service {
             }
         };
 
-        WordPress.getRestClientUtilsV1_2().get(sb.toString(), null, null, listener, errorListener);
+        WordPress.getRestClientUtilsV1_2().getStreaming(sb.toString(), null, null, listener, errorListener);
     }
 
     private static void requestPostsForBlog(final long blogId,
@@ -226,10 +235,10 @@ public class ReaderPostService extends Service {
             }
         }
 
-        com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
+        StreamingRestRequest.Listener listener = new StreamingRestRequest.Listener() {
             @Override
-            public void onResponse(JSONObject jsonObject) {
-                handleUpdatePostsResponse(null, jsonObject, updateAction, resultListener);
+            public void onResponse(Reader reader) {
+                handleUpdatePostsResponse(null, reader, updateAction, resultListener);
             }
         };
         RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
@@ -240,7 +249,7 @@ public class ReaderPostService extends Service {
             }
         };
         AppLog.d(AppLog.T.READER, "updating posts in blog " + blogId);
-        WordPress.getRestClientUtilsV1_2().get(path, null, null, listener, errorListener);
+        WordPress.getRestClientUtilsV1_2().getStreaming(path, null, null, listener, errorListener);
     }
 
     private static void requestPostsForFeed(final long feedId,
@@ -254,10 +263,10 @@ public class ReaderPostService extends Service {
             }
         }
 
-        com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
+        StreamingRestRequest.Listener listener = new StreamingRestRequest.Listener() {
             @Override
-            public void onResponse(JSONObject jsonObject) {
-                handleUpdatePostsResponse(null, jsonObject, updateAction, resultListener);
+            public void onResponse(Reader reader) {
+                handleUpdatePostsResponse(null, reader, updateAction, resultListener);
             }
         };
         RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
@@ -269,72 +278,188 @@ public class ReaderPostService extends Service {
         };
 
         AppLog.d(AppLog.T.READER, "updating posts in feed " + feedId);
-        WordPress.getRestClientUtilsV1_2().get(path, null, null, listener, errorListener);
+        WordPress.getRestClientUtilsV1_2().getStreaming(path, null, null, listener, errorListener);
     }
 
     /*
-     * called after requesting posts with a specific tag or in a specific blog/feed
+     * called after requesting posts with a specific tag or in a specific blog/feed - the response
+     * is pull-parsed a batch of posts at a time rather than being converted to a JSONObject and
+     * then to a ReaderPostList, so memory use doesn't grow with the size of the response
      */
     private static void handleUpdatePostsResponse(final ReaderTag tag,
-                                                  final JSONObject jsonObject,
+                                                  final Reader reader,
                                                   final UpdateAction updateAction,
                                                   final UpdateResultListener resultListener) {
-        if (jsonObject == null) {
+        if (reader == null) {
             resultListener.onUpdateResult(UpdateResult.FAILED);
             return;
         }
 
-        new Thread() {
+        BackgroundExecutor.execute(Lane.PARSE, new Runnable() {
             @Override
             public void run() {
-                ReaderPostList serverPosts = ReaderPostList.fromJson(jsonObject);
-                UpdateResult updateResult = ReaderPostTable.comparePosts(serverPosts);
-                if (updateResult.isNewOrChanged()) {
-                    // gap detection - only applies to posts with a specific tag
-                    ReaderPost postWithGap = null;
-                    if (tag != null) {
-                        switch (updateAction) {
-                            case REQUEST_NEWER:
-                                // if there's no overlap between server and local (ie: all server
-                                // posts are new), assume there's a gap between server and local
-                                // provided that local posts exist
-                                int numServerPosts = serverPosts.size();
-                                if (numServerPosts >= 2
-                                        && ReaderPostTable.getNumPostsWithTag(tag) > 0
-                                        && !ReaderPostTable.hasOverlap(serverPosts)) {
-                                    // treat the second to last server post as having a gap
-                                    postWithGap = serverPosts.get(numServerPosts - 2);
-                                    // remove the last server post to deal with the edge case of
-                                    // there actually not being a gap between local & server
-                                    serverPosts.remove(numServerPosts - 1);
-                                    AppLog.d(AppLog.T.READER, "added gap marker to tag " + tag.getTagNameForLog());
-                                }
-                                ReaderPostTable.removeGapMarkerForTag(tag);
-                                break;
-                            case REQUEST_OLDER_THAN_GAP:
-                                // if service was started as a request to fill a gap, delete existing posts
-                                // before the one with the gap marker, then remove the existing gap marker
-                                ReaderPostTable.deletePostsBeforeGapMarkerForTag(tag);
+                UpdateResult updateResult;
+                try {
+                    if (tag != null && updateAction == UpdateAction.REQUEST_OLDER_THAN_GAP) {
+                        // filling a gap deletes existing posts before the new ones are saved, which
+                        // requires knowing up front whether anything changed, so the full list is
+                        // read before it's processed
+                        final ReaderPostList serverPosts = new ReaderPostList();
+                        ReaderPostStreamReader.readPosts(reader, Integer.MAX_VALUE,
+                                new ReaderPostStreamReader.PostBatchHandler() {
+                                    @Override
+                                    public void onPostBatch(ReaderPostList posts) {
+                                        serverPosts.addAll(posts);
+                                    }
+                                });
+                        updateResult = fillGapWithPosts(tag, serverPosts);
+                    } else {
+                        updateResult = ingestPostStream(tag, reader, updateAction);
+                    }
+                } catch (IOException e) {
+                    AppLog.e(AppLog.T.READER, e);
+                    updateResult = UpdateResult.FAILED;
+                } catch (JSONException e) {
+                    AppLog.e(AppLog.T.READER, e);
+                    updateResult = UpdateResult.FAILED;
+                } catch (IllegalStateException e) {
+                    // thrown by JsonReader when the response isn't in the expected format
+                    AppLog.e(AppLog.T.READER, e);
+                    updateResult = UpdateResult.FAILED;
+                }
+                AppLog.d(AppLog.T.READER, "requested posts response = " + updateResult.toString());
+                // the posts are written asynchronously, so wait for them before the listener
+                // tells the UI to reload
+                ReaderDatabase.awaitWrites();
+                resultListener.onUpdateResult(updateResult);
+            }
+        });
+    }
+
+    /*
+     * saves posts as they're parsed from the passed response, comparing each batch against
+     * existing posts so only new or changed ones are written
+     */
+    static UpdateResult ingestPostStream(final ReaderTag tag,
+                                         final Reader reader,
+                                         final UpdateAction updateAction) throws IOException, JSONException {
+        final PostStreamState state = new PostStreamState();
+
+        // gap detection - only applies to posts with a specific tag - requires the last server
+        // post to be held back until we know whether there's a gap
+        final boolean detectGap = (tag != null && updateAction == UpdateAction.REQUEST_NEWER);
+        final int numLocalPosts = (detectGap ? ReaderPostTable.getNumPostsWithTag(tag) : 0);
+
+        int numServerPosts = ReaderPostStreamReader.readPosts(reader, ReaderPostStreamReader.DEFAULT_BATCH_SIZE,
+                new ReaderPostStreamReader.PostBatchHandler() {
+                    @Override
+                    public void onPostBatch(ReaderPostList posts) {
+                        ReaderPostDiff postDiff = ReaderPostTable.comparePosts(tag, posts);
+                        state.addResult(postDiff);
+
+                        ReaderPostList changedPosts = postDiff.getChangedPosts(posts);
+                        if (detectGap) {
+                            if (state.heldPost != null && state.isHeldPostChanged) {
+                                changedPosts.add(state.heldPost);
+                            }
+                            ReaderPost lastPost = posts.get(posts.size() - 1);
+                            state.prevPost = (posts.size() > 1 ? posts.get(posts.size() - 2) : state.heldPost);
+                            state.heldPost = lastPost;
+                            state.isHeldPostChanged = postDiff.isChanged(lastPost);
+                            int index = changedPosts.indexOfPost(lastPost);
+                            if (index > -1) {
+                                changedPosts.remove(index);
+                            }
+                        }
+
+                        if (changedPosts.size() > 0) {
+                            if (detectGap && !state.isGapMarkerRemoved) {
                                 ReaderPostTable.removeGapMarkerForTag(tag);
-                                break;
+                                state.isGapMarkerRemoved = true;
+                            }
+                            ReaderPostTable.addOrUpdatePosts(tag, changedPosts);
                         }
                     }
+                });
+
+        UpdateResult updateResult = state.getUpdateResult();
+        if (detectGap && updateResult.isNewOrChanged()) {
+            if (!state.isGapMarkerRemoved) {
+                ReaderPostTable.removeGapMarkerForTag(tag);
+            }
+            // if there's no overlap between server and local (ie: all server posts are new),
+            // assume there's a gap between server and local provided that local posts exist
+            if (numServerPosts >= 2 && numLocalPosts > 0 && !state.hasOverlap) {
+                // treat the second to last server post as having a gap, and skip the last
+                // server post to deal with the edge case of there actually not being a gap
+                // between local & server - gap marker must be set after saving server posts
+                ReaderPostTable.setGapMarkerForTag(state.prevPost.blogId, state.prevPost.postId, tag);
+                AppLog.d(AppLog.T.READER, "added gap marker to tag " + tag.getTagNameForLog());
+            } else if (state.isHeldPostChanged) {
+                ReaderPostList heldPosts = new ReaderPostList();
+                heldPosts.add(state.heldPost);
+                ReaderPostTable.addOrUpdatePosts(tag, heldPosts);
+            }
+        }
 
-                    ReaderPostTable.addOrUpdatePosts(tag, serverPosts);
+        return updateResult;
+    }
 
-                    // gap marker must be set after saving server posts
-                    if (postWithGap != null) {
-                        ReaderPostTable.setGapMarkerForTag(postWithGap.blogId, postWithGap.postId, tag);
-                    }
-                } else if (updateResult == UpdateResult.UNCHANGED && updateAction == UpdateAction.REQUEST_OLDER_THAN_GAP) {
-                    // edge case - request to fill gap returned nothing new, so remove the gap marker
-                    ReaderPostTable.removeGapMarkerForTag(tag);
-                    AppLog.w(AppLog.T.READER, "attempt to fill gap returned nothing new");
-                }
-                AppLog.d(AppLog.T.READER, "requested posts response = " + updateResult.toString());
-                resultListener.onUpdateResult(updateResult);
+    /*
+     * called with the posts returned from a request to fill a gap, deletes existing posts
+     * before the one with the gap marker then replaces them with the passed posts
+     */
+    private static UpdateResult fillGapWithPosts(ReaderTag tag, ReaderPostList serverPosts) {
+        ReaderPostDiff postDiff = ReaderPostTable.comparePosts(tag, serverPosts);
+        UpdateResult updateResult = postDiff.getUpdateResult();
+        if (updateResult.isNewOrChanged()) {
+            ReaderPostTable.deletePostsBeforeGapMarkerForTag(tag);
+            ReaderPostTable.removeGapMarkerForTag(tag);
+            // all posts are written since existing ones may have been deleted above
+            ReaderPostTable.addOrUpdatePosts(tag, serverPosts);
+        } else if (updateResult == UpdateResult.UNCHANGED) {
+            // edge case - request to fill gap returned nothing new, so remove the gap marker
+            ReaderPostTable.removeGapMarkerForTag(tag);
+            AppLog.w(AppLog.T.READER, "attempt to fill gap returned nothing new");
+        }
+        return updateResult;
+    }
+
+    /*
+     * accumulates the comparison results of each batch of posts in a streamed response
+     */
+    private static class PostStreamState {
+        private boolean hasNew;
+        private boolean hasChanges;
+        private boolean hasOverlap;
+        private boolean isGapMarkerRemoved;
+        private boolean isHeldPostChanged;
+        private ReaderPost heldPost;
+        private ReaderPost prevPost;
+
+        void addResult(ReaderPostDiff postDiff) {
+            switch (postDiff.getUpdateResult()) {
+                case HAS_NEW:
+                    hasNew = true;
+                    break;
+                case CHANGED:
+                    hasChanges = true;
+                    break;
+            }
+            if (postDiff.hasOverlap()) {
+                hasOverlap = true;
             }
-        }.start();
+        }
+
+        UpdateResult getUpdateResult() {
+            if (hasNew) {
+                return UpdateResult.HAS_NEW;
+            } else if (hasChanges) {
+                return UpdateResult.CHANGED;
+            } else {
+                return UpdateResult.UNCHANGED;
+            }
+        }
     }
 
     /*
@@ -3,7 +3,6 @@ package org.wordpress.android.ui.reader.services;
 import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
-import android.database.sqlite.SQLiteDatabase;
 import android.os.IBinder;
 
 import com.android.volley.VolleyError;
@@ -24,6 +23,8 @@ import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.ReaderEvents;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutor;
+import org.wordpress.android.util.BackgroundExecutor.Lane;
 import org.wordpress.android.util.JSONUtils;
 
 import java.util.EnumSet;
@@ -136,7 +137,7 @@ public class ReaderUpdateService extends Service {
     }
 
     private void handleUpdateTagsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        BackgroundExecutor.execute(Lane.PARSE, new Runnable() {
             @Override
             public void run() {
                 // get server topics, both default & followed - but use "recommended" for logged-out
@@ -162,7 +163,8 @@ public class ReaderUpdateService extends Service {
                     deleteTags(localTopics.getDeletions(serverTopics));
                     // now replace local topics with the server topics
                     ReaderTagTable.replaceTags(serverTopics);
-                    // broadcast the fact that there are changes
+                    // broadcast the fact that there are changes once they've been written
+                    ReaderDatabase.awaitWrites();
                     EventBus.getDefault().post(new ReaderEvents.FollowedTagsChanged());
                 }
 
@@ -173,13 +175,14 @@ public class ReaderUpdateService extends Service {
                     if (!serverRecommended.isSameList(localRecommended)) {
                         AppLog.d(AppLog.T.READER, "reader service > recommended topics changed");
                         ReaderTagTable.setRecommendedTags(serverRecommended);
+                        ReaderDatabase.awaitWrites();
                         EventBus.getDefault().post(new ReaderEvents.RecommendedTagsChanged());
                     }
                 }
 
                 taskCompleted(UpdateTask.TAGS);
             }
-        }.start();
+        });
     }
 
     /*
@@ -220,22 +223,20 @@ public class ReaderUpdateService extends Service {
         return topics;
     }
 
-    private static void deleteTags(ReaderTagList tagList) {
+    private static void deleteTags(final ReaderTagList tagList) {
         if (tagList == null || tagList.size() == 0) {
             return;
         }
 
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
-        try {
-            for (ReaderTag tag: tagList) {
-                ReaderTagTable.deleteTag(tag);
-                ReaderPostTable.deletePostsWithTag(tag);
+        ReaderDatabase.writeAsync(new Runnable() {
+            @Override
+            public void run() {
+                for (ReaderTag tag: tagList) {
+                    ReaderTagTable.deleteTag(tag);
+                    ReaderPostTable.deletePostsWithTag(tag);
+                }
             }
-            db.setTransactionSuccessful();
-        } finally {
-            db.endTransaction();
-        }
+        });
     }
 
 
@@ -263,7 +264,7 @@ public class ReaderUpdateService extends Service {
     }
 
     private void handleFollowedBlogsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        BackgroundExecutor.execute(Lane.PARSE, new Runnable() {
             @Override
             public void run() {
                 ReaderBlogList serverBlogs = ReaderBlogList.fromJson(jsonObject);
@@ -279,13 +280,14 @@ public class ReaderUpdateService extends Service {
                     if (!localBlogs.hasSameBlogs(serverBlogs)) {
                         ReaderPostTable.updateFollowedStatus();
                         AppLog.i(AppLog.T.READER, "reader blogs service > followed blogs changed");
+                        ReaderDatabase.awaitWrites();
                         EventBus.getDefault().post(new ReaderEvents.FollowedBlogsChanged());
                     }
                 }
 
                 taskCompleted(UpdateTask.FOLLOWED_BLOGS);
             }
-        }.start();
+        });
     }
 
     /***
@@ -313,7 +315,7 @@ public class ReaderUpdateService extends Service {
         WordPress.getRestClientUtilsV1_1().get(path, listener, errorListener);
     }
     private void handleRecommendedBlogsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        BackgroundExecutor.execute(Lane.PARSE, new Runnable() {
             @Override
             public void run() {
                 ReaderRecommendBlogList serverBlogs = ReaderRecommendBlogList.fromJson(jsonObject);
@@ -321,11 +323,12 @@ public class ReaderUpdateService extends Service {
 
                 if (!localBlogs.isSameList(serverBlogs)) {
                     ReaderBlogTable.setRecommendedBlogs(serverBlogs);
+                    ReaderDatabase.awaitWrites();
                     EventBus.getDefault().post(new ReaderEvents.RecommendedBlogsChanged());
                 }
 
                 taskCompleted(UpdateTask.RECOMMENDED_BLOGS);
             }
-        }.start();
+        });
     }
 }
@@ -8,6 +8,7 @@ import android.view.LayoutInflater;
 import android.widget.LinearLayout;
 
 import org.wordpress.android.R;
+import org.wordpress.android.datasets.ReaderDatabase;
 import org.wordpress.android.datasets.ReaderLikeTable;
 import org.wordpress.android.datasets.ReaderUserTable;
 import org.wordpress.android.models.ReaderPost;
@@ -44,7 +45,9 @@ public class ReaderLikingUsersView extends LinearLayout {
         new Thread() {
             @Override
             public void run() {
-                // get avatar URLs of liking users up to the max, sized to fit
+                // get avatar URLs of liking users up to the max, sized to fit - after any queued
+                // writes so a like the user just made is included
+                ReaderDatabase.awaitWrites();
                 int maxAvatars = getMaxAvatars();
                 ReaderUserIdList avatarIds = ReaderLikeTable.getLikesForPost(post);
                 final ArrayList<String> avatars = ReaderUserTable.getAvatarUrls(avatarIds, maxAvatars, mLikeAvatarSz);
@@ -0,0 +1,93 @@
+package org.wordpress.android.ui.stats.datasets;
+
+import android.support.v4.util.LruCache;
+
+import org.wordpress.android.ui.stats.StatsTimeframe;
+import org.wordpress.android.ui.stats.models.BaseStatsModel;
+import org.wordpress.android.ui.stats.service.StatsService.StatsEndpointsEnum;
+
+import java.util.Map;
+
+/**
+ * In-memory tier above tbl_stats which holds parsed stats models, so switching between
+ * timeframes or sections that were recently shown doesn't require reading and parsing
+ * the cached JSON again. Entries keep the timestamp and ETag of the response they were
+ * parsed from so the service can decide whether they need to be revalidated.
+ */
+public class StatsMemoryCache {
+    private static final int MAX_ENTRIES = 60;
+
+    public static class Entry {
+        private final BaseStatsModel mModel;
+        private final long mTimestamp;
+        private final String mETag;
+
+        public Entry(BaseStatsModel model, long timestamp, String eTag) {
+            mModel = model;
+            mTimestamp = timestamp;
+            mETag = eTag;
+        }
+
+        public BaseStatsModel getModel() {
+            return mModel;
+        }
+
+        public long getTimestamp() {
+            return mTimestamp;
+        }
+
+        public String getETag() {
+            return mETag;
+        }
+
+        public boolean isFresh() {
+            return StatsTable.isFresh(mTimestamp);
+        }
+    }
+
+    private static final LruCache<String, Entry> sCache = new LruCache<>(MAX_ENTRIES);
+
+    public static String getKey(int localBlogId, StatsEndpointsEnum section, StatsTimeframe timeframe,
+                                String date, int maxResultsRequested, int pageRequested) {
+        return localBlogId + "|" + section.ordinal() + "|" + timeframe.ordinal() + "|" + date
+                + "|" + maxResultsRequested + "|" + pageRequested;
+    }
+
+    public static Entry get(String key) {
+        return sCache.get(key);
+    }
+
+    public static void put(String key, Entry entry) {
+        sCache.put(key, entry);
+    }
+
+    /*
+     * called when a stale entry has been revalidated by the server
+     */
+    public static void touch(String key, long timestamp) {
+        Entry entry = sCache.get(key);
+        if (entry != null) {
+            sCache.put(key, new Entry(entry.getModel(), timestamp, entry.getETag()));
+        }
+    }
+
+    static void removeForBlog(int localBlogId) {
+        removeWithPrefix(localBlogId + "|");
+    }
+
+    static void removeForSection(int localBlogId, StatsEndpointsEnum section) {
+        removeWithPrefix(localBlogId + "|" + section.ordinal() + "|");
+    }
+
+    private static void removeWithPrefix(String prefix) {
+        for (Map.Entry<String, Entry> entry : sCache.snapshot().entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                sCache.remove(entry.getKey());
+            }
+        }
+    }
+
+    static void clear() {
+        sCache.evictAll();
+    }
+}
@@ -13,7 +13,10 @@ import org.wordpress.android.util.SqlUtils;
 public class StatsTable {
 
     private static final String TABLE_NAME = "tbl_stats";
+    // cached stats older than this are still shown, but are revalidated with the server
     public static final int CACHE_TTL_MINUTES = 10;
+    // cached stats older than this are deleted at startup
+    public static final int STALE_TTL_MINUTES = 60 * 24 * 2;
     private static final int MAX_RESPONSE_LEN = (int) (1024 * 1024 * 1.8); // 1.8 MB Approx
 
     static void createTables(SQLiteDatabase db) {
@@ -27,6 +30,7 @@ public class StatsTable {
                 + " maxResult       INTEGER DEFAULT 0,"
                 + " page            INTEGER DEFAULT 0,"
                 + " timestamp       INTEGER NOT NULL,"        // The unix timestamp of the response
+                + " etag            TEXT,"                    // The ETag of the response, if the server sent one
                 + " UNIQUE (blogID, type, timeframe, date) ON CONFLICT REPLACE"
                 + ")");
     }
@@ -41,15 +45,44 @@ public class StatsTable {
     }
 
 
-    public static String getStats(final Context ctx, final int blogId, final StatsTimeframe timeframe, final String date,
-                                  final StatsEndpointsEnum sectionToUpdate, final int maxResultsRequested, final int pageRequested) {
+    public static class CachedStats {
+        public final String jsonData;
+        public final long timestamp;
+        public final String eTag;
+
+        private CachedStats(String jsonData, long timestamp, String eTag) {
+            this.jsonData = jsonData;
+            this.timestamp = timestamp;
+            this.eTag = eTag;
+        }
+
+        public boolean isFresh() {
+            return StatsTable.isFresh(timestamp);
+        }
+    }
+
+    /*
+     * returns true if stats retrieved at the passed time don't need to be revalidated
+     */
+    public static boolean isFresh(long timestamp) {
+        long deltaMS = System.currentTimeMillis() - timestamp;
+        // a timestamp in the future means the device clock changed, so treat it as stale
+        return deltaMS >= 0 && (deltaMS / 1000 / 60) <= CACHE_TTL_MINUTES;
+    }
+
+    /*
+     * returns the cached stats regardless of their age - use CachedStats.isFresh() to determine
+     * whether they should be revalidated
+     */
+    public static CachedStats getStats(final Context ctx, final int blogId, final StatsTimeframe timeframe, final String date,
+                                       final StatsEndpointsEnum sectionToUpdate, final int maxResultsRequested, final int pageRequested) {
         if (ctx == null) {
             AppLog.e(AppLog.T.STATS, "Cannot insert a null stats since the passed context is null. Context is required " +
                     "to access the DB.");
             return null;
         }
 
-        String sql = "SELECT *  FROM " + TABLE_NAME + " WHERE blogID = ? "
+        String sql = "SELECT jsonData, timestamp, etag FROM " + TABLE_NAME + " WHERE blogID = ? "
                 + " AND type=?"
                 + " AND timeframe=?"
                 + " AND date=?"
@@ -71,21 +104,7 @@ public class StatsTable {
 
         try {
             if (cursor != null && cursor.moveToFirst()) {
-                long timestamp  = cursor.getLong(cursor.getColumnIndex("timestamp"));
-                long currentTime = System.currentTimeMillis();
-                long deltaMS = currentTime - timestamp;
-                if (deltaMS < 0) {
-                    // current date is in the past respect to stats date?? Uhhh!
-                    return null;
-                }
-
-                deltaMS = deltaMS / 1000; // seconds
-                // check if the cache is fresh
-                if ((deltaMS / 60) > CACHE_TTL_MINUTES) {
-                    return null; // cache is expired
-                }
-
-                return cursor.getString(cursor.getColumnIndex("jsonData"));
+                return new CachedStats(cursor.getString(0), cursor.getLong(1), cursor.getString(2));
             } else {
                 return null;
             }
@@ -100,7 +119,7 @@ public class StatsTable {
 
     public static void insertStats(final Context ctx, final int blogId, final StatsTimeframe timeframe, final String date,
                                    final StatsEndpointsEnum sectionToUpdate, final int maxResultsRequested, final int pageRequested,
-                                   final String jsonResponse, final long responseTimestamp) {
+                                   final String jsonResponse, final String eTag, final long responseTimestamp) {
 
         if (ctx == null) {
             AppLog.e(AppLog.T.STATS, "Cannot insert a null stats since the passed context is null. Context is required " +
@@ -126,7 +145,7 @@ public class StatsTable {
         SQLiteDatabase db = StatsDatabaseHelper.getWritableDb(ctx);
         db.beginTransaction();
         SQLiteStatement stmt = db.compileStatement("INSERT INTO " + TABLE_NAME + " (blogID, type, timeframe, date, " +
-                "jsonData, maxResult, page, timestamp) VALUES (?1,?2,?3,?4,?5,?6,?7,?8)");
+                "jsonData, maxResult, page, timestamp, etag) VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9)");
         try {
             stmt.bindLong(1, blogId);
             stmt.bindLong(2, sectionToUpdate.ordinal());
@@ -136,6 +155,11 @@ public class StatsTable {
             stmt.bindLong(6, maxResultsRequested);
             stmt.bindLong(7, pageRequested);
             stmt.bindLong(8, responseTimestamp);
+            if (eTag != null) {
+                stmt.bindString(9, eTag);
+            } else {
+                stmt.bindNull(9);
+            }
             stmt.execute();
 
             db.setTransactionSuccessful();
@@ -145,6 +169,38 @@ public class StatsTable {
         }
     }
 
+    /**
+     *  Update the timestamp of cached stats after the server reported they haven't changed - only
+     *  the row getStats() returns for the same arguments is updated, since that's the one which
+     *  was revalidated
+     */
+    public static void touchStats(final Context ctx, final int blogId, final StatsTimeframe timeframe, final String date,
+                                  final StatsEndpointsEnum sectionToUpdate, final int maxResultsRequested,
+                                  final int pageRequested, final long responseTimestamp) {
+        if (ctx == null) {
+            AppLog.e(AppLog.T.STATS, "Cannot update stats since the passed context is null. Context is required " +
+                    "to access the DB.");
+            return;
+        }
+
+        SQLiteStatement stmt = StatsDatabaseHelper.getWritableDb(ctx).compileStatement("UPDATE " + TABLE_NAME
+                + " SET timestamp=?1 WHERE rowid = (SELECT rowid FROM " + TABLE_NAME
+                + " WHERE blogID=?2 AND type=?3 AND timeframe=?4 AND date=?5 AND page=?6 AND maxResult >=?7"
+                + " ORDER BY timestamp DESC LIMIT 1)");
+        try {
+            stmt.bindLong(1, responseTimestamp);
+            stmt.bindLong(2, blogId);
+            stmt.bindLong(3, sectionToUpdate.ordinal());
+            stmt.bindLong(4, timeframe.ordinal());
+            stmt.bindString(5, date);
+            stmt.bindLong(6, pageRequested);
+            stmt.bindLong(7, maxResultsRequested);
+            stmt.execute();
+        } finally {
+            SqlUtils.closeStatement(stmt);
+        }
+    }
+
     /**
      *  Delete expired Stats data from StatsDB
      */
@@ -179,6 +235,7 @@ public class StatsTable {
             db.beginTransaction();
             int rowDeleted = db.delete(TABLE_NAME, "blogID=?", new String[] {Integer.toString(blogId)});
             db.setTransactionSuccessful();
+            StatsMemoryCache.removeForBlog(blogId);
             AppLog.d(AppLog.T.STATS, "Stats deleted for localBlogID " + blogId);
             return rowDeleted > 1;
         } finally {
@@ -200,6 +257,7 @@ public class StatsTable {
                     new String[] {Integer.toString(blogId), Integer.toString(sectionToUpdate.ordinal())}
             );
             db.setTransactionSuccessful();
+            StatsMemoryCache.removeForSection(blogId, sectionToUpdate);
             AppLog.d(AppLog.T.STATS, "Stats deleted for localBlogID " + blogId + " and type " + sectionToUpdate.getRestEndpointPath());
             return rowDeleted > 1;
         } finally {
@@ -219,6 +277,7 @@ public class StatsTable {
         try {
             db.execSQL("DELETE FROM " + TABLE_NAME);
             db.setTransactionSuccessful();
+            StatsMemoryCache.clear();
         } finally {
             db.endTransaction();
         }
@@ -3,6 +3,7 @@ package org.wordpress.android.ui.stats.service;
 import android.app.Service;
 import android.content.Intent;
 import android.os.IBinder;
+import android.os.SystemClock;
 import android.text.TextUtils;
 
 import com.android.volley.Request;
@@ -13,11 +14,13 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.models.Blog;
+import org.wordpress.android.networking.ConditionalRestRequest;
 import org.wordpress.android.networking.RestClientUtils;
 import org.wordpress.android.ui.stats.StatsEvents;
 import org.wordpress.android.ui.stats.StatsTimeframe;
 import org.wordpress.android.ui.stats.StatsUtils;
 import org.wordpress.android.ui.stats.StatsWidgetProvider;
+import org.wordpress.android.ui.stats.datasets.StatsMemoryCache;
 import org.wordpress.android.ui.stats.datasets.StatsTable;
 import org.wordpress.android.ui.stats.exceptions.StatsError;
 import org.wordpress.android.ui.stats.models.AuthorsModel;
@@ -43,18 +46,32 @@ import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 
 import java.io.Serializable;
-import java.util.Iterator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import de.greenrobot.event.EventBus;
 
 /**
  * Background service to retrieve Stats.
- * Parsing of response(s) and submission of new network calls are done by using a ThreadPoolExecutor with a single thread.
+ * Parsing of response(s) and submission of new network calls are done on a pool of up to sMaxConcurrentSections
+ * threads. Work for a single section always runs in submission order, so different sections are fetched and
+ * parsed in parallel while each section's cache lookup and responses are handled one at a time. Requests for
+ * the same path are shared rather than sent twice.
+ *
+ * Cached stats are served stale-while-revalidate: parsed models are kept in StatsMemoryCache above
+ * tbl_stats, and any cached copy is posted immediately. If it's older than StatsTable.CACHE_TTL_MINUTES
+ * a conditional request is then made using its ETag, and the section is only posted again if it changed.
  */
 
 public class StatsService extends Service {
@@ -69,6 +86,10 @@ public class StatsService extends Service {
     // The number of results to return per page for Paged REST endpoints. Numbers larger than 20 will default to 20 on the server.
     public static final int MAX_RESULTS_REQUESTED_PER_PAGE = 20;
 
+    // The number of sections which are fetched and parsed at the same time - 1 handles sections one after another
+    private static final int DEFAULT_MAX_CONCURRENT_SECTIONS = 4;
+    private static int sMaxConcurrentSections = DEFAULT_MAX_CONCURRENT_SECTIONS;
+
     public enum StatsEndpointsEnum {
         VISITS,
         TOP_POSTS,
@@ -206,17 +227,39 @@ public class StatsService extends Service {
 
     private int mServiceStartId;
     private final LinkedList<Request<JSONObject>> mStatsNetworkRequests = new LinkedList<>();
-    private final ThreadPoolExecutor singleThreadNetworkHandler = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+    // in-flight requests keyed by path and ETag, so sections which need the same payload share a request
+    private final Map<String, SharedRequestListener> mInFlightRequests = new HashMap<>();
+    private ExecutorService mSectionThreadPool;
+    private final Map<StatsEndpointsEnum, SerialExecutor> mSectionExecutors = new EnumMap<>(StatsEndpointsEnum.class);
+    // when the current batch of sections started loading, used to report the time taken by the whole screen
+    private long mBatchStartTime;
+
+    /*
+     * sets the number of sections which are fetched at the same time by services created after this call,
+     * pass 1 to go back to fetching sections one after another
+     */
+    public static void setMaxConcurrentSections(int maxConcurrentSections) {
+        sMaxConcurrentSections = Math.max(1, maxConcurrentSections);
+    }
+
+    /*
+     * the number of threads sections are fetched and parsed on by this service
+     */
+    int getSectionPoolSize() {
+        return ((ThreadPoolExecutor) mSectionThreadPool).getMaximumPoolSize();
+    }
 
     @Override
     public void onCreate() {
         super.onCreate();
+        mSectionThreadPool = Executors.newFixedThreadPool(sMaxConcurrentSections);
         AppLog.i(T.STATS, "service created");
     }
 
     @Override
     public void onDestroy() {
         stopRefresh();
+        mSectionThreadPool.shutdown();
         AppLog.i(T.STATS, "service destroyed");
         super.onDestroy();
     }
@@ -269,12 +312,19 @@ public class StatsService extends Service {
         int[] sectionFromIntent = intent.getIntArrayExtra(ARG_SECTION);
 
         this.mServiceStartId = startId;
+        synchronized (mStatsNetworkRequests) {
+            if (mStatsNetworkRequests.size() == 0 && getPendingSectionTaskCount() == 0) {
+                mBatchStartTime = SystemClock.elapsedRealtime();
+            }
+        }
         for (int i=0; i < sectionFromIntent.length; i++){
             final StatsEndpointsEnum currentSectionsToUpdate = StatsEndpointsEnum.values()[sectionFromIntent[i]];
-            singleThreadNetworkHandler.submit(new Thread() {
+            final long startTime = SystemClock.elapsedRealtime();
+            getSectionExecutor(currentSectionsToUpdate).execute(new Runnable() {
                 @Override
                 public void run() {
-                    startTasks(blogId, period, requestedDate, currentSectionsToUpdate, maxResultsRequested, pageRequested);
+                    startTasks(blogId, period, requestedDate, currentSectionsToUpdate, maxResultsRequested,
+                            pageRequested, startTime);
                 }
             });
         }
@@ -291,6 +341,78 @@ public class StatsService extends Service {
                 }
             }
             mStatsNetworkRequests.clear();
+            mInFlightRequests.clear();
+        }
+    }
+
+    private SerialExecutor getSectionExecutor(StatsEndpointsEnum section) {
+        synchronized (mSectionExecutors) {
+            SerialExecutor executor = mSectionExecutors.get(section);
+            if (executor == null) {
+                executor = new SerialExecutor(mSectionThreadPool);
+                mSectionExecutors.put(section, executor);
+            }
+            return executor;
+        }
+    }
+
+    private int getPendingSectionTaskCount() {
+        int count = 0;
+        synchronized (mSectionExecutors) {
+            for (SerialExecutor executor : mSectionExecutors.values()) {
+                count += executor.getPendingCount();
+            }
+        }
+        return count;
+    }
+
+    /*
+     * runs tasks one at a time in the order they were submitted, on the shared section thread pool
+     */
+    private static class SerialExecutor implements Executor {
+        private final Executor mExecutor;
+        private final ArrayDeque<Runnable> mTasks = new ArrayDeque<>();
+        private Runnable mActive;
+
+        SerialExecutor(Executor executor) {
+            mExecutor = executor;
+        }
+
+        @Override
+        public synchronized void execute(final Runnable task) {
+            mTasks.offer(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } finally {
+                        scheduleNext();
+                    }
+                }
+            });
+            if (mActive == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            mActive = mTasks.poll();
+            if (mActive != null) {
+                try {
+                    mExecutor.execute(mActive);
+                } catch (RejectedExecutionException e) {
+                    // the service has been destroyed
+                    mActive = null;
+                    mTasks.clear();
+                }
+            }
+        }
+
+        /*
+         * the number of tasks which are queued or running
+         */
+        synchronized int getPendingCount() {
+            return mTasks.size() + (mActive != null ? 1 : 0);
         }
     }
 
@@ -300,41 +422,64 @@ public class StatsService extends Service {
         return true;
     }
 
-    // Check if we already have Stats
-    private String getCachedStats(final String blogId, final StatsTimeframe timeframe, final String date, final StatsEndpointsEnum sectionToUpdate,
-                                  final int maxResultsRequested, final int pageRequested) {
+    // Check if we already have Stats - checks the memory cache first, then the db, regardless of age
+    private StatsMemoryCache.Entry getCachedStats(final String blogId, final String cacheKey, final int localTableBlogId,
+                                                  final StatsTimeframe timeframe, final String date,
+                                                  final StatsEndpointsEnum sectionToUpdate,
+                                                  final int maxResultsRequested, final int pageRequested) {
         if (!isCacheEnabled()) {
             return null;
         }
 
-        int parsedBlogID = Integer.parseInt(blogId);
-        int localTableBlogId = WordPress.wpDB.getLocalTableBlogIdForRemoteBlogId(parsedBlogID);
-        return StatsTable.getStats(this, localTableBlogId, timeframe, date, sectionToUpdate, maxResultsRequested, pageRequested);
+        StatsMemoryCache.Entry entry = StatsMemoryCache.get(cacheKey);
+        if (entry != null) {
+            return entry;
+        }
+
+        StatsTable.CachedStats cachedStats = StatsTable.getStats(this, localTableBlogId, timeframe, date,
+                sectionToUpdate, maxResultsRequested, pageRequested);
+        if (cachedStats == null) {
+            return null;
+        }
+
+        try {
+            JSONObject response = new JSONObject(cachedStats.jsonData);
+            BaseStatsModel model = StatsUtils.parseResponse(sectionToUpdate, blogId, response);
+            entry = new StatsMemoryCache.Entry(model, cachedStats.timestamp, cachedStats.eTag);
+            StatsMemoryCache.put(cacheKey, entry);
+            return entry;
+        } catch (JSONException e) {
+            AppLog.e(AppLog.T.STATS, e);
+            return null;
+        }
     }
 
     private void startTasks(final String blogId, final StatsTimeframe timeframe, final String date, final StatsEndpointsEnum sectionToUpdate,
-                            final int maxResultsRequested, final int pageRequested) {
+                            final int maxResultsRequested, final int pageRequested, final long startTime) {
 
         EventBus.getDefault().post(new StatsEvents.UpdateStatusChanged(true));
 
-        String cachedStats = getCachedStats(blogId, timeframe, date, sectionToUpdate, maxResultsRequested, pageRequested);
-        if (cachedStats != null) {
-            BaseStatsModel mResponseObjectModel;
-                try {
-                    JSONObject response = new JSONObject(cachedStats);
-                    mResponseObjectModel = StatsUtils.parseResponse(sectionToUpdate, blogId, response);
-
-                    EventBus.getDefault().post(
-                            sectionToUpdate.getEndpointUpdateEvent(blogId, timeframe, date,
-                                    maxResultsRequested, pageRequested, mResponseObjectModel)
-                    );
+        int localTableBlogId = WordPress.wpDB.getLocalTableBlogIdForRemoteBlogId(Integer.parseInt(blogId));
+        String cacheKey = StatsMemoryCache.getKey(localTableBlogId, sectionToUpdate, timeframe, date,
+                maxResultsRequested, pageRequested);
 
-                    updateWidgetsUI(blogId, sectionToUpdate, timeframe, date, pageRequested, mResponseObjectModel);
-                    checkAllRequestsFinished(null);
-                    return;
-                } catch (JSONException e) {
-                    AppLog.e(AppLog.T.STATS, e);
-                }
+        StatsMemoryCache.Entry cachedStats = getCachedStats(blogId, cacheKey, localTableBlogId, timeframe, date,
+                sectionToUpdate, maxResultsRequested, pageRequested);
+        String eTag = null;
+        if (cachedStats != null) {
+            EventBus.getDefault().post(
+                    sectionToUpdate.getEndpointUpdateEvent(blogId, timeframe, date,
+                            maxResultsRequested, pageRequested, cachedStats.getModel())
+            );
+            updateWidgetsUI(blogId, sectionToUpdate, timeframe, date, pageRequested, cachedStats.getModel());
+            logSectionLatency(sectionToUpdate, "cache", startTime);
+
+            if (cachedStats.isFresh()) {
+                checkAllRequestsFinished(null);
+                return;
+            }
+            // stale - it's been shown, now revalidate it
+            eTag = cachedStats.getETag();
         }
 
         final RestClientUtils restClientUtils = WordPress.getRestClientUtilsV1_1();
@@ -345,7 +490,8 @@ public class StatsService extends Service {
 */
 
 
-        RestListener vListener = new RestListener(sectionToUpdate, blogId, timeframe, date, maxResultsRequested, pageRequested);
+        RestListener vListener = new RestListener(sectionToUpdate, blogId, localTableBlogId, cacheKey, timeframe, date,
+                maxResultsRequested, pageRequested, cachedStats != null, startTime);
 
         final String periodDateMaxPlaceholder =  "?period=%s&date=%s&max=%s";
 
@@ -415,45 +561,79 @@ public class StatsService extends Service {
                     return;
             }
 
-            // We need to check if we already have the same request in the queue
-            if (checkIfRequestShouldBeEnqueued(restClientUtils, path)) {
+            // If the same request is already in the queue, this section shares its response
+            String requestKey = path + "|" + eTag;
+            SharedRequestListener sharedListener = mInFlightRequests.get(requestKey);
+            if (sharedListener != null) {
+                AppLog.d(AppLog.T.STATS, "Stats request is already in the queue:" + path);
+                sharedListener.addListener(vListener);
+            } else {
                 AppLog.d(AppLog.T.STATS, "Enqueuing the following Stats request " + path);
-                Request<JSONObject> currentRequest = restClientUtils.get(path, vListener, vListener);
-                vListener.currentRequest = currentRequest;
+                sharedListener = new SharedRequestListener(requestKey);
+                sharedListener.addListener(vListener);
+                mInFlightRequests.put(requestKey, sharedListener);
+                Request<JSONObject> currentRequest = restClientUtils.getConditional(path, null, eTag,
+                        sharedListener, sharedListener);
+                sharedListener.mRequest = currentRequest;
                 currentRequest.setTag("StatsCall");
                 mStatsNetworkRequests.add(currentRequest);
-            } else {
-                AppLog.d(AppLog.T.STATS, "Stats request is already in the queue:" + path);
             }
+            vListener.currentRequest = sharedListener.mRequest;
         }
     }
 
+    private void logSectionLatency(StatsEndpointsEnum section, String source, long startTime) {
+        AppLog.d(T.STATS, "Stats section " + section.name() + " loaded from " + source + " in "
+                + (SystemClock.elapsedRealtime() - startTime) + " ms");
+    }
+
     /**
-     *  This method checks if we already have the same request in the Queue. No need to re-enqueue a new request
-     *  if one with the same parameters is there.
-     *
-     *  This method is a kind of tricky, since it does the comparison by checking the origin URL of requests.
-     *  To do that we had to get the fullURL of the new request by calling a method of the REST client `getAbsoluteURL`.
-     *  That's good for now, but could lead to errors if the RestClient changes the way the URL is constructed internally,
-     *  by calling `getAbsoluteURL`.
-     *
-     *  - Another approach would involve the get of the requests ErrorListener and the check Listener's parameters.
-     *  - Cleanest approach is for sure to create a new class that extends Request<JSONObject> and stores parameters for later comparison,
-     *  unfortunately we have to change the REST Client and RestClientUtils a lot if we want follow this way...
-     *
+     * Receives the response to a request on the main thread and hands it to each section which asked for it,
+     * each of which then parses it on its own section executor.
      */
-    private boolean checkIfRequestShouldBeEnqueued(final RestClientUtils restClientUtils, String path) {
-        String absoluteRequestPath = restClientUtils.getRestClient().getAbsoluteURL(path);
-        Iterator<Request<JSONObject>> it = mStatsNetworkRequests.iterator();
-        while (it.hasNext()) {
-            Request<JSONObject> req = it.next();
-            if (!req.hasHadResponseDelivered() && !req.isCanceled() &&
-                    absoluteRequestPath.equals(req.getOriginUrl())) {
-                return false;
+    private class SharedRequestListener implements ConditionalRestRequest.Listener, RestRequest.ErrorListener {
+        private final String mRequestKey;
+        private final List<RestListener> mListeners = new ArrayList<>();
+        private Request<JSONObject> mRequest;
+
+        SharedRequestListener(String requestKey) {
+            mRequestKey = requestKey;
+        }
+
+        // called with mStatsNetworkRequests locked
+        void addListener(RestListener listener) {
+            mListeners.add(listener);
+        }
+
+        private List<RestListener> removeListeners() {
+            synchronized (mStatsNetworkRequests) {
+                if (mInFlightRequests.get(mRequestKey) == this) {
+                    mInFlightRequests.remove(mRequestKey);
+                }
+                return new ArrayList<>(mListeners);
             }
         }
 
-        return true;
+        @Override
+        public void onResponse(JSONObject response, String eTag) {
+            for (RestListener listener : removeListeners()) {
+                listener.onResponse(response, eTag);
+            }
+        }
+
+        @Override
+        public void onNotModified() {
+            for (RestListener listener : removeListeners()) {
+                listener.onNotModified();
+            }
+        }
+
+        @Override
+        public void onErrorResponse(VolleyError volleyError) {
+            for (RestListener listener : removeListeners()) {
+                listener.onErrorResponse(volleyError);
+            }
+        }
     }
 
     // Call an updates on the installed widgets if the blog is the primary, the endpoint is Visits
@@ -505,27 +685,37 @@ public class StatsService extends Service {
         }
     }
 
-    private class RestListener implements RestRequest.Listener, RestRequest.ErrorListener {
+    private class RestListener implements ConditionalRestRequest.Listener, RestRequest.ErrorListener {
         final String mRequestBlogId;
+        private final int mLocalTableBlogId;
+        private final String mCacheKey;
         private final StatsTimeframe mTimeframe;
         final StatsEndpointsEnum mEndpointName;
         private final String mDate;
         private Request<JSONObject> currentRequest;
         private final int mMaxResultsRequested, mPageRequested;
+        // true when stale stats were already posted, in which case errors revalidating them are ignored
+        private final boolean mIsRevalidating;
+        private final long mStartTime;
 
-        public RestListener(StatsEndpointsEnum endpointName, String blogId, StatsTimeframe timeframe, String date,
-                            final int maxResultsRequested, final int pageRequested) {
+        public RestListener(StatsEndpointsEnum endpointName, String blogId, int localTableBlogId, String cacheKey,
+                            StatsTimeframe timeframe, String date, final int maxResultsRequested,
+                            final int pageRequested, boolean isRevalidating, long startTime) {
             mRequestBlogId = blogId;
+            mLocalTableBlogId = localTableBlogId;
+            mCacheKey = cacheKey;
             mTimeframe = timeframe;
             mEndpointName = endpointName;
             mDate = date;
             mMaxResultsRequested = maxResultsRequested;
             mPageRequested = pageRequested;
+            mIsRevalidating = isRevalidating;
+            mStartTime = startTime;
         }
 
         @Override
-        public void onResponse(final JSONObject response) {
-            singleThreadNetworkHandler.submit(new Thread() {
+        public void onResponse(final JSONObject response, final String eTag) {
+            getSectionExecutor(mEndpointName).execute(new Runnable() {
                 @Override
                 public void run() {
                     // do other stuff here
@@ -535,11 +725,12 @@ public class StatsService extends Service {
                             //AppLog.d(T.STATS, response.toString());
                             mResponseObjectModel = StatsUtils.parseResponse(mEndpointName, mRequestBlogId, response);
                             if (isCacheEnabled()) {
-                                int parsedBlogID = Integer.parseInt(mRequestBlogId);
-                                int localTableBlogId = WordPress.wpDB.getLocalTableBlogIdForRemoteBlogId(parsedBlogID);
-                                StatsTable.insertStats(StatsService.this, localTableBlogId, mTimeframe, mDate, mEndpointName,
+                                long timestamp = System.currentTimeMillis();
+                                StatsTable.insertStats(StatsService.this, mLocalTableBlogId, mTimeframe, mDate, mEndpointName,
                                         mMaxResultsRequested, mPageRequested,
-                                        response.toString(), System.currentTimeMillis());
+                                        response.toString(), eTag, timestamp);
+                                StatsMemoryCache.put(mCacheKey,
+                                        new StatsMemoryCache.Entry(mResponseObjectModel, timestamp, eTag));
                             }
                         } catch (JSONException e) {
                             AppLog.e(AppLog.T.STATS, e);
@@ -552,6 +743,23 @@ public class StatsService extends Service {
                     );
 
                     updateWidgetsUI(mRequestBlogId, mEndpointName, mTimeframe, mDate, mPageRequested, mResponseObjectModel);
+                    logSectionLatency(mEndpointName, "network", mStartTime);
+                    checkAllRequestsFinished(currentRequest);
+                }
+            });
+        }
+
+        @Override
+        public void onNotModified() {
+            getSectionExecutor(mEndpointName).execute(new Runnable() {
+                @Override
+                public void run() {
+                    // the stale stats that were already posted are still current, so just mark them as fresh
+                    long timestamp = System.currentTimeMillis();
+                    StatsTable.touchStats(StatsService.this, mLocalTableBlogId, mTimeframe, mDate, mEndpointName,
+                            mMaxResultsRequested, mPageRequested, timestamp);
+                    StatsMemoryCache.touch(mCacheKey, timestamp);
+                    logSectionLatency(mEndpointName, "revalidation", mStartTime);
                     checkAllRequestsFinished(currentRequest);
                 }
             });
@@ -559,11 +767,16 @@ public class StatsService extends Service {
 
         @Override
         public void onErrorResponse(final VolleyError volleyError) {
-            singleThreadNetworkHandler.submit(new Thread() {
+            getSectionExecutor(mEndpointName).execute(new Runnable() {
                 @Override
                 public void run() {
                     AppLog.e(T.STATS, "Error while loading Stats!");
                     StatsUtils.logVolleyErrorDetails(volleyError);
+                    if (mIsRevalidating) {
+                        // keep showing the stale stats rather than replacing them with an error
+                        checkAllRequestsFinished(currentRequest);
+                        return;
+                    }
                     BaseStatsModel mResponseObjectModel = null;
                     // Check here if this is an authentication error
                     // .com authentication errors are handled automatically by the app
@@ -603,12 +816,20 @@ public class StatsService extends Service {
     }
 
 
+    /*
+     * must be called from a section task - the calling task is still running, so it isn't counted
+     * as outstanding work
+     */
     private void checkAllRequestsFinished(Request<JSONObject> req) {
         synchronized (mStatsNetworkRequests) {
             if (req != null) {
                 mStatsNetworkRequests.remove(req);
             }
-            boolean isStillWorking = mStatsNetworkRequests.size() > 0 || singleThreadNetworkHandler.getQueue().size() > 0;
+            boolean isStillWorking = mStatsNetworkRequests.size() > 0 || getPendingSectionTaskCount() > 1;
+            if (!isStillWorking && mBatchStartTime != 0) {
+                AppLog.d(T.STATS, "All stats sections loaded in " + (SystemClock.elapsedRealtime() - mBatchStartTime) + " ms");
+                mBatchStartTime = 0;
+            }
             EventBus.getDefault().post(new StatsEvents.UpdateStatusChanged(isStillWorking));
         }
     }
@@ -11,6 +11,7 @@ import android.widget.TextView;
 
 import org.wordpress.android.R;
 import org.wordpress.android.models.Suggestion;
+import org.wordpress.android.ui.suggestion.util.SuggestionIndex;
 import org.wordpress.android.util.GravatarUtils;
 import org.wordpress.android.widgets.WPNetworkImageView;
 
@@ -21,7 +22,7 @@ public class SuggestionAdapter extends BaseAdapter implements Filterable {
     private final LayoutInflater mInflater;
     private Filter mSuggestionFilter;
     private List<Suggestion> mSuggestionList;
-    private List<Suggestion> mOrigSuggestionList;
+    private SuggestionIndex<Suggestion> mSuggestionIndex;
     private int mAvatarSz;
 
     public SuggestionAdapter(Context context) {
@@ -30,7 +31,11 @@ public class SuggestionAdapter extends BaseAdapter implements Filterable {
     }
 
     public void setSuggestionList(List<Suggestion> suggestionList) {
-        mOrigSuggestionList = suggestionList;
+        setSuggestionIndex(SuggestionIndex.forSuggestions(suggestionList));
+    }
+
+    public void setSuggestionIndex(SuggestionIndex<Suggestion> suggestionIndex) {
+        mSuggestionIndex = suggestionIndex;
     }
 
     @Override
@@ -100,27 +105,27 @@ public class SuggestionAdapter extends BaseAdapter implements Filterable {
     }
 
     private class SuggestionFilter extends Filter {
+        // filtering always happens on the filter's own thread, so the positions can be reused
+        private final int[] mResultPositions = new int[SuggestionIndex.MAX_RESULTS];
+
         @Override
         protected FilterResults performFiltering(CharSequence constraint) {
             FilterResults results = new FilterResults();
+            SuggestionIndex<Suggestion> suggestionIndex = mSuggestionIndex;
 
-            if (mOrigSuggestionList == null) {
+            if (suggestionIndex == null) {
                 results.values = null;
                 results.count = 0;
             }
             else if (constraint == null || constraint.length() == 0) {
-                results.values = mOrigSuggestionList;
-                results.count = mOrigSuggestionList.size();
+                results.values = suggestionIndex.getItems();
+                results.count = suggestionIndex.size();
             }
             else {
-                List<Suggestion> nSuggestionList = new ArrayList<Suggestion>();
-
-                for (Suggestion suggestion : mOrigSuggestionList) {
-                    String lowerCaseConstraint = constraint.toString().toLowerCase();
-                    if (suggestion.getUserLogin().toLowerCase().startsWith(lowerCaseConstraint)
-                            || suggestion.getDisplayName().toLowerCase().startsWith(lowerCaseConstraint)
-                            || suggestion.getDisplayName().toLowerCase().contains(" " + lowerCaseConstraint))
-                        nSuggestionList.add(suggestion);
+                int numResults = suggestionIndex.query(constraint, mResultPositions);
+                List<Suggestion> nSuggestionList = new ArrayList<Suggestion>(numResults);
+                for (int i = 0; i < numResults; i++) {
+                    nSuggestionList.add(suggestionIndex.get(mResultPositions[i]));
                 }
 
                 results.values = nSuggestionList;
@@ -11,6 +11,7 @@ import android.widget.TextView;
 
 import org.wordpress.android.R;
 import org.wordpress.android.models.Tag;
+import org.wordpress.android.ui.suggestion.util.SuggestionIndex;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,14 +20,18 @@ public class TagSuggestionAdapter extends BaseAdapter implements Filterable {
     private final LayoutInflater mInflater;
     private Filter mTagFilter;
     private List<Tag> mTagList;
-    private List<Tag> mOrigTagList;
+    private SuggestionIndex<Tag> mTagIndex;
 
     public TagSuggestionAdapter(Context context) {
         mInflater = LayoutInflater.from(context);
     }
 
     public void setTagList(List<Tag> tagList) {
-        mOrigTagList = tagList;
+        setTagIndex(SuggestionIndex.forTags(tagList));
+    }
+
+    public void setTagIndex(SuggestionIndex<Tag> tagIndex) {
+        mTagIndex = tagIndex;
     }
 
     @Override
@@ -89,26 +94,27 @@ public class TagSuggestionAdapter extends BaseAdapter implements Filterable {
     }
 
     private class TagFilter extends Filter {
+        // filtering always happens on the filter's own thread, so the positions can be reused
+        private final int[] mResultPositions = new int[SuggestionIndex.MAX_RESULTS];
+
         @Override
         protected FilterResults performFiltering(CharSequence constraint) {
             FilterResults results = new FilterResults();
+            SuggestionIndex<Tag> tagIndex = mTagIndex;
 
-            if (mOrigTagList == null) {
+            if (tagIndex == null) {
                 results.values = null;
                 results.count = 0;
             }
             else if (constraint == null || constraint.length() == 0) {
-                results.values = mOrigTagList;
-                results.count = mOrigTagList.size();
+                results.values = tagIndex.getItems();
+                results.count = tagIndex.size();
             }
             else {
-                List<Tag> nTagList = new ArrayList<Tag>();
-
-                for (Tag tag : mOrigTagList) {
-                    String lowerCaseConstraint = constraint.toString().toLowerCase();
-                    if (tag.getTag().toLowerCase().startsWith(lowerCaseConstraint)
-                            || tag.getTag().toLowerCase().contains(" " + lowerCaseConstraint))
-                        nTagList.add(tag);
+                int numResults = tagIndex.query(constraint, mResultPositions);
+                List<Tag> nTagList = new ArrayList<Tag>(numResults);
+                for (int i = 0; i < numResults; i++) {
+                    nTagList.add(tagIndex.get(mResultPositions[i]));
                 }
 
                 results.values = nTagList;
@@ -14,7 +14,10 @@ import org.wordpress.android.WordPress;
 import org.wordpress.android.datasets.SuggestionTable;
 import org.wordpress.android.models.Suggestion;
 import org.wordpress.android.models.Tag;
+import org.wordpress.android.ui.suggestion.util.SuggestionUtils;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutor;
+import org.wordpress.android.util.BackgroundExecutor.Lane;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -74,7 +77,7 @@ public class SuggestionService extends Service {
     }
 
     private void handleSuggestionsUpdatedResponse(final int remoteBlogId, final JSONObject jsonObject) {
-        new Thread() {
+        BackgroundExecutor.execute(Lane.DB_WRITE, new Runnable() {
             @Override
             public void run() {
                 if (jsonObject == null) {
@@ -85,10 +88,11 @@ public class SuggestionService extends Service {
                 List<Suggestion> suggestions = Suggestion.suggestionListFromJSON(jsonSuggestions, remoteBlogId);
                 if (suggestions != null) {
                     SuggestionTable.insertSuggestionsForSite(remoteBlogId, suggestions);
+                    SuggestionUtils.updateSuggestionIndex(remoteBlogId);
                     EventBus.getDefault().post(new SuggestionEvents.SuggestionNameListUpdated(remoteBlogId));
                 }
             }
-        }.start();
+        });
     }
 
     private void removeSiteIdFromSuggestionRequestsAndStopServiceIfNecessary(Integer remoteBlogId) {
@@ -127,7 +131,7 @@ public class SuggestionService extends Service {
     }
 
     private void handleTagsUpdatedResponse(final int remoteBlogId, final JSONObject jsonObject) {
-        new Thread() {
+        BackgroundExecutor.execute(Lane.DB_WRITE, new Runnable() {
             @Override
             public void run() {
                 if (jsonObject == null) {
@@ -138,10 +142,11 @@ public class SuggestionService extends Service {
                 List<Tag> tags = Tag.tagListFromJSON(jsonTags, remoteBlogId);
                 if (tags != null) {
                     SuggestionTable.insertTagsForSite(remoteBlogId, tags);
+                    SuggestionUtils.updateTagIndex(remoteBlogId);
                     EventBus.getDefault().post(new SuggestionEvents.SuggestionTagListUpdated(remoteBlogId));
                 }
             }
-        }.start();
+        });
     }
 
     private void removeSiteIdFromTagRequestsAndStopServiceIfNecessary(Integer remoteBlogId) {
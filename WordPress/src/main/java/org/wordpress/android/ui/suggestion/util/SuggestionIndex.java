@@ -0,0 +1,200 @@
+package org.wordpress.android.ui.suggestion.util;
+
+import org.wordpress.android.models.Suggestion;
+import org.wordpress.android.models.Tag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prefix index over a site's mention suggestions or tags, so filtering them as the user types
+ * doesn't have to lower-case and scan every item. Each item is indexed under case-folded keys -
+ * for suggestions the user login, the display name and each word in it, for tags the tag and
+ * each word in it - which are sorted so the keys starting with a prefix are found by binary
+ * search. Indexes are immutable; a new one is built when a site's suggestions are refreshed.
+ */
+public class SuggestionIndex<T> {
+    public static final int MAX_RESULTS = 50;
+
+    private final List<T> mItems;
+    private final String[] mKeys;
+    private final int[] mKeyItems;  // index in mItems of the item each key belongs to
+
+    private SuggestionIndex(List<T> items, List<IndexKey> keys) {
+        mItems = Collections.unmodifiableList(new ArrayList<>(items));
+        Collections.sort(keys);
+        mKeys = new String[keys.size()];
+        mKeyItems = new int[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            mKeys[i] = keys.get(i).mKey;
+            mKeyItems[i] = keys.get(i).mItem;
+        }
+    }
+
+    public static SuggestionIndex<Suggestion> forSuggestions(List<Suggestion> suggestions) {
+        List<IndexKey> keys = new ArrayList<>();
+        if (suggestions == null) {
+            suggestions = Collections.emptyList();
+        }
+        for (int i = 0; i < suggestions.size(); i++) {
+            addKey(keys, suggestions.get(i).getUserLogin(), 0, i);
+            addKeyForEachWord(keys, suggestions.get(i).getDisplayName(), i);
+        }
+        return new SuggestionIndex<>(suggestions, keys);
+    }
+
+    public static SuggestionIndex<Tag> forTags(List<Tag> tags) {
+        List<IndexKey> keys = new ArrayList<>();
+        if (tags == null) {
+            tags = Collections.emptyList();
+        }
+        for (int i = 0; i < tags.size(); i++) {
+            addKeyForEachWord(keys, tags.get(i).getTag(), i);
+        }
+        return new SuggestionIndex<>(tags, keys);
+    }
+
+    public int size() {
+        return mItems.size();
+    }
+
+    public T get(int position) {
+        return mItems.get(position);
+    }
+
+    public List<T> getItems() {
+        return mItems;
+    }
+
+    /*
+     * fills results with the positions of the first items (in the order they were indexed) which
+     * have a key starting with the passed prefix, ignoring case, and returns how many there are.
+     * At most results.length are returned, and nothing is allocated.
+     */
+    public int query(CharSequence prefix, int[] results) {
+        int numResults = 0;
+        if (results.length == 0) {
+            return numResults;
+        }
+        for (int i = findFirstKey(prefix); i < mKeys.length && startsWith(mKeys[i], prefix); i++) {
+            int item = mKeyItems[i];
+            if (numResults == results.length && item > results[numResults - 1]) {
+                continue;
+            }
+
+            // results are kept sorted, which also tells us whether this item is already in them
+            int insertAt = binarySearch(results, numResults, item);
+            if (insertAt < 0) {
+                insertAt = -(insertAt + 1);
+                int numToMove = Math.min(numResults, results.length - 1) - insertAt;
+                if (numToMove > 0) {
+                    System.arraycopy(results, insertAt, results, insertAt + 1, numToMove);
+                }
+                results[insertAt] = item;
+                numResults = Math.min(numResults + 1, results.length);
+            }
+        }
+        return numResults;
+    }
+
+    /*
+     * returns the index of the first key which is >= the case-folded prefix
+     */
+    private int findFirstKey(CharSequence prefix) {
+        int low = 0;
+        int high = mKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareToFolded(mKeys[mid], prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compareToFolded(String key, CharSequence prefix) {
+        int length = Math.min(key.length(), prefix.length());
+        for (int i = 0; i < length; i++) {
+            char keyChar = key.charAt(i);
+            char prefixChar = Character.toLowerCase(prefix.charAt(i));
+            if (keyChar != prefixChar) {
+                return keyChar - prefixChar;
+            }
+        }
+        return key.length() - prefix.length();
+    }
+
+    private static boolean startsWith(String key, CharSequence prefix) {
+        if (key.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (key.charAt(i) != Character.toLowerCase(prefix.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int binarySearch(int[] values, int length, int value) {
+        int low = 0;
+        int high = length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else if (values[mid] > value) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /*
+     * indexes the whole text, and what follows each space in it so words other than the first
+     * can be matched
+     */
+    private static void addKeyForEachWord(List<IndexKey> keys, String text, int item) {
+        if (text == null) {
+            return;
+        }
+        addKey(keys, text, 0, item);
+        for (int i = 1; i < text.length(); i++) {
+            if (text.charAt(i - 1) == ' ') {
+                addKey(keys, text, i, item);
+            }
+        }
+    }
+
+    private static void addKey(List<IndexKey> keys, String text, int start, int item) {
+        if (text == null || start >= text.length()) {
+            return;
+        }
+        // fold one char at a time, the same way prefixes are folded when querying
+        char[] folded = new char[text.length() - start];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Character.toLowerCase(text.charAt(start + i));
+        }
+        keys.add(new IndexKey(new String(folded), item));
+    }
+
+    private static class IndexKey implements Comparable<IndexKey> {
+        private final String mKey;
+        private final int mItem;
+
+        IndexKey(String key, int item) {
+            mKey = key;
+            mItem = item;
+        }
+
+        @Override
+        public int compareTo(IndexKey another) {
+            return mKey.compareTo(another.mKey);
+        }
+    }
+}
@@ -10,9 +10,16 @@ import org.wordpress.android.models.Tag;
 import org.wordpress.android.ui.suggestion.adapters.SuggestionAdapter;
 import org.wordpress.android.ui.suggestion.adapters.TagSuggestionAdapter;
 
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class SuggestionUtils {
+    // each site's suggestion and tag indexes, built when they're first needed and replaced
+    // when SuggestionService refreshes the site
+    private static final ConcurrentMap<Integer, SuggestionIndex<Suggestion>> sSuggestionIndexes =
+            new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Integer, SuggestionIndex<Tag>> sTagIndexes =
+            new ConcurrentHashMap<>();
 
     public static SuggestionAdapter setupSuggestions(final int remoteBlogId, Context context, SuggestionServiceConnectionManager serviceConnectionManager) {
         Blog blog = WordPress.wpDB.getBlogForDotComBlogId(Integer.toString(remoteBlogId));
@@ -28,12 +35,12 @@ public class SuggestionUtils {
 
         SuggestionAdapter suggestionAdapter = new SuggestionAdapter(context);
 
-        List<Suggestion> suggestions = SuggestionTable.getSuggestionsForSite(remoteBlogId);
+        SuggestionIndex<Suggestion> suggestionIndex = getSuggestionIndex(remoteBlogId);
         // if the suggestions are not stored yet, we want to trigger an update for it
-        if (suggestions.isEmpty()) {
+        if (suggestionIndex.size() == 0) {
             serviceConnectionManager.bindToService();
         }
-        suggestionAdapter.setSuggestionList(suggestions);
+        suggestionAdapter.setSuggestionIndex(suggestionIndex);
         return suggestionAdapter;
     }
 
@@ -51,12 +58,50 @@ public class SuggestionUtils {
 
         TagSuggestionAdapter tagSuggestionAdapter = new TagSuggestionAdapter(context);
 
-        List<Tag> tags = SuggestionTable.getTagsForSite(remoteBlogId);
+        SuggestionIndex<Tag> tagIndex = getTagIndex(remoteBlogId);
         // if the tags are not stored yet, we want to trigger an update for it
-        if (tags.isEmpty()) {
+        if (tagIndex.size() == 0) {
             serviceConnectionManager.bindToService();
         }
-        tagSuggestionAdapter.setTagList(tags);
+        tagSuggestionAdapter.setTagIndex(tagIndex);
         return tagSuggestionAdapter;
     }
+
+    public static SuggestionIndex<Suggestion> getSuggestionIndex(int remoteBlogId) {
+        SuggestionIndex<Suggestion> suggestionIndex = sSuggestionIndexes.get(remoteBlogId);
+        if (suggestionIndex == null) {
+            suggestionIndex = SuggestionIndex.forSuggestions(SuggestionTable.getSuggestionsForSite(remoteBlogId));
+            // an index built by updateSuggestionIndex() in the meantime is newer than this one
+            SuggestionIndex<Suggestion> existing = sSuggestionIndexes.putIfAbsent(remoteBlogId, suggestionIndex);
+            if (existing != null) {
+                suggestionIndex = existing;
+            }
+        }
+        return suggestionIndex;
+    }
+
+    public static SuggestionIndex<Tag> getTagIndex(int remoteBlogId) {
+        SuggestionIndex<Tag> tagIndex = sTagIndexes.get(remoteBlogId);
+        if (tagIndex == null) {
+            tagIndex = SuggestionIndex.forTags(SuggestionTable.getTagsForSite(remoteBlogId));
+            SuggestionIndex<Tag> existing = sTagIndexes.putIfAbsent(remoteBlogId, tagIndex);
+            if (existing != null) {
+                tagIndex = existing;
+            }
+        }
+        return tagIndex;
+    }
+
+    /*
+     * called from a background thread once a site's suggestions have been stored - the index is
+     * built from the table so its items are in the same order as when it's built lazily above
+     */
+    public static void updateSuggestionIndex(int remoteBlogId) {
+        sSuggestionIndexes.put(remoteBlogId,
+                SuggestionIndex.forSuggestions(SuggestionTable.getSuggestionsForSite(remoteBlogId)));
+    }
+
+    public static void updateTagIndex(int remoteBlogId) {
+        sTagIndexes.put(remoteBlogId, SuggestionIndex.forTags(SuggestionTable.getTagsForSite(remoteBlogId)));
+    }
 }
@@ -0,0 +1,188 @@
+package org.wordpress.android.util;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * App-wide executor for background work which would otherwise start its own thread. Work is split into lanes by
+ * what it does, and each lane runs a bounded number of tasks at once in the order they were queued - so a burst of
+ * responses to store can't start a thread each and contend for the database, and a slow lane doesn't hold up the
+ * others. Threads are only kept while a lane has work.
+ *
+ * Reader writes are serialized by ReaderDatabaseWriter rather than here, so reader responses are handled in the
+ * parse lane and may be parsed two at a time while their writes are still committed one batch at a time. The
+ * db-write lane is for writes to other databases, which have nothing else serializing them.
+ */
+public class BackgroundExecutor {
+    public enum Lane {
+        DB_WRITE("db-write", 1, Process.THREAD_PRIORITY_BACKGROUND),  // writes to non-reader databases
+        PARSE("parse", 2, Process.THREAD_PRIORITY_BACKGROUND),        // parsing, including reader responses
+        RENDER("render", 2, Process.THREAD_PRIORITY_DEFAULT),         // preparing content the user is waiting on
+        NETWORK("network", 4, Process.THREAD_PRIORITY_BACKGROUND);    // work which waits on blocking requests
+
+        private final String mName;
+        private final int mMaxThreads;
+        private final int mThreadPriority;
+
+        Lane(String name, int maxThreads, int threadPriority) {
+            mName = name;
+            mMaxThreads = maxThreads;
+            mThreadPriority = threadPriority;
+        }
+    }
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final LaneExecutor[] sExecutors = new LaneExecutor[Lane.values().length];
+    static {
+        for (Lane lane : Lane.values()) {
+            sExecutors[lane.ordinal()] = new LaneExecutor(lane);
+        }
+    }
+
+    private BackgroundExecutor() {
+        throw new AssertionError();
+    }
+
+    public static void execute(Lane lane, Runnable runnable) {
+        sExecutors[lane.ordinal()].execute(new TimedTask(sExecutors[lane.ordinal()], runnable));
+    }
+
+    /*
+     * number of tasks waiting for a thread in the passed lane
+     */
+    public static int getQueueDepth(Lane lane) {
+        return sExecutors[lane.ordinal()].getQueue().size();
+    }
+
+    /*
+     * average time tasks in the passed lane spent waiting in the queue before they ran
+     */
+    public static long getAverageWaitMs(Lane lane) {
+        return sExecutors[lane.ordinal()].getAverageWaitMs();
+    }
+
+    public static long getMaxWaitMs(Lane lane) {
+        return sExecutors[lane.ordinal()].mMaxWaitMs.get();
+    }
+
+    /*
+     * average time tasks in the passed lane took to run
+     */
+    public static long getAverageRunMs(Lane lane) {
+        return sExecutors[lane.ordinal()].getAverageRunMs();
+    }
+
+    public static long getMaxRunMs(Lane lane) {
+        return sExecutors[lane.ordinal()].mMaxRunMs.get();
+    }
+
+    /*
+     * logs the queue and run times of each lane which has run anything
+     */
+    public static void logStats() {
+        for (LaneExecutor executor : sExecutors) {
+            long numExecuted = executor.mNumExecuted.get();
+            if (numExecuted > 0) {
+                AppLog.d(T.PROFILING, "background executor > " + executor.mLane.mName
+                        + " ran " + numExecuted
+                        + ", wait avg " + executor.getAverageWaitMs() + "ms max " + executor.mMaxWaitMs.get() + "ms"
+                        + ", run avg " + executor.getAverageRunMs() + "ms max " + executor.mMaxRunMs.get() + "ms"
+                        + ", queued " + executor.getQueue().size());
+            }
+        }
+    }
+
+    private static class LaneExecutor extends ThreadPoolExecutor {
+        private final Lane mLane;
+        private final AtomicLong mNumExecuted = new AtomicLong();
+        private final AtomicLong mTotalWaitMs = new AtomicLong();
+        private final AtomicLong mMaxWaitMs = new AtomicLong();
+        private final AtomicLong mTotalRunMs = new AtomicLong();
+        private final AtomicLong mMaxRunMs = new AtomicLong();
+
+        LaneExecutor(Lane lane) {
+            super(lane.mMaxThreads, lane.mMaxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new LaneThreadFactory(lane));
+            allowCoreThreadTimeOut(true);
+            mLane = lane;
+        }
+
+        long getAverageWaitMs() {
+            long numExecuted = mNumExecuted.get();
+            return numExecuted > 0 ? mTotalWaitMs.get() / numExecuted : 0;
+        }
+
+        long getAverageRunMs() {
+            long numExecuted = mNumExecuted.get();
+            return numExecuted > 0 ? mTotalRunMs.get() / numExecuted : 0;
+        }
+
+        void recordTask(long waitMs, long runMs) {
+            mNumExecuted.incrementAndGet();
+            mTotalWaitMs.addAndGet(waitMs);
+            mTotalRunMs.addAndGet(runMs);
+            recordMax(mMaxWaitMs, waitMs);
+            recordMax(mMaxRunMs, runMs);
+        }
+
+        private static void recordMax(AtomicLong max, long value) {
+            long current;
+            do {
+                current = max.get();
+            } while (value > current && !max.compareAndSet(current, value));
+        }
+    }
+
+    private static class TimedTask implements Runnable {
+        private final LaneExecutor mExecutor;
+        private final Runnable mRunnable;
+        private final long mEnqueuedAt;
+
+        TimedTask(LaneExecutor executor, Runnable runnable) {
+            mExecutor = executor;
+            mRunnable = runnable;
+            mEnqueuedAt = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void run() {
+            long startedAt = SystemClock.elapsedRealtime();
+            try {
+                mRunnable.run();
+            } finally {
+                mExecutor.recordTask(startedAt - mEnqueuedAt, SystemClock.elapsedRealtime() - startedAt);
+            }
+        }
+    }
+
+    private static class LaneThreadFactory implements ThreadFactory {
+        private final Lane mLane;
+        private final AtomicInteger mThreadNumber = new AtomicInteger(1);
+
+        LaneThreadFactory(Lane lane) {
+            mLane = lane;
+        }
+
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(mLane.mThreadPriority);
+                    runnable.run();
+                }
+            }, mLane.mName + "-" + mThreadNumber.getAndIncrement());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.xmlrpc.android;
 
+import android.content.ContentValues;
 import android.content.Context;
 import android.net.Uri;
 import android.os.AsyncTask;
@@ -38,8 +39,6 @@ import org.wordpress.android.util.MapUtils;
 import org.wordpress.android.util.helpers.MediaFile;
 import org.xmlpull.v1.XmlPullParserException;
 
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -169,15 +168,22 @@ public class ApiHelper {
         }
 
         protected void onPostExecute(Object result) {
-            if (result != null && result instanceof HashMap) {
-                Map<?, ?> postFormats = (HashMap<?, ?>) result;
-                if (postFormats.size() > 0) {
-                    Gson gson = new Gson();
-                    String postFormatsJson = gson.toJson(postFormats);
-                    if (postFormatsJson != null) {
-                        if (mBlog.bsetPostFormats(postFormatsJson)) {
-                            WordPress.wpDB.saveBlog(mBlog);
-                        }
+            updatePostFormats(mBlog, result);
+        }
+    }
+
+    /*
+     * saves the result of a wp.getPostFormats call to the passed blog
+     */
+    public static void updatePostFormats(Blog blog, Object result) {
+        if (result != null && result instanceof HashMap) {
+            Map<?, ?> postFormats = (HashMap<?, ?>) result;
+            if (postFormats.size() > 0) {
+                Gson gson = new Gson();
+                String postFormatsJson = gson.toJson(postFormats);
+                if (postFormatsJson != null) {
+                    if (blog.bsetPostFormats(postFormatsJson)) {
+                        WordPress.wpDB.saveBlog(blog);
                     }
                 }
             }
@@ -277,17 +283,43 @@ public class ApiHelper {
 
             boolean alreadyTrackedAsJetpackBlog = mBlog.isJetpackPowered();
 
+            // these calls don't depend on each other, so they're sent together in a single
+            // system.multicall request (or one after another if multicall isn't supported)
+            XMLRPCBatch batch = new XMLRPCBatch(client, mBlog.getUri());
+            XMLRPCBatch.Call optionsCall = null;
+            XMLRPCBatch.Call postFormatsCall = null;
             if (!commentsOnly) {
                 // check the WP number if self-hosted
                 Map<String, String> hPost = ApiHelper.blogOptionsXMLRPCParameters;
-
                 Object[] vParams = {mBlog.getRemoteBlogId(),
                                     mBlog.getUsername(),
                                     mBlog.getPassword(),
                                     hPost};
+                optionsCall = batch.add(Method.GET_OPTIONS, vParams);
+
+                // get theme post formats
+                Object[] formatParams = {mBlog.getRemoteBlogId(), mBlog.getUsername(),
+                        mBlog.getPassword(), Param.SHOW_SUPPORTED_POST_FORMATS};
+                postFormatsCall = batch.add(Method.GET_POST_FORMATS, formatParams);
+            }
+
+            // Check if user is an admin
+            Object[] userParams = {mBlog.getRemoteBlogId(), mBlog.getUsername(), mBlog.getPassword()};
+            XMLRPCBatch.Call profileCall = batch.add(Method.GET_PROFILE, userParams);
+
+            // refresh the comments
+            Map<String, Object> hComments = new HashMap<String, Object>();
+            hComments.put("number", 30);
+            Object[] commentParams = {mBlog.getRemoteBlogId(), mBlog.getUsername(),
+                    mBlog.getPassword(), hComments};
+            XMLRPCBatch.Call commentsCall = batch.add(Method.GET_COMMENTS, commentParams);
+
+            batch.execute();
+
+            if (!commentsOnly) {
                 Object versionResult = null;
                 try {
-                    versionResult = client.call(Method.GET_OPTIONS, vParams);
+                    versionResult = optionsCall.getResult();
                 } catch (ClassCastException cce) {
                     setError(ErrorType.INVALID_RESULT, cce.getMessage(), cce);
                     return false;
@@ -296,9 +328,14 @@ public class ApiHelper {
                     return false;
                 }
 
-                if (versionResult != null) {
-                    Map<?, ?> blogOptions = (HashMap<?, ?>) versionResult;
-                    ApiHelper.updateBlogOptions(mBlog, blogOptions);
+                try {
+                    if (versionResult != null) {
+                        Map<?, ?> blogOptions = (HashMap<?, ?>) versionResult;
+                        ApiHelper.updateBlogOptions(mBlog, blogOptions);
+                    }
+                } catch (ClassCastException cce) {
+                    setError(ErrorType.INVALID_RESULT, cce.getMessage(), cce);
+                    return false;
                 }
 
                 if (mBlog.isJetpackPowered() && !alreadyTrackedAsJetpackBlog) {
@@ -306,8 +343,12 @@ public class ApiHelper {
                     AnalyticsUtils.trackWithBlogDetails(AnalyticsTracker.Stat.SIGNED_INTO_JETPACK, mBlog);
                 }
 
-                // get theme post formats
-                new GetPostFormatsTask().execute(mBlog);
+                try {
+                    updatePostFormats(mBlog, postFormatsCall.getResult());
+                } catch (Exception e) {
+                    // post formats are optional, so don't fail the refresh because of them
+                    AppLog.e(T.API, "Unable to get post formats", e);
+                }
 
                 //Update Stats widgets if necessary
                 String currentBlogID = String.valueOf(mBlog.getRemoteBlogId());
@@ -318,10 +359,8 @@ public class ApiHelper {
                 }
             }
 
-            // Check if user is an admin
-            Object[] userParams = {mBlog.getRemoteBlogId(), mBlog.getUsername(), mBlog.getPassword()};
             try {
-                Map<String, Object> userInfos = (HashMap<String, Object>) client.call(Method.GET_PROFILE, userParams);
+                Map<String, Object> userInfos = (HashMap<String, Object>) profileCall.getResult();
                 updateBlogAdmin(userInfos);
             } catch (ClassCastException cce) {
                 setError(ErrorType.INVALID_RESULT, cce.getMessage(), cce);
@@ -334,20 +373,13 @@ public class ApiHelper {
                 setError(ErrorType.NETWORK_XMLRPC, e.getMessage(), e);
             }
 
-            // refresh the comments
-            Map<String, Object> hPost = new HashMap<String, Object>();
-            hPost.put("number", 30);
-            Object[] commentParams = {mBlog.getRemoteBlogId(), mBlog.getUsername(),
-                    mBlog.getPassword(), hPost};
             try {
-                ApiHelper.refreshComments(mBlog, commentParams, new DatabasePersistCallback() {
-                    @Override
-                    public void onDataReadyToSave(List list) {
-                        int localBlogId = mBlog.getLocalTableBlogId();
-                        CommentTable.deleteCommentsForBlog(localBlogId);
-                        CommentTable.saveComments(localBlogId, (CommentList)list);
-                    }
-                });
+                CommentList comments = getCommentListFromXMLRPCResult((Object[]) commentsCall.getResult());
+                if (comments != null) {
+                    int localBlogId = mBlog.getLocalTableBlogId();
+                    CommentTable.deleteCommentsForBlog(localBlogId);
+                    CommentTable.saveComments(localBlogId, comments);
+                }
             } catch (Exception e) {
                 setError(ErrorType.NETWORK_XMLRPC, e.getMessage(), e);
                 return false;
@@ -419,54 +451,71 @@ public class ApiHelper {
         return numDeleted;
     }
 
-    public static CommentList refreshComments(Blog blog, Object[] commentParams, DatabasePersistCallback dbCallback)
-            throws XMLRPCException, IOException, XmlPullParserException {
-        if (blog == null) {
-            return null;
-        }
-        XMLRPCClientInterface client = XMLRPCFactory.instantiate(blog.getUri(), blog.getHttpuser(),
-                blog.getHttppassword());
-        Object[] result;
-        result = (Object[]) client.call(Method.GET_COMMENTS, commentParams);
+    /*
+     * members of wp.getComments structs that are used to create Comment objects
+     */
+    private static final XMLRPCSchema COMMENT_SCHEMA = new XMLRPCSchema()
+            .addString("content", "content")
+            .addString("status", "status")
+            .addLong("post_id", "post_id", 0)
+            .addLong("comment_id", "comment_id", 0)
+            .addString("author", "author")
+            .addString("author_url", "author_url")
+            .addString("author_email", "author_email")
+            .addString("post_title", "post_title")
+            .addDate("date_created_gmt", "date_created_gmt");
+
+    /*
+     * converts the result of a wp.getComments call to a list of comments, returns null if there are none
+     */
+    static CommentList getCommentListFromXMLRPCResult(Object[] result) {
+        return getCommentListFromValues(COMMENT_SCHEMA.toValuesList(result));
+    }
 
-        if (result.length == 0) {
+    private static CommentList getCommentListFromValues(List<ContentValues> valuesList) {
+        if (valuesList == null || valuesList.size() == 0) {
             return null;
         }
 
-        Map<?, ?> contentHash;
-        long commentID, postID;
-        String authorName, content, status, authorEmail, authorURL, postTitle, pubDate;
-        java.util.Date date;
         CommentList comments = new CommentList();
-
-        for (int ctr = 0; ctr < result.length; ctr++) {
-            contentHash = (Map<?, ?>) result[ctr];
-            content = contentHash.get("content").toString();
-            status = contentHash.get("status").toString();
-            postID = Long.parseLong(contentHash.get("post_id").toString());
-            commentID = Long.parseLong(contentHash.get("comment_id").toString());
-            authorName = contentHash.get("author").toString();
-            authorURL = contentHash.get("author_url").toString();
-            authorEmail = contentHash.get("author_email").toString();
-            postTitle = contentHash.get("post_title").toString();
-            date = (java.util.Date) contentHash.get("date_created_gmt");
-            pubDate = DateTimeUtils.iso8601FromDate(date);
+        for (ContentValues values : valuesList) {
+            Long dateCreatedGmt = values.getAsLong("date_created_gmt");
+            String pubDate = DateTimeUtils.iso8601FromDate(
+                    dateCreatedGmt != null ? new java.util.Date(dateCreatedGmt) : null);
 
             Comment comment = new Comment(
-                    postID,
-                    commentID,
-                    authorName,
+                    values.getAsLong("post_id"),
+                    values.getAsLong("comment_id"),
+                    values.getAsString("author"),
                     pubDate,
-                    content,
-                    status,
-                    postTitle,
-                    authorURL,
-                    authorEmail,
+                    values.getAsString("content"),
+                    values.getAsString("status"),
+                    values.getAsString("post_title"),
+                    values.getAsString("author_url"),
+                    values.getAsString("author_email"),
                     null);
 
             comments.add(comment);
         }
 
+        return comments;
+    }
+
+    public static CommentList refreshComments(Blog blog, Object[] commentParams, DatabasePersistCallback dbCallback)
+            throws XMLRPCException, IOException, XmlPullParserException {
+        if (blog == null) {
+            return null;
+        }
+        XMLRPCClientInterface client = XMLRPCFactory.instantiate(blog.getUri(), blog.getHttpuser(),
+                blog.getHttppassword());
+        // decode the comments straight from the response rather than through a map per comment
+        List<ContentValues> result = client.callForValues(Method.GET_COMMENTS, commentParams, COMMENT_SCHEMA);
+
+        CommentList comments = getCommentListFromValues(result);
+        if (comments == null) {
+            return null;
+        }
+
         if (dbCallback != null){
             dbCallback.onDataReadyToSave(comments);
         }
@@ -689,8 +738,7 @@ public class ApiHelper {
         @Override
         protected MediaFile doInBackground(List<?>... params) {
             List<?> arguments = params[0];
-            WordPress.currentBlog = (Blog) arguments.get(0);
-            Blog blog = WordPress.currentBlog;
+            Blog blog = (Blog) arguments.get(0);
             if (blog == null) {
                 setError(ErrorType.INVALID_CURRENT_BLOG, "ApiHelper - current blog is null");
                 return null;
@@ -720,8 +768,7 @@ public class ApiHelper {
             }
 
             if (results != null && blogId != null) {
-                boolean isDotCom = (WordPress.getCurrentBlog() != null && WordPress.getCurrentBlog().isDotcomFlag());
-                MediaFile mediaFile = new MediaFile(blogId, results, isDotCom);
+                MediaFile mediaFile = new MediaFile(blogId, results, blog.isDotcomFlag());
                 WordPress.wpDB.saveMediaFile(mediaFile);
                 return mediaFile;
             } else {
@@ -760,8 +807,7 @@ public class ApiHelper {
         @Override
         protected Map<?, ?> doInBackground(List<?>... params) {
             List<?> arguments = params[0];
-            WordPress.currentBlog = (Blog) arguments.get(0);
-            Blog blog = WordPress.currentBlog;
+            Blog blog = (Blog) arguments.get(0);
 
             if (blog == null) {
                 setError(ErrorType.INVALID_CURRENT_BLOG, "current blog is null");
@@ -784,22 +830,20 @@ public class ApiHelper {
                     data
             };
 
-            final File tempFile = getTempFile(mContext);
-
             if (client instanceof XMLRPCClient) {
                 ((XMLRPCClient) client).setOnBytesUploadedListener(new XMLRPCClient.OnBytesUploadedListener() {
                     @Override
-                    public void onBytesUploaded(long uploadedBytes) {
+                    public void onBytesUploaded(long uploadedBytes, long totalBytes) {
                         if (isCancelled()) {
                             // Stop the upload if the task has been cancelled
                             ((XMLRPCClient) client).cancel();
                         }
 
-                        if (tempFile == null || tempFile.length() == 0) {
+                        if (totalBytes <= 0) {
                             return;
                         }
 
-                        float fractionUploaded = uploadedBytes / (float) tempFile.length();
+                        float fractionUploaded = uploadedBytes / (float) totalBytes;
                         mCallback.onProgressUpdate(fractionUploaded);
                     }
                 });
@@ -811,7 +855,7 @@ public class ApiHelper {
 
             Map<?, ?> resultMap;
             try {
-                resultMap = (HashMap<?, ?>) client.call(Method.UPLOAD_FILE, apiParams, tempFile);
+                resultMap = (HashMap<?, ?>) client.call(Method.UPLOAD_FILE, apiParams);
             } catch (ClassCastException cce) {
                 setError(ErrorType.INVALID_RESULT, null, cce);
                 return null;
@@ -844,17 +888,6 @@ public class ApiHelper {
             return null;
         }
 
-        // Create a temp file for media upload
-        private File getTempFile(Context context) {
-            String tempFileName = "wp-" + System.currentTimeMillis();
-            try {
-                context.openFileOutput(tempFileName, Context.MODE_PRIVATE);
-            } catch (FileNotFoundException e) {
-                return null;
-            }
-            return context.getFileStreamPath(tempFileName);
-        }
-
         @Override
         protected void onPostExecute(Map<?, ?> result) {
             if (mCallback != null) {
@@ -0,0 +1,182 @@
+package org.xmlrpc.android;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combines independent XML-RPC calls into a single system.multicall request so they cost one
+ * round-trip rather than one each. Each call's result (or fault) is handed back through its
+ * own Call object. Falls back to making the calls one after another when the endpoint doesn't
+ * support system.multicall.
+ */
+public class XMLRPCBatch {
+    public static final String METHOD_MULTICALL = "system.multicall";
+
+    private static final String KEY_METHOD_NAME = "methodName";
+    private static final String KEY_PARAMS = "params";
+    private static final String KEY_FAULT_CODE = "faultCode";
+    private static final String KEY_FAULT_STRING = "faultString";
+
+    // endpoints known to support (true) or not support (false) system.multicall
+    private static final Map<String, Boolean> sMulticallSupport =
+            Collections.synchronizedMap(new HashMap<String, Boolean>());
+
+    private final XMLRPCClientInterface mClient;
+    private final String mEndpoint;
+    private final List<Call> mCalls = new ArrayList<>();
+
+    public static class Call {
+        private final String mMethod;
+        private final Object[] mParams;
+        private Object mResult;
+        private Exception mError;
+
+        private Call(String method, Object[] params) {
+            mMethod = method;
+            mParams = params;
+        }
+
+        public String getMethod() {
+            return mMethod;
+        }
+
+        public boolean isSuccess() {
+            return mError == null;
+        }
+
+        /*
+         * returns the result of this call, or throws the exception the call failed with
+         */
+        public Object getResult() throws XMLRPCException, IOException, XmlPullParserException {
+            if (mError instanceof XMLRPCException) {
+                throw (XMLRPCException) mError;
+            } else if (mError instanceof IOException) {
+                throw (IOException) mError;
+            } else if (mError instanceof XmlPullParserException) {
+                throw (XmlPullParserException) mError;
+            } else if (mError instanceof RuntimeException) {
+                throw (RuntimeException) mError;
+            } else if (mError != null) {
+                throw new XMLRPCException(mError);
+            }
+            return mResult;
+        }
+    }
+
+    public XMLRPCBatch(XMLRPCClientInterface client, URI uri) {
+        mClient = client;
+        mEndpoint = (uri != null ? uri.toString() : "");
+    }
+
+    /*
+     * records whether the passed endpoint advertises system.multicall in its system.listMethods response
+     */
+    public static void setMulticallSupported(String endpoint, boolean isSupported) {
+        if (endpoint != null) {
+            sMulticallSupport.put(endpoint, isSupported);
+        }
+    }
+
+    /*
+     * endpoints are assumed to support system.multicall (WordPress always has) until we learn otherwise
+     */
+    public static boolean isMulticallSupported(String endpoint) {
+        Boolean isSupported = sMulticallSupport.get(endpoint);
+        return isSupported == null || isSupported;
+    }
+
+    public Call add(String method, Object[] params) {
+        Call call = new Call(method, params);
+        mCalls.add(call);
+        return call;
+    }
+
+    /*
+     * makes all calls added to this batch - doesn't throw, the outcome of each call is
+     * available through its Call object
+     */
+    public void execute() {
+        if (mCalls.size() == 0) {
+            return;
+        }
+        if (mCalls.size() == 1 || !isMulticallSupported(mEndpoint)) {
+            executeSequentially();
+            return;
+        }
+
+        Object[] multicallParams = new Object[mCalls.size()];
+        for (int i = 0; i < mCalls.size(); i++) {
+            Map<String, Object> struct = new HashMap<>();
+            struct.put(KEY_METHOD_NAME, mCalls.get(i).mMethod);
+            struct.put(KEY_PARAMS, mCalls.get(i).mParams != null ? mCalls.get(i).mParams : new Object[0]);
+            multicallParams[i] = struct;
+        }
+
+        Object response;
+        try {
+            response = mClient.call(METHOD_MULTICALL, new Object[]{multicallParams});
+        } catch (XMLRPCFault | XMLRPCHttpException | XmlPullParserException e) {
+            // the multicall itself was rejected - either the server doesn't support it, or a host or
+            // security plugin blocks it and answers with an error status or page
+            AppLog.w(T.API, "system.multicall failed, falling back to sequential calls - " + e.getMessage());
+            setMulticallSupported(mEndpoint, false);
+            executeSequentially();
+            return;
+        } catch (Exception e) {
+            // network error - the individual calls would fail the same way
+            for (Call call : mCalls) {
+                call.mError = e;
+            }
+            return;
+        }
+
+        if (!(response instanceof Object[]) || ((Object[]) response).length != mCalls.size()) {
+            AppLog.w(T.API, "Unexpected system.multicall response, falling back to sequential calls");
+            setMulticallSupported(mEndpoint, false);
+            executeSequentially();
+            return;
+        }
+
+        Object[] results = (Object[]) response;
+        for (int i = 0; i < results.length; i++) {
+            Call call = mCalls.get(i);
+            Object result = results[i];
+            if (result instanceof Object[] && ((Object[]) result).length > 0) {
+                // successful results are wrapped in a single-element array
+                call.mResult = ((Object[]) result)[0];
+            } else if (result instanceof Map && ((Map<?, ?>) result).containsKey(KEY_FAULT_CODE)) {
+                Map<?, ?> fault = (Map<?, ?>) result;
+                int faultCode;
+                try {
+                    faultCode = Integer.parseInt(String.valueOf(fault.get(KEY_FAULT_CODE)));
+                } catch (NumberFormatException e) {
+                    faultCode = 0;
+                }
+                XMLRPCFault xmlrpcFault = new XMLRPCFault(String.valueOf(fault.get(KEY_FAULT_STRING)), faultCode);
+                XMLRPCClient.broadcastFault(call.mMethod, xmlrpcFault);
+                call.mError = xmlrpcFault;
+            } else {
+                call.mError = new XMLRPCException("Bad system.multicall response for " + call.mMethod);
+            }
+        }
+    }
+
+    private void executeSequentially() {
+        for (Call call : mCalls) {
+            try {
+                call.mResult = mClient.call(call.mMethod, call.mParams);
+            } catch (Exception e) {
+                call.mError = e;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.xmlrpc.android;
 
+import android.content.ContentValues;
 import android.content.Context;
 import android.text.TextUtils;
 import android.util.Xml;
@@ -10,8 +11,6 @@ import org.apache.http.HttpStatus;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.conn.scheme.Scheme;
-import org.apache.http.entity.FileEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.DefaultHttpClient;
@@ -34,7 +33,6 @@ import org.xmlrpc.android.ApiHelper.Method;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -43,12 +41,13 @@ import java.io.SequenceInputStream;
 import java.io.StringWriter;
 import java.net.URI;
 import java.net.URL;
-import java.security.GeneralSecurityException;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.net.ssl.SSLHandshakeException;
 import javax.net.ssl.SSLPeerUnverifiedException;
@@ -66,7 +65,7 @@ public class XMLRPCClient implements XMLRPCClientInterface {
     public static final int DEFAULT_SOCKET_TIMEOUT_MS = 60000;
 
     public interface OnBytesUploadedListener {
-        public void onBytesUploaded(long uploadedBytes);
+        public void onBytesUploaded(long uploadedBytes, long totalBytes);
     }
 
     private static final String TAG_METHOD_CALL = "methodCall";
@@ -78,9 +77,11 @@ public class XMLRPCClient implements XMLRPCClientInterface {
     private static final String TAG_FAULT_CODE = "faultCode";
     private static final String TAG_FAULT_STRING = "faultString";
 
-    private Map<Long,Caller> backgroundCalls = new HashMap<Long, Caller>();
+    private static final AtomicLong sNextCallId = new AtomicLong(System.currentTimeMillis());
+    private final Map<Long, Caller> mBackgroundCalls = new ConcurrentHashMap<>();
 
     private DefaultHttpClient mClient;
+    private XMLRPCConnectionPool.HostPool mHostPool;
     private OnBytesUploadedListener mOnBytesUploadedListener;
     private HttpPost mPostMethod;
     private XmlSerializer mSerializer;
@@ -119,43 +120,14 @@ public class XMLRPCClient implements XMLRPCClientInterface {
         return mLoggedInputStream.getResponseDocument();
     }
 
-    private class ConnectionClient extends DefaultHttpClient {
-        public ConnectionClient(int port) throws IOException, GeneralSecurityException {
-            super();
-            TrustUserSSLCertsSocketFactory tasslf = new TrustUserSSLCertsSocketFactory();
-            Scheme scheme = new Scheme("https", tasslf, port);
-            getConnectionManager().getSchemeRegistry().register(scheme);
-        }
-    }
-
     private DefaultHttpClient instantiateClientForUri(URI uri, UsernamePasswordCredentials usernamePasswordCredentials) {
-        DefaultHttpClient client = null;
         if (WPUrlUtils.isWordPressCom(uri)) {
             mIsWpcom = true;
         }
-        if (mIsWpcom) {
-            //wpcom blog or self-hosted blog on plain HTTP
-            client = new DefaultHttpClient();
-        } else {
-            int port = uri.getPort();
-            if (port == -1) {
-                port = 443;
-            }
 
-            try {
-                client = new ConnectionClient(port);
-            } catch (GeneralSecurityException e) {
-                AppLog.e(T.API, "Cannot create the DefaultHttpClient object with our TrustUserSSLCertsSocketFactory", e);
-                client = null;
-            } catch (IOException e) {
-                AppLog.e(T.API, "Cannot create the DefaultHttpClient object with our TrustUserSSLCertsSocketFactory", e);
-                client = null;
-            }
-
-            if (client == null) {
-                client = new DefaultHttpClient();
-            }
-        }
+        // connections are shared with other clients for the same host
+        mHostPool = XMLRPCConnectionPool.getHostPool(uri, mIsWpcom);
+        DefaultHttpClient client = mHostPool.newClient();
 
         HttpConnectionParams.setConnectionTimeout(client.getParams(), DEFAULT_CONNECTION_TIMEOUT_MS);
         HttpConnectionParams.setSoTimeout(client.getParams(), DEFAULT_SOCKET_TIMEOUT_MS);
@@ -226,9 +198,22 @@ public class XMLRPCClient implements XMLRPCClientInterface {
         return call(method, null, null);
     }
 
-
+    /**
+     * Media uploads are streamed from the source file, so tempFile is no longer used and may be null
+     */
     public Object call(String method, Object[] params, File tempFile) throws XMLRPCException, IOException, XmlPullParserException {
-        return new Caller().callXMLRPC(method, params, tempFile);
+        return new Caller().callXMLRPC(method, params, null);
+    }
+
+    /**
+     * Call method and decode the struct (or array of structs) it returns using the passed schema
+     *
+     * @return one ContentValues for each struct in the response
+     */
+    @SuppressWarnings("unchecked")
+    public List<ContentValues> callForValues(String method, Object[] params, XMLRPCSchema schema)
+            throws XMLRPCException, IOException, XmlPullParserException {
+        return (List<ContentValues>) new Caller().callXMLRPC(method, params, schema);
     }
 
     /**
@@ -245,13 +230,27 @@ public class XMLRPCClient implements XMLRPCClientInterface {
     /**
      * Asynchronous XMLRPC call
      *
-     * @param listener, XMLRPC methodName, XMLRPC parameters, File for large uploads
+     * @param listener, XMLRPC methodName, XMLRPC parameters, unused temp file (may be null)
      * @return unique id of this async call
      * @throws XMLRPCException
      */
     public long callAsync(XMLRPCCallback listener, String methodName, Object[] params, File tempFile) {
-        long id = System.currentTimeMillis();
-        new Caller(listener, id, methodName, params, tempFile).start();
+        return callAsync(listener, methodName, params, tempFile, XMLRPCExecutor.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Asynchronous XMLRPC call run on the shared XMLRPCExecutor with the passed priority
+     *
+     * @param listener, XMLRPC methodName, XMLRPC parameters, unused temp file (may be null), priority
+     * @return unique id of this async call, which can be passed to cancel(long)
+     */
+    public long callAsync(XMLRPCCallback listener, String methodName, Object[] params, File tempFile,
+                          XMLRPCExecutor.Priority priority) {
+        long id = sNextCallId.incrementAndGet();
+        Caller caller = new Caller(listener, id, methodName, params);
+        // add the call before it's queued so it can't finish before it's tracked
+        mBackgroundCalls.put(id, caller);
+        caller.setFuture(XMLRPCExecutor.execute(priority, caller));
         return id;
     }
 
@@ -262,9 +261,28 @@ public class XMLRPCClient implements XMLRPCClientInterface {
         mPostMethod.abort();
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Cancel the passed async call - the listener won't be notified of its result
+     */
+    public void cancel(long id) {
+        Caller caller = mBackgroundCalls.remove(id);
+        if (caller != null) {
+            caller.cancel();
+        }
+    }
+
     public static Object parseXMLRPCResponse(InputStream is, HttpEntity entity)
             throws XMLRPCException, IOException, XmlPullParserException, NumberFormatException {
+        return parseXMLRPCResponse(is, entity, null);
+    }
+
+    /**
+     * Parses the response, decoding the result using the passed schema if it isn't null - in that
+     * case the result is returned as a List of ContentValues
+     */
+    @SuppressWarnings("unchecked")
+    public static Object parseXMLRPCResponse(InputStream is, HttpEntity entity, XMLRPCSchema schema)
+            throws XMLRPCException, IOException, XmlPullParserException, NumberFormatException {
         // setup pull parser
         XmlPullParser pullParser = XmlPullParserFactory.newInstance().newPullParser();
 
@@ -310,7 +328,12 @@ public class XMLRPCClient implements XMLRPCClientInterface {
             pullParser.nextTag(); // TAG_VALUE (<value>)
             // no parser.require() here since its called in XMLRPCSerializer.deserialize() below
             // deserialize result
-            Object obj = XMLRPCSerializer.deserialize(pullParser);
+            Object obj;
+            if (schema != null) {
+                obj = XMLRPCSerializer.deserializeValues(pullParser, schema);
+            } else {
+                obj = XMLRPCSerializer.deserialize(pullParser);
+            }
             consumeHttpEntity(entity);
             return obj;
         } else if (tag.equals(TAG_FAULT)) {
@@ -353,46 +376,18 @@ public class XMLRPCClient implements XMLRPCClientInterface {
         }
     }
 
-    public void preparePostMethod(String method, Object[] params, File tempFile) throws IOException, XMLRPCException, IllegalArgumentException, IllegalStateException {
+    public void preparePostMethod(String method, Object[] params) throws IOException, XMLRPCException, IllegalArgumentException, IllegalStateException {
         // prepare POST body
         if (method.equals(Method.UPLOAD_FILE)) {
-            if (!tempFile.exists() && !tempFile.mkdirs()) {
-                throw new XMLRPCException("Path to file could not be created.");
-            }
-
-            FileWriter fileWriter = new FileWriter(tempFile);
-            mSerializer.setOutput(fileWriter);
-
-            mSerializer.startDocument(null, null);
-            mSerializer.startTag(null, TAG_METHOD_CALL);
-            // set method name
-            mSerializer.startTag(null, TAG_METHOD_NAME).text(method).endTag(null, TAG_METHOD_NAME);
-            if (params != null && params.length != 0) {
-                // set method params
-                mSerializer.startTag(null, TAG_PARAMS);
-                for (int i = 0; i < params.length; i++) {
-                    mSerializer.startTag(null, TAG_PARAM).startTag(null, XMLRPCSerializer.TAG_VALUE);
-                    XMLRPCSerializer.serialize(mSerializer, params[i]);
-                    mSerializer.endTag(null, XMLRPCSerializer.TAG_VALUE).endTag(null, TAG_PARAM);
-                }
-                mSerializer.endTag(null, TAG_PARAMS);
-            }
-            mSerializer.endTag(null, TAG_METHOD_CALL);
-            mSerializer.endDocument();
-
-            fileWriter.flush();
-            fileWriter.close();
-
-            FileEntity fEntity = new FileEntity(tempFile, "text/xml; charset=\"UTF-8\"") {
+            // stream the media straight from its file rather than serializing the request to disk first
+            XMLRPCUploadEntity uploadEntity = new XMLRPCUploadEntity(method, params) {
                 // Hook in a CountingOutputStream to keep track of bytes uploaded
                 @Override
                 public void writeTo(final OutputStream outstream) throws IOException {
-                    super.writeTo(new CountingOutputStream(outstream));
+                    super.writeTo(new CountingOutputStream(outstream, getContentLength()));
                 }
             };
-
-            fEntity.setContentType("text/xml");
-            mPostMethod.setEntity(fEntity);
+            mPostMethod.setEntity(uploadEntity);
         } else {
             StringWriter bodyWriter = new StringWriter();
             mSerializer.setOutput(bodyWriter);
@@ -425,61 +420,83 @@ public class XMLRPCClient implements XMLRPCClientInterface {
 
     /**
      * The Caller class is used to make asynchronous calls to the server.
-     * For synchronous calls the Thread function of this class isn't used.
+     * For synchronous calls the Runnable function of this class isn't used.
      */
-    private class Caller extends Thread {
+    private class Caller implements Runnable {
         private XMLRPCCallback listener;
-        private long threadId;
+        private long callId;
         private String methodName;
         private Object[] params;
-        private File tempFile;
+        private Future<?> future;
+        private volatile boolean isRunning;
+        private volatile boolean isCanceled;
 
         /**
          * Create a new Caller for asynchronous use.
          *
          * @param listener The listener to notice about the response or an error.
-         * @param threadId An id that will be send to the listener.
+         * @param callId An id that will be send to the listener.
          * @param methodName The method name to call.
          * @param params The parameters of the call or null.
          */
-        public Caller(XMLRPCCallback listener, long threadId, String methodName, Object[] params, File tempFile) {
+        public Caller(XMLRPCCallback listener, long callId, String methodName, Object[] params) {
             this.listener = listener;
-            this.threadId = threadId;
+            this.callId = callId;
             this.methodName = methodName;
             this.params = params;
-            this.tempFile = tempFile;
         }
 
         /**
          * Create a new Caller for synchronous use.
-         * If the caller has been created with this constructor you cannot use the
-         * start method to start it as a thread. But you can call the call method
-         * on it for synchronous use.
+         * If the caller has been created with this constructor you cannot pass it
+         * to the executor. But you can call the call method on it for synchronous use.
          */
         public Caller() { }
 
+        void setFuture(Future<?> future) {
+            this.future = future;
+        }
+
         /**
-         * The run method is invoked when the thread gets started.
+         * Cancels this call - removes it from the executor's queue if it hasn't started,
+         * otherwise aborts the request that's in progress
+         */
+        void cancel() {
+            isCanceled = true;
+            XMLRPCExecutor.cancel(future);
+            if (isRunning) {
+                mPostMethod.abort();
+            }
+        }
+
+        /**
+         * The run method is invoked by the executor.
          * This will only work, if the Caller has been created with parameters.
          * It execute the call method and notify the listener about the result.
          */
         @Override
         public void run() {
-            if(listener == null)
+            if (listener == null || isCanceled) {
+                mBackgroundCalls.remove(callId);
                 return;
+            }
 
             try {
-                backgroundCalls.put(threadId, this);
-                Object o = this.callXMLRPC(methodName, params, tempFile);
-                listener.onSuccess(threadId, o);
+                isRunning = true;
+                Object o = this.callXMLRPC(methodName, params, null);
+                if (!isCanceled) {
+                    listener.onSuccess(callId, o);
+                }
             } catch(CancelException ex) {
                 // Don't notify the listener, if the call has been canceled.
             } catch (Exception ex) {
-                listener.onFailure(threadId, ex);
+                if (!isCanceled) {
+                    listener.onFailure(callId, ex);
+                }
             } finally {
-                backgroundCalls.remove(threadId);
+                isRunning = false;
+                mBackgroundCalls.remove(callId);
             }
-
         }
 
         /**
@@ -487,14 +504,17 @@ public class XMLRPCClient implements XMLRPCClientInterface {
          *
          * @param method name of method to call
          * @param params parameters to pass to method (may be null if method has no parameters)
+         * @param schema schema to decode the result with, or null to decode it generically
          * @return deserialized method return value
          * @throws XMLRPCException
          */
-        private Object callXMLRPC(String method, Object[] params, File tempFile)
+        private Object callXMLRPC(String method, Object[] params, XMLRPCSchema schema)
                 throws XMLRPCException, IOException, XmlPullParserException {
             mLoggedInputStream = null;
+            HttpEntity entity = null;
+            mHostPool.onRequestStarted();
             try {
-                preparePostMethod(method, params, tempFile);
+                preparePostMethod(method, params);
 
                 // execute HTTP POST request
                 HttpResponse response = mClient.execute(mPostMethod);
@@ -503,16 +523,16 @@ public class XMLRPCClient implements XMLRPCClientInterface {
                     throw new XMLRPCException( "HTTP Status code is missing!" );
 
                 int statusCode = response.getStatusLine().getStatusCode();
-                HttpEntity entity = response.getEntity();
+                entity = response.getEntity();
 
                 if (entity == null) {
                     //This is an error since the parser will fail here.
-                    throw new XMLRPCException( "HTTP status code: " + statusCode + " was returned AND no response from the server." );
+                    throw new XMLRPCHttpException( "HTTP status code: " + statusCode + " was returned AND no response from the server.", statusCode);
                 }
 
                 if (statusCode == HttpStatus.SC_OK) {
                     mLoggedInputStream = new LoggedInputStream(entity.getContent());
-                    return XMLRPCClient.parseXMLRPCResponse(mLoggedInputStream, entity);
+                    return XMLRPCClient.parseXMLRPCResponse(mLoggedInputStream, entity, schema);
                 }
 
                 String statusLineReasonPhrase = StringUtils.notNullStr(response.getStatusLine().getReasonPhrase());
@@ -536,7 +556,7 @@ public class XMLRPCClient implements XMLRPCClientInterface {
                                 newErrorMsg =
                                         "The server doesn't have enough memory to fulfill the request. You may need to increase the PHP memory limit on your site.";
                             }
-                            throw new XMLRPCException( statusLineReasonPhrase + ".\n\n" + newErrorMsg);
+                            throw new XMLRPCHttpException( statusLineReasonPhrase + ".\n\n" + newErrorMsg, statusCode);
                         }
                     }
 
@@ -544,29 +564,12 @@ public class XMLRPCClient implements XMLRPCClientInterface {
                     // eat all the exceptions here, we dont want to crash the app when trying to show a
                     // better error message.
                 }
-                throw new XMLRPCException( "HTTP status code: " + statusCode + " was returned. " + statusLineReasonPhrase);
+                throw new XMLRPCHttpException( "HTTP status code: " + statusCode + " was returned. " + statusLineReasonPhrase, statusCode);
             } catch (XMLRPCFault e) {
                 if (mLoggedInputStream!=null) {
                     AppLog.w(T.API, "Response document received from the server: " + mLoggedInputStream.getResponseDocument());
                 }
-                // Detect login issues and broadcast a message if the error is known
-                switch (e.getFaultCode()) {
-                    case 403:
-                        // Ignore 403 error from certain methods known for replying with incorrect error code on
-                        // lacking permissions
-                        if ("wp.getPostFormats".equals(method) || "wp.getCommentStatusList".equals(method)
-                            || "wp.getPostStatusList".equals(method) || "wp.getPageStatusList".equals(method)) {
-                            break;
-                        }
-                        EventBus.getDefault().post(new CoreEvents.InvalidCredentialsDetected());
-                        break;
-                    case 425:
-                        EventBus.getDefault().post(new CoreEvents.TwoFactorAuthenticationDetected());
-                        break;
-                    //TODO: Check the login limit here
-                    default:
-                        break;
-                }
+                broadcastFault(method, e);
                 throw e;
             } catch (XmlPullParserException e) {
                 AppLog.e(T.API, "Error while parsing the XML-RPC response document received from the server.", e);
@@ -608,17 +611,43 @@ public class XMLRPCClient implements XMLRPCClientInterface {
             } catch (IOException e) {
                 throw e;
             } finally {
-                deleteTempFile(method, tempFile);
                 try {
                     if (mLoggedInputStream != null) {
                         mLoggedInputStream.close();
                     }
                 } catch (Exception e) {
                 }
+                // always consume the entity so the connection is released back to the pool, even
+                // when parsing failed part way through the response
+                consumeHttpEntity(entity);
+                mHostPool.onRequestFinished();
             }
         }
     }
 
+    /**
+     * Detect login issues from a fault returned by the passed method and broadcast a message if the error is known
+     */
+    static void broadcastFault(String method, XMLRPCFault fault) {
+        switch (fault.getFaultCode()) {
+            case 403:
+                // Ignore 403 error from certain methods known for replying with incorrect error code on
+                // lacking permissions
+                if ("wp.getPostFormats".equals(method) || "wp.getCommentStatusList".equals(method)
+                    || "wp.getPostStatusList".equals(method) || "wp.getPageStatusList".equals(method)) {
+                    break;
+                }
+                EventBus.getDefault().post(new CoreEvents.InvalidCredentialsDetected());
+                break;
+            case 425:
+                EventBus.getDefault().post(new CoreEvents.TwoFactorAuthenticationDetected());
+                break;
+            //TODO: Check the login limit here
+            default:
+                break;
+        }
+    }
+
     /**
      * Detect login issues and broadcast a message if the error is known, App Activities should listen to these
      * broadcasted events and present user action to take
@@ -635,14 +664,6 @@ public class XMLRPCClient implements XMLRPCClientInterface {
         return false;
     }
 
-    private void deleteTempFile(String method, File tempFile) {
-        if (tempFile != null) {
-            if ((method.equals(Method.UPLOAD_FILE))){ //get rid of the temp file
-                tempFile.delete();
-            }
-        }
-    }
-
     private void addWPComAuthorizationHeaderIfNeeded() {
         Context ctx = WordPress.getContext();
         if (ctx == null) return;
@@ -676,9 +697,11 @@ public class XMLRPCClient implements XMLRPCClientInterface {
     private class CountingOutputStream extends FilterOutputStream {
 
         private long mTotalBytes;
+        private final long mContentLength;
 
-        CountingOutputStream(final OutputStream out) {
+        CountingOutputStream(final OutputStream out, long contentLength) {
             super(out);
+            mContentLength = contentLength;
         }
 
         @Override
@@ -692,7 +715,7 @@ public class XMLRPCClient implements XMLRPCClientInterface {
             mTotalBytes += b.length;
 
             if (mOnBytesUploadedListener != null) {
-                mOnBytesUploadedListener.onBytesUploaded(mTotalBytes);
+                mOnBytesUploadedListener.onBytesUploaded(mTotalBytes, mContentLength);
             }
         }
 
@@ -702,7 +725,7 @@ public class XMLRPCClient implements XMLRPCClientInterface {
             mTotalBytes += len;
 
             if (mOnBytesUploadedListener != null) {
-                mOnBytesUploadedListener.onBytesUploaded(mTotalBytes);
+                mOnBytesUploadedListener.onBytesUploaded(mTotalBytes, mContentLength);
             }
         }
     }
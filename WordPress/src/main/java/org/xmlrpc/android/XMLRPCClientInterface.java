@@ -1,9 +1,12 @@
 package org.xmlrpc.android;
 
+import android.content.ContentValues;
+
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
 public interface XMLRPCClientInterface {
     public void addQuickPostHeader(String type);
@@ -11,7 +14,12 @@ public interface XMLRPCClientInterface {
     public Object call(String method, Object[] params) throws XMLRPCException, IOException, XmlPullParserException;
     public Object call(String method) throws XMLRPCException, IOException, XmlPullParserException;
     public Object call(String method, Object[] params, File tempFile) throws XMLRPCException, IOException, XmlPullParserException;
+    public List<ContentValues> callForValues(String method, Object[] params, XMLRPCSchema schema)
+            throws XMLRPCException, IOException, XmlPullParserException;
     public long callAsync(XMLRPCCallback listener, String methodName, Object[] params);
     public long callAsync(XMLRPCCallback listener, String methodName, Object[] params, File tempFile);
+    public long callAsync(XMLRPCCallback listener, String methodName, Object[] params, File tempFile,
+                          XMLRPCExecutor.Priority priority);
+    public void cancel(long id);
     public String getResponse();
 }
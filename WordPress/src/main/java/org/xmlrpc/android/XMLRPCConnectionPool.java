@@ -0,0 +1,381 @@
+package org.xmlrpc.android;
+
+import android.content.Context;
+import android.net.SSLSessionCache;
+import android.os.SystemClock;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.params.ConnPerRouteBean;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.LayeredSocketFactory;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SocketFactory;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.wordpress.android.WordPress;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares HTTP connections between XMLRPCClient instances. Each host gets a single thread-safe
+ * connection manager (and a single SSL socket factory), so connections are kept alive and
+ * reused across clients rather than every client paying for its own TCP and TLS handshake.
+ * Clients still get their own DefaultHttpClient so credentials and params aren't shared.
+ */
+public class XMLRPCConnectionPool {
+    private static final int MAX_CONNECTIONS_PER_HOST = 4;
+    private static final int MAX_CONNECTIONS_TOTAL = 8;
+    private static final long DEFAULT_KEEP_ALIVE_MS = 30 * 1000;
+
+    private static final Map<String, HostPool> sHostPools = new HashMap<>();
+    private static SSLSessionCache sSessionCache;
+
+    static synchronized HostPool getHostPool(URI uri, boolean isWpcom) {
+        String key = getKey(uri, isWpcom);
+        HostPool hostPool = sHostPools.get(key);
+        if (hostPool == null) {
+            hostPool = new HostPool(uri.getHost(), createSchemeRegistry(uri, isWpcom));
+            sHostPools.put(key, hostPool);
+        }
+        hostPool.closeExpiredConnections();
+        return hostPool;
+    }
+
+    /*
+     * returns a snapshot of the stats for each host with a pool
+     */
+    public static synchronized List<HostStats> getStats() {
+        List<HostStats> stats = new ArrayList<>();
+        for (HostPool hostPool : sHostPools.values()) {
+            stats.add(hostPool.getStats());
+        }
+        return stats;
+    }
+
+    /*
+     * closes every idle connection in all pools - called when the network changes, since
+     * connections opened on the previous network can't be reused
+     */
+    public static synchronized void closeIdleConnections() {
+        for (HostPool hostPool : sHostPools.values()) {
+            hostPool.closeIdleConnections();
+        }
+    }
+
+    /*
+     * drops all pools so clients created after the user signs out don't share connections with
+     * the signed-out user's clients - those keep the pool they already have, so their requests
+     * aren't broken, and its connections are closed as they become idle
+     */
+    public static synchronized void reset() {
+        for (HostPool hostPool : sHostPools.values()) {
+            hostPool.closeIdleConnections();
+        }
+        sHostPools.clear();
+    }
+
+    private static String getKey(URI uri, boolean isWpcom) {
+        return (isWpcom ? "wpcom:" : "") + uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    private static SchemeRegistry createSchemeRegistry(URI uri, boolean isWpcom) {
+        SchemeRegistry registry = new SchemeRegistry();
+        registry.register(new Scheme("http", PlainSocketFactory.getSocketFactory(), 80));
+
+        if (isWpcom) {
+            registry.register(new Scheme("https", SSLSocketFactory.getSocketFactory(), 443));
+            return registry;
+        }
+
+        int port = uri.getPort();
+        if (port == -1) {
+            port = 443;
+        }
+
+        SocketFactory sslSocketFactory;
+        try {
+            sslSocketFactory = new TrustUserSSLCertsSocketFactory(getSessionCache());
+        } catch (GeneralSecurityException e) {
+            AppLog.e(T.API, "Cannot create the TrustUserSSLCertsSocketFactory for the connection pool", e);
+            sslSocketFactory = SSLSocketFactory.getSocketFactory();
+        } catch (IOException e) {
+            AppLog.e(T.API, "Cannot create the TrustUserSSLCertsSocketFactory for the connection pool", e);
+            sslSocketFactory = SSLSocketFactory.getSocketFactory();
+        }
+        registry.register(new Scheme("https", sslSocketFactory, port));
+        return registry;
+    }
+
+    /*
+     * TLS sessions for self-hosted sites are stored in a persistent cache so a new connection to
+     * the same host can resume a previous session instead of performing a full handshake
+     */
+    private static SSLSessionCache getSessionCache() {
+        if (sSessionCache == null) {
+            Context context = WordPress.getContext();
+            if (context != null) {
+                sSessionCache = new SSLSessionCache(context);
+            }
+        }
+        return sSessionCache;
+    }
+
+    /**
+     * Connection manager and stats for a single host
+     */
+    static class HostPool {
+        private final HostStats mStats;
+        private final MeteredConnectionManager mConnectionManager;
+
+        HostPool(String host, SchemeRegistry registry) {
+            mStats = new HostStats(host);
+
+            // wrap each socket factory so we can time how long it takes to connect
+            SchemeRegistry meteredRegistry = new SchemeRegistry();
+            for (String name : registry.getSchemeNames()) {
+                Scheme scheme = registry.getScheme(name);
+                SocketFactory socketFactory = scheme.getSocketFactory();
+                SocketFactory meteredFactory;
+                if (socketFactory instanceof LayeredSocketFactory) {
+                    meteredFactory = new MeteredLayeredSocketFactory((LayeredSocketFactory) socketFactory, mStats);
+                } else {
+                    meteredFactory = new MeteredSocketFactory(socketFactory, mStats);
+                }
+                meteredRegistry.register(new Scheme(name, meteredFactory, scheme.getDefaultPort()));
+            }
+
+            HttpParams params = new BasicHttpParams();
+            ConnManagerParams.setMaxTotalConnections(params, MAX_CONNECTIONS_TOTAL);
+            ConnManagerParams.setMaxConnectionsPerRoute(params, new ConnPerRouteBean(MAX_CONNECTIONS_PER_HOST));
+            mConnectionManager = new MeteredConnectionManager(params, meteredRegistry, mStats);
+        }
+
+        /*
+         * returns a new client which shares this host's connections
+         */
+        DefaultHttpClient newClient() {
+            HttpParams params = new BasicHttpParams();
+            ConnManagerParams.setTimeout(params, XMLRPCClient.DEFAULT_CONNECTION_TIMEOUT_MS);
+            DefaultHttpClient client = new DefaultHttpClient(mConnectionManager, params);
+            client.setKeepAliveStrategy(sKeepAliveStrategy);
+            return client;
+        }
+
+        HostStats getStats() {
+            return mStats.snapshot();
+        }
+
+        void onRequestStarted() {
+            mStats.mInFlight.incrementAndGet();
+        }
+
+        void onRequestFinished() {
+            mStats.mInFlight.decrementAndGet();
+        }
+
+        void closeExpiredConnections() {
+            mConnectionManager.closeExpiredConnections();
+            mConnectionManager.closeIdleConnections(DEFAULT_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS);
+        }
+
+        void closeIdleConnections() {
+            mConnectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Per-host connection stats
+     */
+    public static class HostStats {
+        private final String mHost;
+        private final AtomicLong mNumLeased = new AtomicLong();
+        private final AtomicLong mNumReused = new AtomicLong();
+        private final AtomicLong mNumConnects = new AtomicLong();
+        private final AtomicLong mTotalConnectMs = new AtomicLong();
+        private final AtomicInteger mInFlight = new AtomicInteger();
+
+        HostStats(String host) {
+            mHost = host;
+        }
+
+        public String getHost() {
+            return mHost;
+        }
+
+        /*
+         * fraction of requests which were sent on an existing connection
+         */
+        public float getReuseRatio() {
+            long numLeased = mNumLeased.get();
+            return numLeased > 0 ? (float) mNumReused.get() / numLeased : 0f;
+        }
+
+        /*
+         * average time to open a new connection, including the TLS handshake for https
+         */
+        public long getAverageHandshakeMs() {
+            long numConnects = mNumConnects.get();
+            return numConnects > 0 ? mTotalConnectMs.get() / numConnects : 0;
+        }
+
+        public long getNumConnects() {
+            return mNumConnects.get();
+        }
+
+        public int getInFlight() {
+            return mInFlight.get();
+        }
+
+        private HostStats snapshot() {
+            HostStats stats = new HostStats(mHost);
+            stats.mNumLeased.set(mNumLeased.get());
+            stats.mNumReused.set(mNumReused.get());
+            stats.mNumConnects.set(mNumConnects.get());
+            stats.mTotalConnectMs.set(mTotalConnectMs.get());
+            stats.mInFlight.set(mInFlight.get());
+            return stats;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: reuse ratio %.2f, %d connects averaging %d ms, %d in flight",
+                    mHost, getReuseRatio(), getNumConnects(), getAverageHandshakeMs(), getInFlight());
+        }
+    }
+
+    /*
+     * uses the server's Keep-Alive timeout when provided, otherwise keeps connections alive
+     * for DEFAULT_KEEP_ALIVE_MS
+     */
+    private static final ConnectionKeepAliveStrategy sKeepAliveStrategy = new ConnectionKeepAliveStrategy() {
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            HeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (it.hasNext()) {
+                HeaderElement element = it.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Long.parseLong(element.getValue()) * 1000;
+                    } catch (NumberFormatException e) {
+                        break;
+                    }
+                }
+            }
+            return DEFAULT_KEEP_ALIVE_MS;
+        }
+    };
+
+    /*
+     * connection manager which records whether leased connections were already open
+     */
+    private static class MeteredConnectionManager extends ThreadSafeClientConnManager {
+        private final HostStats mStats;
+
+        MeteredConnectionManager(HttpParams params, SchemeRegistry registry, HostStats stats) {
+            super(params, registry);
+            mStats = stats;
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            final ClientConnectionRequest request = super.requestConnection(route, state);
+            return new ClientConnectionRequest() {
+                @Override
+                public ManagedClientConnection getConnection(long timeout, TimeUnit tunit)
+                        throws InterruptedException, ConnectionPoolTimeoutException {
+                    ManagedClientConnection connection = request.getConnection(timeout, tunit);
+                    mStats.mNumLeased.incrementAndGet();
+                    if (connection.isOpen()) {
+                        mStats.mNumReused.incrementAndGet();
+                    }
+                    return connection;
+                }
+
+                @Override
+                public void abortRequest() {
+                    request.abortRequest();
+                }
+            };
+        }
+    }
+
+    /*
+     * socket factory which records how long it takes to connect - for SSL factories this
+     * includes the handshake since it's performed when the socket is connected
+     */
+    private static class MeteredSocketFactory implements SocketFactory {
+        private final SocketFactory mFactory;
+        private final HostStats mStats;
+
+        MeteredSocketFactory(SocketFactory factory, HostStats stats) {
+            mFactory = factory;
+            mStats = stats;
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return mFactory.createSocket();
+        }
+
+        @Override
+        public Socket connectSocket(Socket sock, String host, int port, InetAddress localAddress, int localPort,
+                                    HttpParams params)
+                throws IOException, UnknownHostException, ConnectTimeoutException {
+            long start = SystemClock.elapsedRealtime();
+            Socket socket = mFactory.connectSocket(sock, host, port, localAddress, localPort, params);
+            mStats.mTotalConnectMs.addAndGet(SystemClock.elapsedRealtime() - start);
+            mStats.mNumConnects.incrementAndGet();
+            return socket;
+        }
+
+        @Override
+        public boolean isSecure(Socket sock) throws IllegalArgumentException {
+            return mFactory.isSecure(sock);
+        }
+    }
+
+    private static class MeteredLayeredSocketFactory extends MeteredSocketFactory implements LayeredSocketFactory {
+        private final LayeredSocketFactory mLayeredFactory;
+
+        MeteredLayeredSocketFactory(LayeredSocketFactory factory, HostStats stats) {
+            super(factory, stats);
+            mLayeredFactory = factory;
+        }
+
+        @Override
+        public Socket createSocket(Socket socket, String host, int port, boolean autoClose)
+                throws IOException, UnknownHostException {
+            return mLayeredFactory.createSocket(socket, host, port, autoClose);
+        }
+    }
+}
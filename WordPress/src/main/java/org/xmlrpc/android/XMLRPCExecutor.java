@@ -0,0 +1,134 @@
+package org.xmlrpc.android;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared, bounded executor for asynchronous XML-RPC calls. Calls are queued by priority, so
+ * interactive calls run ahead of queued background work, and calls with the same priority run
+ * in the order they were made.
+ */
+public class XMLRPCExecutor {
+    public enum Priority {
+        INTERACTIVE,    // the user is waiting on the result
+        BACKGROUND      // sync and other work the user isn't waiting on
+    }
+
+    private static final int MAX_THREADS = 4;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final AtomicLong sSequence = new AtomicLong();
+    private static final AtomicLong sNumExecuted = new AtomicLong();
+    private static final AtomicLong sTotalWaitMs = new AtomicLong();
+    private static final AtomicLong sMaxWaitMs = new AtomicLong();
+
+    private static final ThreadPoolExecutor sExecutor;
+    static {
+        sExecutor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), new XMLRPCThreadFactory());
+        sExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    static Future<?> execute(Priority priority, Runnable runnable) {
+        PrioritizedTask task = new PrioritizedTask(priority, runnable);
+        sExecutor.execute(task);
+        return task;
+    }
+
+    /*
+     * cancels a call returned by execute(), removing it from the queue if it hasn't started yet
+     */
+    static void cancel(Future<?> future) {
+        if (future != null && future.cancel(false) && future instanceof Runnable) {
+            sExecutor.remove((Runnable) future);
+        }
+    }
+
+    /*
+     * number of calls waiting for a thread
+     */
+    public static int getQueueDepth() {
+        return sExecutor.getQueue().size();
+    }
+
+    /*
+     * number of calls currently running
+     */
+    public static int getActiveCount() {
+        return sExecutor.getActiveCount();
+    }
+
+    /*
+     * average time calls spent waiting in the queue before they ran
+     */
+    public static long getAverageWaitMs() {
+        long numExecuted = sNumExecuted.get();
+        return numExecuted > 0 ? sTotalWaitMs.get() / numExecuted : 0;
+    }
+
+    public static long getMaxWaitMs() {
+        return sMaxWaitMs.get();
+    }
+
+    private static void recordWait(long waitMs) {
+        sNumExecuted.incrementAndGet();
+        sTotalWaitMs.addAndGet(waitMs);
+        long maxWaitMs;
+        do {
+            maxWaitMs = sMaxWaitMs.get();
+        } while (waitMs > maxWaitMs && !sMaxWaitMs.compareAndSet(maxWaitMs, waitMs));
+    }
+
+    private static class PrioritizedTask extends FutureTask<Void> implements Comparable<PrioritizedTask> {
+        private final Priority mPriority;
+        private final long mSequence;
+        private final long mEnqueuedAt;
+
+        PrioritizedTask(Priority priority, Runnable runnable) {
+            super(runnable, null);
+            mPriority = priority;
+            mSequence = sSequence.incrementAndGet();
+            mEnqueuedAt = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void run() {
+            recordWait(SystemClock.elapsedRealtime() - mEnqueuedAt);
+            super.run();
+        }
+
+        @Override
+        public int compareTo(@NonNull PrioritizedTask another) {
+            int result = mPriority.compareTo(another.mPriority);
+            if (result == 0) {
+                result = (mSequence < another.mSequence ? -1 : (mSequence == another.mSequence ? 0 : 1));
+            }
+            return result;
+        }
+    }
+
+    private static class XMLRPCThreadFactory implements ThreadFactory {
+        private final AtomicInteger mThreadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "xmlrpc-" + mThreadNumber.getAndIncrement());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.xmlrpc.android;
+
+/**
+ * Thrown when the server answers an XML-RPC request with an HTTP error status rather than an
+ * XML-RPC response
+ */
+public class XMLRPCHttpException extends XMLRPCException {
+    private static final long serialVersionUID = 3166478893437209715L;
+
+    private final int mStatusCode;
+
+    public XMLRPCHttpException(String string, int statusCode) {
+        super(string);
+        mStatusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return mStatusCode;
+    }
+}
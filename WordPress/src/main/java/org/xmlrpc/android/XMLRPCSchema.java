@@ -0,0 +1,191 @@
+package org.xmlrpc.android;
+
+import android.content.ContentValues;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes which members of the structs in an XML-RPC response a caller needs, and the
+ * ContentValues keys they're stored under. Passed to XMLRPCClientInterface.callForValues(),
+ * which decodes registered members straight from the response stream into ContentValues and
+ * skips everything else, rather than building a HashMap for every struct and a boxed object
+ * for every member.
+ */
+public class XMLRPCSchema {
+    static final int TYPE_STRING = 0;
+    static final int TYPE_INT = 1;
+    static final int TYPE_LONG = 2;
+    static final int TYPE_DATE = 3;
+    static final int TYPE_CUSTOM = 4;
+
+    /**
+     * Decodes a member that needs more than a scalar copy (arrays, nested structs). The value
+     * is passed as the generic parser would return it, or null if the struct doesn't contain
+     * the member.
+     */
+    public interface MemberDecoder {
+        void decode(ContentValues values, Object value);
+    }
+
+    static class Field {
+        final int index;
+        final String member;
+        final String key;
+        final int type;
+        final Object defaultValue;
+        final MemberDecoder decoder;
+
+        private Field(int index, String member, String key, int type, Object defaultValue, MemberDecoder decoder) {
+            this.index = index;
+            this.member = member;
+            this.key = key;
+            this.type = type;
+            this.defaultValue = defaultValue;
+            this.decoder = decoder;
+        }
+    }
+
+    private final Map<String, Field> mFields = new HashMap<>();
+    private final List<Field> mFieldList = new ArrayList<>();
+
+    private XMLRPCSchema add(String member, String key, int type, Object defaultValue, MemberDecoder decoder) {
+        Field field = new Field(mFieldList.size(), member, key, type, defaultValue, decoder);
+        mFields.put(member, field);
+        mFieldList.add(field);
+        return this;
+    }
+
+    /*
+     * stores the member as a string, or "" if it's missing
+     */
+    public XMLRPCSchema addString(String member, String key) {
+        return add(member, key, TYPE_STRING, "", null);
+    }
+
+    /*
+     * stores the member as an int, or defaultValue if it's missing or isn't a number
+     */
+    public XMLRPCSchema addInt(String member, String key, int defaultValue) {
+        return add(member, key, TYPE_INT, defaultValue, null);
+    }
+
+    public XMLRPCSchema addLong(String member, String key, long defaultValue) {
+        return add(member, key, TYPE_LONG, defaultValue, null);
+    }
+
+    /*
+     * stores a dateTime.iso8601 member as milliseconds since the epoch - nothing is stored
+     * if it's missing or isn't a date
+     */
+    public XMLRPCSchema addDate(String member, String key) {
+        return add(member, key, TYPE_DATE, null, null);
+    }
+
+    public XMLRPCSchema addMember(String member, MemberDecoder decoder) {
+        return add(member, null, TYPE_CUSTOM, null, decoder);
+    }
+
+    Field getField(String member) {
+        return mFields.get(member);
+    }
+
+    int getFieldCount() {
+        return mFieldList.size();
+    }
+
+    /*
+     * fills in the fields that weren't present in a struct, seen[] is indexed by Field.index
+     */
+    void applyDefaults(ContentValues values, boolean[] seen) {
+        for (Field field : mFieldList) {
+            if (seen[field.index]) {
+                continue;
+            }
+            if (field.decoder != null) {
+                field.decoder.decode(values, null);
+            } else {
+                putValue(values, field, field.defaultValue);
+            }
+        }
+    }
+
+    static void putValue(ContentValues values, Field field, Object value) {
+        if (value instanceof String) {
+            values.put(field.key, (String) value);
+        } else if (value instanceof Integer) {
+            values.put(field.key, (Integer) value);
+        } else if (value instanceof Long) {
+            values.put(field.key, (Long) value);
+        }
+    }
+
+    /*
+     * converts a string form of a scalar to the field's type, returns null if it can't be converted
+     */
+    static Object convertScalar(Field field, String value) {
+        switch (field.type) {
+            case TYPE_STRING:
+                return value;
+            case TYPE_INT:
+                try {
+                    return Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    return field.defaultValue;
+                }
+            case TYPE_LONG:
+                try {
+                    return Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    return field.defaultValue;
+                }
+            default:
+                return null;
+        }
+    }
+
+    /*
+     * applies this schema to a result that's already been decoded by the generic parser - used
+     * by clients which don't parse a response stream (mocks) and for multicall results, returns
+     * one ContentValues for each struct in the result
+     */
+    public List<ContentValues> toValuesList(Object result) {
+        List<ContentValues> valuesList = new ArrayList<>();
+        if (result instanceof Object[]) {
+            for (Object item : (Object[]) result) {
+                if (item instanceof Map) {
+                    valuesList.add(toValues((Map<?, ?>) item));
+                }
+            }
+        } else if (result instanceof Map) {
+            valuesList.add(toValues((Map<?, ?>) result));
+        }
+        return valuesList;
+    }
+
+    public ContentValues toValues(Map<?, ?> struct) {
+        ContentValues values = new ContentValues();
+        boolean[] seen = new boolean[mFieldList.size()];
+        for (Field field : mFieldList) {
+            Object value = struct.get(field.member);
+            if (value == null) {
+                continue;
+            }
+            seen[field.index] = true;
+            if (field.decoder != null) {
+                field.decoder.decode(values, value);
+            } else if (field.type == TYPE_DATE) {
+                if (value instanceof Date) {
+                    values.put(field.key, ((Date) value).getTime());
+                }
+            } else {
+                putValue(values, field, convertScalar(field, value.toString()));
+            }
+        }
+        applyDefaults(values, seen);
+        return values;
+    }
+}
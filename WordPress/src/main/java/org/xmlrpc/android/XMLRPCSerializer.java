@@ -1,5 +1,6 @@
 package org.xmlrpc.android;
 
+import android.content.ContentValues;
 import android.text.TextUtils;
 import android.util.Base64;
 import android.util.Xml;
@@ -21,6 +22,7 @@ import java.io.StringReader;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
@@ -66,8 +68,21 @@ class XMLRPCSerializer {
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Lets the caller write the content of a MediaFile itself rather than having it base64-encoded
+     * into the serializer's output
+     */
+    interface MediaFileWriter {
+        void writeMediaFile(XmlSerializer serializer, MediaFile mediaFile) throws IOException;
+    }
+
     static void serialize(XmlSerializer serializer, Object object) throws IOException {
+        serialize(serializer, object, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    static void serialize(XmlSerializer serializer, Object object, MediaFileWriter mediaFileWriter)
+            throws IOException {
         // check for scalar types:
         if (object instanceof Integer || object instanceof Short || object instanceof Byte) {
             serializer.startTag(null, TYPE_I4).text(object.toString()).endTag(null, TYPE_I4);
@@ -109,6 +124,11 @@ class XMLRPCSerializer {
             //convert media file binary to base64
             serializer.startTag( null, "base64" );
             MediaFile mediaFile = (MediaFile) object;
+            if (mediaFileWriter != null) {
+                mediaFileWriter.writeMediaFile(serializer, mediaFile);
+                serializer.endTag(null, "base64");
+                return;
+            }
             InputStream inStream = new DataInputStream(new FileInputStream(mediaFile.getFilePath()));
             byte[] buffer = new byte[3600];//you must use a 24bit multiple
             int length = -1;
@@ -127,7 +147,7 @@ class XMLRPCSerializer {
             while (iter.hasNext()) {
                 Object o = iter.next();
                 serializer.startTag(null, TAG_VALUE);
-                serialize(serializer, o);
+                serialize(serializer, o, mediaFileWriter);
                 serializer.endTag(null, TAG_VALUE);
             }
             serializer.endTag(null, TAG_DATA).endTag(null, TYPE_ARRAY);
@@ -138,7 +158,7 @@ class XMLRPCSerializer {
             for (int i=0; i<objects.length; i++) {
                 Object o = objects[i];
                 serializer.startTag(null, TAG_VALUE);
-                serialize(serializer, o);
+                serialize(serializer, o, mediaFileWriter);
                 serializer.endTag(null, TAG_VALUE);
             }
             serializer.endTag(null, TAG_DATA).endTag(null, TYPE_ARRAY);
@@ -155,7 +175,7 @@ class XMLRPCSerializer {
                 serializer.startTag(null, TAG_MEMBER);
                 serializer.startTag(null, TAG_NAME).text(key).endTag(null, TAG_NAME);
                 serializer.startTag(null, TAG_VALUE);
-                serialize(serializer, value);
+                serialize(serializer, value, mediaFileWriter);
                 serializer.endTag(null, TAG_VALUE);
                 serializer.endTag(null, TAG_MEMBER);
             }
@@ -296,4 +316,144 @@ class XMLRPCSerializer {
         parser.require(XmlPullParser.END_TAG, null, TAG_VALUE);
         return obj;
     }
+
+    /*
+     * decodes a result value containing a struct or an array of structs using the passed schema,
+     * returns one ContentValues for each struct - members the schema doesn't contain are skipped
+     * without being decoded
+     */
+    static List<ContentValues> deserializeValues(XmlPullParser parser, XMLRPCSchema schema)
+            throws XmlPullParserException, IOException, NumberFormatException {
+        parser.require(XmlPullParser.START_TAG, null, TAG_VALUE);
+
+        List<ContentValues> valuesList = new ArrayList<>();
+        // dateFormat is shared with deserialize() and isn't thread-safe, so use our own
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd'T'HH:mm:ss", Locale.US);
+        dateFormat.setCalendar(Calendar.getInstance(new SimpleTimeZone(0, "GMT")));
+        boolean[] seen = new boolean[schema.getFieldCount()];
+
+        parser.nextTag();
+        String typeNodeName = parser.getName();
+        if (typeNodeName.equals(TYPE_ARRAY)) {
+            parser.nextTag(); // TAG_DATA (<data>)
+            parser.require(XmlPullParser.START_TAG, null, TAG_DATA);
+            parser.nextTag();
+            while (parser.getName().equals(TAG_VALUE)) {
+                parser.nextTag();
+                if (parser.getName().equals(TYPE_STRUCT)) {
+                    valuesList.add(deserializeStructValues(parser, schema, dateFormat, seen));
+                } else {
+                    skipElement(parser);
+                }
+                parser.nextTag(); // TAG_VALUE (</value>)
+                parser.require(XmlPullParser.END_TAG, null, TAG_VALUE);
+                parser.nextTag();
+            }
+            parser.require(XmlPullParser.END_TAG, null, TAG_DATA);
+            parser.nextTag(); // TAG_ARRAY (</array>)
+            parser.require(XmlPullParser.END_TAG, null, TYPE_ARRAY);
+        } else if (typeNodeName.equals(TYPE_STRUCT)) {
+            valuesList.add(deserializeStructValues(parser, schema, dateFormat, seen));
+        } else {
+            skipElement(parser);
+        }
+        parser.nextTag(); // TAG_VALUE (</value>)
+        parser.require(XmlPullParser.END_TAG, null, TAG_VALUE);
+        return valuesList;
+    }
+
+    /*
+     * parser is positioned on <struct> and is left on </struct>
+     */
+    private static ContentValues deserializeStructValues(XmlPullParser parser, XMLRPCSchema schema,
+                                                         SimpleDateFormat dateFormat, boolean[] seen)
+            throws XmlPullParserException, IOException {
+        ContentValues values = new ContentValues(schema.getFieldCount());
+        Arrays.fill(seen, false);
+
+        parser.nextTag();
+        while (parser.getName().equals(TAG_MEMBER)) {
+            XMLRPCSchema.Field field = null;
+            while (true) {
+                parser.nextTag();
+                String name = parser.getName();
+                if (name.equals(TAG_NAME)) {
+                    field = schema.getField(parser.nextText());
+                } else if (name.equals(TAG_VALUE)) {
+                    if (field == null) {
+                        // XML-RPC puts the name first, so this member isn't one we need
+                        skipElement(parser);
+                    } else if (field.decoder != null) {
+                        seen[field.index] = true;
+                        field.decoder.decode(values, deserialize(parser));
+                    } else {
+                        seen[field.index] = true;
+                        deserializeField(parser, field, values, dateFormat);
+                    }
+                } else {
+                    break;
+                }
+            }
+            parser.require(XmlPullParser.END_TAG, null, TAG_MEMBER);
+            parser.nextTag();
+        }
+        parser.require(XmlPullParser.END_TAG, null, TYPE_STRUCT);
+
+        schema.applyDefaults(values, seen);
+        return values;
+    }
+
+    /*
+     * reads a scalar <value> straight into the passed values - parser is positioned on <value>
+     * and is left on </value>
+     */
+    private static void deserializeField(XmlPullParser parser, XMLRPCSchema.Field field, ContentValues values,
+                                         SimpleDateFormat dateFormat)
+            throws XmlPullParserException, IOException {
+        parser.nextTag();
+        String typeNodeName = parser.getName();
+        if (typeNodeName.equals(TYPE_ARRAY) || typeNodeName.equals(TYPE_STRUCT) || typeNodeName.equals(TYPE_BASE64)) {
+            // not a scalar, so it can't be stored in a scalar field
+            skipElement(parser);
+            XMLRPCSchema.putValue(values, field, field.defaultValue);
+        } else if (field.type == XMLRPCSchema.TYPE_DATE) {
+            String text = parser.nextText();
+            if (typeNodeName.equals(TYPE_DATE_TIME_ISO8601)) {
+                try {
+                    values.put(field.key, dateFormat.parse(text).getTime());
+                } catch (ParseException e) {
+                    AppLog.e(T.API, e);
+                }
+            }
+        } else {
+            String text = parser.nextText();
+            if (typeNodeName.equals(TYPE_BOOLEAN)) {
+                // match the string form of the Boolean the generic parser returns
+                text = text.equals("1") ? "true" : "false";
+            }
+            XMLRPCSchema.putValue(values, field, XMLRPCSchema.convertScalar(field, text));
+        }
+        parser.nextTag(); // TAG_VALUE (</value>)
+        parser.require(XmlPullParser.END_TAG, null, TAG_VALUE);
+    }
+
+    /*
+     * skips the element the parser is positioned on, leaving the parser on its end tag
+     */
+    private static void skipElement(XmlPullParser parser) throws XmlPullParserException, IOException {
+        parser.require(XmlPullParser.START_TAG, null, null);
+        int depth = 1;
+        while (depth > 0) {
+            switch (parser.next()) {
+                case XmlPullParser.START_TAG:
+                    depth++;
+                    break;
+                case XmlPullParser.END_TAG:
+                    depth--;
+                    break;
+                case XmlPullParser.END_DOCUMENT:
+                    throw new XmlPullParserException("Unexpected end of document");
+            }
+        }
+    }
 }
@@ -0,0 +1,191 @@
+package org.xmlrpc.android;
+
+import android.util.Base64;
+import android.util.Base64InputStream;
+import android.util.Xml;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.wordpress.android.util.helpers.MediaFile;
+import org.xmlpull.v1.XmlSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Request body for XML-RPC calls that upload media. The XML around each media file is serialized
+ * up front, and the media files themselves are base64-encoded straight from disk into the output
+ * stream while the request is being sent, so the request is never written to a temp file. The
+ * encoded size is known ahead of time, so the body is sent with a regular Content-Length.
+ */
+class XMLRPCUploadEntity extends AbstractHttpEntity {
+    // must be a multiple of 3 so each chunk encodes without padding
+    private static final int CHUNK_SIZE = 3 * 16 * 1024;
+
+    private static final String TAG_METHOD_CALL = "methodCall";
+    private static final String TAG_METHOD_NAME = "methodName";
+    private static final String TAG_PARAMS = "params";
+    private static final String TAG_PARAM = "param";
+
+    private final byte[] mXml;
+    // offsets in mXml where each media file's encoded content belongs
+    private final List<Integer> mOffsets = new ArrayList<>();
+    private final List<File> mFiles = new ArrayList<>();
+    private final List<Long> mFileLengths = new ArrayList<>();
+    private final long mContentLength;
+
+    XMLRPCUploadEntity(String method, Object[] params) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final XmlSerializer serializer = Xml.newSerializer();
+        serializer.setOutput(buffer, "UTF-8");
+
+        XMLRPCSerializer.MediaFileWriter mediaFileWriter = new XMLRPCSerializer.MediaFileWriter() {
+            @Override
+            public void writeMediaFile(XmlSerializer serializer, MediaFile mediaFile) throws IOException {
+                File file = new File(mediaFile.getFilePath());
+                if (!file.isFile()) {
+                    throw new FileNotFoundException(mediaFile.getFilePath());
+                }
+                // close the pending start tag so the offset is where the encoded content starts
+                serializer.text("");
+                serializer.flush();
+                mOffsets.add(buffer.size());
+                mFiles.add(file);
+                mFileLengths.add(file.length());
+            }
+        };
+
+        serializer.startDocument(null, null);
+        serializer.startTag(null, TAG_METHOD_CALL);
+        serializer.startTag(null, TAG_METHOD_NAME).text(method).endTag(null, TAG_METHOD_NAME);
+        if (params != null && params.length != 0) {
+            serializer.startTag(null, TAG_PARAMS);
+            for (Object param : params) {
+                serializer.startTag(null, TAG_PARAM).startTag(null, XMLRPCSerializer.TAG_VALUE);
+                XMLRPCSerializer.serialize(serializer, param, mediaFileWriter);
+                serializer.endTag(null, XMLRPCSerializer.TAG_VALUE).endTag(null, TAG_PARAM);
+            }
+            serializer.endTag(null, TAG_PARAMS);
+        }
+        serializer.endTag(null, TAG_METHOD_CALL);
+        serializer.endDocument();
+        serializer.flush();
+
+        mXml = buffer.toByteArray();
+
+        long contentLength = mXml.length;
+        for (long fileLength : mFileLengths) {
+            contentLength += getBase64Length(fileLength);
+        }
+        mContentLength = contentLength;
+
+        setContentType("text/xml");
+    }
+
+    /*
+     * length of the unwrapped, padded base64 encoding of the passed number of bytes
+     */
+    static long getBase64Length(long numBytes) {
+        return 4 * ((numBytes + 2) / 3);
+    }
+
+    @Override
+    public long getContentLength() {
+        return mContentLength;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        // the media files are re-read each time the body is written
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /*
+     * returns the same body writeTo() writes, encoding the media files as the stream is read - the
+     * http client only calls writeTo(), but other consumers of the entity may read it this way
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        List<InputStream> streams = new ArrayList<>();
+        int xmlOffset = 0;
+        try {
+            for (int i = 0; i < mFiles.size(); i++) {
+                int offset = mOffsets.get(i);
+                streams.add(new ByteArrayInputStream(mXml, xmlOffset, offset - xmlOffset));
+                streams.add(new Base64InputStream(new FileInputStream(mFiles.get(i)), Base64.NO_WRAP, true));
+                xmlOffset = offset;
+            }
+        } catch (IOException e) {
+            for (InputStream stream : streams) {
+                stream.close();
+            }
+            throw e;
+        }
+        streams.add(new ByteArrayInputStream(mXml, xmlOffset, mXml.length - xmlOffset));
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+        if (outstream == null) {
+            throw new IllegalArgumentException("Output stream may not be null");
+        }
+
+        int xmlOffset = 0;
+        byte[] chunk = new byte[CHUNK_SIZE];
+        for (int i = 0; i < mFiles.size(); i++) {
+            int offset = mOffsets.get(i);
+            outstream.write(mXml, xmlOffset, offset - xmlOffset);
+            xmlOffset = offset;
+
+            long bytesRead = 0;
+            InputStream inStream = new FileInputStream(mFiles.get(i));
+            try {
+                int length;
+                while ((length = readChunk(inStream, chunk)) > 0) {
+                    outstream.write(Base64.encode(chunk, 0, length, Base64.NO_WRAP));
+                    bytesRead += length;
+                }
+            } finally {
+                inStream.close();
+            }
+
+            // the Content-Length has already been sent, so a file that changed size can't be recovered from
+            if (bytesRead != mFileLengths.get(i)) {
+                throw new IOException("Media file changed during upload: " + mFiles.get(i).getPath());
+            }
+        }
+        outstream.write(mXml, xmlOffset, mXml.length - xmlOffset);
+        outstream.flush();
+    }
+
+    /*
+     * fills the passed buffer unless the end of the stream is reached, so only the final chunk
+     * can have a length that isn't a multiple of 3 (which would add padding mid-stream)
+     */
+    private static int readChunk(InputStream inStream, byte[] chunk) throws IOException {
+        int total = 0;
+        while (total < chunk.length) {
+            int length = inStream.read(chunk, total, chunk.length - total);
+            if (length < 0) {
+                break;
+            }
+            total += length;
+        }
+        return total;
+    }
+}
@@ -207,6 +207,7 @@ public class XMLRPCUtils {
             }
             // Exit the loop on the first URL that replies with a XML-RPC doc.
             AppLog.i(AppLog.T.NUX, "system.listMethods replied with XML-RPC objects on the URL: " + url);
+            XMLRPCBatch.setMulticallSupported(url, Arrays.asList(methods).contains(XMLRPCBatch.METHOD_MULTICALL));
             AppLog.i(AppLog.T.NUX, "Validating the XML-RPC response...");
             if (validateListMethodsResponse(methods)) {
                 // Endpoint address found and works fine.
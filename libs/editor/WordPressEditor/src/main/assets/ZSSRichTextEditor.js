@@ -3804,6 +3804,44 @@ ZSSField.prototype.getHTMLForCallback = function() {
     ZSSEditor.callback('callback-response-string', joinedArguments);
 };
 
+/**
+ *  @brief      Sends the contents of the title and content fields to the native side in one go.
+ *  @details    Large posts are split into chunks so no single callback has to carry the whole document.
+ *              Each chunk is sent as requestId~fieldId~isLast~chunk, with the chunk last since it can
+ *              contain the separator.
+ *
+ *  @param      requestId   Identifies the request the chunks belong to.
+ *  @param      chunkSize   The maximum number of characters in each chunk.
+ */
+ZSSEditor.getTitleAndContentForCallback = function(requestId, chunkSize) {
+    var fields = [ZSSEditor.getField('zss_field_title'), ZSSEditor.getField('zss_field_content')];
+
+    for (var i = 0; i < fields.length; i++) {
+        var field = fields[i];
+        var html = field.hasNoStyle ? field.strippedHTML() : field.getHTML();
+        var offset = 0;
+
+        do {
+            var end = Math.min(offset + chunkSize, html.length);
+            // Don't split a surrogate pair between two chunks
+            if (end < html.length && /[\uD800-\uDBFF]/.test(html.charAt(end - 1))) {
+                end--;
+            }
+
+            var chunk = html.substring(offset, end);
+            if (nativeState.androidApiLevel < 17) {
+                // URI Encode HTML on API < 17, see getHTMLForCallback()
+                chunk = encodeURIComponent(chunk);
+            }
+
+            var isLast = (end >= html.length) ? "1" : "0";
+            ZSSEditor.callback('callback-response-chunk', requestId + defaultCallbackSeparator + field.getNodeId() +
+                defaultCallbackSeparator + isLast + defaultCallbackSeparator + chunk);
+            offset = end;
+        } while (offset < html.length);
+    }
+};
+
 ZSSField.prototype.strippedHTML = function() {
     return this.wrappedObject.text();
 };
@@ -21,9 +21,9 @@ import android.support.v7.app.ActionBar;
 import android.support.v7.app.AlertDialog;
 import android.support.v7.app.AppCompatActivity;
 import android.text.Editable;
-import android.text.SpannableString;
 import android.text.Spanned;
 import android.text.TextUtils;
+import android.text.TextWatcher;
 import android.view.DragEvent;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
@@ -64,6 +64,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class EditorFragment extends EditorFragmentAbstract implements View.OnClickListener, View.OnTouchListener,
         OnJsEditorStateChangedListener, OnImeBackListener, EditorWebViewAbstract.AuthHeaderRequestListener,
@@ -88,6 +89,12 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     public static final int MAX_ACTION_TIME_MS = 2000;
 
+    // the title and content are sent from JS in chunks of at most this many characters
+    private static final int GET_CONTENT_CHUNK_SIZE = 64 * 1024;
+    // a getTitleAndContent() request still waiting for JS after this long fails with onGetTitleAndContentFailed(),
+    // and the content is marked as changed so the next request asks the editor again
+    private static final int GET_CONTENT_TIMEOUT_MS = 10000;
+
     private String mTitle = "";
     private String mContentHtml = "";
 
@@ -110,6 +117,10 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
     private boolean mHideActionBarOnSoftKeyboardUp = false;
     private boolean mIsFormatBarDisabled = false;
 
+    // set whenever the title or content may have been edited - the JS input callback fires on key presses,
+    // media insertion and selection changes, the rest are edits made from this side of the bridge
+    private volatile boolean mContentChanged = false;
+
     private ConcurrentHashMap<String, MediaFile> mWaitingMediaFiles;
     private Set<MediaGallery> mWaitingGalleries;
     private Map<String, MediaType> mUploadingMedia;
@@ -122,6 +133,9 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
     private CountDownLatch mGetContentCountDownLatch;
     private CountDownLatch mGetSelectedTextCountDownLatch;
 
+    private final AtomicInteger mNextContentRequestId = new AtomicInteger();
+    private final Map<String, ContentRequest> mContentRequests = new ConcurrentHashMap<>();
+
     private final Map<String, ToggleButton> mTagToggleButtonMap = new HashMap<>();
 
     private long mActionStartedAt = -1;
@@ -355,7 +369,24 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
         mSourceViewTitle.setOnImeBackListener(this);
         mSourceViewContent.setOnImeBackListener(this);
 
-        mSourceViewContent.addTextChangedListener(new HtmlStyleTextWatcher());
+        mSourceViewContent.addTextChangedListener(new HtmlStyleHighlighter());
+
+        TextWatcher contentChangedWatcher = new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                mContentChanged = true;
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+            }
+        };
+        mSourceViewTitle.addTextChangedListener(contentChangedWatcher);
+        mSourceViewContent.addTextChangedListener(contentChangedWatcher);
 
         mSourceViewTitle.setHint(mTitlePlaceholder);
         mSourceViewContent.setHint("<p>" + mContentPlaceholder + "</p>");
@@ -645,9 +676,8 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
                             // Set HTML mode state
                             mSourceViewTitle.setText(mTitle);
 
-                            SpannableString spannableContent = new SpannableString(mContentHtml);
-                            HtmlStyleUtils.styleHtmlForDisplay(spannableContent);
-                            mSourceViewContent.setText(spannableContent);
+                            // Styled by the HtmlStyleHighlighter as it's set
+                            mSourceViewContent.setText(mContentHtml);
 
                             mWebView.setVisibility(View.GONE);
                             mSourceView.setVisibility(View.VISIBLE);
@@ -745,6 +775,8 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
             return;
         }
 
+        mContentChanged = true;
+
         int id = v.getId();
         if (id == R.id.format_bar_button_html) {
             checkForFailedUploadAndSwitchToHtmlMode((ToggleButton) v);
@@ -811,6 +843,9 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
     public void onActivityResult(int requestCode, int resultCode, Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
 
+        // link and image settings dialogs
+        mContentChanged = true;
+
         if ((requestCode == LinkDialogFragment.LINK_DIALOG_REQUEST_CODE_ADD ||
                 requestCode == LinkDialogFragment.LINK_DIALOG_REQUEST_CODE_UPDATE)) {
 
@@ -917,6 +952,55 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
         mContentHtml = text.toString();
     }
 
+    /**
+     * Asks the JavaScript editor for the title and content in a single call and returns without waiting. The
+     * fields are sent back in chunks, and the listener is called on the JS callback thread once both have arrived,
+     * or told the request failed on the main thread if they don't arrive in time.
+     */
+    @Override
+    public void getTitleAndContent(final OnGetTitleAndContentListener listener) {
+        if (!isAdded() || !mDomHasLoaded) {
+            // Nothing has been loaded into the editor yet, so the last values set are the current ones
+            listener.onGetTitleAndContent(StringUtils.notNullStr(mTitle), StringUtils.notNullStr(mContentHtml));
+            return;
+        }
+
+        if (mSourceView != null && mSourceView.getVisibility() == View.VISIBLE) {
+            mTitle = mSourceViewTitle.getText().toString();
+            mContentHtml = mSourceViewContent.getText().toString();
+            listener.onGetTitleAndContent(mTitle, mContentHtml);
+            return;
+        }
+
+        final String requestId = String.valueOf(mNextContentRequestId.incrementAndGet());
+        mContentRequests.put(requestId, new ContentRequest(listener));
+        mWebView.execJavaScriptFromString("ZSSEditor.getTitleAndContentForCallback('" + requestId + "', " +
+                GET_CONTENT_CHUNK_SIZE + ");");
+
+        mWebView.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                if (mContentRequests.remove(requestId) != null) {
+                    // The last known title and content may be stale, so they aren't passed on
+                    AppLog.w(T.EDITOR, "getTitleAndContent() timed out");
+                    // Make sure the next caller asks the editor again
+                    mContentChanged = true;
+                    listener.onGetTitleAndContentFailed();
+                }
+            }
+        }, GET_CONTENT_TIMEOUT_MS);
+    }
+
+    @Override
+    public boolean hasContentChanged() {
+        return mContentChanged;
+    }
+
+    @Override
+    public void clearContentChanged() {
+        mContentChanged = false;
+    }
+
     /**
      * Returns the contents of the title field from the JavaScript editor. Should be called from a background thread
      * where possible.
@@ -1004,6 +1088,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
             return;
         }
 
+        mContentChanged = true;
         final String safeMediaUrl = Utils.escapeQuotes(mediaUrl);
 
         mWebView.post(new Runnable() {
@@ -1049,6 +1134,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
             return;
         }
 
+        mContentChanged = true;
         if (mediaGallery.getIds().isEmpty()) {
             mUploadingMediaGallery = mediaGallery;
             mWebView.execJavaScriptFromString("ZSSEditor.insertLocalGallery('" + mediaGallery.getUniqueId() + "');");
@@ -1064,6 +1150,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void setUrlForVideoPressId(final String videoId, final String videoUrl, final String posterUrl) {
+        mContentChanged = true;
         mWebView.post(new Runnable() {
             @Override
             public void run() {
@@ -1085,6 +1172,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void removeAllFailedMediaUploads() {
+        mContentChanged = true;
         mWebView.execJavaScriptFromString("ZSSEditor.removeAllFailedMediaUploads();");
     }
 
@@ -1107,6 +1195,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
     public void onMediaUploadSucceeded(final String localMediaId, final MediaFile mediaFile) {
         final MediaType mediaType = mUploadingMedia.get(localMediaId);
         if (mediaType != null) {
+            mContentChanged = true;
             mWebView.post(new Runnable() {
                 @Override
                 public void run() {
@@ -1160,6 +1249,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
                     }
                     mFailedMediaIds.add(mediaId);
                     mUploadingMedia.remove(mediaId);
+                    mContentChanged = true;
                 }
             }
         });
@@ -1173,6 +1263,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
             mUploadingMediaGallery.setIds(mediaIds);
 
             if (remaining == 0) {
+                mContentChanged = true;
                 mWebView.post(new Runnable() {
                     @Override
                     public void run() {
@@ -1186,6 +1277,10 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
         }
     }
 
+    public void onInput() {
+        mContentChanged = true;
+    }
+
     public void onDomLoaded() {
         ProfilingUtils.split("EditorFragment.onDomLoaded");
 
@@ -1441,6 +1536,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void onMediaRemoved(String mediaId) {
+        mContentChanged = true;
         mUploadingMedia.remove(mediaId);
         mFailedMediaIds.remove(mediaId);
         mEditorFragmentListener.onMediaUploadCancelClicked(mediaId, true);
@@ -1448,6 +1544,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void onMediaReplaced(String mediaId) {
+        mContentChanged = true;
         mUploadingMedia.remove(mediaId);
     }
 
@@ -1494,6 +1591,47 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
         }
     }
 
+    public void onGetContentChunk(String requestId, String fieldId, boolean isLast, String chunk) {
+        ContentRequest request = mContentRequests.get(requestId);
+        if (request == null) {
+            // The request has timed out
+            return;
+        }
+
+        switch (fieldId) {
+            case "zss_field_title":
+                request.title.append(chunk);
+                request.hasTitle = isLast;
+                break;
+            case "zss_field_content":
+                request.content.append(chunk);
+                request.hasContent = isLast;
+                break;
+        }
+
+        if (request.hasTitle && request.hasContent && mContentRequests.remove(requestId) != null) {
+            mTitle = request.title.toString().replaceAll("&nbsp;$", "");
+            mContentHtml = request.content.toString();
+            request.listener.onGetTitleAndContent(mTitle, mContentHtml);
+        }
+    }
+
+    /**
+     * A getTitleAndContent() request waiting for its chunks to arrive from JS. Chunks for a request all arrive
+     * on the JS callback thread.
+     */
+    private static class ContentRequest {
+        final OnGetTitleAndContentListener listener;
+        final StringBuilder title = new StringBuilder();
+        final StringBuilder content = new StringBuilder();
+        boolean hasTitle;
+        boolean hasContent;
+
+        ContentRequest(OnGetTitleAndContentListener listener) {
+            this.listener = listener;
+        }
+    }
+
     public void setWebViewErrorListener(ErrorListener errorListener) {
         mWebView.setErrorListener(errorListener);
     }
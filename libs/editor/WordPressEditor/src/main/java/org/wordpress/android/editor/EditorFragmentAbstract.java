@@ -137,6 +137,30 @@ public abstract class EditorFragmentAbstract extends Fragment {
         // Not unused in the new editor
     }
 
+    /**
+     * Reads the title and content from the editor without blocking the caller. Must be called from the main thread,
+     * the listener may be called on any thread. Editors which can read their fields directly pass them on right away.
+     */
+    public void getTitleAndContent(OnGetTitleAndContentListener listener) {
+        listener.onGetTitleAndContent(getTitle(), getContent());
+    }
+
+    /**
+     * Returns true if the title or content may have changed since the last call to clearContentChanged(),
+     * so callers can skip reading them back from the editor when nothing was edited. Editors which don't
+     * track changes always return true.
+     */
+    public boolean hasContentChanged() {
+        return true;
+    }
+
+    /**
+     * Called once the title and content have been read back from the editor.
+     */
+    public void clearContentChanged() {
+        // Not used in the legacy editor
+    }
+
     /**
      * Callbacks used to communicate with the parent Activity
      */
@@ -154,6 +178,15 @@ public abstract class EditorFragmentAbstract extends Fragment {
         void onTrackableEvent(TrackableEvent event);
     }
 
+    /**
+     * Callback for getTitleAndContent()
+     */
+    public interface OnGetTitleAndContentListener {
+        void onGetTitleAndContent(CharSequence title, CharSequence content);
+        // the editor didn't answer in time, so its current title and content are unknown
+        void onGetTitleAndContentFailed();
+    }
+
     /**
      * Callbacks for drag and drop support
      */
@@ -0,0 +1,80 @@
+package org.wordpress.android.editor;
+
+import android.graphics.Typeface;
+import android.text.style.CharacterStyle;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.RelativeSizeSpan;
+import android.text.style.StyleSpan;
+
+import java.util.ArrayDeque;
+
+/**
+ * Keeps the spans removed while re-styling the HTML source view so they can be set again instead of allocating new
+ * ones. The spans are immutable, so any span with the right attributes can be reused once it's been removed.
+ */
+class HtmlSpanPool {
+    // spans kept of each kind, any more are left to the garbage collector
+    private static final int MAX_POOL_SIZE = 512;
+
+    private final ArrayDeque<ForegroundColorSpan> mTagColorSpans = new ArrayDeque<>();
+    private final ArrayDeque<ForegroundColorSpan> mAttributeColorSpans = new ArrayDeque<>();
+    private final ArrayDeque<StyleSpan> mItalicSpans = new ArrayDeque<>();
+    private final ArrayDeque<StyleSpan> mBoldSpans = new ArrayDeque<>();
+    private final ArrayDeque<RelativeSizeSpan> mRelativeSizeSpans = new ArrayDeque<>();
+
+    /*
+     * adds a span which has been removed from the text to the pool, if it's one HtmlStyleUtils can reuse
+     */
+    void recycle(CharacterStyle span) {
+        if (span instanceof ForegroundColorSpan) {
+            int color = ((ForegroundColorSpan) span).getForegroundColor();
+            if (color == HtmlStyleUtils.TAG_COLOR) {
+                add(mTagColorSpans, (ForegroundColorSpan) span);
+            } else if (color == HtmlStyleUtils.ATTRIBUTE_COLOR) {
+                add(mAttributeColorSpans, (ForegroundColorSpan) span);
+            }
+        } else if (span instanceof StyleSpan) {
+            int style = ((StyleSpan) span).getStyle();
+            if (style == Typeface.ITALIC) {
+                add(mItalicSpans, (StyleSpan) span);
+            } else if (style == Typeface.BOLD) {
+                add(mBoldSpans, (StyleSpan) span);
+            }
+        } else if (span instanceof RelativeSizeSpan) {
+            if (((RelativeSizeSpan) span).getSizeChange() == HtmlStyleUtils.SMALL_TEXT_SIZE) {
+                add(mRelativeSizeSpans, (RelativeSizeSpan) span);
+            }
+        }
+    }
+
+    /*
+     * the obtain methods return null if there's no matching span in the pool
+     */
+    ForegroundColorSpan obtainForegroundColorSpan(int color) {
+        if (color == HtmlStyleUtils.TAG_COLOR) {
+            return mTagColorSpans.poll();
+        } else if (color == HtmlStyleUtils.ATTRIBUTE_COLOR) {
+            return mAttributeColorSpans.poll();
+        }
+        return null;
+    }
+
+    StyleSpan obtainStyleSpan(int style) {
+        if (style == Typeface.ITALIC) {
+            return mItalicSpans.poll();
+        } else if (style == Typeface.BOLD) {
+            return mBoldSpans.poll();
+        }
+        return null;
+    }
+
+    RelativeSizeSpan obtainSmallTextSpan() {
+        return mRelativeSizeSpans.poll();
+    }
+
+    private static <T> void add(ArrayDeque<T> pool, T span) {
+        if (pool.size() < MAX_POOL_SIZE) {
+            pool.add(span);
+        }
+    }
+}
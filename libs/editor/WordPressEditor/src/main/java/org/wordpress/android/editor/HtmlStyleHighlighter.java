@@ -0,0 +1,296 @@
+package org.wordpress.android.editor;
+
+import android.text.Editable;
+import android.text.Spannable;
+import android.text.TextUtils;
+import android.text.TextWatcher;
+
+/**
+ * Styles the HTML source view as it's edited, using the rules in {@link HtmlStyleUtils}.
+ *
+ * The whole text is tokenized once, and the highlighter keeps checkpoints recording where tokenizing has to resume
+ * from to re-tokenize the text after them - the start of the tag, comment or entity covering the checkpoint, or the
+ * checkpoint itself. There's a checkpoint at the start of every line, plus one every so often on long lines, since the
+ * HTML coming from the visual editor is often a single line. After an edit, tokenizing resumes from the checkpoint
+ * before the edit and stops at the first point after it which is outside any token both before and after the edit,
+ * since everything from there on tokenizes just like before. Only the spans in that region are replaced, and the
+ * removed spans are reused for the new tokens.
+ */
+public class HtmlStyleHighlighter implements TextWatcher {
+    // minimum distance between checkpoints within a line
+    private static final int CHECKPOINT_SPACING = 512;
+
+    private final HtmlTokenizer mTokenizer = new HtmlTokenizer();
+    private final HtmlSpanPool mSpanPool = new HtmlSpanPool();
+
+    // offset of each checkpoint and where tokenizing resumes from to re-tokenize the text after it, in order - empty
+    // until the text has been styled, after that the first checkpoint is always the start of the text
+    private int[] mCheckpoints = new int[64];
+    private int[] mCheckpointResumes = new int[64];
+    private int mCheckpointCount;
+
+    // checkpoints found while re-tokenizing
+    private int[] mNewCheckpoints = new int[64];
+    private int[] mNewCheckpointResumes = new int[64];
+    private int mNewCheckpointCount;
+
+    // tokens found while re-tokenizing, as (type, start, end) triples
+    private int[] mTokens = new int[96];
+    private int mTokenCount;
+
+    // the change reported by onTextChanged(), styled in afterTextChanged()
+    private int mChangeStart = -1;
+    private int mChangeBefore;
+    private int mChangeCount;
+    private boolean mRestyleAll;
+
+    private final HtmlTokenizer.TokenListener mTokenListener = new HtmlTokenizer.TokenListener() {
+        @Override
+        public void onToken(int type, int start, int end) {
+            if (mTokenCount + 3 > mTokens.length) {
+                int[] tokens = new int[mTokens.length * 2];
+                System.arraycopy(mTokens, 0, tokens, 0, mTokenCount);
+                mTokens = tokens;
+            }
+            mTokens[mTokenCount++] = type;
+            mTokens[mTokenCount++] = start;
+            mTokens[mTokenCount++] = end;
+        }
+    };
+
+    @Override
+    public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+    }
+
+    @Override
+    public void onTextChanged(CharSequence s, int start, int before, int count) {
+        if (mChangeStart >= 0) {
+            // More than one change since the last afterTextChanged(), don't try to work out what they affected
+            mRestyleAll = true;
+        }
+        mChangeStart = start;
+        mChangeBefore = before;
+        mChangeCount = count;
+    }
+
+    @Override
+    public void afterTextChanged(Editable s) {
+        if (s != null && mChangeStart >= 0) {
+            if (mRestyleAll || mCheckpointCount == 0) {
+                styleAll(s);
+            } else {
+                styleChange(s, mChangeStart, mChangeBefore, mChangeCount);
+            }
+        }
+        mChangeStart = -1;
+        mRestyleAll = false;
+    }
+
+    /**
+     * Clears and re-applies the styles of the whole of {@code content}.
+     */
+    public void styleAll(Spannable content) {
+        if (HtmlStyleUtils.isStylingDisabled()) {
+            return;
+        }
+
+        mCheckpoints[0] = 0;
+        mCheckpointResumes[0] = 0;
+        mCheckpointCount = 1;
+        retokenize(content, 0, 1, content.length(), 0, 1);
+    }
+
+    /**
+     * Re-styles {@code content} after the {@code before} characters at {@code start} were replaced by {@code count}
+     * new ones. {@code content} must have been styled by this highlighter before the change.
+     */
+    public void styleChange(Spannable content, int start, int before, int count) {
+        if (HtmlStyleUtils.isStylingDisabled()) {
+            return;
+        }
+
+        int checkpoint = findCheckpoint(start);
+        int resume = mCheckpointResumes[checkpoint];
+        if (resume > content.length()) {
+            styleAll(content);
+            return;
+        }
+
+        retokenize(content, resume, findCheckpoint(resume) + 1, start + count, count - before, checkpoint + 1);
+    }
+
+    /**
+     * Tokenizes {@code content} from {@code resume} until reaching a point after {@code changeEnd} which is outside
+     * any token both now and before the change, then restyles that part of the text and updates the checkpoints.
+     * @param keepCheckpoints the number of checkpoints at or before {@code resume}
+     * @param delta the change in the length of the text
+     * @param oldCheckpoint the first checkpoint which was after the start of the change
+     */
+    private void retokenize(Spannable content, int resume, int keepCheckpoints, int changeEnd, int delta,
+                            int oldCheckpoint) {
+        int length = content.length();
+        int stopPos = length;
+        boolean converged = false;
+
+        // The last candidate tag which was looked past without finding its end - the text after it up to where the
+        // tokenizer looked has to be re-tokenized from it
+        int dependencyStart = -1;
+        int dependencyEnd = -1;
+
+        mTokenCount = 0;
+        mNewCheckpointCount = 0;
+        int lastCheckpoint = resume;
+        int nextLineStart = getNextLineStart(content, resume);
+        int pos = resume;
+
+        while (pos < length) {
+            int unitStart = pos;
+            int tokenCount = mTokenCount;
+            pos = mTokenizer.scan(content, pos, length, mTokenListener);
+            boolean isToken = (mTokenCount > tokenCount);
+            if (mTokenizer.getLookaheadEnd() > pos) {
+                if (dependencyEnd <= unitStart) {
+                    dependencyStart = unitStart;
+                }
+                dependencyEnd = Math.max(dependencyEnd, mTokenizer.getLookaheadEnd());
+            }
+
+            // Line starts inside the unit, and the one right after it
+            while (nextLineStart >= 0 && nextLineStart <= pos) {
+                int lineStart = nextLineStart;
+                int lineResume = (isToken && lineStart < pos) ? unitStart : lineStart;
+                if (dependencyStart < lineResume && lineResume < dependencyEnd) {
+                    lineResume = dependencyStart;
+                }
+
+                if (lineResume == lineStart && lineStart >= changeEnd) {
+                    oldCheckpoint = findOldCheckpoint(lineStart - delta, oldCheckpoint);
+                    if (isFreeOldCheckpoint(oldCheckpoint, lineStart - delta)) {
+                        stopPos = lineStart;
+                        converged = true;
+                        break;
+                    }
+                }
+
+                addCheckpoint(lineStart, lineResume);
+                lastCheckpoint = lineStart;
+                nextLineStart = getNextLineStart(content, lineStart);
+            }
+            if (converged) {
+                break;
+            }
+
+            // The end of the unit is outside any token unless a candidate tag before it is still open
+            if (pos < length && pos != lastCheckpoint && !(dependencyStart < pos && pos < dependencyEnd)) {
+                if (pos >= changeEnd) {
+                    oldCheckpoint = findOldCheckpoint(pos - delta, oldCheckpoint);
+                    if (isFreeOldCheckpoint(oldCheckpoint, pos - delta)) {
+                        stopPos = pos;
+                        converged = true;
+                        break;
+                    }
+                }
+                if (pos - lastCheckpoint >= CHECKPOINT_SPACING) {
+                    addCheckpoint(pos, pos);
+                    lastCheckpoint = pos;
+                }
+            }
+        }
+
+        // Also clears any spans left empty by the change when nothing needs tokenizing
+        HtmlStyleUtils.clearSpansInside(content, resume, stopPos, mSpanPool);
+        for (int i = 0; i < mTokenCount; i += 3) {
+            HtmlStyleUtils.applySpans(content, mTokens[i], mTokens[i + 1], mTokens[i + 2], mSpanPool);
+        }
+
+        updateCheckpoints(keepCheckpoints, converged ? oldCheckpoint : mCheckpointCount, delta);
+    }
+
+    /**
+     * Returns the index of the first old checkpoint at or after {@code offset}, searching from {@code from}.
+     */
+    private int findOldCheckpoint(int offset, int from) {
+        int checkpoint = from;
+        while (checkpoint < mCheckpointCount && mCheckpoints[checkpoint] < offset) {
+            checkpoint++;
+        }
+        return checkpoint;
+    }
+
+    private boolean isFreeOldCheckpoint(int checkpoint, int offset) {
+        return checkpoint < mCheckpointCount && mCheckpoints[checkpoint] == offset
+                && mCheckpointResumes[checkpoint] == offset;
+    }
+
+    /**
+     * Replaces the checkpoints from {@code keepCheckpoints} up to {@code firstTailCheckpoint} with the ones found by
+     * the last call to {@link #retokenize}, and shifts the ones after them by {@code delta}.
+     */
+    private void updateCheckpoints(int keepCheckpoints, int firstTailCheckpoint, int delta) {
+        int tailCount = mCheckpointCount - firstTailCheckpoint;
+        int checkpointCount = keepCheckpoints + mNewCheckpointCount + tailCount;
+
+        int[] checkpoints = mCheckpoints;
+        int[] checkpointResumes = mCheckpointResumes;
+        if (checkpointCount > mCheckpoints.length) {
+            checkpoints = new int[checkpointCount * 3 / 2];
+            checkpointResumes = new int[checkpointCount * 3 / 2];
+            System.arraycopy(mCheckpoints, 0, checkpoints, 0, keepCheckpoints);
+            System.arraycopy(mCheckpointResumes, 0, checkpointResumes, 0, keepCheckpoints);
+        }
+
+        int tailStart = keepCheckpoints + mNewCheckpointCount;
+        System.arraycopy(mCheckpoints, firstTailCheckpoint, checkpoints, tailStart, tailCount);
+        System.arraycopy(mCheckpointResumes, firstTailCheckpoint, checkpointResumes, tailStart, tailCount);
+        for (int i = tailStart; i < checkpointCount; i++) {
+            checkpoints[i] += delta;
+            checkpointResumes[i] += delta;
+        }
+
+        System.arraycopy(mNewCheckpoints, 0, checkpoints, keepCheckpoints, mNewCheckpointCount);
+        System.arraycopy(mNewCheckpointResumes, 0, checkpointResumes, keepCheckpoints, mNewCheckpointCount);
+
+        mCheckpoints = checkpoints;
+        mCheckpointResumes = checkpointResumes;
+        mCheckpointCount = checkpointCount;
+    }
+
+    private void addCheckpoint(int offset, int resume) {
+        if (mNewCheckpointCount == mNewCheckpoints.length) {
+            int[] checkpoints = new int[mNewCheckpointCount * 2];
+            int[] checkpointResumes = new int[mNewCheckpointCount * 2];
+            System.arraycopy(mNewCheckpoints, 0, checkpoints, 0, mNewCheckpointCount);
+            System.arraycopy(mNewCheckpointResumes, 0, checkpointResumes, 0, mNewCheckpointCount);
+            mNewCheckpoints = checkpoints;
+            mNewCheckpointResumes = checkpointResumes;
+        }
+        mNewCheckpoints[mNewCheckpointCount] = offset;
+        mNewCheckpointResumes[mNewCheckpointCount] = resume;
+        mNewCheckpointCount++;
+    }
+
+    /**
+     * Returns the index of the last checkpoint at or before {@code offset}.
+     */
+    private int findCheckpoint(int offset) {
+        int low = 0;
+        int high = mCheckpointCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mCheckpoints[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the start of the first line after {@code offset}, or -1 if {@code offset} is on the last line.
+     */
+    private static int getNextLineStart(CharSequence content, int offset) {
+        int newline = TextUtils.indexOf(content, '\n', offset);
+        return (newline >= 0 ? newline + 1 : -1);
+    }
+}
@@ -12,8 +12,9 @@ import android.text.style.StyleSpan;
 
 import org.wordpress.android.util.AppLog;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 public class HtmlStyleUtils {
     public static final int TAG_COLOR = Color.rgb(0, 80, 130);
@@ -63,6 +64,11 @@ public class HtmlStyleUtils {
 
     public static final int SPANNABLE_FLAGS = Spannable.SPAN_EXCLUSIVE_EXCLUSIVE;
 
+    static final float SMALL_TEXT_SIZE = 0.75f;
+
+    private static final Set<String> HTML_ENTITIES = new HashSet<>(Arrays.asList(
+            REGEX_HTML_ENTITIES.substring(1, REGEX_HTML_ENTITIES.length() - 1).split("\\|")));
+
     /**
      * Apply styling rules to {@code content}.
      */
@@ -77,63 +83,85 @@ public class HtmlStyleUtils {
      * @param start the index in {@code content} to start styling from
      * @param end the index in {@code content} to style until
      */
-    public static void styleHtmlForDisplay(@NonNull Spannable content, int start, int end) {
-        if (Build.VERSION.RELEASE.equals("4.1") || Build.VERSION.RELEASE.equals("4.1.1")) {
-            // Avoids crashing bug in Android 4.1 and 4.1.1 triggered when spanned text is line-wrapped
-            // AOSP issue: https://code.google.com/p/android/issues/detail?id=35466
+    public static void styleHtmlForDisplay(@NonNull final Spannable content, int start, int end) {
+        if (isStylingDisabled()) {
+            return;
+        }
+
+        if (start < 0 || end < 0 || start > content.length() || end > content.length() || start >= end) {
+            AppLog.d(AppLog.T.EDITOR, "styleHtmlForDisplay() received invalid input");
             return;
         }
 
-        applySpansByRegex(content, start, end, REGEX_HTML_TAGS);
-        applySpansByRegex(content, start, end, REGEX_HTML_ATTRIBUTES);
-        applySpansByRegex(content, start, end, REGEX_HTML_COMMENTS);
-        applySpansByRegex(content, start, end, REGEX_HTML_ENTITIES);
+        HtmlTokenizer tokenizer = new HtmlTokenizer();
+        HtmlTokenizer.TokenListener listener = new HtmlTokenizer.TokenListener() {
+            @Override
+            public void onToken(int type, int tokenStart, int tokenEnd) {
+                applySpans(content, type, tokenStart, tokenEnd, null);
+            }
+        };
+
+        int pos = start;
+        while (pos < end) {
+            pos = tokenizer.scan(content, pos, end, listener);
+        }
     }
 
     /**
-     * Applies styles to {@code content} from {@code start} to {@code end}, based on rule {@code regex}.
-     * @param content the Spannable to apply style rules to
-     * @param start the index in {@code content} to start styling from
-     * @param end the index in {@code content} to style until
-     * @param regex the pattern to match for styling
+     * Avoids crashing bug in Android 4.1 and 4.1.1 triggered when spanned text is line-wrapped
+     * AOSP issue: https://code.google.com/p/android/issues/detail?id=35466
      */
-    private static void applySpansByRegex(Spannable content, int start, int end, String regex) {
-        if (content == null || start < 0 || end < 0 || start > content.length() || end > content.length() ||
-                start >= end) {
-            AppLog.d(AppLog.T.EDITOR, "applySpansByRegex() received invalid input");
-            return;
-        }
+    static boolean isStylingDisabled() {
+        return Build.VERSION.RELEASE.equals("4.1") || Build.VERSION.RELEASE.equals("4.1.1");
+    }
 
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(content.subSequence(start, end));
-
-        while (matcher.find()) {
-            int matchStart = matcher.start() + start;
-            int matchEnd = matcher.end() + start;
-            switch(regex) {
-                case REGEX_HTML_TAGS:
-                    content.setSpan(new ForegroundColorSpan(TAG_COLOR), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    break;
-                case REGEX_HTML_ATTRIBUTES:
-                    content.setSpan(new ForegroundColorSpan(ATTRIBUTE_COLOR), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    break;
-                case REGEX_HTML_COMMENTS:
-                    content.setSpan(new ForegroundColorSpan(ATTRIBUTE_COLOR), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    content.setSpan(new StyleSpan(Typeface.ITALIC), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    content.setSpan(new RelativeSizeSpan(0.75f), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    break;
-                case REGEX_HTML_ENTITIES:
-                    content.setSpan(new ForegroundColorSpan(TAG_COLOR), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    content.setSpan(new StyleSpan(Typeface.BOLD), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    content.setSpan(new RelativeSizeSpan(0.75f), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    break;
-            }
+    static boolean isHtmlEntity(String text) {
+        return HTML_ENTITIES.contains(text);
+    }
+
+    /**
+     * Applies the styles for a token of type {@code tokenType} to {@code content} from {@code start} to {@code end}.
+     * @param spanPool spans to reuse, or null to create new ones
+     */
+    static void applySpans(Spannable content, int tokenType, int start, int end, HtmlSpanPool spanPool) {
+        switch (tokenType) {
+            case HtmlTokenizer.TOKEN_TAG:
+                content.setSpan(getForegroundColorSpan(TAG_COLOR, spanPool), start, end, SPANNABLE_FLAGS);
+                break;
+            case HtmlTokenizer.TOKEN_ATTRIBUTE:
+                content.setSpan(getForegroundColorSpan(ATTRIBUTE_COLOR, spanPool), start, end, SPANNABLE_FLAGS);
+                break;
+            case HtmlTokenizer.TOKEN_COMMENT:
+                content.setSpan(getForegroundColorSpan(ATTRIBUTE_COLOR, spanPool), start, end, SPANNABLE_FLAGS);
+                content.setSpan(getStyleSpan(Typeface.ITALIC, spanPool), start, end, SPANNABLE_FLAGS);
+                content.setSpan(getRelativeSizeSpan(spanPool), start, end, SPANNABLE_FLAGS);
+                break;
+            case HtmlTokenizer.TOKEN_ENTITY:
+                content.setSpan(getForegroundColorSpan(TAG_COLOR, spanPool), start, end, SPANNABLE_FLAGS);
+                content.setSpan(getStyleSpan(Typeface.BOLD, spanPool), start, end, SPANNABLE_FLAGS);
+                content.setSpan(getRelativeSizeSpan(spanPool), start, end, SPANNABLE_FLAGS);
+                break;
         }
     }
 
+    private static ForegroundColorSpan getForegroundColorSpan(int color, HtmlSpanPool spanPool) {
+        ForegroundColorSpan span = (spanPool != null ? spanPool.obtainForegroundColorSpan(color) : null);
+        return span != null ? span : new ForegroundColorSpan(color);
+    }
+
+    private static StyleSpan getStyleSpan(int style, HtmlSpanPool spanPool) {
+        StyleSpan span = (spanPool != null ? spanPool.obtainStyleSpan(style) : null);
+        return span != null ? span : new StyleSpan(style);
+    }
+
+    private static RelativeSizeSpan getRelativeSizeSpan(HtmlSpanPool spanPool) {
+        RelativeSizeSpan span = (spanPool != null ? spanPool.obtainSmallTextSpan() : null);
+        return span != null ? span : new RelativeSizeSpan(SMALL_TEXT_SIZE);
+    }
+
     /**
      * Clears all relevant spans in {@code content} from {@code start} to {@code end}. Relevant spans are the subclasses
-     * of {@link CharacterStyle} applied by {@link HtmlStyleUtils#applySpansByRegex(Spannable, int, int, String)}.
+     * of {@link CharacterStyle} applied by {@link HtmlStyleUtils#styleHtmlForDisplay(Spannable, int, int)}.
      * @param content the Spannable to clear styles from
      * @param spanStart the index in {@code content} to start clearing styles from
      * @param spanEnd the index in {@code content} to clear styles until
@@ -147,4 +175,20 @@ public class HtmlStyleUtils {
             }
         }
     }
+
+    /**
+     * Like {@link #clearSpans(Spannable, int, int)}, but only clears the spans lying entirely inside the range, leaving
+     * the ones which just touch it alone. The removed spans are added to {@code spanPool} for reuse.
+     */
+    static void clearSpansInside(Spannable content, int spanStart, int spanEnd, HtmlSpanPool spanPool) {
+        CharacterStyle[] spans = content.getSpans(spanStart, spanEnd, CharacterStyle.class);
+
+        for (CharacterStyle span : spans) {
+            if ((span instanceof ForegroundColorSpan || span instanceof StyleSpan || span instanceof RelativeSizeSpan)
+                    && content.getSpanStart(span) >= spanStart && content.getSpanEnd(span) <= spanEnd) {
+                content.removeSpan(span);
+                spanPool.recycle(span);
+            }
+        }
+    }
 }
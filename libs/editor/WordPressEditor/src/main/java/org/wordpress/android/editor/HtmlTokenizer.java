@@ -0,0 +1,187 @@
+package org.wordpress.android.editor;
+
+/**
+ * Single-pass tokenizer for the HTML source view. Text is split into units - a tag, comment or entity, or a run of
+ * plain text - and the tokens which should be styled are reported to a {@link TokenListener}, along with the quoted
+ * attribute values and entities inside each tag.
+ *
+ * Comments and entities never span lines, and a tag runs from '<' to the next '>' as long as no other '<' comes
+ * first. Deciding whether a '<' starts a tag can mean looking past the end of the unit, so the tokenizer also records
+ * how far the last scan looked ahead - text up to there can change the result of the scan.
+ */
+class HtmlTokenizer {
+    static final int TOKEN_TAG = 0;
+    static final int TOKEN_ATTRIBUTE = 1;
+    static final int TOKEN_COMMENT = 2;
+    static final int TOKEN_ENTITY = 3;
+
+    // length of the longest entity in HtmlStyleUtils.REGEX_HTML_ENTITIES, "&thetasym;"
+    private static final int MAX_ENTITY_LENGTH = 10;
+
+    interface TokenListener {
+        void onToken(int type, int start, int end);
+    }
+
+    private int mLookaheadEnd;
+
+    /**
+     * Scans the unit starting at {@code pos}, reporting any tokens found to {@code listener}.
+     * @param text the text to tokenize
+     * @param pos the start of the unit
+     * @param limit tokens are only matched before this index
+     * @return the end of the unit, where the next one starts
+     */
+    int scan(CharSequence text, int pos, int limit, TokenListener listener) {
+        mLookaheadEnd = pos + 1;
+        char c = text.charAt(pos);
+
+        if (c == '<') {
+            // Up to three characters after the '<' decide whether it starts a comment, a tag or neither
+            mLookaheadEnd = pos + 4;
+            if (regionMatches(text, pos, limit, "<!--")) {
+                int commentEnd = indexOfCommentEnd(text, pos + 4, limit);
+                if (commentEnd > 0) {
+                    listener.onToken(TOKEN_COMMENT, pos, commentEnd);
+                    return commentEnd;
+                }
+                return pos + 1;
+            }
+
+            if (isTagStart(text, pos, limit)) {
+                int i = pos + 1;
+                while (i < limit && text.charAt(i) != '<' && text.charAt(i) != '>') {
+                    i++;
+                }
+                if (i < limit && text.charAt(i) == '>') {
+                    listener.onToken(TOKEN_TAG, pos, i + 1);
+                    scanAttributes(text, pos, i, listener);
+                    scanEntities(text, pos, i, listener);
+                    mLookaheadEnd = i + 1;
+                    return i + 1;
+                }
+                // Not a tag (yet) - it will be if a '>' is typed before the next '<'
+                mLookaheadEnd = Math.max(mLookaheadEnd, i + 1);
+            }
+            return pos + 1;
+        }
+
+        if (c == '&') {
+            int entityEnd = indexOfEntityEnd(text, pos, limit);
+            if (entityEnd > 0) {
+                listener.onToken(TOKEN_ENTITY, pos, entityEnd);
+                return entityEnd;
+            }
+            return pos + 1;
+        }
+
+        // Plain text runs until the next character which could start a token
+        int i = pos + 1;
+        while (i < limit && text.charAt(i) != '<' && text.charAt(i) != '&') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the index up to which the last call to {@link #scan} examined the text. This is past {@code limit} if
+     * the scan ran into it, since text added there could change the result.
+     */
+    int getLookaheadEnd() {
+        return mLookaheadEnd;
+    }
+
+    private static boolean isTagStart(CharSequence text, int pos, int limit) {
+        int i = pos + 1;
+        if (i < limit && text.charAt(i) == '/') {
+            i++;
+        }
+        return i < limit && text.charAt(i) >= 'a' && text.charAt(i) <= 'z';
+    }
+
+    /**
+     * Reports the quoted values following an '=' in the tag from {@code tagStart} to the '>' at {@code tagEnd}.
+     */
+    private static void scanAttributes(CharSequence text, int tagStart, int tagEnd, TokenListener listener) {
+        int i = tagStart + 1;
+        while (i < tagEnd - 1) {
+            char quote = text.charAt(i + 1);
+            if (text.charAt(i) == '=' && (quote == '"' || quote == '\'')) {
+                int valueEnd = i + 2;
+                while (valueEnd < tagEnd && text.charAt(valueEnd) != quote && text.charAt(valueEnd) != '\n') {
+                    valueEnd++;
+                }
+                if (valueEnd < tagEnd && text.charAt(valueEnd) == quote) {
+                    listener.onToken(TOKEN_ATTRIBUTE, i + 1, valueEnd + 1);
+                    i = valueEnd + 1;
+                    continue;
+                }
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Reports the entities in the tag from {@code tagStart} to the '>' at {@code tagEnd}, such as those in a url.
+     */
+    private void scanEntities(CharSequence text, int tagStart, int tagEnd, TokenListener listener) {
+        for (int i = tagStart + 1; i < tagEnd; i++) {
+            if (text.charAt(i) == '&') {
+                int entityEnd = indexOfEntityEnd(text, i, tagEnd);
+                if (entityEnd > 0) {
+                    listener.onToken(TOKEN_ENTITY, i, entityEnd);
+                    i = entityEnd - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the end of the comment whose text starts at {@code pos}, or -1 if it isn't closed on the same line.
+     */
+    private int indexOfCommentEnd(CharSequence text, int pos, int limit) {
+        for (int i = pos; i < limit; i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                mLookaheadEnd = i + 1;
+                return -1;
+            }
+            if (c == '>' && i - 2 >= pos && text.charAt(i - 1) == '-' && text.charAt(i - 2) == '-') {
+                return i + 1;
+            }
+        }
+        mLookaheadEnd = limit + 1;
+        return -1;
+    }
+
+    /**
+     * Returns the end of the entity starting at {@code pos}, or -1 if there's no known entity there.
+     */
+    private int indexOfEntityEnd(CharSequence text, int pos, int limit) {
+        int maxEnd = Math.min(pos + MAX_ENTITY_LENGTH, limit);
+        for (int i = pos + 1; i < maxEnd; i++) {
+            char c = text.charAt(i);
+            if (c == ';') {
+                mLookaheadEnd = i + 1;
+                return HtmlStyleUtils.isHtmlEntity(text.subSequence(pos, i + 1).toString()) ? i + 1 : -1;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '#') {
+                mLookaheadEnd = i + 1;
+                return -1;
+            }
+        }
+        mLookaheadEnd = (maxEnd == limit ? limit + 1 : maxEnd);
+        return -1;
+    }
+
+    private static boolean regionMatches(CharSequence text, int pos, int limit, String prefix) {
+        if (pos + prefix.length() > limit) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(pos + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
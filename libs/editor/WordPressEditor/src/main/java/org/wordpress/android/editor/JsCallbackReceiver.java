@@ -39,6 +39,7 @@ public class JsCallbackReceiver {
     private static final String CALLBACK_LOG = "callback-log";
 
     private static final String CALLBACK_RESPONSE_STRING = "callback-response-string";
+    private static final String CALLBACK_RESPONSE_CHUNK = "callback-response-chunk";
 
     private static final String CALLBACK_ACTION_FINISHED = "callback-action-finished";
 
@@ -81,8 +82,9 @@ public class JsCallbackReceiver {
                 mListener.onSelectionChanged(Utils.buildMapFromKeyValuePairs(selectionKeyValueSet));
                 break;
             case CALLBACK_INPUT:
-                // Called on key press
+                // Called on key press, and when media is inserted or the selection changes
                 // TODO: Possibly needed for handling WebView scrolling when caret moves (from iOS)
+                mListener.onInput();
                 break;
             case CALLBACK_FOCUS_IN:
                 // TODO: Needed to handle displaying/graying the format bar when focus changes between the title and content
@@ -226,6 +228,16 @@ public class JsCallbackReceiver {
                 }
                 mListener.onGetHtmlResponse(Utils.buildMapFromKeyValuePairs(responseDataSet));
                 break;
+            case CALLBACK_RESPONSE_CHUNK:
+                // A piece of a field's contents, sent as requestId~fieldId~isLast~chunk - the chunk itself comes last
+                // since it can contain the delimiter
+                String[] chunkArgs = params.split(JS_CALLBACK_DELIMITER, 4);
+                if (chunkArgs.length == 4) {
+                    mListener.onGetContentChunk(chunkArgs[0], chunkArgs[1], chunkArgs[2].equals("1"), chunkArgs[3]);
+                } else {
+                    AppLog.w(AppLog.T.EDITOR, "Malformed content chunk received");
+                }
+                break;
             case CALLBACK_ACTION_FINISHED:
                 mListener.onActionFinished();
                 break;
@@ -8,6 +8,7 @@ import static org.wordpress.android.editor.EditorFragmentAbstract.MediaType;
 
 public interface OnJsEditorStateChangedListener {
     void onDomLoaded();
+    void onInput();
     void onSelectionChanged(Map<String, String> selectionArgs);
     void onSelectionStyleChanged(Map<String, Boolean> changeSet);
     void onMediaTapped(String mediaId, MediaType mediaType, JSONObject meta, String uploadStatus);
@@ -16,5 +17,6 @@ public interface OnJsEditorStateChangedListener {
     void onMediaReplaced(String mediaId);
     void onVideoPressInfoRequested(String videoId);
     void onGetHtmlResponse(Map<String, String> responseArgs);
+    void onGetContentChunk(String requestId, String fieldId, boolean isLast, String chunk);
     void onActionFinished();
 }
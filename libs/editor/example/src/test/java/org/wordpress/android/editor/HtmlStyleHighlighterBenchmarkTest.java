@@ -0,0 +1,170 @@
+package org.wordpress.android.editor;
+
+import android.text.SpanWatcher;
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.TextWatcher;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Logs the time taken to style a ~100KB post as it's typed into, with the whole post restyled on each keystroke,
+ * with {@link HtmlStyleTextWatcher} and with {@link HtmlStyleHighlighter}, and checks that the highlighter only
+ * restyles the part of the post each keystroke changed.
+ */
+@Config(sdk = 18)
+@RunWith(RobolectricTestRunner.class)
+public class HtmlStyleHighlighterBenchmarkTest {
+    private static final String[] SNIPPETS = new String[]{
+            "<blockquote>some existing content</blockquote> ",
+            "some <del>text</del> < <b>bold text</b>",
+            "text <b>bold</b> &amp; <!--a comment--> <a href=\"website\">link</a>",
+            "\n"};
+    private static final String TYPED_TEXT = "<a href=\"website\">link</a> &amp; more <b>text</b> ";
+    private static final int DOCUMENT_LENGTH = 100 * 1024;
+    private static final int KEYSTROKES = 200;
+
+    @Test
+    public void testTypingIntoLargePost() {
+        String html = buildDocument();
+
+        // Warm up first so the JIT doesn't favor whichever runs last
+        typeIntoDocument(html, new HtmlStyleTextWatcher());
+        typeIntoDocument(html, new HtmlStyleHighlighter());
+
+        long fullRestyleTime = typeIntoDocument(html, null);
+        long textWatcherTime = typeIntoDocument(html, new HtmlStyleTextWatcher());
+        long highlighterTime = typeIntoDocument(html, new HtmlStyleHighlighter());
+
+        AppLog.i(T.EDITOR, "Styling " + KEYSTROKES + " keystrokes in a " + html.length() + " character post:"
+                + " full restyle " + fullRestyleTime / 1000000 + "ms"
+                + ", HtmlStyleTextWatcher " + textWatcherTime / 1000000 + "ms"
+                + ", HtmlStyleHighlighter " + highlighterTime / 1000000 + "ms");
+    }
+
+    @Test
+    public void testHighlighterOnlyRestylesEditedRegion() {
+        String html = buildDocument();
+        SpannableStringBuilder content = new SpannableStringBuilder(html);
+        HtmlStyleHighlighter highlighter = new HtmlStyleHighlighter();
+        highlighter.styleAll(content);
+        int totalSpans = content.getSpans(0, content.length(), Object.class).length;
+
+        // Spans well before the edit have to be left alone, not removed and re-added
+        int offset = html.length() / 2;
+        Object[] headSpans = content.getSpans(0, offset / 2, Object.class);
+
+        SpanCounter counter = new SpanCounter();
+        content.setSpan(counter, 0, content.length(), Spanned.SPAN_INCLUSIVE_INCLUSIVE);
+        int maxTouchedSpans = 0;
+        for (int i = 0; i < KEYSTROKES; i++) {
+            counter.mTouchedSpans = 0;
+            String typed = String.valueOf(TYPED_TEXT.charAt(i % TYPED_TEXT.length()));
+            type(content, offset + i, typed, highlighter);
+            maxTouchedSpans = Math.max(maxTouchedSpans, counter.mTouchedSpans);
+        }
+        content.removeSpan(counter);
+
+        assertTrue("a keystroke touched " + maxTouchedSpans + " of " + totalSpans + " spans",
+                maxTouchedSpans * 10 < totalSpans);
+        assertArrayEquals(headSpans, content.getSpans(0, offset / 2, Object.class));
+    }
+
+    @Test
+    public void testHighlighterMatchesFullRestyle() {
+        String html = buildDocument();
+
+        SpannableStringBuilder highlighted = new SpannableStringBuilder(html);
+        SpannableStringBuilder restyled = new SpannableStringBuilder(html);
+        HtmlStyleHighlighter highlighter = new HtmlStyleHighlighter();
+        highlighter.styleAll(highlighted);
+
+        int offset = html.length() / 2;
+        for (int i = 0; i < KEYSTROKES; i++) {
+            String typed = String.valueOf(TYPED_TEXT.charAt(i % TYPED_TEXT.length()));
+            type(highlighted, offset + i, typed, highlighter);
+            restyled.insert(offset + i, typed);
+        }
+        HtmlStyleUtils.styleHtmlForDisplay(restyled);
+
+        assertEquals(restyled.getSpans(0, restyled.length(), Object.class).length,
+                highlighted.getSpans(0, highlighted.length(), Object.class).length);
+    }
+
+    private static String buildDocument() {
+        StringBuilder html = new StringBuilder(DOCUMENT_LENGTH + 100);
+        for (int i = 0; html.length() < DOCUMENT_LENGTH; i++) {
+            html.append(SNIPPETS[i % SNIPPETS.length]);
+        }
+        return html.toString();
+    }
+
+    /**
+     * Types {@link #TYPED_TEXT} into the middle of {@code html} a character at a time, styling it with
+     * {@code watcher}, or restyling the whole text if it's null. Returns the time taken in nanoseconds.
+     */
+    private static long typeIntoDocument(String html, TextWatcher watcher) {
+        SpannableStringBuilder content = new SpannableStringBuilder(html);
+        if (watcher instanceof HtmlStyleHighlighter) {
+            ((HtmlStyleHighlighter) watcher).styleAll(content);
+        } else {
+            HtmlStyleUtils.styleHtmlForDisplay(content);
+        }
+
+        int offset = html.length() / 2;
+        long start = System.nanoTime();
+        for (int i = 0; i < KEYSTROKES; i++) {
+            String typed = String.valueOf(TYPED_TEXT.charAt(i % TYPED_TEXT.length()));
+            if (watcher != null) {
+                type(content, offset + i, typed, watcher);
+            } else {
+                content.insert(offset + i, typed);
+                HtmlStyleUtils.clearSpans(content, 0, content.length());
+                HtmlStyleUtils.styleHtmlForDisplay(content);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Counts the spans added to or removed from the text it's attached to.
+     */
+    private static class SpanCounter implements SpanWatcher {
+        int mTouchedSpans;
+
+        @Override
+        public void onSpanAdded(Spannable text, Object what, int start, int end) {
+            if (what != this) {
+                mTouchedSpans++;
+            }
+        }
+
+        @Override
+        public void onSpanRemoved(Spannable text, Object what, int start, int end) {
+            if (what != this) {
+                mTouchedSpans++;
+            }
+        }
+
+        @Override
+        public void onSpanChanged(Spannable text, Object what, int ostart, int oend, int nstart, int nend) {
+        }
+    }
+
+    private static void type(SpannableStringBuilder content, int offset, String text, TextWatcher watcher) {
+        watcher.beforeTextChanged(content, offset, 0, text.length());
+        content.insert(offset, text);
+        watcher.onTextChanged(content, offset, 0, text.length());
+        watcher.afterTextChanged(content);
+    }
+}
@@ -0,0 +1,148 @@
+package org.wordpress.android.editor;
+
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+import android.text.style.CharacterStyle;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.RelativeSizeSpan;
+import android.text.style.StyleSpan;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@Config(sdk = 18)
+@RunWith(RobolectricTestRunner.class)
+public class HtmlStyleHighlighterTest {
+
+    private HtmlStyleHighlighter mHighlighter;
+    private SpannableStringBuilder mContent;
+
+    @Before
+    public void setUp() {
+        mHighlighter = new HtmlStyleHighlighter();
+    }
+
+    @Test
+    public void testTypingTag() {
+        setContent("<blockquote>some existing content</blockquote> ");
+
+        type("<");
+        assertStyledLikeFullPass();
+        type("b");
+        assertStyledLikeFullPass();
+        type(">");
+        assertEquals(1, mContent.getSpans(47, 50, ForegroundColorSpan.class).length); // '<b>'
+        assertStyledLikeFullPass();
+        type("bold</b>");
+        assertStyledLikeFullPass();
+    }
+
+    @Test
+    public void testClosingTagStylesEarlierText() {
+        // The '<' isn't a tag until the '>' is typed, on a later line
+        setContent("text <a href=\"website\"\nclass=\"link\"\nlink");
+
+        assertEquals(0, mContent.getSpans(5, 7, ForegroundColorSpan.class).length); // '<a'
+
+        replace(35, 35, ">");
+        assertEquals(1, mContent.getSpans(5, 7, ForegroundColorSpan.class).length); // '<a'
+        assertStyledLikeFullPass();
+
+        replace(35, 36, "");
+        assertEquals(0, mContent.getSpans(5, 7, ForegroundColorSpan.class).length); // '<a'
+        assertStyledLikeFullPass();
+    }
+
+    @Test
+    public void testOpeningCommentStylesLaterText() {
+        setContent("some <del>text</del> < <b>bold text</b>-->\nmore text");
+
+        replace(5, 5, "<!--");
+        assertEquals(1, mContent.getSpans(5, 46, RelativeSizeSpan.class).length); // the comment
+        assertStyledLikeFullPass();
+
+        replace(5, 9, "");
+        assertEquals(0, mContent.getSpans(5, 42, RelativeSizeSpan.class).length);
+        assertStyledLikeFullPass();
+    }
+
+    @Test
+    public void testEditingEntities() {
+        setContent("text <b>bold</b> &am <!--a comment--> <a href=\"website\">link</a>");
+
+        replace(20, 20, "p;");
+        assertEquals(1, mContent.getSpans(17, 22, StyleSpan.class).length); // '&amp;'
+        assertStyledLikeFullPass();
+
+        replace(18, 19, "");
+        assertEquals(0, mContent.getSpans(17, 21, StyleSpan.class).length); // '&mp;'
+        assertStyledLikeFullPass();
+    }
+
+    @Test
+    public void testEditingLongLine() {
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            html.append("text <b>bold</b> &amp; <!--a comment--> <a href=\"website\">link</a> ");
+        }
+        setContent(html.toString());
+
+        for (int i = 0; i < 50; i++) {
+            int offset = i * 271 % mContent.length();
+            replace(offset, offset, i % 2 == 0 ? "<" : ">");
+            assertStyledLikeFullPass();
+        }
+        for (int i = 0; i < 50; i++) {
+            int offset = i * 193 % (mContent.length() - 3);
+            replace(offset, offset + 3, "");
+            assertStyledLikeFullPass();
+        }
+    }
+
+    private void setContent(String html) {
+        mContent = new SpannableStringBuilder(html);
+        mHighlighter.styleAll(mContent);
+        assertStyledLikeFullPass();
+    }
+
+    private void type(String text) {
+        replace(mContent.length(), mContent.length(), text);
+    }
+
+    private void replace(int start, int end, String text) {
+        mHighlighter.beforeTextChanged(mContent, start, end - start, text.length());
+        mContent.replace(start, end, text);
+        mHighlighter.onTextChanged(mContent, start, end - start, text.length());
+        mHighlighter.afterTextChanged(mContent);
+    }
+
+    private void assertStyledLikeFullPass() {
+        Spannable expected = new SpannableStringBuilder(mContent.toString());
+        HtmlStyleUtils.styleHtmlForDisplay(expected);
+        assertEquals(describeSpans(expected), describeSpans(mContent));
+    }
+
+    private static List<String> describeSpans(Spannable content) {
+        List<String> descriptions = new ArrayList<>();
+        for (CharacterStyle span : content.getSpans(0, content.length(), CharacterStyle.class)) {
+            String description = span.getClass().getSimpleName();
+            if (span instanceof ForegroundColorSpan) {
+                description += " " + ((ForegroundColorSpan) span).getForegroundColor();
+            } else if (span instanceof StyleSpan) {
+                description += " " + ((StyleSpan) span).getStyle();
+            }
+            descriptions.add(description + " " + content.getSpanStart(span) + "-" + content.getSpanEnd(span));
+        }
+        Collections.sort(descriptions);
+        return descriptions;
+    }
+}
@@ -0,0 +1,89 @@
+package org.wordpress.android.networking;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.wordpress.rest.RestRequest;
+
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST request which revalidates a cached response - the ETag of the cached response is sent in
+ * an If-None-Match header, and the listener is told when the server replies that it hasn't
+ * changed (304) rather than being handed an empty response. Authentication is handled the same
+ * as a RestRequest.
+ */
+public class ConditionalRestRequest extends RestRequest {
+    public interface Listener {
+        /*
+         * eTag is the ETag of the new response, or null if the server didn't send one
+         */
+        void onResponse(JSONObject response, String eTag);
+        void onNotModified();
+    }
+
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_ETAG = "ETag";
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    private final Listener mConditionalListener;
+    private final String mIfNoneMatch;
+    private boolean mIsNotModified;
+    private String mETag;
+
+    public ConditionalRestRequest(int method, String url, Map<String, String> params, String ifNoneMatch,
+                                  Listener listener, ErrorListener errorListener) {
+        super(method, url, params, null, errorListener);
+        mIfNoneMatch = ifNoneMatch;
+        mConditionalListener = listener;
+    }
+
+    @Override
+    public Map<String, String> getHeaders() throws AuthFailureError {
+        if (mIfNoneMatch == null || mIfNoneMatch.length() == 0) {
+            return super.getHeaders();
+        }
+        Map<String, String> headers = new HashMap<>(super.getHeaders());
+        headers.put(HEADER_IF_NONE_MATCH, mIfNoneMatch);
+        return headers;
+    }
+
+    @Override
+    protected Response<JSONObject> parseNetworkResponse(NetworkResponse response) {
+        if (response.statusCode == HTTP_NOT_MODIFIED) {
+            mIsNotModified = true;
+            return Response.success(new JSONObject(), HttpHeaderParser.parseCacheHeaders(response));
+        }
+        mETag = getHeader(response.headers, HEADER_ETAG);
+        return super.parseNetworkResponse(response);
+    }
+
+    @Override
+    protected void deliverResponse(JSONObject response) {
+        if (mConditionalListener == null) {
+            return;
+        }
+        if (mIsNotModified) {
+            mConditionalListener.onNotModified();
+        } else {
+            mConditionalListener.onResponse(response, mETag);
+        }
+    }
+
+    private static String getHeader(Map<String, String> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        // header names are case-insensitive, but not every Volley version stores them that way
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
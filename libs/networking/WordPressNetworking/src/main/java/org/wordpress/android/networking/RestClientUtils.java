@@ -346,6 +346,62 @@ public class RestClientUtils {
         return request;
     }
 
+    /**
+     * Make GET request whose response body is passed to the listener as a Reader rather than
+     * parsed into a JSONObject
+     */
+    public Request<JSONObject> getStreaming(String path, Map<String, String> params, RetryPolicy retryPolicy,
+                                            StreamingRestRequest.Listener listener, ErrorListener errorListener) {
+        HashMap<String, String> paramsWithLocale = getRestLocaleParams(mContext);
+        if (params != null) {
+            paramsWithLocale.putAll(params);
+        }
+
+        String realPath = getSanitizedPath(path);
+        if (TextUtils.isEmpty(realPath)) {
+            realPath = path;
+        }
+        paramsWithLocale.putAll(getSanitizedParameters(path));
+
+        StreamingRestRequest request = new StreamingRestRequest(Method.GET,
+                mRestClient.getAbsoluteURL(realPath, paramsWithLocale), null, listener, errorListener);
+
+        if (retryPolicy == null) {
+            retryPolicy = new DefaultRetryPolicy(REST_TIMEOUT_MS, REST_MAX_RETRIES_GET, REST_BACKOFF_MULT);
+        }
+        request.setRetryPolicy(retryPolicy);
+        AuthenticatorRequest authCheck = new AuthenticatorRequest(request, errorListener, mRestClient, mAuthenticator);
+        authCheck.send();
+        return request;
+    }
+
+    /**
+     * Make GET request which revalidates a cached response - pass the ETag of the cached response
+     * as ifNoneMatch (or null if there isn't one) and the listener's onNotModified() will be
+     * called if it's still current
+     */
+    public Request<JSONObject> getConditional(String path, Map<String, String> params, String ifNoneMatch,
+                                              ConditionalRestRequest.Listener listener, ErrorListener errorListener) {
+        HashMap<String, String> paramsWithLocale = getRestLocaleParams(mContext);
+        if (params != null) {
+            paramsWithLocale.putAll(params);
+        }
+
+        String realPath = getSanitizedPath(path);
+        if (TextUtils.isEmpty(realPath)) {
+            realPath = path;
+        }
+        paramsWithLocale.putAll(getSanitizedParameters(path));
+
+        ConditionalRestRequest request = new ConditionalRestRequest(Method.GET,
+                mRestClient.getAbsoluteURL(realPath, paramsWithLocale), null, ifNoneMatch, listener, errorListener);
+
+        request.setRetryPolicy(new DefaultRetryPolicy(REST_TIMEOUT_MS, REST_MAX_RETRIES_GET, REST_BACKOFF_MULT));
+        AuthenticatorRequest authCheck = new AuthenticatorRequest(request, errorListener, mRestClient, mAuthenticator);
+        authCheck.send();
+        return request;
+    }
+
     /**
      * Make Synchronous GET request
      *
@@ -0,0 +1,63 @@
+package org.wordpress.android.networking;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.wordpress.rest.RestRequest;
+
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+
+/**
+ * REST request which hands the raw response body to its listener as a Reader rather than
+ * converting it to a JSONObject, enabling callers to pull-parse large responses without
+ * materializing the whole document. Authentication is handled the same as a RestRequest.
+ */
+public class StreamingRestRequest extends RestRequest {
+    public interface Listener {
+        /*
+         * called on the main thread - the reader reads from the response body, which is
+         * released once the reader is no longer referenced
+         */
+        void onResponse(Reader reader);
+    }
+
+    private final Listener mStreamListener;
+    private byte[] mData;
+    private String mCharset;
+
+    public StreamingRestRequest(int method, String url, Map<String, String> params,
+                                Listener listener, ErrorListener errorListener) {
+        super(method, url, params, null, errorListener);
+        mStreamListener = listener;
+    }
+
+    @Override
+    protected Response<JSONObject> parseNetworkResponse(NetworkResponse response) {
+        mData = response.data;
+        mCharset = HttpHeaderParser.parseCharset(response.headers, "UTF-8");
+        // the body is delivered through deliverResponse() so there's nothing to parse here
+        return Response.success(new JSONObject(), HttpHeaderParser.parseCacheHeaders(response));
+    }
+
+    @Override
+    protected void deliverResponse(JSONObject response) {
+        if (mStreamListener == null) {
+            return;
+        }
+        byte[] data = (mData != null ? mData : new byte[0]);
+        mData = null;
+        Reader reader;
+        try {
+            reader = new InputStreamReader(new ByteArrayInputStream(data), mCharset);
+        } catch (UnsupportedEncodingException e) {
+            reader = new InputStreamReader(new ByteArrayInputStream(data));
+        }
+        mStreamListener.onResponse(reader);
+    }
+}
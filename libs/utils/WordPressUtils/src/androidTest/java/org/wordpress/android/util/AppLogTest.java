@@ -0,0 +1,64 @@
+package org.wordpress.android.util;
+
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.util.AppLog.T;
+
+public class AppLogTest extends InstrumentationTestCase {
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        AppLog.enableRecording(true);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        AppLog.enableRecording(false);
+        super.tearDown();
+    }
+
+    public void testRecordingKeepsMostRecentEntries() {
+        for (int i = 0; i < 2000; i++) {
+            AppLog.d(T.TESTS, "entry " + i);
+        }
+
+        String log = AppLog.toPlainText(getInstrumentation().getContext());
+        assertTrue(log.contains(" - entry 1999\n"));
+        assertTrue(log.contains(" - entry 1000\n"));
+        assertFalse(log.contains(" - entry 0\n"));
+        assertTrue(log.indexOf(" - entry 1000\n") < log.indexOf(" - entry 1999\n"));
+    }
+
+    public void testRecordingFromSeveralThreads() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final int thread = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 100; j++) {
+                        AppLog.d(T.TESTS, "thread " + thread + " entry " + j);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        String log = AppLog.toPlainText(getInstrumentation().getContext());
+        for (int i = 0; i < threads.length; i++) {
+            assertTrue(log.contains(" - thread " + i + " entry 0\n"));
+            assertTrue(log.contains(" - thread " + i + " entry 99\n"));
+        }
+    }
+
+    public void testRecordingException() {
+        AppLog.e(T.TESTS, "request failed", new IllegalStateException("timed out"));
+
+        String log = AppLog.toPlainText(getInstrumentation().getContext());
+        assertTrue(log.contains("request failed - exception: timed out\n"));
+        assertTrue(log.contains("StackTrace: java.lang.IllegalStateException: timed out"));
+    }
+}
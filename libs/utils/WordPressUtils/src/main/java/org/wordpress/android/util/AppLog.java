@@ -10,8 +10,9 @@ import android.util.Log;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * simple wrapper for Android log calls, enables recording and displaying log
@@ -24,6 +25,14 @@ public class AppLog {
     public static final String TAG = "WordPress";
     public static final int HEADER_LINE_COUNT = 2;
 
+    // tags passed to Log, built once instead of on every call
+    private static final String[] LOG_TAGS = new String[T.values().length];
+    static {
+        for (T tag : T.values()) {
+            LOG_TAGS[tag.ordinal()] = TAG + "-" + tag.toString();
+        }
+    }
+
     private static boolean mEnableRecording = false;
 
     private AppLog() {
@@ -46,7 +55,7 @@ public class AppLog {
      */
     public static void v(T tag, String message) {
         message = StringUtils.notNullStr(message);
-        Log.v(TAG + "-" + tag.toString(), message);
+        Log.v(LOG_TAGS[tag.ordinal()], message);
         addEntry(tag, LogLevel.v, message);
     }
 
@@ -58,7 +67,7 @@ public class AppLog {
      */
     public static void d(T tag, String message) {
         message = StringUtils.notNullStr(message);
-        Log.d(TAG + "-" + tag.toString(), message);
+        Log.d(LOG_TAGS[tag.ordinal()], message);
         addEntry(tag, LogLevel.d, message);
     }
 
@@ -70,7 +79,7 @@ public class AppLog {
      */
     public static void i(T tag, String message) {
         message = StringUtils.notNullStr(message);
-        Log.i(TAG + "-" + tag.toString(), message);
+        Log.i(LOG_TAGS[tag.ordinal()], message);
         addEntry(tag, LogLevel.i, message);
     }
 
@@ -82,7 +91,7 @@ public class AppLog {
      */
     public static void w(T tag, String message) {
         message = StringUtils.notNullStr(message);
-        Log.w(TAG + "-" + tag.toString(), message);
+        Log.w(LOG_TAGS[tag.ordinal()], message);
         addEntry(tag, LogLevel.w, message);
     }
 
@@ -94,7 +103,7 @@ public class AppLog {
      */
     public static void e(T tag, String message) {
         message = StringUtils.notNullStr(message);
-        Log.e(TAG + "-" + tag.toString(), message);
+        Log.e(LOG_TAGS[tag.ordinal()], message);
         addEntry(tag, LogLevel.e, message);
     }
 
@@ -107,9 +116,11 @@ public class AppLog {
      */
     public static void e(T tag, String message, Throwable tr) {
         message = StringUtils.notNullStr(message);
-        Log.e(TAG + "-" + tag.toString(), message, tr);
-        addEntry(tag, LogLevel.e, message + " - exception: " + tr.getMessage());
-        addEntry(tag, LogLevel.e, "StackTrace: " + getStringStackTrace(tr));
+        Log.e(LOG_TAGS[tag.ordinal()], message, tr);
+        if (mEnableRecording) {
+            addEntry(tag, LogLevel.e, message + " - exception: " + tr.getMessage());
+            addStackTraceEntry(tag, tr);
+        }
     }
 
     /**
@@ -118,9 +129,9 @@ public class AppLog {
      * @param tr An exception to log to get StackTrace
      */
     public static void e(T tag, Throwable tr) {
-        Log.e(TAG + "-" + tag.toString(), tr.getMessage(), tr);
+        Log.e(LOG_TAGS[tag.ordinal()], tr.getMessage(), tr);
         addEntry(tag, LogLevel.e, tr.getMessage());
-        addEntry(tag, LogLevel.e, "StackTrace: " + getStringStackTrace(tr));
+        addStackTraceEntry(tag, tr);
     }
 
     /**
@@ -139,13 +150,14 @@ public class AppLog {
         } else {
             logText = volleyErrorMsg + ", status " + statusCode;
         }
-        Log.e(TAG + "-" + tag.toString(), logText);
+        Log.e(LOG_TAGS[tag.ordinal()], logText);
         addEntry(tag, LogLevel.w, logText);
     }
 
     // --------------------------------------------------------------------------------------------------------
 
-    private static final int MAX_ENTRIES = 99;
+    // must be a power of two
+    private static final int MAX_ENTRIES = 1024;
 
     private enum LogLevel {
         v, d, i, w, e;
@@ -167,16 +179,15 @@ public class AppLog {
     }
 
     private static class LogEntry {
-        LogLevel mLogLevel;
-        String mLogText;
-        T mLogTag;
+        final long mIndex;
+        final LogLevel mLogLevel;
+        final String mLogText;
+        final T mLogTag;
 
-        public LogEntry(LogLevel logLevel, String logText, T logTag) {
+        public LogEntry(long index, LogLevel logLevel, String logText, T logTag) {
+            mIndex = index;
             mLogLevel = logLevel;
-            mLogText = logText;
-            if (mLogText == null) {
-                mLogText = "null";
-            }
+            mLogText = (logText != null ? logText : "null");
             mLogTag = logTag;
         }
 
@@ -196,33 +207,66 @@ public class AppLog {
         }
     }
 
-    private static class LogEntryList extends ArrayList<LogEntry> {
-        private synchronized boolean addEntry(LogEntry entry) {
-            if (size() >= MAX_ENTRIES)
-                removeFirstEntry();
-            return add(entry);
+    /*
+     * fixed-size ring holding the most recent MAX_ENTRIES entries, which any thread can add to without locking - each
+     * entry takes the next index and is stored in the slot for it, replacing the entry MAX_ENTRIES before it
+     */
+    private static class LogEntryBuffer {
+        private final AtomicReferenceArray<LogEntry> mSlots = new AtomicReferenceArray<>(MAX_ENTRIES);
+        private final AtomicLong mNextIndex = new AtomicLong();
+
+        private void addEntry(LogLevel level, String text, T tag) {
+            LogEntry entry = new LogEntry(mNextIndex.getAndIncrement(), level, text, tag);
+            int slot = (int) (entry.mIndex & (MAX_ENTRIES - 1));
+            while (true) {
+                LogEntry current = mSlots.get(slot);
+                // a writer which took a later index may already have been stored here
+                if (current != null && current.mIndex > entry.mIndex) {
+                    return;
+                }
+                if (mSlots.compareAndSet(slot, current, entry)) {
+                    return;
+                }
+            }
         }
-        private void removeFirstEntry() {
-            Iterator<LogEntry> it = iterator();
-            if (!it.hasNext())
-                return;
-            try {
-                remove(it.next());
-            } catch (NoSuchElementException e) {
-                // ignore
+
+        /*
+         * returns the entries in the buffer, oldest first - entries which are still being added, or which are replaced
+         * while reading, are skipped
+         */
+        private List<LogEntry> getEntries() {
+            long end = mNextIndex.get();
+            long start = Math.max(0, end - MAX_ENTRIES);
+            List<LogEntry> entries = new ArrayList<>((int) (end - start));
+            for (long index = start; index < end; index++) {
+                LogEntry entry = mSlots.get((int) (index & (MAX_ENTRIES - 1)));
+                if (entry != null && entry.mIndex == index) {
+                    entries.add(entry);
+                }
             }
+            return entries;
         }
     }
 
-    private static LogEntryList mLogEntries = new LogEntryList();
+    private static final LogEntryBuffer mLogEntries = new LogEntryBuffer();
 
     private static void addEntry(T tag, LogLevel level, String text) {
         // skip if recording is disabled (default)
         if (!mEnableRecording) {
             return;
         }
-        LogEntry entry = new LogEntry(level, text, tag);
-        mLogEntries.addEntry(entry);
+        mLogEntries.addEntry(level, text, tag);
+    }
+
+    /*
+     * the stack trace is formatted when it's recorded rather than keeping the throwable, which
+     * would hold on to everything it references for as long as the entry is in the buffer
+     */
+    private static void addStackTraceEntry(T tag, Throwable throwable) {
+        if (!mEnableRecording) {
+            return;
+        }
+        mLogEntries.addEntry(LogLevel.e, "StackTrace: " + getStringStackTrace(throwable), tag);
     }
 
     private static String getStringStackTrace(Throwable throwable) {
@@ -265,9 +309,8 @@ public class AppLog {
         items.add("<strong>" + getAppInfoHeaderText(context) + "</strong>");
         items.add("<strong>" + getDeviceInfoHeaderText(context) + "</strong>");
 
-        Iterator<LogEntry> it = mLogEntries.iterator();
-        while (it.hasNext()) {
-            items.add(it.next().toHtml());
+        for (LogEntry entry : mLogEntries.getEntries()) {
+            items.add(entry.toHtml());
         }
         return items;
     }
@@ -284,11 +327,14 @@ public class AppLog {
         sb.append(getAppInfoHeaderText(context)).append("\n")
                 .append(getDeviceInfoHeaderText(context)).append("\n\n");
 
-        Iterator<LogEntry> it = mLogEntries.iterator();
         int lineNum = 1;
-        while (it.hasNext()) {
-            sb.append(String.format("%02d - ", lineNum))
-                    .append(it.next().mLogText)
+        for (LogEntry entry : mLogEntries.getEntries()) {
+            // same as String.format("%02d - ", lineNum), which is slow with thousands of lines
+            if (lineNum < 10) {
+                sb.append('0');
+            }
+            sb.append(lineNum).append(" - ")
+                    .append(entry.mLogText)
                     .append("\n");
             lineNum++;
         }